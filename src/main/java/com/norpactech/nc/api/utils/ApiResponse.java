@@ -1,23 +1,25 @@
 package com.norpactech.nc.api.utils;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.internal.LinkedTreeMap;
-import com.norpactech.nc.api.exception.ApiResponseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.norpactech.nc.config.json.GsonConfig;
 import com.norpactech.nc.enums.EnumApiCodes;
 import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.model.EntityMapper;
+import com.norpactech.nc.model.EntityMappers;
+import com.norpactech.nc.model.MappingPlan;
 import com.norpactech.nc.utils.TextUtils;
-import com.norpactech.nc.utils.Constant;
 /**
  * Handles: Successful, Unsuccessful, and Exception responses
  */
@@ -28,6 +30,10 @@ public class ApiResponse {
   private Object error;
   private Meta meta;
   
+  // Deferred mode: the undecoded response body and the offsets of its data value
+  private transient String raw;
+  private transient int dataStart;
+  
   public EnumStatus getStatus() {
     return status;
   }
@@ -85,9 +91,76 @@ public class ApiResponse {
     this.status = EnumStatus.ERROR;    
   }
 
+  /**
+   * Parses a response body but defers decoding data until it is first read.
+   * 
+   * status, error and meta are decoded immediately. readObject and readList decode
+   * data straight into the target class, and getProperty (and so getId) scans data
+   * for a single member, so a response whose payload is never read costs one scan.
+   * 
+   * Gson serializes fields, not getters: call getData() before re-serializing a
+   * deferred response with Gson.
+   * 
+   * @param json the response body
+   * @return the response
+   */
+  public static ApiResponse deferred(String json) {
+    
+    Gson gson = GsonConfig.getInstance();
+    var response = new ApiResponse();
+    
+    try {
+      for (Map.Entry<String, int[]> member : JsonScanner.members(json).entrySet()) {
+        int start = member.getValue()[0];
+        switch (member.getKey()) {
+          case "status":
+            response.status = gson.getAdapter(EnumStatus.class).read(JsonScanner.reader(json, start));
+            break;
+          case "data":
+            response.setData(null);
+            if (!json.startsWith("null", start)) {
+              response.raw = json;
+              response.dataStart = start;
+            }
+            break;
+          case "error":
+            response.setError(gson.getAdapter(Object.class).read(JsonScanner.reader(json, start)));
+            break;
+          case "meta":
+            response.setMeta(gson.getAdapter(Meta.class).read(JsonScanner.reader(json, start)));
+            break;
+          default:
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new JsonParseException(e);
+    }
+    return response;
+  }
+
+  private <V> V decodeData(TypeAdapter<V> adapter) {
+    
+    try {
+      return adapter.read(JsonScanner.reader(raw, dataStart));
+    }
+    catch (IOException e) {
+      throw new JsonParseException("Failed to decode data: " + e.getMessage(), e);
+    }
+  }
 
   public <T> ArrayList<T> readList(Class<T> clazz) throws Exception {
 
+    if (raw != null && EntityTypeAdapter.isEntity(clazz)) {
+      var adapter = new EntityTypeAdapter<>(GsonConfig.getInstance(), clazz);
+      JsonReader reader = JsonScanner.reader(raw, dataStart);
+      ArrayList<T> resultList = new ArrayList<>();
+      reader.beginArray();
+      while (reader.hasNext()) {
+        resultList.add(adapter.read(reader));
+      }
+      return resultList;
+    }
     if (this.getData() == null) {
       return null;
     }
@@ -103,6 +176,9 @@ public class ApiResponse {
 
   public <T> T readObject(Class<T> clazz) throws Exception {
 
+    if (raw != null && EntityTypeAdapter.isEntity(clazz)) {
+      return decodeData(new EntityTypeAdapter<>(GsonConfig.getInstance(), clazz));
+    }
     if (this.getData() == null) {
       return null;
     }
@@ -116,85 +192,77 @@ public class ApiResponse {
     }
     
     @SuppressWarnings("unchecked")
-    LinkedTreeMap<String, Object> map = (LinkedTreeMap<String, Object>)  object;
+    Map<String, Object> map = (Map<String, Object>)  object;
+    
+    EntityMapper<T> mapper = EntityMappers.find(clazz);
+    if (mapper != null) {
+      return mapper.fromMap(map);
+    }
+    MappingPlan plan = MappingPlan.of(clazz);
         
-    T instance = clazz.getDeclaredConstructor().newInstance();
+    @SuppressWarnings("unchecked")
+    T instance = (T) plan.newInstance();
 
     for (Map.Entry<String, Object> entry : map.entrySet()) {
-      String fieldName = entry.getKey();
-      Object fieldValue = entry.getValue();
-
-      try {
-        Field field = clazz.getDeclaredField(fieldName);
-        field.setAccessible(true);
-
-        if (field.getType() == java.lang.Integer.class) {
-          String value = fieldValue.toString();
-          if (value.contains(".")) {
-            fieldValue = Integer.valueOf(value.split("\\.")[0]);
-          }
-        }
-        
-        if (field.getType() == java.util.UUID.class && fieldValue instanceof String) {
-          fieldValue = UUID.fromString((String) fieldValue);
-        }
-        
-        if (field.getType() == Timestamp.class && fieldValue instanceof String) {
-          String dateString = (String) fieldValue;
-          String dateFormat = "";
-          if (dateString.contains("AM") || dateString.contains("PM")) {
-            dateFormat = "MMM dd, yyyy, h:mm:ss a";
-          }
-          else if (dateString.contains("T")) { 
-            dateFormat = "yyyy-MM-dd'T'HH:mm:ss"; 
-          }
-          else {
-            dateFormat = "yyyy-MM-dd HH:mm:ss";
-          }
-        
-          try {
-            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-            Date parsedDate = simpleDateFormat.parse(dateString);
-            fieldValue = new Timestamp(parsedDate.getTime());
-          } 
-          catch (IllegalArgumentException e) {
-            throw new ApiResponseException(dateString + " is an unsuppored Timestamp format");
-          }        
-        }
-        
-        // Handle java.time.LocalDateTime values coming as ISO strings (e.g., 2025-01-01T12:34:56.789Z)
-        if (field.getType() == LocalDateTime.class && fieldValue instanceof String) {
-          String dateString = (String) fieldValue;
-          if (dateString == null || dateString.isEmpty()) {
-            fieldValue = null;
-          } else {
-            try {
-              fieldValue = LocalDateTime.parse(dateString, Constant.TIMESTAMP_FORMATTER);
-            } catch (Exception ex1) {
-              try {
-                Instant instant = Instant.parse(dateString);
-                fieldValue = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
-              } catch (Exception ex2) {
-                throw new ApiResponseException(dateString + " is an unsupported LocalDateTime format");
-              }
-            }
-          }
-        }
-        
-        field.set(instance, fieldValue);
-      } 
-      catch (NoSuchFieldException e) {
-        // Ignore fields that don't exist in the target class
+      MappingPlan.Property property = plan.property(entry.getKey());
+      // Ignore fields that don't exist in the target class
+      if (property != null) {
+        property.assign(instance, entry.getValue());
       }
     }
-
     return instance;
-}  
+  }  
   
   @SuppressWarnings("unchecked")
   public Object getProperty(String name) {
     
     name = TextUtils.toSnakeCase(name);
+    var property = raw != null ? scanProperty(name) : mapProperty(name);
+    
+    if (property == null) {
+      return null;
+    }
+    if (name.equalsIgnoreCase("id")) {
+      var id = (String) property;
+      return UUID.fromString(id);
+    } 
+    else if (name.equals("updated_at")) {
+      String timestamp = (String) property;
+      timestamp = timestamp.replace("T", " ");
+      return Timestamp.valueOf(timestamp);      
+    }
+    else {
+      return property;
+    }
+  }
+
+  /**
+   * Streams over the undecoded data object and reads only the named member
+   */
+  private Object scanProperty(String name) {
+    
+    try {
+      JsonReader reader = JsonScanner.reader(raw, dataStart);
+      if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+        return null;
+      }
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if (reader.nextName().equals(name)) {
+          return GsonConfig.getInstance().getAdapter(Object.class).read(reader);
+        }
+        reader.skipValue();
+      }
+      return null;
+    }
+    catch (IOException e) {
+      throw new JsonParseException("Failed to scan data for '" + name + "': " + e.getMessage(), e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object mapProperty(String name) {
+    
     // Handle both LinkedTreeMap and LinkedHashMap
     Map<String, Object> data;
     Object dataObj = getData();
@@ -214,23 +282,7 @@ public class ApiResponse {
         return null;
       }
     }
-    var property = data.get(name);
-    
-    if (property == null) {
-      return null;
-    }
-    if (name.equalsIgnoreCase("id")) {
-      var id = (String) property;
-      return UUID.fromString(id);
-    } 
-    else if (name.equals("updated_at")) {
-      String timestamp = (String) property;
-      timestamp = timestamp.replace("T", " ");
-      return Timestamp.valueOf(timestamp);      
-    }
-    else {
-      return property;
-    }
+    return data.get(name);
   }
 
   public UUID getId() {
@@ -244,11 +296,17 @@ public class ApiResponse {
   }
   
   public Object getData() {
+    
+    if (raw != null) {
+      data = decodeData(GsonConfig.getInstance().getAdapter(Object.class));
+      raw = null;
+    }
     return data;
   }
 
   public void setData(Object data) {
     this.data = data;
+    this.raw = null;
   }
 
   public Object getError() {
@@ -0,0 +1,150 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.norpactech.nc.model.EntityMapper;
+import com.norpactech.nc.model.EntityMappers;
+import com.norpactech.nc.model.MapperSupport;
+import com.norpactech.nc.model.MappingPlan;
+/**
+ * Decodes a JSON object straight into an entity with the same conversion
+ * rules as ApiResponse.readObject: members are matched to declared field names,
+ * unknown members are skipped and UUID, Timestamp and LocalDateTime values are
+ * converted from their string forms.
+ *
+ * A generated {@link EntityMapper} is used when the entity has one.
+ */
+public class EntityTypeAdapter<T> extends TypeAdapter<T> {
+
+  @FunctionalInterface
+  private interface FieldReader {
+    Object read(JsonReader in) throws IOException;
+  }
+
+  private final Gson gson;
+  private final MappingPlan plan;
+  private final EntityMapper<T> mapper;
+  private final Map<String, FieldReader> readers = new HashMap<>();
+
+  public EntityTypeAdapter(Gson gson, Class<T> clazz) {
+
+    this.gson = gson;
+    this.plan = MappingPlan.of(clazz);
+    this.mapper = EntityMappers.find(clazz);
+
+    if (mapper == null) {
+      for (MappingPlan.Property property : plan.properties()) {
+        readers.put(property.getName(), reader(gson, property));
+      }
+    }
+  }
+
+  /**
+   * @return true if clazz is a plain class this adapter can decode
+   */
+  public static boolean isEntity(Class<?> clazz) {
+
+    if (clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || clazz.isInterface()
+    ||  java.lang.reflect.Modifier.isAbstract(clazz.getModifiers())) {
+      return false;
+    }
+    String name = clazz.getName();
+    return !name.startsWith("java.") && !name.startsWith("javax.") && !name.startsWith("com.google.gson.");
+  }
+
+  @Override
+  public T read(JsonReader in) throws IOException {
+
+    if (mapper != null) {
+      return mapper.fromJson(in);
+    }
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    T instance;
+    try {
+      @SuppressWarnings("unchecked")
+      T created = (T) plan.newInstance();
+      instance = created;
+    }
+    catch (Exception e) {
+      throw new JsonParseException("Unable to create " + plan.getType().getName() + ": " + e.getMessage(), e);
+    }
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      FieldReader reader = readers.get(name);
+      if (reader == null) {
+        // Ignore fields that don't exist in the target class
+        in.skipValue();
+        continue;
+      }
+      plan.property(name).set(instance, reader.read(in));
+    }
+    in.endObject();
+    return instance;
+  }
+
+  @Override
+  public void write(JsonWriter out, T value) throws IOException {
+
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+    gson.toJson(mapper != null ? mapper.toParams(value) : value, mapper != null ? Map.class : value.getClass(), out);
+  }
+
+  private static FieldReader reader(Gson gson, MappingPlan.Property property) {
+
+    Class<?> type = property.getType();
+    if (type == String.class) {
+      return MapperSupport::nextString;
+    }
+    if (type == Integer.class || type == int.class) {
+      return MapperSupport::nextInteger;
+    }
+    if (type == Long.class || type == long.class) {
+      return MapperSupport::nextLong;
+    }
+    if (type == Double.class || type == double.class) {
+      return MapperSupport::nextDouble;
+    }
+    if (type == Float.class || type == float.class) {
+      return MapperSupport::nextFloat;
+    }
+    if (type == Boolean.class || type == boolean.class) {
+      return MapperSupport::nextBoolean;
+    }
+    if (type == UUID.class) {
+      return MapperSupport::nextUUID;
+    }
+    if (type == Timestamp.class) {
+      return MapperSupport::nextTimestamp;
+    }
+    if (type == LocalDateTime.class) {
+      return MapperSupport::nextLocalDateTime;
+    }
+    TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(property.getGenericType()));
+    return adapter::read;
+  }
+}
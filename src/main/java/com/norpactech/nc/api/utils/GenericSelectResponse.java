@@ -33,6 +33,16 @@ public class GenericSelectResponse {
     }        
   }
 
+  /**
+   * Copies a row from a RowCursor or RowSnapshot.
+   */
+  public GenericSelectResponse(RowView row) {
+
+    for (int i = 0; i < row.size(); i++) {
+      properties.put(row.getHeader().getLabel(i), row.get(i));
+    }
+  }
+
   public Map<String, Object> getProperties() {
     return properties;
   }
@@ -0,0 +1,163 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+/**
+ * Locates JSON values by character offsets without decoding them.
+ */
+final class JsonScanner {
+
+  private JsonScanner() {}
+
+  /**
+   * Finds the members of a top-level object.
+   *
+   * @param json the document
+   * @return member name to {start, end} offsets of its value, in document order
+   */
+  static Map<String, int[]> members(String json) {
+
+    var members = new LinkedHashMap<String, int[]>();
+    int i = skipWhitespace(json, 0);
+    expect(json, i, '{');
+    i = skipWhitespace(json, i + 1);
+    if (i < json.length() && json.charAt(i) == '}') {
+      return members;
+    }
+    while (true) {
+      expect(json, i, '"');
+      int nameEnd = skipString(json, i);
+      String name = unquote(json, i, nameEnd);
+      i = skipWhitespace(json, nameEnd);
+      expect(json, i, ':');
+      int start = skipWhitespace(json, i + 1);
+      int end = skipValue(json, start);
+      members.put(name, new int[] {start, end});
+      i = skipWhitespace(json, end);
+      if (i < json.length() && json.charAt(i) == ',') {
+        i = skipWhitespace(json, i + 1);
+        continue;
+      }
+      expect(json, i, '}');
+      return members;
+    }
+  }
+
+  /**
+   * Opens a JsonReader positioned at offset; the caller reads a single value.
+   */
+  static JsonReader reader(String json, int offset) {
+
+    var reader = new StringReader(json);
+    try {
+      reader.skip(offset);
+    }
+    catch (IOException e) {
+      throw new JsonParseException(e);
+    }
+    return new JsonReader(reader);
+  }
+
+  /**
+   * @return the offset just past the value starting at i
+   */
+  static int skipValue(String json, int i) {
+
+    if (i >= json.length()) {
+      throw error(json, i, "a value");
+    }
+    char c = json.charAt(i);
+    if (c == '"') {
+      return skipString(json, i);
+    }
+    if (c == '{' || c == '[') {
+      int depth = 0;
+      while (i < json.length()) {
+        c = json.charAt(i);
+        if (c == '"') {
+          i = skipString(json, i);
+          continue;
+        }
+        if (c == '{' || c == '[') {
+          depth++;
+        }
+        else if (c == '}' || c == ']') {
+          depth--;
+          if (depth == 0) {
+            return i + 1;
+          }
+        }
+        i++;
+      }
+      throw error(json, i, "end of value");
+    }
+    int start = i;
+    while (i < json.length()) {
+      c = json.charAt(i);
+      if (c == ',' || c == '}' || c == ']' || c <= ' ') {
+        break;
+      }
+      i++;
+    }
+    if (i == start) {
+      throw error(json, i, "a value");
+    }
+    return i;
+  }
+
+  private static int skipString(String json, int i) {
+
+    for (i = i + 1; i < json.length(); i++) {
+      char c = json.charAt(i);
+      if (c == '\\') {
+        i++;
+      }
+      else if (c == '"') {
+        return i + 1;
+      }
+    }
+    throw error(json, i, "end of string");
+  }
+
+  private static String unquote(String json, int start, int end) {
+
+    String name = json.substring(start + 1, end - 1);
+    if (name.indexOf('\\') < 0) {
+      return name;
+    }
+    try {
+      return reader(json, start).nextString();
+    }
+    catch (IOException e) {
+      throw new JsonParseException(e);
+    }
+  }
+
+  private static int skipWhitespace(String json, int i) {
+
+    while (i < json.length() && json.charAt(i) <= ' ') {
+      i++;
+    }
+    return i;
+  }
+
+  private static void expect(String json, int i, char c) {
+
+    if (i >= json.length() || json.charAt(i) != c) {
+      throw error(json, i, "'" + c + "'");
+    }
+  }
+
+  private static JsonParseException error(String json, int i, String expected) {
+    return new JsonParseException("Expected " + expected + " at offset " + i + " of " + json.length());
+  }
+}
@@ -0,0 +1,166 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.norpactech.nc.utils.TextUtils;
+import com.norpactech.nc.utils.TimestampParser;
+/**
+ * Streams JSON from a parser to a generator, grooming it on the way:
+ * <ul>
+ *   <li>object keys are camelCased at every depth, e.g. "id_tenant" becomes "idTenant"</li>
+ *   <li>string values of the form yyyy-MM-ddTHH:mm:ss[.fraction] are rewritten
+ *       as yyyy-MM-ddTHH:mm:ss.SSSZ (Constant.TIMESTAMP_FORMATTER)</li>
+ * </ul>
+ * Everything else is copied token by token; no tree or Map is built.
+ */
+public final class JsonTransformer {
+
+  // The caller owns the streams: closing the parser and generator must not close them
+  private static final JsonFactory FACTORY = new JsonFactory()
+      .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  private static final int MAX_CACHED_KEYS = 10_000;
+  private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+
+  private JsonTransformer() {}
+
+  /**
+   * @param json the JSON text
+   * @return the groomed JSON text
+   */
+  public static String transform(String json) throws IOException {
+    return transform(new StringReader(json));
+  }
+
+  /**
+   * @param in the JSON text
+   * @return the groomed JSON text
+   */
+  public static String transform(Reader in) throws IOException {
+
+    var out = new StringWriter();
+    transform(in, out);
+    return out.toString();
+  }
+
+  /**
+   * Flushes out but leaves in and out open.
+   */
+  public static void transform(Reader in, Writer out) throws IOException {
+
+    try (JsonParser parser = FACTORY.createParser(in);
+         JsonGenerator generator = FACTORY.createGenerator(out)) {
+      transform(parser, generator);
+      generator.flush();
+    }
+  }
+
+  /**
+   * Writes UTF-8 to out. Flushes out but leaves in and out open.
+   */
+  public static void transform(Reader in, OutputStream out) throws IOException {
+
+    try (JsonParser parser = FACTORY.createParser(in);
+         JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+      transform(parser, generator);
+      generator.flush();
+    }
+  }
+
+  /**
+   * Copies every remaining token from parser to generator.
+   */
+  public static void transform(JsonParser parser, JsonGenerator generator) throws IOException {
+
+    for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+      switch (token) {
+        case FIELD_NAME:
+          generator.writeFieldName(camelKey(parser.currentName()));
+          break;
+        case VALUE_STRING:
+          String text = parser.getText();
+          String timestamp = normalizeTimestamp(text);
+          generator.writeString(timestamp == null ? text : timestamp);
+          break;
+        default:
+          generator.copyCurrentEvent(parser);
+      }
+    }
+  }
+
+  /**
+   * @return the camelCase form of key, cached
+   */
+  static String camelKey(String key) {
+
+    String camel = KEYS.get(key);
+    if (camel == null) {
+      camel = TextUtils.toCamelCase(key);
+      if (KEYS.size() < MAX_CACHED_KEYS) {
+        KEYS.put(key, camel);
+      }
+    }
+    return camel;
+  }
+
+  /**
+   * Recognizes yyyy-MM-ddTHH:mm:ss[.fraction] by scanning characters.
+   *
+   * @return the value with the fraction padded or truncated to milliseconds and
+   *         a trailing Z, or null if the value is not of that form
+   */
+  static String normalizeTimestamp(String value) {
+
+    int length = value.length();
+    if (length < 19 || length > 29 || value.charAt(10) != 'T'
+        || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+      return null;
+    }
+    for (int i = 0; i < 19; i++) {
+      if (i != 4 && i != 7 && i != 10 && i != 13 && i != 16 && !isDigit(value.charAt(i))) {
+        return null;
+      }
+    }
+    if (length > 19) {
+      if (value.charAt(19) != '.' || length == 20) {
+        return null;
+      }
+      for (int i = 20; i < length; i++) {
+        if (!isDigit(value.charAt(i))) {
+          return null;
+        }
+      }
+    }
+    if (TimestampParser.parse(value) == null) {
+      return null;
+    }
+    char[] out = new char[24];
+    value.getChars(0, 19, out, 0);
+    out[19] = '.';
+    for (int i = 0; i < 3; i++) {
+      out[20 + i] = 20 + i < length ? value.charAt(20 + i) : '0';
+    }
+    out[23] = 'Z';
+    return new String(out);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
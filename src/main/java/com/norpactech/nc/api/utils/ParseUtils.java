@@ -1,21 +1,19 @@
 package com.norpactech.nc.api.utils;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.norpactech.nc.api.exception.ApiResponseException;
-import com.norpactech.nc.utils.TextUtils;
-import com.norpactech.nc.utils.Constant;
 
 public class ParseUtils {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
   
   public static String stackTrace(Exception e) {
     StringWriter stringWriter = new StringWriter();
@@ -54,7 +52,6 @@ public class ParseUtils {
    * @param input as illustrated in these comments
    * @return JSON Object
    */
-  @SuppressWarnings("unchecked")
   public static Object parseJson(String input) {
     
     if (StringUtils.isEmpty(input)) {
@@ -63,34 +60,63 @@ public class ParseUtils {
     String json = input.replace("\"\"", "\"");
     json = json.replace("\"{", "{").replace("}\"", "}");
     json = json.replace("\"[", "[").replace("]\"", "]");
+    return groomJson(json);
+  }
+
+  /**
+   * Parses JSON that has already been unescaped (see PgRecordTokenizer), camelCasing
+   * its keys at every depth and normalizing ISO timestamps to TIMESTAMP_FORMATTER.
+   * 
+   * @param json the JSON text
+   * @return the groomed value, or "{}" if json is empty
+   */
+  public static Object groomJson(String json) {
+
+    if (StringUtils.isEmpty(json)) {
+      return "{}";
+    }
+    return readJson(groomJsonText(new StringReader(json)));
+  }
+
+  /**
+   * Streaming form of groomJson(String)
+   */
+  public static Object groomJson(Reader json) {
+    return readJson(groomJsonText(json));
+  }
+
+  /**
+   * Grooms JSON the same way as groomJson without building a Map.
+   * 
+   * @param json the JSON text
+   * @return the groomed JSON text
+   */
+  public static String groomJsonText(Reader json) {
 
-    String isoPattern = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?";
-    Pattern pattern = Pattern.compile(isoPattern);
-    
     try {
+      return JsonTransformer.transform(json);
+    } 
+    catch (Exception e) {
+      throw new ApiResponseException("Failed to parse JSON: " + e.getMessage());
+    }
+  }
 
-      Map<String, Object> map = new ObjectMapper().readValue(json, Map.class);
-      LinkedHashMap<String, Object> groomedMap = new LinkedHashMap<>();
+  /**
+   * Parses JSON as-is, without camelCasing keys or normalizing timestamps.
+   * 
+   * @param json any JSON value
+   * @return a Map, List, String, Number, Boolean or null
+   */
+  public static Object readJson(String json) {
 
-      for (String key : map.keySet()) {
-        String camelCaseKey = TextUtils.toCamelCase(key);
-        Object value = map.get(key);
-        
-        if (value instanceof String) {
-          if (pattern.matcher((String) value).matches()) {
-            LocalDateTime dateTime = LocalDateTime.parse((String) value);
-            value = dateTime.format(Constant.TIMESTAMP_FORMATTER);
-          }
-        }
-        groomedMap.put(camelCaseKey, value);
-      }
-      return groomedMap;
+    try {
+      return MAPPER.readValue(json, Object.class);
     } 
     catch (Exception e) {
       throw new ApiResponseException("Failed to parse JSON: " + e.getMessage());
     }
   }
-  
+
   public static String stripQuotes(String input) {
     
     if (StringUtils.isEmpty(input)) {
@@ -0,0 +1,238 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import com.norpactech.nc.api.exception.ApiResponseException;
+/**
+ * Splits the text form of a PostgreSQL composite value, e.g.
+ * <pre>(OK,"{""id"": ""42""}",,,,,)</pre>
+ * in a single pass.
+ *
+ * Only the field boundaries are recorded. A field is unescaped when it is read,
+ * and fields with no quotes or escapes are returned as views over the input.
+ * The rules follow record_out/record_in: an empty unquoted field is NULL, a
+ * quoted field may be empty, "" inside quotes is a quote, and a backslash
+ * escapes the next character.
+ */
+public final class PgRecordTokenizer {
+
+  private static final int QUOTED = 1;
+  private static final int ESCAPED = 2;
+
+  private final CharSequence text;
+  private int[] starts = new int[8];
+  private int[] ends = new int[8];
+  private int[] flags = new int[8];
+  private int count;
+
+  private PgRecordTokenizer(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * @param text the record text, with or without the enclosing parentheses
+   * @return the tokenized record
+   * @throws ApiResponseException if a quoted field is not terminated
+   */
+  public static PgRecordTokenizer tokenize(CharSequence text) {
+
+    var tokenizer = new PgRecordTokenizer(text);
+    int start = 0;
+    int end = text.length();
+    if (end - start >= 2 && text.charAt(start) == '(' && text.charAt(end - 1) == ')') {
+      start++;
+      end--;
+    }
+
+    int fieldStart = start;
+    int fieldFlags = 0;
+    boolean inQuotes = false;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c == '"') {
+        fieldFlags |= QUOTED;
+        if (inQuotes && i + 1 < end && text.charAt(i + 1) == '"') {
+          fieldFlags |= ESCAPED;
+          i++;
+        }
+        else {
+          inQuotes = !inQuotes;
+        }
+      }
+      else if (c == '\\') {
+        fieldFlags |= ESCAPED;
+        i++;
+      }
+      else if (c == ',' && !inQuotes) {
+        tokenizer.add(fieldStart, i, fieldFlags);
+        fieldStart = i + 1;
+        fieldFlags = 0;
+      }
+    }
+    if (inQuotes) {
+      throw new ApiResponseException("Invalid PostgreSQL response format - unterminated quoted field");
+    }
+    tokenizer.add(fieldStart, end, fieldFlags);
+    return tokenizer;
+  }
+
+  private void add(int start, int end, int fieldFlags) {
+
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+      flags = Arrays.copyOf(flags, count * 2);
+    }
+    starts[count] = start;
+    ends[count] = end;
+    flags[count] = fieldFlags;
+    count++;
+  }
+
+  /**
+   * @return the number of fields
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return true if the field is absent or NULL
+   */
+  public boolean isNull(int index) {
+    return index >= count || (flags[index] == 0 && starts[index] == ends[index]);
+  }
+
+  /**
+   * @return the offset of the field's first character in the input
+   */
+  public int start(int index) {
+    return starts[index];
+  }
+
+  /**
+   * @return the offset just past the field's last character in the input
+   */
+  public int end(int index) {
+    return ends[index];
+  }
+
+  /**
+   * Returns the unescaped field without copying when it needs no unescaping.
+   *
+   * @return the field value, or null if the field is absent or NULL
+   */
+  public CharSequence value(int index) {
+
+    if (isNull(index)) {
+      return null;
+    }
+    int start = starts[index];
+    int end = ends[index];
+    int fieldFlags = flags[index];
+    if (fieldFlags == 0) {
+      return CharBuffer.wrap(text, start, end);
+    }
+    if (fieldFlags == QUOTED && text.charAt(start) == '"' && text.charAt(end - 1) == '"') {
+      return CharBuffer.wrap(text, start + 1, end - 1);
+    }
+    var unescaped = new StringBuilder(end - start);
+    boolean inQuotes = false;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c == '"') {
+        if (inQuotes && i + 1 < end && text.charAt(i + 1) == '"') {
+          unescaped.append('"');
+          i++;
+        }
+        else {
+          inQuotes = !inQuotes;
+        }
+      }
+      else if (c == '\\' && i + 1 < end) {
+        unescaped.append(text.charAt(++i));
+      }
+      else {
+        unescaped.append(c);
+      }
+    }
+    return unescaped;
+  }
+
+  /**
+   * @return the field value as a String, or null if the field is absent or NULL
+   */
+  public String get(int index) {
+
+    CharSequence value = value(index);
+    return value == null ? null : value.toString();
+  }
+
+  /**
+   * @return the field value, or "" if the field is absent or NULL
+   */
+  public String getOrEmpty(int index) {
+
+    CharSequence value = value(index);
+    return value == null ? "" : value.toString();
+  }
+
+  /**
+   * Streams the unescaped field, e.g. into a JSON parser, without building a String.
+   *
+   * @return a reader over the field value; empty if the field is absent or NULL
+   */
+  public Reader reader(int index) {
+    return isNull(index) ? new FieldReader(text, 0, 0) : new FieldReader(text, starts[index], ends[index]);
+  }
+
+  private static final class FieldReader extends Reader {
+
+    private final CharSequence text;
+    private final int end;
+    private int position;
+    private boolean inQuotes;
+
+    private FieldReader(CharSequence text, int start, int end) {
+      this.text = text;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+
+      int n = 0;
+      while (n < length && position < end) {
+        char c = text.charAt(position++);
+        if (c == '"') {
+          if (inQuotes && position < end && text.charAt(position) == '"') {
+            buffer[offset + n++] = '"';
+            position++;
+          }
+          else {
+            inQuotes = !inQuotes;
+          }
+        }
+        else if (c == '\\' && position < end) {
+          buffer[offset + n++] = text.charAt(position++);
+        }
+        else {
+          buffer[offset + n++] = c;
+        }
+      }
+      return n == 0 && length > 0 ? -1 : n;
+    }
+
+    @Override
+    public void close() {
+      position = end;
+    }
+  }
+}
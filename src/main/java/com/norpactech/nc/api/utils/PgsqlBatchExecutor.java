@@ -0,0 +1,202 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+/**
+ * Calls one stored function for many parameter sets in a single round trip.
+ *
+ * Each chunk of rows is sent as one statement:
+ * <pre>
+ * SELECT fn(v.a1, ..., v.aN) AS response, v.batch_ord
+ *   FROM (VALUES (?::int, ?::type, ...), ...) AS v(batch_ord, a1, ..., aN)
+ *  ORDER BY v.batch_ord
+ * </pre>
+ * so a status row returned by the function keeps its own error code. If the
+ * statement itself fails (e.g. the function raises for one row), the chunk is
+ * retried one call per row, each under its own savepoint when a transaction is
+ * open, and failed rows get a response built from the SQLException. A status
+ * row that cannot be read (ApiResponseException) fails the chunk or row the same
+ * way, so no savepoint is left behind.
+ */
+public class PgsqlBatchExecutor {
+
+  private static final Logger logger = Logger.getLogger(PgsqlBatchExecutor.class.getName());
+
+  /** PostgreSQL allows 65535 bind parameters per statement; stay well below it */
+  private static final int MAX_PARAMETERS = 32_000;
+
+  private static final Pattern FUNCTION_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+  private static final Pattern TYPE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_ .]*(\\(\\d+(, ?\\d+)?\\))?(\\[\\])*");
+
+  private final String function;
+  private final String[] argTypes;
+
+  /**
+   * @param function the function name, optionally schema-qualified
+   * @param argCount the number of arguments, sent without casts
+   */
+  public PgsqlBatchExecutor(String function, int argCount) {
+    this(function, new String[argCount]);
+  }
+
+  /**
+   * @param function the function name, optionally schema-qualified
+   * @param argTypes the SQL type of each argument, e.g. "uuid", "text", "timestamp";
+   *        a null entry sends that argument without a cast
+   */
+  public PgsqlBatchExecutor(String function, String... argTypes) {
+
+    if (function == null || !FUNCTION_NAME.matcher(function).matches()) {
+      throw new IllegalArgumentException("Invalid function name: " + function);
+    }
+    for (String type : argTypes) {
+      if (type != null && !TYPE_NAME.matcher(type).matches()) {
+        throw new IllegalArgumentException("Invalid argument type: " + type);
+      }
+    }
+    this.function = function;
+    this.argTypes = argTypes.clone();
+  }
+
+  /**
+   * @param connection an open connection; its transaction state is left as found
+   * @param rows one argument array per call
+   * @return one response per row, in the same order
+   */
+  public List<PgsqlExecResponse> execute(Connection connection, List<Object[]> rows) throws SQLException {
+
+    for (Object[] row : rows) {
+      if (row.length != argTypes.length) {
+        throw new IllegalArgumentException(function + " expects " + argTypes.length + " arguments, got " + row.length);
+      }
+    }
+    var responses = new ArrayList<PgsqlExecResponse>(rows.size());
+    int chunk = Math.max(1, MAX_PARAMETERS / (argTypes.length + 1));
+    for (int from = 0; from < rows.size(); from += chunk) {
+      responses.addAll(executeChunk(connection, rows.subList(from, Math.min(rows.size(), from + chunk))));
+    }
+    return responses;
+  }
+
+  private List<PgsqlExecResponse> executeChunk(Connection connection, List<Object[]> rows) throws SQLException {
+
+    Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+    PgsqlExecResponse[] responses = new PgsqlExecResponse[rows.size()];
+    try (PreparedStatement ps = connection.prepareStatement(batchSql(rows.size()))) {
+      int p = 1;
+      for (int i = 0; i < rows.size(); i++) {
+        ps.setInt(p++, i);
+        for (Object value : rows.get(i)) {
+          ps.setObject(p++, value);
+        }
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          responses[rs.getInt(2)] = new PgsqlExecResponse(rs);
+        }
+      }
+    }
+    catch (SQLException | RuntimeException e) {
+      if (connection.isClosed()) {
+        throw e;
+      }
+      if (savepoint != null) {
+        connection.rollback(savepoint);
+      }
+      logger.warning("Batch call to " + function + " failed, retrying " + rows.size() + " rows one at a time: " + e.getMessage());
+      return executeEach(connection, rows);
+    }
+    if (savepoint != null) {
+      connection.releaseSavepoint(savepoint);
+    }
+    for (int i = 0; i < responses.length; i++) {
+      if (responses[i] == null) {
+        responses[i] = PgsqlExecResponse.fromException(new SQLException("No response from " + function + " for batch row " + i));
+      }
+    }
+    return Arrays.asList(responses);
+  }
+
+  private List<PgsqlExecResponse> executeEach(Connection connection, List<Object[]> rows) throws SQLException {
+
+    boolean transaction = !connection.getAutoCommit();
+    var responses = new ArrayList<PgsqlExecResponse>(rows.size());
+    try (PreparedStatement ps = connection.prepareStatement(singleSql())) {
+      for (Object[] row : rows) {
+        Savepoint savepoint = transaction ? connection.setSavepoint() : null;
+        try {
+          for (int i = 0; i < row.length; i++) {
+            ps.setObject(i + 1, row[i]);
+          }
+          try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+              throw new SQLException("No response from " + function);
+            }
+            responses.add(new PgsqlExecResponse(rs));
+          }
+          if (savepoint != null) {
+            connection.releaseSavepoint(savepoint);
+          }
+        }
+        catch (SQLException | RuntimeException e) {
+          if (connection.isClosed()) {
+            throw e;
+          }
+          if (savepoint != null) {
+            connection.rollback(savepoint);
+          }
+          responses.add(PgsqlExecResponse.fromException(e instanceof SQLException ? (SQLException) e : new SQLException(e.getMessage(), e)));
+        }
+      }
+    }
+    return responses;
+  }
+
+  String batchSql(int rowCount) {
+
+    var sql = new StringBuilder("SELECT ").append(function).append('(');
+    for (int a = 1; a <= argTypes.length; a++) {
+      sql.append(a > 1 ? ", " : "").append("v.a").append(a);
+    }
+    sql.append(") AS response, v.batch_ord FROM (VALUES ");
+    for (int r = 0; r < rowCount; r++) {
+      sql.append(r > 0 ? ", (" : "(").append("?::int");
+      for (String type : argTypes) {
+        sql.append(", ?");
+        if (type != null) {
+          sql.append("::").append(type);
+        }
+      }
+      sql.append(')');
+    }
+    sql.append(") AS v(batch_ord");
+    for (int a = 1; a <= argTypes.length; a++) {
+      sql.append(", a").append(a);
+    }
+    return sql.append(") ORDER BY v.batch_ord").toString();
+  }
+
+  String singleSql() {
+
+    var sql = new StringBuilder("SELECT ").append(function).append('(');
+    for (int a = 0; a < argTypes.length; a++) {
+      sql.append(a > 0 ? ", ?" : "?");
+      if (argTypes[a] != null) {
+        sql.append("::").append(argTypes[a]);
+      }
+    }
+    return sql.append(") AS response").toString();
+  }
+}
@@ -1,12 +1,13 @@
 package com.norpactech.nc.api.utils;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.logging.Logger;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.norpactech.nc.api.exception.ApiResponseException;
 import com.norpactech.nc.enums.EnumStatus;
@@ -14,6 +15,8 @@ import com.norpactech.nc.enums.EnumStatus;
 public class PgsqlExecResponse {
 
   private static final Logger logger = Logger.getLogger(PgsqlExecResponse.class.getName());
+  private static final String[] COLUMNS = {"status", "data", "errors", "error_code", "message", "hint", "detail"};
+
   private String status;
   private Object data;     
   private Object errors;   
@@ -21,77 +24,133 @@ public class PgsqlExecResponse {
   private String message;
   private String hint; 
   private String detail;
+  private String dataJson;
   
   public PgsqlExecResponse() {}   
   
+  /**
+   * Reads the current row in either of two shapes:
+   * <ul>
+   *   <li>a single composite column: (status, data, errors, error_code, message, hint, detail)</li>
+   *   <li>typed columns with the same labels, the first being "status"; data and errors
+   *       are json/jsonb. data is kept as returned, without regrooming.</li>
+   * </ul>
+   */
   public PgsqlExecResponse(ResultSet rs) {   
     
     String input = null;
     try {
-      input = rs.getObject(1).toString();
+      ResultSetMetaData metaData = rs.getMetaData();
+      if (metaData.getColumnCount() > 1 && COLUMNS[0].equalsIgnoreCase(metaData.getColumnLabel(1))) {
+        readColumns(rs, metaData);
+        return;
+      }
+      input = rs.getString(1);
       logger.fine("Raw PostgreSQL response: " + input);
     }
     catch (SQLException e) {
       throw new ApiResponseException("Failed to extract the Global Database Response: " + e.getMessage());
     }
-    List<String> parsed = ParseUtils.parse(input);
-    if (parsed.size() < 1) {
+    if (input == null) {
       throw new ApiResponseException("Invalid PostgreSQL response format - insufficient fields");
     }
-    this.status = ParseUtils.stripQuotes(parsed.get(0));
+    PgRecordTokenizer record = PgRecordTokenizer.tokenize(input);
+    this.status = record.getOrEmpty(0);
+    this.errorCode = record.getOrEmpty(3);
+    this.message = record.getOrEmpty(4);
+    this.hint = record.getOrEmpty(5);
+    this.detail = record.getOrEmpty(6);
 
     if (EnumStatus.OK.getName().equalsIgnoreCase(this.status)) {
-      this.data = parsed.size() > 1 ? ParseUtils.parseJson(parsed.get(1)) : null;
+      if (record.size() > 1) {
+        if (record.isNull(1)) {
+          this.data = "{}";
+        }
+        else {
+          this.dataJson = ParseUtils.groomJsonText(record.reader(1));
+        }
+      }
       this.errors = null;
     } 
     else {
       this.data = null;
-      
-      // Parse all error-related fields first
-      this.errorCode = parsed.size() > 3 ? ParseUtils.stripQuotes(parsed.get(3)) : "";
-      this.message = parsed.size() > 4 ? ParseUtils.stripQuotes(parsed.get(4)) : "";
-      this.hint = parsed.size() > 5 ? ParseUtils.stripQuotes(parsed.get(5)) : "";
-      this.detail = parsed.size() > 6 ? ParseUtils.stripQuotes(parsed.get(6)) : "";
-      
       // Try to parse JSON errors first, fallback to creating error from other fields
-      String errorsStr = parsed.size() > 2 ? parsed.get(2) : "";
-      this.errors = parseErrors(errorsStr);
+      this.errors = parseErrors(record.getOrEmpty(2));
     }
-    
-    // For success cases, still parse the optional fields
+  }
+
+  /**
+   * Builds an error response for a call that raised instead of returning a status row.
+   * 
+   * @param e the exception; its SQLState becomes the error code
+   * @return an ERROR response
+   */
+  public static PgsqlExecResponse fromException(SQLException e) {
+
+    var response = new PgsqlExecResponse();
+    response.status = EnumStatus.ERROR.getName();
+    response.errorCode = nullToEmpty(e.getSQLState());
+    response.message = nullToEmpty(e.getMessage());
+    response.hint = "";
+    response.detail = "";
+    response.errors = response.parseErrors("");
+    return response;
+  }
+
+  private void readColumns(ResultSet rs, ResultSetMetaData metaData) throws SQLException {
+
+    String[] values = new String[COLUMNS.length];
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      String label = metaData.getColumnLabel(i);
+      for (int c = 0; c < COLUMNS.length; c++) {
+        if (COLUMNS[c].equalsIgnoreCase(label)) {
+          values[c] = rs.getString(i);
+          break;
+        }
+      }
+    }
+    logger.fine("PostgreSQL response columns: status=" + values[0]);
+
+    this.status = nullToEmpty(values[0]);
+    this.errorCode = nullToEmpty(values[3]);
+    this.message = nullToEmpty(values[4]);
+    this.hint = nullToEmpty(values[5]);
+    this.detail = nullToEmpty(values[6]);
+
     if (EnumStatus.OK.getName().equalsIgnoreCase(this.status)) {
-      this.errorCode = parsed.size() > 3 ? ParseUtils.stripQuotes(parsed.get(3)) : "";
-      this.message = parsed.size() > 4 ? ParseUtils.stripQuotes(parsed.get(4)) : "";
-      this.hint = parsed.size() > 5 ? ParseUtils.stripQuotes(parsed.get(5)) : "";
-      this.detail = parsed.size() > 6 ? ParseUtils.stripQuotes(parsed.get(6)) : "";
+      if (values[1] == null) {
+        this.data = "{}";
+      }
+      else {
+        this.dataJson = values[1];
+      }
+      this.errors = null;
+    }
+    else {
+      this.data = null;
+      this.errors = parseErrors(nullToEmpty(values[2]));
     }
   }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
   
-  private Object parseErrors(String errorsStr) {
-    String cleanedErrors = ParseUtils.stripQuotes(errorsStr);
+  /**
+   * @param errorsJson the unescaped errors field, possibly empty
+   */
+  private Object parseErrors(String errorsJson) {
     
     // If we have actual JSON error content, parse it
-    if (cleanedErrors != null && !cleanedErrors.trim().isEmpty()) {
-      logger.fine("Parsing JSON errors: " + cleanedErrors);
+    if (!errorsJson.trim().isEmpty()) {
+      logger.fine("Parsing JSON errors: " + errorsJson);
       
       try {
-        cleanedErrors = cleanedErrors.replace("\"\"", "\"");
-
-        if ((cleanedErrors.startsWith("\"[") && cleanedErrors.endsWith("]\"")) ||
-            (cleanedErrors.startsWith("\"{") && cleanedErrors.endsWith("}\""))) {
-          cleanedErrors = cleanedErrors.substring(1, cleanedErrors.length() - 1);
-        }
-        
-        JsonElement element = JsonParser.parseString(cleanedErrors);
+        JsonElement element = JsonParser.parseString(errorsJson);
         
         if (element.isJsonArray()) {
           return element.getAsJsonArray();
         } 
-        else if (element.isJsonObject()) {
-          JsonArray array = new JsonArray();
-          array.add(element);
-          return array;
-        } 
         else {
           JsonArray array = new JsonArray();
           array.add(element);
@@ -99,55 +158,38 @@ public class PgsqlExecResponse {
         }        
       } 
       catch (Exception e) {
-        logger.warning("Failed to parse error JSON: " + e.getMessage() + ". Raw: " + errorsStr);
+        logger.warning("Failed to parse error JSON: " + e.getMessage() + ". Raw: " + errorsJson);
         // Fall through to create error from other fields
       }
     }    
     // No JSON errors provided, but we have an error status
     // Create a JSON error object from the available error information
-    if (!EnumStatus.OK.getName().equalsIgnoreCase(this.status)) {
-      JsonArray errorArray = new JsonArray();
+    JsonArray errorArray = new JsonArray();
       
-      // Determine error type based on error code
-      String errorType = "database";
-      if ("23514".equals(this.errorCode)) {
-        errorType = "validation";
-      } else if ("23502".equals(this.errorCode) || "23503".equals(this.errorCode) || "23505".equals(this.errorCode)) {
-        errorType = "constraint";
-      }
+    // Determine error type based on error code
+    String errorType = "database";
+    if ("23514".equals(this.errorCode)) {
+      errorType = "validation";
+    } else if ("23502".equals(this.errorCode) || "23503".equals(this.errorCode) || "23505".equals(this.errorCode)) {
+      errorType = "constraint";
+    }
       
-      // Create error object with available information and fix double quotes
-      StringBuilder errorMessage = new StringBuilder();
-      if (this.message != null && !this.message.isEmpty()) {
-        // Fix double quotes in the message
-        String cleanMessage = this.message.replace("\"\"", "\"");
-        errorMessage.append(cleanMessage);
-      }
-      if (this.detail != null && !this.detail.isEmpty()) {
-        if (errorMessage.length() > 0) {
-          errorMessage.append(": ");
-        }
-        // Fix double quotes in the detail
-        String cleanDetail = this.detail.replace("\"\"", "\"");
-        errorMessage.append(cleanDetail);
+    StringBuilder errorMessage = new StringBuilder(this.message);
+    if (!this.detail.isEmpty()) {
+      if (errorMessage.length() > 0) {
+        errorMessage.append(": ");
       }
+      errorMessage.append(this.detail);
+    }
       
-      // Create the error JSON object with proper quote escaping
-      String finalMessage = errorMessage.toString().replace("\"", "\\\"");
-      
-      JsonElement errorObj = JsonParser.parseString(String.format(
-        "{\"type\": \"%s\", \"code\": \"%s\", \"message\": \"%s\"}",
-        errorType,
-        this.errorCode != null ? this.errorCode : "",
-        finalMessage
-      ));
+    JsonObject errorObj = new JsonObject();
+    errorObj.addProperty("type", errorType);
+    errorObj.addProperty("code", this.errorCode);
+    errorObj.addProperty("message", errorMessage.toString());
       
-      errorArray.add(errorObj);
-      logger.fine("Created error object from database response: " + errorArray.toString());
-      return errorArray;
-    }    
-    // Default: return empty array
-    return new JsonArray();
+    errorArray.add(errorObj);
+    logger.fine("Created error object from database response: " + errorArray.toString());
+    return errorArray;
   }
   
   public String getStatus() {
@@ -156,11 +198,25 @@ public class PgsqlExecResponse {
   public void setStatus(String status) {
     this.status = status;
   }
+  /**
+   * The data JSON is parsed into a Map on first access.
+   */
   public Object getData() {
+    if (data == null && dataJson != null) {
+      data = ParseUtils.readJson(dataJson);
+    }
     return data;
   }
   public void setData(Object data) {
     this.data = data;
+    this.dataJson = null;
+  }
+  /**
+   * @return the data JSON: groomed in composite mode, exactly as returned in
+   *         typed-column mode; null if there is none or setData was called
+   */
+  public String getDataJson() {
+    return dataJson;
   }
   public Object getErrors() {
     return errors;
@@ -0,0 +1,272 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.JsonObject;
+import com.norpactech.nc.api.exception.ApiResponseException;
+import com.norpactech.nc.config.json.GsonConfig;
+import com.norpactech.nc.config.load.Globals;
+import com.norpactech.nc.enums.EnumStatus;
+/**
+ * Streams the rows of a set-returning function, one mapped row at a time.
+ *
+ * The statement is forward-only and read with a fetch size. The PostgreSQL driver
+ * only uses a cursor when autocommit is off, so autocommit is switched off while
+ * the iterator is open and restored by close(). The iterator closes itself after
+ * the last row; use try-with-resources when it may be abandoned early.
+ *
+ * <pre>
+ * try (var rows = PgsqlRowIterator.responses(connection, "SELECT * FROM app.find_users(?)", idTenant)) {
+ *   rows.writeJsonArray(writer);
+ * }
+ * </pre>
+ */
+public class PgsqlRowIterator<T> implements Iterator<T>, AutoCloseable {
+
+  private static final Logger logger = Logger.getLogger(PgsqlRowIterator.class.getName());
+
+  /**
+   * Maps the current row
+   */
+  @FunctionalInterface
+  public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+  }
+
+  private final Connection connection;
+  private final PreparedStatement statement;
+  private final ResultSet rs;
+  private final RowMapper<T> mapper;
+  private final boolean restoreAutoCommit;
+  private boolean advanced;
+  private boolean more;
+  private boolean closed;
+  private long rowCount;
+
+  /**
+   * Each row becomes a PgsqlExecResponse, in composite or typed-column mode.
+   */
+  public static PgsqlRowIterator<PgsqlExecResponse> responses(Connection connection, String sql, Object... params) throws SQLException {
+    return open(connection, sql, Globals.getFetchSizeInt(), PgsqlExecResponse::new, params);
+  }
+
+  /**
+   * Column 1 of each row is json/jsonb and is groomed as ParseUtils.groomJsonText does.
+   */
+  public static PgsqlRowIterator<String> json(Connection connection, String sql, Object... params) throws SQLException {
+    return open(connection, sql, Globals.getFetchSizeInt(), rs -> {
+      String json = rs.getString(1);
+      return json == null ? "null" : ParseUtils.groomJsonText(new StringReader(json));
+    }, params);
+  }
+
+  /**
+   * @param connection an open connection, left open by close()
+   * @param sql the query, with ? placeholders
+   * @param fetchSize the number of rows fetched per round trip
+   * @param mapper maps each row
+   * @param params the placeholder values
+   */
+  public static <T> PgsqlRowIterator<T> open(Connection connection, String sql, int fetchSize, RowMapper<T> mapper, Object... params) throws SQLException {
+
+    boolean autoCommit = connection.getAutoCommit();
+    if (autoCommit) {
+      connection.setAutoCommit(false);
+    }
+    PreparedStatement statement = null;
+    try {
+      statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(fetchSize);
+      for (int i = 0; i < params.length; i++) {
+        statement.setObject(i + 1, params[i]);
+      }
+      return new PgsqlRowIterator<>(connection, statement, statement.executeQuery(), mapper, autoCommit);
+    }
+    catch (SQLException | RuntimeException e) {
+      if (statement != null) {
+        statement.close();
+      }
+      if (autoCommit) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      throw e;
+    }
+  }
+
+  private PgsqlRowIterator(Connection connection, PreparedStatement statement, ResultSet rs, RowMapper<T> mapper, boolean restoreAutoCommit) {
+
+    this.connection = connection;
+    this.statement = statement;
+    this.rs = rs;
+    this.mapper = mapper;
+    this.restoreAutoCommit = restoreAutoCommit;
+  }
+
+  @Override
+  public boolean hasNext() {
+
+    if (closed) {
+      return false;
+    }
+    if (!advanced) {
+      try {
+        more = rs.next();
+      }
+      catch (SQLException e) {
+        close();
+        throw new ApiResponseException("Failed to read the next row: " + e.getMessage());
+      }
+      advanced = true;
+      if (!more) {
+        close();
+      }
+    }
+    return more;
+  }
+
+  @Override
+  public T next() {
+
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    advanced = false;
+    rowCount++;
+    try {
+      return mapper.map(rs);
+    }
+    catch (SQLException e) {
+      close();
+      throw new ApiResponseException("Failed to map row " + rowCount + ": " + e.getMessage());
+    }
+    catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the number of rows returned by next() so far
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Writes the remaining rows as a JSON array without holding more than one row.
+   *
+   * @param out the destination, not closed
+   * @param toJson renders one row as JSON
+   * @return the number of rows written
+   */
+  public long writeJsonArray(Writer out, Function<? super T, String> toJson) throws IOException {
+
+    long written = 0;
+    out.write('[');
+    while (hasNext()) {
+      if (written++ > 0) {
+        out.write(',');
+      }
+      out.write(toJson.apply(next()));
+    }
+    out.write(']');
+    return written;
+  }
+
+  /**
+   * Writes the remaining rows as a JSON array. Strings are written as JSON text,
+   * an OK PgsqlExecResponse as its data, any other PgsqlExecResponse as an error
+   * object ({"status":"ERROR","errors":[...],...}), and anything else through GsonConfig.
+   */
+  public long writeJsonArray(Writer out) throws IOException {
+    return writeJsonArray(out, PgsqlRowIterator::toJson);
+  }
+
+  private static String toJson(Object row) {
+
+    if (row instanceof String) {
+      return (String) row;
+    }
+    if (row instanceof PgsqlExecResponse) {
+      var response = (PgsqlExecResponse) row;
+      if (!EnumStatus.OK.getName().equalsIgnoreCase(response.getStatus())) {
+        return toErrorJson(response);
+      }
+      if (response.getDataJson() != null) {
+        return response.getDataJson();
+      }
+      // An empty data field is the JSON text "{}"
+      Object data = response.getData();
+      return data instanceof String ? (String) data : GsonConfig.toJson(data);
+    }
+    return GsonConfig.toJson(row);
+  }
+
+  /**
+   * Keeps the error details of a non-OK row in the array
+   */
+  private static String toErrorJson(PgsqlExecResponse response) {
+
+    var error = new JsonObject();
+    error.addProperty("status", response.getStatus());
+    error.add("errors", GsonConfig.getInstance().toJsonTree(response.getErrors()));
+    error.addProperty("errorCode", response.getErrorCode());
+    error.addProperty("message", response.getMessage());
+    error.addProperty("hint", response.getHint());
+    error.addProperty("detail", response.getDetail());
+    return error.toString();
+  }
+
+  /**
+   * Closes the result set and statement, ends the read transaction and restores autocommit.
+   */
+  @Override
+  public void close() {
+
+    if (closed) {
+      return;
+    }
+    closed = true;
+    more = false;
+    // Each step runs even if an earlier one fails; the last failure is logged
+    try {
+      try {
+        rs.close();
+      }
+      finally {
+        try {
+          statement.close();
+        }
+        finally {
+          if (restoreAutoCommit) {
+            try {
+              connection.commit();
+            }
+            finally {
+              connection.setAutoCommit(true);
+            }
+          }
+        }
+      }
+    }
+    catch (SQLException e) {
+      logger.log(Level.WARNING, "Failed to close row iterator: " + e.getMessage(), e);
+    }
+  }
+}
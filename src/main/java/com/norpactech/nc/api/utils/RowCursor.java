@@ -0,0 +1,90 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Function;
+/**
+ * A reusable view over the current row of a ResultSet. Column metadata is read
+ * once; each row's values are copied into the same array, so a view is only valid
+ * until the next call to next() or read(). Use snapshot() to keep a row.
+ *
+ * The cursor does not own the ResultSet; closing it stays with the caller.
+ */
+public final class RowCursor implements RowView {
+
+  private final ResultSet rs;
+  private final RowHeader header;
+  private final Object[] values;
+
+  public RowCursor(ResultSet rs) throws SQLException {
+
+    this.rs = rs;
+    this.header = RowHeader.of(rs.getMetaData());
+    this.values = new Object[header.size()];
+  }
+
+  /**
+   * Advances the ResultSet and reads the new row.
+   *
+   * @return false when there are no more rows
+   */
+  public boolean next() throws SQLException {
+
+    if (!rs.next()) {
+      return false;
+    }
+    read();
+    return true;
+  }
+
+  /**
+   * Reads the row the ResultSet is already on.
+   */
+  public RowCursor read() throws SQLException {
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = rs.getObject(i + 1);
+    }
+    return this;
+  }
+
+  @Override
+  public RowHeader getHeader() {
+    return header;
+  }
+
+  @Override
+  public Object get(int index) {
+    return values[index];
+  }
+
+  @Override
+  public RowSnapshot snapshot() {
+    return new RowSnapshot(header, values.clone());
+  }
+
+  /**
+   * Adapts a RowView function for PgsqlRowIterator, building one cursor per
+   * ResultSet instead of reading metadata for every row.
+   */
+  public static <T> PgsqlRowIterator.RowMapper<T> mapper(Function<? super RowView, ? extends T> function) {
+
+    return new PgsqlRowIterator.RowMapper<T>() {
+
+      private RowCursor cursor;
+
+      @Override
+      public T map(ResultSet rs) throws SQLException {
+
+        if (cursor == null || cursor.rs != rs) {
+          cursor = new RowCursor(rs);
+        }
+        return function.apply(cursor.read());
+      }
+    };
+  }
+}
@@ -0,0 +1,88 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.norpactech.nc.model.MappingPlan;
+/**
+ * The column labels of a result, resolved once and shared by every row read from
+ * it. Also caches, per model class, which property each column maps to.
+ */
+public final class RowHeader {
+
+  private final String[] labels;
+  private final Map<String, Integer> index = new HashMap<>();
+  private final Map<String, Integer> lowerIndex = new HashMap<>();
+  private final Map<Class<?>, MappingPlan.Property[]> bindings = new ConcurrentHashMap<>();
+
+  public RowHeader(String... labels) {
+
+    this.labels = labels.clone();
+    for (int i = labels.length - 1; i >= 0; i--) {
+      index.put(labels[i], i);
+      lowerIndex.put(labels[i].toLowerCase(Locale.ROOT), i);
+    }
+  }
+
+  public static RowHeader of(ResultSetMetaData metaData) throws SQLException {
+
+    String[] labels = new String[metaData.getColumnCount()];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = metaData.getColumnLabel(i + 1);
+    }
+    return new RowHeader(labels);
+  }
+
+  public int size() {
+    return labels.length;
+  }
+
+  /**
+   * @param index the column index, from 0
+   */
+  public String getLabel(int index) {
+    return labels[index];
+  }
+
+  public List<String> getLabels() {
+    return List.of(labels);
+  }
+
+  /**
+   * @return the index of the first column with this label, matched exactly and then
+   *         ignoring case, or -1
+   */
+  public int indexOf(String label) {
+
+    Integer i = index.get(label);
+    if (i == null) {
+      i = lowerIndex.get(label.toLowerCase(Locale.ROOT));
+    }
+    return i == null ? -1 : i;
+  }
+
+  /**
+   * @return the property of the class each column maps to, by index; null where
+   *         the class has no property for the column
+   */
+  public MappingPlan.Property[] bind(Class<?> type) {
+
+    return bindings.computeIfAbsent(type, key -> {
+      MappingPlan plan = MappingPlan.of(key);
+      var properties = new MappingPlan.Property[labels.length];
+      for (int i = 0; i < labels.length; i++) {
+        properties[i] = plan.column(labels[i]);
+      }
+      return properties;
+    });
+  }
+}
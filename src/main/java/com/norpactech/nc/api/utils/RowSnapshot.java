@@ -0,0 +1,48 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.Arrays;
+/**
+ * A retained row: its values in an array, with the header shared by every row of
+ * the same result.
+ */
+public final class RowSnapshot implements RowView {
+
+  private final RowHeader header;
+  private final Object[] values;
+
+  /**
+   * @param values the values in column order; the array is kept, not copied
+   */
+  public RowSnapshot(RowHeader header, Object[] values) {
+
+    if (values.length != header.size()) {
+      throw new IllegalArgumentException("Expected " + header.size() + " values, got " + values.length);
+    }
+    this.header = header;
+    this.values = values;
+  }
+
+  @Override
+  public RowHeader getHeader() {
+    return header;
+  }
+
+  @Override
+  public Object get(int index) {
+    return values[index];
+  }
+
+  @Override
+  public RowSnapshot snapshot() {
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return header.getLabels() + "=" + Arrays.toString(values);
+  }
+}
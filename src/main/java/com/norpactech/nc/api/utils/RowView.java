@@ -0,0 +1,50 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * Indexed and named access to the values of one row. Column indexes start at 0.
+ */
+public interface RowView {
+
+  RowHeader getHeader();
+
+  Object get(int index);
+
+  /**
+   * @return a copy of the row that stays valid after the source moves on
+   */
+  RowSnapshot snapshot();
+
+  default int size() {
+    return getHeader().size();
+  }
+
+  /**
+   * @throws IllegalArgumentException if the row has no such column
+   */
+  default Object get(String label) {
+
+    int index = getHeader().indexOf(label);
+    if (index < 0) {
+      throw new IllegalArgumentException("No column labelled '" + label + "' in " + getHeader().getLabels());
+    }
+    return get(index);
+  }
+
+  /**
+   * @return the row as label/value pairs in column order
+   */
+  default Map<String, Object> toMap() {
+
+    var map = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < size(); i++) {
+      map.put(getHeader().getLabel(i), get(i));
+    }
+    return map;
+  }
+}
@@ -2,25 +2,19 @@ package com.norpactech.nc.api.utils;
 
 import java.io.IOException;
 import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.TimeZone;
 
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.norpactech.nc.utils.TimestampParser;
 
 public class TimestampTypeAdapter extends TypeAdapter<Timestamp> {
 
-  private static final String[] DATE_FORMATS = {
-      "MMM dd, yyyy, h:mm:ss a",    // "Jan 01, 2025, 12:30:45 PM"
-      "yyyy-MM-dd'T'HH:mm:ss",      // "2025-01-01T12:30:45"
-      "yyyy-MM-dd HH:mm:ss",        // "2025-01-01 12:30:45"
-      "yyyy-MM-dd'T'HH:mm:ss.SSS",  // "2025-01-01T12:30:45.123"
-  };
-
   @Override
   public void write(JsonWriter out, Timestamp value) throws IOException {
     if (value == null) {
@@ -46,36 +40,20 @@ public class TimestampTypeAdapter extends TypeAdapter<Timestamp> {
       return null;
     }
 
-    // Handle ISO 8601 format with Z timezone and fractional seconds
-    if (dateString.endsWith("Z")) {
-      try {
-        Instant instant = Instant.parse(dateString);
-        Instant truncatedInstant = instant.truncatedTo(java.time.temporal.ChronoUnit.SECONDS);
-        Timestamp timestamp = Timestamp.from(truncatedInstant);
-        java.util.TimeZone localTimeZone = java.util.TimeZone.getDefault();
-        int offsetInMillis = localTimeZone.getOffset(timestamp.getTime());
-        timestamp = new Timestamp(timestamp.getTime() - offsetInMillis);
-        timestamp.setNanos(0);
-        return timestamp;
-      } catch (DateTimeParseException e) {
-        // Fall through to other formats
-      }
+    TimestampParser.Parsed parsed = TimestampParser.parse(dateString);
+    if (parsed == null || !parsed.hasTime()) {
+      throw new IOException("Unable to parse timestamp: " + dateString);
     }
 
-    for (String format : DATE_FORMATS) {
-      try {
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-        sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-        java.util.Date date = sdf.parse(dateString);
-        Timestamp timestamp = new Timestamp(date.getTime());
-        timestamp.setNanos(0);
-        return timestamp;
-      } catch (ParseException e) {
-        // Try next format
-      }
+    // ISO 8601 instant with Z timezone: truncate to seconds and shift by the local offset
+    if (parsed.isZulu() && parsed.getSeparator() == 'T') {
+      Instant truncatedInstant = parsed.toInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+      Timestamp timestamp = Timestamp.from(truncatedInstant);
+      int offsetInMillis = TimeZone.getDefault().getOffset(timestamp.getTime());
+      return new Timestamp(timestamp.getTime() - offsetInMillis);
     }
 
-    // If all formats fail, throw an exception
-    throw new IOException("Unable to parse timestamp: " + dateString);
+    // Everything else is read as UTC wall-clock time, to the second
+    return new Timestamp(parsed.toLocalDateTime().toEpochSecond(ZoneOffset.UTC) * 1000);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.model.MappingPlan;
+/**
+ * Typed counterpart of ApiResponse. With GsonConfig, data is decoded straight
+ * into T (an entity, or a List of entities) in one pass over the response,
+ * instead of LinkedTreeMaps that ApiResponse.readObject converts afterwards.
+ *
+ * @param <T> the type of data, e.g. Tenant or List&lt;Tenant&gt;
+ */
+public class TypedApiResponse<T> {
+
+  private EnumStatus status;
+  private T data;
+  private Object error;
+  private Meta meta;
+
+  public TypedApiResponse() {}
+
+  public EnumStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(EnumStatus status) {
+    this.status = status;
+  }
+
+  public T getData() {
+    return data;
+  }
+
+  public void setData(T data) {
+    this.data = data;
+  }
+
+  /**
+   * @return data as a list; empty if there is no data
+   */
+  @SuppressWarnings("unchecked")
+  public <E> List<E> getDataList() {
+
+    if (data == null) {
+      return new ArrayList<>();
+    }
+    return (List<E>) data;
+  }
+
+  public Object getError() {
+    return error;
+  }
+
+  public void setError(Object error) {
+    this.error = error;
+  }
+
+  public Meta getMeta() {
+    return meta;
+  }
+
+  public void setMeta(Meta meta) {
+    this.meta = meta;
+  }
+
+  /**
+   * Reads the id of an entity held in data, if it declares one.
+   */
+  public UUID getId() {
+
+    if (data == null) {
+      return null;
+    }
+    var property = MappingPlan.of(data.getClass()).property("id");
+    if (property == null) {
+      return null;
+    }
+    Object id = property.get(data);
+    return id instanceof UUID ? (UUID) id : null;
+  }
+}
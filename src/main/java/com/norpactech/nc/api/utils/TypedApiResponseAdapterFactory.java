@@ -0,0 +1,174 @@
+package com.norpactech.nc.api.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.norpactech.nc.enums.EnumStatus;
+/**
+ * Creates adapters for {@code TypedApiResponse<T>}. The data member is decoded
+ * directly into T, or into a List of T, with an {@link EntityTypeAdapter}.
+ */
+public class TypedApiResponseAdapterFactory implements TypeAdapterFactory {
+
+  @Override
+  public <R> TypeAdapter<R> create(Gson gson, TypeToken<R> typeToken) {
+
+    if (typeToken.getRawType() != TypedApiResponse.class) {
+      return null;
+    }
+    Type dataType = typeToken.getType() instanceof ParameterizedType
+        ? ((ParameterizedType) typeToken.getType()).getActualTypeArguments()[0]
+        : Object.class;
+
+    @SuppressWarnings("unchecked")
+    TypeAdapter<R> adapter = (TypeAdapter<R>) new Adapter<>(gson, dataAdapter(gson, dataType), isList(dataType));
+    return adapter;
+  }
+
+  private static boolean isList(Type type) {
+
+    Class<?> raw = TypeToken.get(type).getRawType();
+    return Collection.class.isAssignableFrom(raw);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static TypeAdapter<Object> dataAdapter(Gson gson, Type dataType) {
+
+    if (dataType instanceof ParameterizedType && isList(dataType)) {
+      Type elementType = ((ParameterizedType) dataType).getActualTypeArguments()[0];
+      if (elementType instanceof Class && EntityTypeAdapter.isEntity((Class<?>) elementType)) {
+        return (TypeAdapter<Object>) entityAdapter(gson, (Class<?>) elementType);
+      }
+      return (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(elementType));
+    }
+    if (dataType instanceof Class && EntityTypeAdapter.isEntity((Class<?>) dataType)) {
+      return (TypeAdapter<Object>) entityAdapter(gson, (Class<?>) dataType);
+    }
+    return (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(dataType));
+  }
+
+  private static <E> TypeAdapter<E> entityAdapter(Gson gson, Class<E> clazz) {
+    return new EntityTypeAdapter<>(gson, clazz);
+  }
+
+  private static class Adapter<T> extends TypeAdapter<TypedApiResponse<T>> {
+
+    private final Gson gson;
+    private final TypeAdapter<Object> dataAdapter;
+    private final boolean list;
+    private final TypeAdapter<EnumStatus> statusAdapter;
+    private final TypeAdapter<Meta> metaAdapter;
+    private final TypeAdapter<Object> errorAdapter;
+
+    private Adapter(Gson gson, TypeAdapter<Object> dataAdapter, boolean list) {
+
+      this.gson = gson;
+      this.dataAdapter = dataAdapter;
+      this.list = list;
+      this.statusAdapter = gson.getAdapter(EnumStatus.class);
+      this.metaAdapter = gson.getAdapter(Meta.class);
+      this.errorAdapter = gson.getAdapter(Object.class);
+    }
+
+    @Override
+    public TypedApiResponse<T> read(JsonReader in) throws IOException {
+
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      var response = new TypedApiResponse<T>();
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "status":
+            response.setStatus(statusAdapter.read(in));
+            break;
+          case "data":
+            response.setData(readData(in));
+            break;
+          case "error":
+            response.setError(errorAdapter.read(in));
+            break;
+          case "meta":
+            response.setMeta(metaAdapter.read(in));
+            break;
+          default:
+            in.skipValue();
+        }
+      }
+      in.endObject();
+      return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readData(JsonReader in) throws IOException {
+
+      JsonToken token = in.peek();
+      if (token == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      if (!list) {
+        if (token == JsonToken.BEGIN_ARRAY) {
+          throw new JsonParseException("Expected a single object for data but was an array at " + in.getPath());
+        }
+        return (T) dataAdapter.read(in);
+      }
+
+      List<Object> elements = new ArrayList<>();
+      if (token == JsonToken.BEGIN_ARRAY) {
+        in.beginArray();
+        while (in.hasNext()) {
+          elements.add(dataAdapter.read(in));
+        }
+        in.endArray();
+      }
+      else {
+        elements.add(dataAdapter.read(in));
+      }
+      return (T) elements;
+    }
+
+    @Override
+    public void write(JsonWriter out, TypedApiResponse<T> value) throws IOException {
+
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      out.name("status");
+      statusAdapter.write(out, value.getStatus());
+      out.name("data");
+      Object data = value.getData();
+      if (data == null) {
+        out.nullValue();
+      }
+      else {
+        gson.toJson(data, data.getClass(), out);
+      }
+      out.name("error");
+      errorAdapter.write(out, value.getError());
+      out.name("meta");
+      metaAdapter.write(out, value.getMeta());
+      out.endObject();
+    }
+  }
+}
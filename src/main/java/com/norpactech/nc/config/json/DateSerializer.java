@@ -1,24 +1,30 @@
 package com.norpactech.nc.config.json;
 import com.google.gson.*;
+import com.norpactech.nc.utils.Constant;
+import com.norpactech.nc.utils.TimestampParser;
+
 import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 
 public class DateSerializer implements JsonSerializer<Date>, JsonDeserializer<Date> {
 
-  private static final SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-  
   @Override
   public JsonElement serialize(Date date, Type typeOfSrc, JsonSerializationContext context) {
-    return new JsonPrimitive(formatter.format(date));
+    return new JsonPrimitive(Constant.TIMESTAMP_FORMATTER.format(date.toInstant().atZone(ZoneId.systemDefault())));
   }
 
+  /**
+   * The trailing 'Z' is a literal, as it always was: the value is read as local time.
+   */
   @Override
   public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-    try {
-      return formatter.parse(json.getAsString());
-    } catch (Exception e) {
-      throw new JsonParseException(e);
+    String value = json.getAsString();
+    TimestampParser.Parsed parsed = TimestampParser.parse(value);
+    if (parsed == null) {
+      throw new JsonParseException("Unparseable date: \"" + value + "\"");
     }
+    return Date.from(parsed.toLocalDateTime().truncatedTo(ChronoUnit.MILLIS).atZone(ZoneId.systemDefault()).toInstant());
   }
-}
\ No newline at end of file
+}
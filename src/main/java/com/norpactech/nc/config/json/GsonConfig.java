@@ -12,7 +12,9 @@ import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.norpactech.nc.api.utils.TypedApiResponseAdapterFactory;
 import com.norpactech.nc.utils.Constant;
+import com.norpactech.nc.utils.TimestampParser;
 
 public class GsonConfig {
 
@@ -46,6 +48,7 @@ public class GsonConfig {
   }
   private static Gson createGson() {
     return new GsonBuilder()
+        .registerTypeAdapterFactory(new TypedApiResponseAdapterFactory())
         .registerTypeAdapter(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
           @Override
           public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
@@ -58,7 +61,7 @@ public class GsonConfig {
             if (json == null || json.isJsonNull() || json.getAsString().isEmpty()) {
               return null;
             }
-            return LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER);
+            return parseLocalDateTime(json.getAsString());
           }
         })
         .registerTypeAdapter(java.sql.Timestamp.class, new JsonSerializer<java.sql.Timestamp>() {
@@ -73,7 +76,7 @@ public class GsonConfig {
             if (json == null || json.isJsonNull() || json.getAsString().isEmpty()) {
               return null;
             }
-            return java.sql.Timestamp.valueOf(LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER));
+            return java.sql.Timestamp.valueOf(parseLocalDateTime(json.getAsString()));
           }
         })
         .create();
@@ -96,6 +99,7 @@ public class GsonConfig {
    */
   protected GsonBuilder baseBuilder() {
     return new GsonBuilder()
+        .registerTypeAdapterFactory(new TypedApiResponseAdapterFactory())
         .registerTypeAdapter(Character.class, new JsonSerializer<Character>() {
           @Override
           public JsonElement serialize(Character src, Type typeOfSrc, JsonSerializationContext context) {
@@ -121,7 +125,7 @@ public class GsonConfig {
         .registerTypeAdapter(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
           @Override
           public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER);
+            return parseLocalDateTime(json.getAsString());
           }
         })
         .registerTypeAdapter(java.sql.Timestamp.class, new JsonSerializer<java.sql.Timestamp>() {
@@ -133,7 +137,7 @@ public class GsonConfig {
         .registerTypeAdapter(java.sql.Timestamp.class, new JsonDeserializer<java.sql.Timestamp>() {
           @Override
           public java.sql.Timestamp deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return java.sql.Timestamp.valueOf(LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER));
+            return java.sql.Timestamp.valueOf(parseLocalDateTime(json.getAsString()));
           }
         })
         .registerTypeAdapter(java.sql.Date.class, new JsonSerializer<java.sql.Date>() {
@@ -145,7 +149,7 @@ public class GsonConfig {
         .registerTypeAdapter(java.sql.Date.class, new JsonDeserializer<java.sql.Date>() {
           @Override
           public java.sql.Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return java.sql.Date.valueOf(LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER).toLocalDate());
+            return java.sql.Date.valueOf(parseLocalDateTime(json.getAsString()).toLocalDate());
           }
         })
         .registerTypeAdapter(java.util.Date.class, new JsonSerializer<java.util.Date>() {
@@ -157,7 +161,7 @@ public class GsonConfig {
         .registerTypeAdapter(java.util.Date.class, new JsonDeserializer<java.util.Date>() {
           @Override
           public java.util.Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return java.util.Date.from(LocalDateTime.parse(json.getAsString(), Constant.TIMESTAMP_FORMATTER).atZone(java.time.ZoneId.systemDefault()).toInstant());
+            return java.util.Date.from(parseLocalDateTime(json.getAsString()).atZone(java.time.ZoneId.systemDefault()).toInstant());
           }
         })          
         .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
@@ -166,4 +170,17 @@ public class GsonConfig {
   public Gson gson() {
     return baseBuilder().create();
   }
-}
\ No newline at end of file
+
+  /**
+   * Parses a timestamp written by TIMESTAMP_FORMATTER or any other shape TimestampParser
+   * recognizes. Values with an offset are converted to UTC.
+   */
+  private static LocalDateTime parseLocalDateTime(String value) {
+
+    LocalDateTime dateTime = TimestampParser.toLocalDateTime(value);
+    if (dateTime == null) {
+      throw new JsonParseException("Unable to parse timestamp: " + value);
+    }
+    return dateTime;
+  }
+}
@@ -148,6 +148,13 @@ public class Globals {
     }
     return value;
   }
+  /**
+   * Get an environment variable as a string with a default value.
+   */
+  public static String getStringEnv(String key, String defaultValue) {
+    return getEnvWithDefault(key, defaultValue);
+  }
+
   /**
    * Get an environment variable as an integer with a default value.
    */
@@ -189,6 +196,13 @@ public class Globals {
     return "production".equalsIgnoreCase(ENVIRONMENT) || "prod".equalsIgnoreCase(ENVIRONMENT);
   }
 
+  /**
+   * Check if loaders update existing records (UPDATE_MODE)
+   */
+  public static boolean isUpdateMode() {
+    return Boolean.parseBoolean(UPDATE_MODE);
+  }
+
   /**
    * Get batch size as integer
    */
@@ -196,6 +210,20 @@ public class Globals {
     return getIntEnv("BATCH_SIZE", 100);
   }
 
+  /**
+   * Get the number of records requested per page when paging through an API entity
+   */
+  public static int getApiPageSizeInt() {
+    return getIntEnv("API_PAGE_SIZE", 1000);
+  }
+
+  /**
+   * Get the JDBC fetch size for streamed result sets
+   */
+  public static int getFetchSizeInt() {
+    return getIntEnv("FETCH_SIZE", 1000);
+  }
+
   /**
    * Get max retries as integer
    */
@@ -0,0 +1,33 @@
+package com.norpactech.nc.enums;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved. 
+ *  
+ * For license details, see the LICENSE file in this project root.
+ */
+public enum EnumExportFormat {
+  
+  JSONL("jsonl"), 
+  CSV("csv");
+
+  private String name;
+
+  public static EnumExportFormat fromName(String name) {
+    for (EnumExportFormat format : EnumExportFormat.values()) {
+      if (format.getName().equalsIgnoreCase(name)) {
+        return format;
+      }
+    }
+    return null;
+  }
+  
+  private EnumExportFormat(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return the name, which is also the file extension
+   */
+  public String getName() {
+    return name;
+  }
+}
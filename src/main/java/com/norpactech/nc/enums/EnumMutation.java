@@ -0,0 +1,50 @@
+package com.norpactech.nc.enums;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+/**
+ * A repository write. The code is persisted by RepositoryOutbox, so existing codes
+ * must not change.
+ */
+public enum EnumMutation {
+
+  POST("POST", (byte) 1),
+  PUT("PUT", (byte) 2),
+  DELETE("DELETE", (byte) 3);
+
+  private String name;
+  private byte code;
+
+  public static EnumMutation fromName(String name) {
+    for (EnumMutation mutation : EnumMutation.values()) {
+      if (mutation.getName().equalsIgnoreCase(name)) {
+        return mutation;
+      }
+    }
+    return null;
+  }
+
+  public static EnumMutation fromCode(byte code) {
+    for (EnumMutation mutation : EnumMutation.values()) {
+      if (mutation.code == code) {
+        return mutation;
+      }
+    }
+    return null;
+  }
+
+  private EnumMutation(String name, byte code) {
+    this.name = name;
+    this.code = code;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public byte getCode() {
+    return code;
+  }
+}
@@ -0,0 +1,37 @@
+package com.norpactech.nc.enums;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+/**
+ * When appended records are forced to disk
+ */
+public enum EnumSyncPolicy {
+
+  /** before the append returns */
+  ALWAYS("always"),
+  /** by a background flush every 50 ms */
+  INTERVAL("interval"),
+  /** when the operating system writes the pages back, or on close */
+  NONE("none");
+
+  private String name;
+
+  public static EnumSyncPolicy fromName(String name) {
+    for (EnumSyncPolicy policy : EnumSyncPolicy.values()) {
+      if (policy.getName().equalsIgnoreCase(name)) {
+        return policy;
+      }
+    }
+    return null;
+  }
+
+  private EnumSyncPolicy(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,26 @@
+package com.norpactech.nc.exception;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.List;
+
+public class CyclicDependencyException extends Exception {
+
+  private static final long serialVersionUID = -2951735540861472196L;
+
+  private final List<String> cycle;
+
+  public CyclicDependencyException(List<String> cycle) {
+    super("Foreign key cycle: " + String.join(" -> ", cycle));
+    this.cycle = List.copyOf(cycle);
+  }
+
+  /**
+   * @return the tables on the cycle, starting and ending with the same table
+   */
+  public List<String> getCycle() {
+    return cycle;
+  }
+}
@@ -0,0 +1,33 @@
+package com.norpactech.nc.exception;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+public class HttpStatusException extends Exception {
+
+  private static final long serialVersionUID = 4381266512917203954L;
+
+  private final int statusCode;
+
+  /**
+   * @param method the HTTP method, e.g. "POST"
+   */
+  public HttpStatusException(String method, int statusCode, String reason) {
+    super(method + " Request Failed: " + statusCode + " " + reason);
+    this.statusCode = statusCode;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  /**
+   * @return false for a 4xx other than 408 (Request Timeout) and 429 (Too Many
+   *         Requests): the request itself was rejected and sending it again will
+   *         not change that
+   */
+  public boolean isRetryable() {
+    return statusCode < 400 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+  }
+}
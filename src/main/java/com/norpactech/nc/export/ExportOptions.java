@@ -0,0 +1,99 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.norpactech.nc.config.load.Globals;
+import com.norpactech.nc.enums.EnumExportFormat;
+/**
+ * Settings for TableExporter. A maxFileBytes of 0 writes a single file.
+ */
+public class ExportOptions {
+
+  private Path directory;
+  private EnumExportFormat format = EnumExportFormat.JSONL;
+  private int fetchSize = 1000;
+  private long maxFileBytes = 0;
+  private boolean gzip = false;
+  private int bufferSize = 256 * 1024;
+  private long progressInterval = 100_000;
+
+  public ExportOptions() {}
+
+  public ExportOptions(Path directory, EnumExportFormat format) {
+    this.directory = directory;
+    this.format = format;
+  }
+
+  /**
+   * Reads EXPORT_DATA_DIRECTORY and the optional EXPORT_FORMAT (jsonl or csv),
+   * EXPORT_MAX_FILE_MB, EXPORT_GZIP and FETCH_SIZE entries. Without
+   * EXPORT_DATA_DIRECTORY files are written to the working directory.
+   */
+  public static ExportOptions fromGlobals() {
+
+    var options = new ExportOptions();
+    options.setDirectory(StringUtils.isBlank(Globals.EXPORT_DATA_DIRECTORY) ? Paths.get("").toAbsolutePath() : Paths.get(Globals.EXPORT_DATA_DIRECTORY));
+    EnumExportFormat format = EnumExportFormat.fromName(Globals.getStringEnv("EXPORT_FORMAT", "jsonl"));
+    options.setFormat(format == null ? EnumExportFormat.JSONL : format);
+    options.setMaxFileBytes(Globals.getIntEnv("EXPORT_MAX_FILE_MB", 0) * 1024L * 1024L);
+    options.setGzip(Globals.getBooleanEnv("EXPORT_GZIP", false));
+    options.setFetchSize(Globals.getFetchSizeInt());
+    return options;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+  public void setDirectory(Path directory) {
+    this.directory = directory;
+  }
+  public EnumExportFormat getFormat() {
+    return format;
+  }
+  public void setFormat(EnumExportFormat format) {
+    this.format = format;
+  }
+  public int getFetchSize() {
+    return fetchSize;
+  }
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+  /**
+   * @return the size, before compression, at which a new part file is started
+   */
+  public long getMaxFileBytes() {
+    return maxFileBytes;
+  }
+  public void setMaxFileBytes(long maxFileBytes) {
+    this.maxFileBytes = maxFileBytes;
+  }
+  public boolean isGzip() {
+    return gzip;
+  }
+  public void setGzip(boolean gzip) {
+    this.gzip = gzip;
+  }
+  public int getBufferSize() {
+    return bufferSize;
+  }
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+  /**
+   * @return the number of rows between progress log lines
+   */
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+  public void setProgressInterval(long progressInterval) {
+    this.progressInterval = progressInterval;
+  }
+}
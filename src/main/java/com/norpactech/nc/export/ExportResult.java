@@ -0,0 +1,53 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+/**
+ * The outcome of one export: rows written, bytes before compression, files and timing.
+ */
+public class ExportResult {
+
+  private final String name;
+  private final long rows;
+  private final long bytes;
+  private final List<Path> files;
+  private final long elapsedMillis;
+
+  public ExportResult(String name, long rows, long bytes, List<Path> files, long elapsedMillis) {
+
+    this.name = name;
+    this.rows = rows;
+    this.bytes = bytes;
+    this.files = Collections.unmodifiableList(files);
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public String getName() {
+    return name;
+  }
+  public long getRows() {
+    return rows;
+  }
+  public long getBytes() {
+    return bytes;
+  }
+  public List<Path> getFiles() {
+    return files;
+  }
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+  public double getRowsPerSecond() {
+    return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %,d rows, %,d bytes, %d file(s) in %,d ms (%,.0f rows/s)", name, rows, bytes, files.size(), elapsedMillis, getRowsPerSecond());
+  }
+}
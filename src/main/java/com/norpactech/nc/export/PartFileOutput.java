@@ -0,0 +1,137 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+/**
+ * An OutputStream over a sequence of part files. The encoder calls endRow() after
+ * each row; once the current part has reached maxBytes (counted before compression)
+ * the next row starts a new part, so rows never straddle files.
+ */
+final class PartFileOutput extends OutputStream {
+
+  private final Path directory;
+  private final String baseName;
+  private final String extension;
+  private final long maxBytes;
+  private final boolean gzip;
+  private final int bufferSize;
+  private final List<Path> files = new ArrayList<>();
+  private OutputStream out;
+  private long partBytes;
+  private long totalBytes;
+  private boolean rotate;
+
+  PartFileOutput(Path directory, String baseName, ExportOptions options) throws IOException {
+
+    if (directory == null) {
+      throw new IllegalArgumentException("No export directory set for " + baseName);
+    }
+    this.directory = Files.createDirectories(directory);
+    this.baseName = baseName;
+    this.extension = "." + options.getFormat().getName() + (options.isGzip() ? ".gz" : "");
+    this.maxBytes = options.getMaxFileBytes();
+    this.gzip = options.isGzip();
+    this.bufferSize = options.getBufferSize();
+  }
+
+  /**
+   * @return true if the next byte written starts a new part file
+   */
+  boolean atPartStart() {
+    return out == null || rotate;
+  }
+
+  void endRow() {
+    rotate = maxBytes > 0 && partBytes >= maxBytes;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+
+    current().write(b);
+    partBytes++;
+    totalBytes++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+
+    current().write(b, off, len);
+    partBytes += len;
+    totalBytes += len;
+  }
+
+  private OutputStream current() throws IOException {
+
+    if (out == null || rotate) {
+      if (out != null) {
+        out.close();
+      }
+      open();
+    }
+    return out;
+  }
+
+  private void open() throws IOException {
+
+    String name = maxBytes > 0 ? String.format("%s-%05d%s", baseName, files.size() + 1, extension) : baseName + extension;
+    Path file = directory.resolve(name);
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    OutputStream stream = Channels.newOutputStream(channel);
+    if (gzip) {
+      stream = new GZIPOutputStream(stream, bufferSize);
+    }
+    out = new BufferedOutputStream(stream, bufferSize);
+    files.add(file);
+    partBytes = 0;
+    rotate = false;
+  }
+
+  /**
+   * @return true until the first byte is written
+   */
+  boolean isEmpty() {
+    return out == null;
+  }
+
+  List<Path> getFiles() {
+    return files;
+  }
+
+  long getTotalBytes() {
+    return totalBytes;
+  }
+
+  @Override
+  public void flush() throws IOException {
+
+    if (out != null) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Closes the current part; creates an empty file if nothing was written.
+   */
+  @Override
+  public void close() throws IOException {
+
+    if (out == null) {
+      open();
+    }
+    out.close();
+  }
+}
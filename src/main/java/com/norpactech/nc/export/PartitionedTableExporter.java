@@ -0,0 +1,315 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.enums.EnumExportFormat;
+import com.norpactech.nc.jdbc.JdbcConnectionPool;
+/**
+ * Exports one large table as N key ranges in parallel, each on its own pooled
+ * connection and into its own part files, optionally merged at the end.
+ *
+ * Range boundaries come from MIN/MAX for numeric keys, or from NTILE quantiles of
+ * the key for any other orderable type. Rows with a NULL key go to the first range.
+ */
+public class PartitionedTableExporter {
+
+  private static final Logger logger = LoggerFactory.getLogger(PartitionedTableExporter.class);
+
+  private final JdbcConnectionPool pool;
+  private final TableExporter exporter;
+  private final int partitions;
+  private final int concurrency;
+  private boolean merge;
+  private BiConsumer<Integer, Long> progressListener;
+
+  /**
+   * @param pool supplies one connection per running partition
+   * @param options the export settings shared by all partitions
+   * @param partitions the number of key ranges
+   * @param concurrency the number of ranges exported at once
+   */
+  public PartitionedTableExporter(JdbcConnectionPool pool, ExportOptions options, int partitions, int concurrency) {
+
+    if (partitions < 1 || concurrency < 1) {
+      throw new IllegalArgumentException("partitions and concurrency must be positive");
+    }
+    this.pool = pool;
+    this.exporter = new TableExporter(options);
+    this.partitions = partitions;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * @param merge whether to concatenate the part files into one file per table
+   */
+  public void setMerge(boolean merge) {
+    this.merge = merge;
+  }
+
+  /**
+   * @param progressListener receives (partition, rows so far) as partitions progress
+   */
+  public void setProgressListener(BiConsumer<Integer, Long> progressListener) {
+    this.progressListener = progressListener;
+  }
+
+  /**
+   * @param table the table name, optionally schema-qualified
+   * @param keyColumn an indexed column to split on, usually the primary key
+   */
+  public PartitionedExportResult export(String table, String keyColumn) throws SQLException, IOException {
+
+    TableExporter.checkName(table);
+    TableExporter.checkName(keyColumn);
+    long start = System.currentTimeMillis();
+
+    List<Object> bounds;
+    try (Connection connection = pool.getConnection()) {
+      bounds = boundaries(connection, table, keyColumn);
+    }
+    logger.info("{}: exporting {} range(s) on {} with concurrency {}", table, bounds.size(), keyColumn, concurrency);
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, bounds.size())));
+    var futures = new ArrayList<Future<ExportResult>>();
+    try {
+      for (int i = 0; i < Math.max(1, bounds.size()); i++) {
+        int partition = i;
+        futures.add(executor.submit(() -> exportRange(table, keyColumn, bounds, partition)));
+      }
+      var results = new ArrayList<ExportResult>();
+      for (Future<ExportResult> future : futures) {
+        results.add(future.get());
+      }
+      List<Path> files = new ArrayList<>();
+      long rows = 0;
+      long bytes = 0;
+      for (ExportResult result : results) {
+        files.addAll(result.getFiles());
+        rows += result.getRows();
+        bytes += result.getBytes();
+      }
+      if (merge) {
+        files = List.of(merge(table, files));
+      }
+      var result = new PartitionedExportResult(table, rows, bytes, files, System.currentTimeMillis() - start, results);
+      logger.info("Exported {}", result);
+      return result;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(table + ": export interrupted", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(table + ": partition failed: " + cause.getMessage(), cause);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ExportResult exportRange(String table, String key, List<Object> bounds, int partition) throws SQLException, IOException {
+
+    var sql = new StringBuilder("SELECT * FROM ").append(table);
+    var params = new ArrayList<Object>();
+    if (bounds.size() > 1) {
+      if (partition == 0) {
+        sql.append(" WHERE (").append(key).append(" IS NULL OR ").append(key).append(" < ?)");
+        params.add(bounds.get(1));
+      }
+      else if (partition == bounds.size() - 1) {
+        sql.append(" WHERE ").append(key).append(" >= ?");
+        params.add(bounds.get(partition));
+      }
+      else {
+        sql.append(" WHERE ").append(key).append(" >= ? AND ").append(key).append(" < ?");
+        params.add(bounds.get(partition));
+        params.add(bounds.get(partition + 1));
+      }
+    }
+    String name = String.format("%s.part-%04d", table, partition + 1);
+    try (Connection connection = pool.getConnection()) {
+      return exporter.export(connection, sql.toString(), name, rows -> {
+        if (progressListener != null) {
+          progressListener.accept(partition, rows);
+        }
+      }, params.toArray());
+    }
+  }
+
+  /**
+   * @return the ascending lower bound of each range; the first is the minimum key
+   */
+  List<Object> boundaries(Connection connection, String table, String key) throws SQLException {
+
+    Object min;
+    Object max;
+    try (PreparedStatement ps = connection.prepareStatement("SELECT MIN(" + key + "), MAX(" + key + ") FROM " + table);
+         ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      min = rs.getObject(1);
+      max = rs.getObject(2);
+    }
+    var bounds = new ArrayList<Object>();
+    if (min == null) {
+      return bounds;
+    }
+    if (partitions == 1 || min.equals(max)) {
+      bounds.add(min);
+      return bounds;
+    }
+    if (min instanceof Integer || min instanceof Long || min instanceof Short || min instanceof BigInteger) {
+      BigInteger low = new BigInteger(min.toString());
+      BigInteger span = new BigInteger(max.toString()).subtract(low).add(BigInteger.ONE);
+      for (int i = 0; i < partitions; i++) {
+        BigInteger bound = low.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitions)));
+        addDistinct(bounds, min instanceof BigInteger ? bound : (Object) bound.longValue());
+      }
+      return bounds;
+    }
+    if (min instanceof BigDecimal || min instanceof Double || min instanceof Float) {
+      BigDecimal low = new BigDecimal(min.toString());
+      BigDecimal span = new BigDecimal(max.toString()).subtract(low);
+      for (int i = 0; i < partitions; i++) {
+        addDistinct(bounds, low.add(span.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(partitions), 10, RoundingMode.DOWN)));
+      }
+      return bounds;
+    }
+
+    String sql = "SELECT MIN(" + key + ") FROM (SELECT " + key + ", NTILE(" + partitions + ") OVER (ORDER BY " + key + ") AS tile FROM "
+        + table + " WHERE " + key + " IS NOT NULL) s GROUP BY tile ORDER BY 1";
+    try (PreparedStatement ps = connection.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        addDistinct(bounds, rs.getObject(1));
+      }
+    }
+    return bounds;
+  }
+
+  private static void addDistinct(List<Object> bounds, Object bound) {
+
+    if (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(bound)) {
+      bounds.add(bound);
+    }
+  }
+
+  /**
+   * Concatenates part files in order and deletes them. JSONL parts, gzipped or not,
+   * are appended as-is (gzip members concatenate); CSV parts drop their header line.
+   */
+  private Path merge(String table, List<Path> parts) throws IOException {
+
+    ExportOptions options = exporter.getOptions();
+    boolean csv = options.getFormat() == EnumExportFormat.CSV;
+    Path target = options.getDirectory().resolve(table + "." + options.getFormat().getName() + (options.isGzip() ? ".gz" : ""));
+
+    if (csv && options.isGzip()) {
+      try (Writer out = new OutputStreamWriter(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(target)), options.getBufferSize()), StandardCharsets.UTF_8)) {
+        for (int i = 0; i < parts.size(); i++) {
+          try (InputStream in = new GZIPInputStream(Files.newInputStream(parts.get(i)));
+               BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (i > 0) {
+              skipLine(reader);
+            }
+            reader.transferTo(out);
+          }
+        }
+      }
+    }
+    else {
+      try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        for (int i = 0; i < parts.size(); i++) {
+          try (FileChannel in = FileChannel.open(parts.get(i), StandardOpenOption.READ)) {
+            long position = csv && i > 0 ? headerLength(parts.get(i)) : 0;
+            long size = in.size();
+            while (position < size) {
+              position += in.transferTo(position, size - position, out);
+            }
+          }
+        }
+      }
+    }
+    for (Path part : parts) {
+      Files.delete(part);
+    }
+    return target;
+  }
+
+  private static void skipLine(BufferedReader reader) throws IOException {
+
+    for (int c = reader.read(); c != -1 && c != '\n'; c = reader.read()) {
+      // Skip the header line
+    }
+  }
+
+  private static long headerLength(Path part) throws IOException {
+
+    try (InputStream in = Files.newInputStream(part)) {
+      long length = 0;
+      for (int c = in.read(); c != -1; c = in.read()) {
+        length++;
+        if (c == '\n') {
+          break;
+        }
+      }
+      return length;
+    }
+  }
+
+  /**
+   * An ExportResult with the result of each partition
+   */
+  public static class PartitionedExportResult extends ExportResult {
+
+    private final List<ExportResult> partitions;
+
+    public PartitionedExportResult(String name, long rows, long bytes, List<Path> files, long elapsedMillis, List<ExportResult> partitions) {
+      super(name, rows, bytes, files, elapsedMillis);
+      this.partitions = List.copyOf(partitions);
+    }
+
+    public List<ExportResult> getPartitions() {
+      return partitions;
+    }
+  }
+}
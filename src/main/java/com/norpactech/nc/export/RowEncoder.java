@@ -0,0 +1,273 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Base64;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.norpactech.nc.enums.EnumExportFormat;
+import com.norpactech.nc.utils.Constant;
+/**
+ * Writes the current row of a ResultSet to a PartFileOutput.
+ */
+abstract class RowEncoder {
+
+  private static final JsonFactory FACTORY = new JsonFactory()
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+      .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+  private static final int TEXT = 0;
+  private static final int BOOLEAN = 1;
+  private static final int INTEGER = 2;
+  private static final int REAL = 3;
+  private static final int DECIMAL = 4;
+  private static final int TIMESTAMP = 5;
+  private static final int BINARY = 6;
+
+  protected final PartFileOutput out;
+  protected final String[] labels;
+  private final int[] kinds;
+
+  static RowEncoder create(EnumExportFormat format, PartFileOutput out, ResultSetMetaData metaData) throws SQLException, IOException {
+    return format == EnumExportFormat.CSV ? new Csv(out, metaData) : new Jsonl(out, metaData);
+  }
+
+  protected RowEncoder(PartFileOutput out, ResultSetMetaData metaData) throws SQLException {
+
+    this.out = out;
+    this.labels = new String[metaData.getColumnCount()];
+    this.kinds = new int[labels.length];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = metaData.getColumnLabel(i + 1);
+      kinds[i] = kind(metaData.getColumnType(i + 1));
+    }
+  }
+
+  private static int kind(int sqlType) {
+
+    switch (sqlType) {
+      case Types.BIT:
+      case Types.BOOLEAN:
+        return BOOLEAN;
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        return INTEGER;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return REAL;
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        return DECIMAL;
+      case Types.TIMESTAMP:
+      case Types.TIMESTAMP_WITH_TIMEZONE:
+        return TIMESTAMP;
+      case Types.BINARY:
+      case Types.VARBINARY:
+      case Types.LONGVARBINARY:
+      case Types.BLOB:
+        return BINARY;
+      default:
+        return TEXT;
+    }
+  }
+
+  abstract void write(ResultSet rs) throws SQLException, IOException;
+
+  abstract void finish() throws IOException;
+
+  /**
+   * @return the column as text, or null if it is NULL
+   */
+  protected String text(ResultSet rs, int column) throws SQLException {
+
+    switch (kinds[column - 1]) {
+      case TIMESTAMP:
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : Constant.TIMESTAMP_FORMATTER.format(timestamp.toLocalDateTime());
+      case BINARY:
+        byte[] bytes = rs.getBytes(column);
+        return bytes == null ? null : Base64.getEncoder().encodeToString(bytes);
+      default:
+        return rs.getString(column);
+    }
+  }
+
+  /**
+   * One JSON object per line, keyed by column label
+   */
+  static final class Jsonl extends RowEncoder {
+
+    private final JsonGenerator generator;
+    private final SerializedString[] names;
+
+    Jsonl(PartFileOutput out, ResultSetMetaData metaData) throws SQLException, IOException {
+
+      super(out, metaData);
+      this.generator = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+      this.generator.setRootValueSeparator(null);
+      this.names = new SerializedString[labels.length];
+      for (int i = 0; i < labels.length; i++) {
+        names[i] = new SerializedString(labels[i]);
+      }
+    }
+
+    @Override
+    void write(ResultSet rs) throws SQLException, IOException {
+
+      generator.writeStartObject();
+      for (int i = 0; i < names.length; i++) {
+        generator.writeFieldName(names[i]);
+        writeValue(rs, i + 1);
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+      generator.flush();
+      out.endRow();
+    }
+
+    private void writeValue(ResultSet rs, int column) throws SQLException, IOException {
+
+      switch (super.kinds[column - 1]) {
+        case BOOLEAN:
+          boolean flag = rs.getBoolean(column);
+          if (rs.wasNull()) {
+            generator.writeNull();
+          }
+          else {
+            generator.writeBoolean(flag);
+          }
+          return;
+        case INTEGER:
+          long number = rs.getLong(column);
+          if (rs.wasNull()) {
+            generator.writeNull();
+          }
+          else {
+            generator.writeNumber(number);
+          }
+          return;
+        case REAL:
+          double real = rs.getDouble(column);
+          if (rs.wasNull()) {
+            generator.writeNull();
+          }
+          else {
+            generator.writeNumber(real);
+          }
+          return;
+        case DECIMAL:
+          BigDecimal decimal = rs.getBigDecimal(column);
+          if (decimal == null) {
+            generator.writeNull();
+          }
+          else {
+            generator.writeNumber(decimal);
+          }
+          return;
+        default:
+          String text = text(rs, column);
+          if (text == null) {
+            generator.writeNull();
+          }
+          else {
+            generator.writeString(text);
+          }
+      }
+    }
+
+    @Override
+    void finish() throws IOException {
+      generator.close();
+    }
+  }
+
+  /**
+   * RFC 4180 CSV with a header line at the top of every part file
+   */
+  static final class Csv extends RowEncoder {
+
+    private final StringBuilder line = new StringBuilder(256);
+    private final byte[] header;
+
+    Csv(PartFileOutput out, ResultSetMetaData metaData) throws SQLException {
+
+      super(out, metaData);
+      for (int i = 0; i < labels.length; i++) {
+        append(i, labels[i]);
+      }
+      this.header = line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+      line.setLength(0);
+    }
+
+    @Override
+    void write(ResultSet rs) throws SQLException, IOException {
+
+      if (out.atPartStart()) {
+        out.write(header);
+      }
+      for (int i = 0; i < labels.length; i++) {
+        append(i, text(rs, i + 1));
+      }
+      line.append("\r\n");
+      out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+      line.setLength(0);
+      out.endRow();
+    }
+
+    private void append(int index, String value) {
+
+      if (index > 0) {
+        line.append(',');
+      }
+      if (value == null) {
+        return;
+      }
+      boolean quote = value.isEmpty();
+      for (int i = 0; i < value.length() && !quote; i++) {
+        char c = value.charAt(i);
+        quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      if (!quote) {
+        line.append(value);
+        return;
+      }
+      line.append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"') {
+          line.append('"');
+        }
+        line.append(c);
+      }
+      line.append('"');
+    }
+
+    /**
+     * An export of zero rows still gets the header line
+     */
+    @Override
+    void finish() throws IOException {
+
+      if (out.isEmpty()) {
+        out.write(header);
+      }
+      out.flush();
+    }
+  }
+}
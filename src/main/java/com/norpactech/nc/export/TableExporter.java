@@ -0,0 +1,123 @@
+package com.norpactech.nc.export;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * Exports a table or query to JSONL or CSV files with constant memory.
+ *
+ * Rows are read through a forward-only, read-only cursor with autocommit off and
+ * the configured fetch size (Integer.MIN_VALUE for MySQL, which only streams that
+ * way), and written one at a time through a buffered FileChannel, rotating part
+ * files by size and optionally gzipping them.
+ */
+public class TableExporter {
+
+  private static final Logger logger = LoggerFactory.getLogger(TableExporter.class);
+  private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+
+  private final ExportOptions options;
+
+  public TableExporter(ExportOptions options) {
+    this.options = options;
+  }
+
+  public ExportOptions getOptions() {
+    return options;
+  }
+
+  /**
+   * Exports every row of a table to files named after it.
+   *
+   * @param table the table name, optionally schema-qualified
+   */
+  public ExportResult exportTable(Connection connection, String table) throws SQLException, IOException {
+    return export(connection, "SELECT * FROM " + checkName(table), table, null);
+  }
+
+  /**
+   * @param connection an open connection; autocommit is restored afterwards
+   * @param sql the query
+   * @param baseName the file name without extension or part number
+   * @param progress receives the running row count every progressInterval rows, may be null
+   * @param params the query parameters
+   */
+  public ExportResult export(Connection connection, String sql, String baseName, LongConsumer progress, Object... params) throws SQLException, IOException {
+
+    long start = System.currentTimeMillis();
+    var output = new PartFileOutput(options.getDirectory(), baseName, options);
+    boolean autoCommit = connection.getAutoCommit();
+    if (autoCommit) {
+      connection.setAutoCommit(false);
+    }
+    long rows = 0;
+    try (output; PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      ps.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : options.getFetchSize());
+      for (int i = 0; i < params.length; i++) {
+        ps.setObject(i + 1, params[i]);
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        RowEncoder encoder = RowEncoder.create(options.getFormat(), output, rs.getMetaData());
+        long interval = Math.max(1, options.getProgressInterval());
+        while (rs.next()) {
+          encoder.write(rs);
+          if (++rows % interval == 0) {
+            report(baseName, rows, start, progress);
+          }
+        }
+        encoder.finish();
+      }
+    }
+    finally {
+      if (autoCommit) {
+        try {
+          connection.commit();
+          connection.setAutoCommit(true);
+        }
+        catch (SQLException e) {
+          logger.warn("{}: failed to restore autocommit: {}", baseName, e.getMessage());
+        }
+      }
+    }
+    if (progress != null) {
+      progress.accept(rows);
+    }
+    var result = new ExportResult(baseName, rows, output.getTotalBytes(), output.getFiles(), System.currentTimeMillis() - start);
+    logger.info("Exported {}", result);
+    return result;
+  }
+
+  private static void report(String name, long rows, long start, LongConsumer progress) {
+
+    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+    logger.info("{}: {} rows ({} rows/s)", name, rows, rows * 1000 / elapsed);
+    if (progress != null) {
+      progress.accept(rows);
+    }
+  }
+
+  public static boolean isMySql(Connection connection) throws SQLException {
+
+    String product = connection.getMetaData().getDatabaseProductName();
+    return product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+  }
+
+  public static String checkName(String name) {
+
+    if (name == null || !TABLE_NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid table or column name: " + name);
+    }
+    return name;
+  }
+}
@@ -0,0 +1,374 @@
+package com.norpactech.nc.jdbc;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * A small bounded JDBC connection pool.
+ *
+ * <ul>
+ *   <li>At most maxSize connections are lent at once; callers wait in FIFO order
+ *       on a fair semaphore for up to acquireTimeout.</li>
+ *   <li>An idle connection is checked with isValid() when borrowed and replaced
+ *       if it fails or has outlived maxLifetime.</li>
+ *   <li>A housekeeping thread closes connections idle longer than idleTimeout
+ *       (down to minSize), retires those past maxLifetime, refills to minSize and
+ *       logs the borrow stack trace of connections held past leakDetectionThreshold.</li>
+ * </ul>
+ * Borrowed connections are proxies: close() resets autocommit, rolls back any open
+ * transaction, restores the read-only flag, isolation level, catalog and schema
+ * if the borrower changed them, and returns the physical connection to the pool.
+ */
+public class JdbcConnectionPool implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(JdbcConnectionPool.class);
+  private static final AtomicInteger POOL_IDS = new AtomicInteger();
+  // Connection setters whose state giveBack restores
+  private static final Set<String> STATE_SETTERS = Set.of("setReadOnly", "setTransactionIsolation", "setCatalog", "setSchema");
+
+  private final JdbcPoolConfig config;
+  private final String name;
+  private final Semaphore permits;
+  private final Deque<Pooled> idle = new ConcurrentLinkedDeque<>();
+  private final Set<Pooled> borrowed = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger total = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final LongAdder acquireCount = new LongAdder();
+  private final LongAdder acquireNanos = new LongAdder();
+  private final AtomicLong maxAcquireNanos = new AtomicLong();
+  private final ScheduledExecutorService housekeeper;
+  private volatile boolean closed;
+
+  public JdbcConnectionPool(JdbcPoolConfig config) throws SQLException {
+
+    if (config.getMaxSize() < 1 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+      throw new IllegalArgumentException("Invalid pool size: min " + config.getMinSize() + ", max " + config.getMaxSize());
+    }
+    if (config.getDriverClass() != null) {
+      try {
+        Class.forName(config.getDriverClass());
+      }
+      catch (ClassNotFoundException e) {
+        throw new SQLException("Failed to load DB driver class: " + config.getDriverClass(), e);
+      }
+    }
+    this.config = config;
+    this.name = "jdbc-pool-" + POOL_IDS.incrementAndGet();
+    this.permits = new Semaphore(config.getMaxSize(), true);
+
+    fill();
+    this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, name + "-housekeeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = Math.max(1, config.getHousekeepingInterval());
+    housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    logger.info("{} started: min {}, max {}", name, config.getMinSize(), config.getMaxSize());
+  }
+
+  /**
+   * Borrows a connection, waiting up to acquireTimeout for one to be returned.
+   *
+   * @return a pooled connection; close it to return it
+   * @throws SQLTimeoutException if none became available in time
+   */
+  public Connection getConnection() throws SQLException {
+
+    if (closed) {
+      throw new SQLException(name + " is closed");
+    }
+    long start = System.nanoTime();
+    waiters.incrementAndGet();
+    try {
+      if (!permits.tryAcquire(config.getAcquireTimeout(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTimeoutException(name + ": no connection available within " + config.getAcquireTimeout()
+            + " ms (active " + borrowed.size() + ", max " + config.getMaxSize() + ")");
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(name + ": interrupted while waiting for a connection", e);
+    }
+    finally {
+      waiters.decrementAndGet();
+    }
+
+    try {
+      Pooled pooled = take();
+      pooled.borrowedAt = System.currentTimeMillis();
+      pooled.borrowStack = config.getLeakDetectionThreshold() > 0 ? new Throwable("Connection borrowed here") : null;
+      pooled.leakReported = false;
+      borrowed.add(pooled);
+
+      long elapsed = System.nanoTime() - start;
+      acquireCount.increment();
+      acquireNanos.add(elapsed);
+      maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+      return pooled.lend();
+    }
+    catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * @return an idle connection that passed validation, or a new one
+   */
+  private Pooled take() throws SQLException {
+
+    for (Pooled pooled = idle.pollFirst(); pooled != null; pooled = idle.pollFirst()) {
+      if (pooled.expired()) {
+        discard(pooled, "max lifetime");
+        continue;
+      }
+      boolean valid;
+      try {
+        valid = pooled.physical.isValid(config.getValidationTimeoutSeconds());
+      }
+      catch (SQLException e) {
+        valid = false;
+      }
+      if (valid) {
+        return pooled;
+      }
+      discard(pooled, "failed validation");
+    }
+    return open();
+  }
+
+  private Pooled open() throws SQLException {
+
+    Connection physical = DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword());
+    total.incrementAndGet();
+    return new Pooled(physical);
+  }
+
+  private void giveBack(Pooled pooled) {
+
+    borrowed.remove(pooled);
+    try {
+      if (closed || pooled.expired() || pooled.physical.isClosed()) {
+        discard(pooled, closed ? "pool closed" : "max lifetime");
+        return;
+      }
+      if (!pooled.physical.getAutoCommit()) {
+        pooled.physical.rollback();
+        pooled.physical.setAutoCommit(true);
+      }
+      if (pooled.stateChanged) {
+        pooled.restoreState();
+      }
+      pooled.physical.clearWarnings();
+      pooled.idleSince = System.currentTimeMillis();
+      idle.offerFirst(pooled);
+    }
+    catch (SQLException e) {
+      discard(pooled, "reset failed: " + e.getMessage());
+    }
+    finally {
+      permits.release();
+    }
+  }
+
+  private void discard(Pooled pooled, String reason) {
+
+    total.decrementAndGet();
+    try {
+      pooled.physical.close();
+    }
+    catch (SQLException e) {
+      logger.warn("{}: error closing connection ({}): {}", name, reason, e.getMessage());
+    }
+    logger.debug("{}: closed connection ({})", name, reason);
+  }
+
+  private void fill() throws SQLException {
+
+    while (!closed && total.get() < config.getMinSize()) {
+      Pooled pooled = open();
+      pooled.idleSince = System.currentTimeMillis();
+      idle.offerLast(pooled);
+    }
+  }
+
+  void housekeep() {
+
+    try {
+      long now = System.currentTimeMillis();
+      for (Pooled pooled : idle) {
+        boolean stale = config.getIdleTimeout() > 0 && now - pooled.idleSince > config.getIdleTimeout() && total.get() > config.getMinSize();
+        if ((stale || pooled.expired()) && idle.remove(pooled)) {
+          discard(pooled, stale ? "idle timeout" : "max lifetime");
+        }
+      }
+      long threshold = config.getLeakDetectionThreshold();
+      if (threshold > 0) {
+        for (Pooled pooled : borrowed) {
+          if (!pooled.leakReported && now - pooled.borrowedAt > threshold) {
+            pooled.leakReported = true;
+            logger.warn(name + ": connection held for " + (now - pooled.borrowedAt) + " ms, possible leak", pooled.borrowStack);
+          }
+        }
+      }
+      fill();
+    }
+    catch (Exception e) {
+      logger.warn("{}: housekeeping failed: {}", name, e.getMessage());
+    }
+  }
+
+  /**
+   * @return a snapshot of the pool counters
+   */
+  public JdbcPoolMetrics getMetrics() {
+
+    long count = acquireCount.sum();
+    return new JdbcPoolMetrics(borrowed.size(), idle.size(), waiters.get(), total.get(), count,
+        count == 0 ? 0 : acquireNanos.sum() / count / 1000, maxAcquireNanos.get() / 1000);
+  }
+
+  /**
+   * Closes idle connections and stops housekeeping; borrowed connections are
+   * closed as they are returned.
+   */
+  @Override
+  public void close() {
+
+    if (closed) {
+      return;
+    }
+    closed = true;
+    housekeeper.shutdownNow();
+    for (Pooled pooled = idle.pollFirst(); pooled != null; pooled = idle.pollFirst()) {
+      discard(pooled, "pool closed");
+    }
+    logger.info("{} closed", name);
+  }
+
+  private final class Pooled {
+
+    private final Connection physical;
+    private final long createdAt = System.currentTimeMillis();
+    private final boolean readOnly;
+    private final int isolation;
+    private final String catalog;
+    private final String schema;
+    // Set when the borrower calls a setter for one of the values above
+    private volatile boolean stateChanged;
+    private volatile long idleSince;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowStack;
+    private volatile boolean leakReported;
+
+    private Pooled(Connection physical) throws SQLException {
+
+      this.physical = physical;
+      this.readOnly = physical.isReadOnly();
+      this.isolation = physical.getTransactionIsolation();
+      this.catalog = physical.getCatalog();
+      this.schema = physical.getSchema();
+    }
+
+    /**
+     * Puts back the values the connection was opened with
+     */
+    private void restoreState() throws SQLException {
+
+      if (physical.isReadOnly() != readOnly) {
+        physical.setReadOnly(readOnly);
+      }
+      if (physical.getTransactionIsolation() != isolation) {
+        physical.setTransactionIsolation(isolation);
+      }
+      if (catalog != null && !catalog.equals(physical.getCatalog())) {
+        physical.setCatalog(catalog);
+      }
+      if (schema != null && !schema.equals(physical.getSchema())) {
+        physical.setSchema(schema);
+      }
+      stateChanged = false;
+    }
+
+    private boolean expired() {
+      return config.getMaxLifetime() > 0 && System.currentTimeMillis() - createdAt > config.getMaxLifetime();
+    }
+
+    private Connection lend() {
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new Lease(this));
+    }
+  }
+
+  /**
+   * Routes calls on a lent connection to the physical one until it is closed.
+   */
+  private final class Lease implements InvocationHandler {
+
+    private final Pooled pooled;
+    private volatile boolean returned;
+
+    private Lease(Pooled pooled) {
+      this.pooled = pooled;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+      if (STATE_SETTERS.contains(method.getName())) {
+        pooled.stateChanged = true;
+      }
+      switch (method.getName()) {
+        case "close":
+          synchronized (this) {
+            if (!returned) {
+              returned = true;
+              giveBack(pooled);
+            }
+          }
+          return null;
+        case "isClosed":
+          return returned || pooled.physical.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return name + " lease of " + pooled.physical;
+        default:
+          if (returned) {
+            throw new SQLException("Connection is closed");
+          }
+          try {
+            return method.invoke(pooled.physical, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.norpactech.nc.jdbc;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import com.norpactech.nc.config.load.Globals;
+/**
+ * Settings for a JdbcConnectionPool. Times are in milliseconds; 0 disables
+ * idle eviction, max lifetime and leak detection respectively.
+ */
+public class JdbcPoolConfig {
+
+  private String url;
+  private String driverClass;
+  private String username;
+  private String password;
+  private int minSize = 1;
+  private int maxSize = 8;
+  private long acquireTimeout = 30_000;
+  private int validationTimeoutSeconds = 5;
+  private long idleTimeout = 600_000;
+  private long maxLifetime = 1_800_000;
+  private long leakDetectionThreshold = 0;
+  private long housekeepingInterval = 30_000;
+
+  public JdbcPoolConfig() {}
+
+  public JdbcPoolConfig(String url, String driverClass, String username, String password) {
+
+    this.url = url;
+    this.driverClass = driverClass;
+    this.username = username;
+    this.password = password;
+  }
+
+  /**
+   * Reads the EXPORT_DB_* connection settings and these optional sizing entries:
+   * EXPORT_DB_POOL_MIN, EXPORT_DB_POOL_MAX, EXPORT_DB_POOL_TIMEOUT_MS,
+   * EXPORT_DB_POOL_IDLE_MS, EXPORT_DB_POOL_LIFETIME_MS and EXPORT_DB_POOL_LEAK_MS.
+   */
+  public static JdbcPoolConfig fromGlobals() {
+
+    var config = new JdbcPoolConfig(Globals.EXPORT_DB_URL, Globals.EXPORT_DB_CLASS, Globals.EXPORT_DB_USERNAME, Globals.EXPORT_DB_PASSWORD);
+    config.setMinSize(Globals.getIntEnv("EXPORT_DB_POOL_MIN", config.getMinSize()));
+    config.setMaxSize(Globals.getIntEnv("EXPORT_DB_POOL_MAX", config.getMaxSize()));
+    config.setAcquireTimeout(Globals.getIntEnv("EXPORT_DB_POOL_TIMEOUT_MS", (int) config.getAcquireTimeout()));
+    config.setIdleTimeout(Globals.getIntEnv("EXPORT_DB_POOL_IDLE_MS", (int) config.getIdleTimeout()));
+    config.setMaxLifetime(Globals.getIntEnv("EXPORT_DB_POOL_LIFETIME_MS", (int) config.getMaxLifetime()));
+    config.setLeakDetectionThreshold(Globals.getIntEnv("EXPORT_DB_POOL_LEAK_MS", (int) config.getLeakDetectionThreshold()));
+    return config;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+  public void setUrl(String url) {
+    this.url = url;
+  }
+  public String getDriverClass() {
+    return driverClass;
+  }
+  public void setDriverClass(String driverClass) {
+    this.driverClass = driverClass;
+  }
+  public String getUsername() {
+    return username;
+  }
+  public void setUsername(String username) {
+    this.username = username;
+  }
+  public String getPassword() {
+    return password;
+  }
+  public void setPassword(String password) {
+    this.password = password;
+  }
+  public int getMinSize() {
+    return minSize;
+  }
+  public void setMinSize(int minSize) {
+    this.minSize = minSize;
+  }
+  public int getMaxSize() {
+    return maxSize;
+  }
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+  public long getAcquireTimeout() {
+    return acquireTimeout;
+  }
+  public void setAcquireTimeout(long acquireTimeout) {
+    this.acquireTimeout = acquireTimeout;
+  }
+  public int getValidationTimeoutSeconds() {
+    return validationTimeoutSeconds;
+  }
+  public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+    this.validationTimeoutSeconds = validationTimeoutSeconds;
+  }
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+  public void setIdleTimeout(long idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+  public long getMaxLifetime() {
+    return maxLifetime;
+  }
+  public void setMaxLifetime(long maxLifetime) {
+    this.maxLifetime = maxLifetime;
+  }
+  public long getLeakDetectionThreshold() {
+    return leakDetectionThreshold;
+  }
+  public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+    this.leakDetectionThreshold = leakDetectionThreshold;
+  }
+  public long getHousekeepingInterval() {
+    return housekeepingInterval;
+  }
+  public void setHousekeepingInterval(long housekeepingInterval) {
+    this.housekeepingInterval = housekeepingInterval;
+  }
+}
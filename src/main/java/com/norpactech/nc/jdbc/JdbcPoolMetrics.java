@@ -0,0 +1,67 @@
+package com.norpactech.nc.jdbc;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+/**
+ * A point-in-time snapshot of JdbcConnectionPool counters.
+ */
+public class JdbcPoolMetrics {
+
+  private final int active;
+  private final int idle;
+  private final int waiters;
+  private final int total;
+  private final long acquireCount;
+  private final long averageAcquireMicros;
+  private final long maxAcquireMicros;
+
+  public JdbcPoolMetrics(int active, int idle, int waiters, int total, long acquireCount, long averageAcquireMicros, long maxAcquireMicros) {
+
+    this.active = active;
+    this.idle = idle;
+    this.waiters = waiters;
+    this.total = total;
+    this.acquireCount = acquireCount;
+    this.averageAcquireMicros = averageAcquireMicros;
+    this.maxAcquireMicros = maxAcquireMicros;
+  }
+
+  /**
+   * @return connections currently borrowed
+   */
+  public int getActive() {
+    return active;
+  }
+  public int getIdle() {
+    return idle;
+  }
+  /**
+   * @return callers waiting for a connection
+   */
+  public int getWaiters() {
+    return waiters;
+  }
+  /**
+   * @return open physical connections
+   */
+  public int getTotal() {
+    return total;
+  }
+  public long getAcquireCount() {
+    return acquireCount;
+  }
+  public long getAverageAcquireMicros() {
+    return averageAcquireMicros;
+  }
+  public long getMaxAcquireMicros() {
+    return maxAcquireMicros;
+  }
+
+  @Override
+  public String toString() {
+    return "active=" + active + ", idle=" + idle + ", waiters=" + waiters + ", total=" + total
+        + ", acquired=" + acquireCount + ", avgAcquire=" + averageAcquireMicros + "us, maxAcquire=" + maxAcquireMicros + "us";
+  }
+}
@@ -0,0 +1,197 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.migration.BatchWriter;
+import com.norpactech.nc.utils.TextUtils;
+import com.norpactech.nc.vo.ForeignKeyVO;
+/**
+ * Fills in the foreign key ids of imported records that reference other records
+ * by natural key, e.g. "customer": "Acme" becomes "idCustomer": <Acme's id>.
+ *
+ * For a foreign key column id_customer the natural key is read from the record's
+ * "customer" param (TextUtils.fkName) and the id written to "idCustomer"; once
+ * resolved, the "customer" param is removed so it is not sent on. A batch
+ * is resolved with one KeyLookup call per referenced table for all the keys the
+ * batch needs that are not cached yet, instead of a findOne per reference. Found
+ * ids are cached for later batches; keys not found are not, since the referenced
+ * record may be loaded later.
+ *
+ * Thread-safe: the writer threads of an import may resolve concurrently.
+ */
+public class ForeignKeyResolver {
+
+  private static final Logger logger = LoggerFactory.getLogger(ForeignKeyResolver.class);
+  public static final String DEFAULT_NATURAL_KEY = "name";
+
+  private final KeyLookup lookup;
+  private final Map<String, List<ForeignKeyVO>> foreignKeys = new HashMap<>();
+  private final Map<String, String> naturalKeys = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, UUID>> cache = new ConcurrentHashMap<>();
+  private final LongAdder lookups = new LongAdder();
+
+  /**
+   * @param foreignKeys the foreign keys of the imported tables; those whose column
+   *        has no id_ prefix have no natural key param and are ignored
+   */
+  public ForeignKeyResolver(KeyLookup lookup, Collection<ForeignKeyVO> foreignKeys) {
+
+    this.lookup = lookup;
+    for (ForeignKeyVO foreignKey : foreignKeys) {
+      if (!foreignKey.getForeignKey().equals(TextUtils.fkName(foreignKey.getForeignKey()))) {
+        this.foreignKeys.computeIfAbsent(foreignKey.getTable(), table -> new ArrayList<>()).add(foreignKey);
+      }
+    }
+  }
+
+  /**
+   * @param references a referenced table
+   * @param keyColumn its natural key column; DEFAULT_NATURAL_KEY if not set
+   */
+  public void setNaturalKey(String references, String keyColumn) {
+    naturalKeys.put(references, keyColumn);
+  }
+
+  /**
+   * Sets the id param of every resolvable reference in the records, removing the
+   * natural key param it replaces. A record whose id param is already set keeps
+   * it, and an unresolved reference keeps its natural key param.
+   *
+   * @param table the table the records are imported into
+   * @return the number of references whose natural key was not found
+   */
+  public int resolve(String table, List<Map<String, Object>> records) throws Exception {
+
+    List<ForeignKeyVO> tableKeys = foreignKeys.get(table);
+    if (tableKeys == null || records.isEmpty()) {
+      return 0;
+    }
+    // The keys each referenced table must resolve, shared by foreign keys to the same table
+    var wanted = new LinkedHashMap<String, Set<String>>();
+    var lookupKeys = new HashMap<String, ForeignKeyVO>();
+    for (ForeignKeyVO foreignKey : tableKeys) {
+      String cacheName = cacheName(foreignKey);
+      Map<String, UUID> cached = cache.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+      String source = TextUtils.toCamelCase(TextUtils.fkName(foreignKey.getForeignKey()));
+      String target = TextUtils.toCamelCase(foreignKey.getForeignKey());
+      for (Map<String, Object> record : records) {
+        String key = naturalKey(record, source, target);
+        if (key != null && !cached.containsKey(key)) {
+          wanted.computeIfAbsent(cacheName, name -> new HashSet<>()).add(key);
+          lookupKeys.putIfAbsent(cacheName, foreignKey);
+        }
+      }
+    }
+    for (Map.Entry<String, Set<String>> entry : wanted.entrySet()) {
+      ForeignKeyVO foreignKey = lookupKeys.get(entry.getKey());
+      lookups.increment();
+      cache.computeIfAbsent(entry.getKey(), name -> new ConcurrentHashMap<>()).putAll(lookup.lookup(foreignKey, naturalKey(foreignKey), entry.getValue()));
+    }
+
+    int unresolved = 0;
+    for (ForeignKeyVO foreignKey : tableKeys) {
+      Map<String, UUID> cached = cache.computeIfAbsent(cacheName(foreignKey), name -> new ConcurrentHashMap<>());
+      String source = TextUtils.toCamelCase(TextUtils.fkName(foreignKey.getForeignKey()));
+      String target = TextUtils.toCamelCase(foreignKey.getForeignKey());
+      for (Map<String, Object> record : records) {
+        String key = naturalKey(record, source, target);
+        if (key == null) {
+          continue;
+        }
+        UUID id = cached.get(key);
+        if (id == null) {
+          unresolved++;
+          logger.debug("{}.{}: no {} with {} '{}'", table, foreignKey.getForeignKey(), foreignKey.getReferences(), naturalKey(foreignKey), key);
+        }
+        else {
+          record.put(target, id.toString());
+          record.remove(source);
+        }
+      }
+    }
+    if (unresolved > 0) {
+      logger.warn("{}: {} references in a batch of {} could not be resolved", table, unresolved, records.size());
+    }
+    return unresolved;
+  }
+
+  /**
+   * @return a writer that resolves each batch for the table before passing it on
+   */
+  public BatchWriter writer(String table, BatchWriter writer) {
+
+    return new BatchWriter() {
+      @Override
+      public void write(List<Map<String, Object>> batch) throws Exception {
+
+        resolve(table, batch);
+        writer.write(batch);
+      }
+
+      @Override
+      public void write(List<Map<String, Object>> batch, String idempotencyKey) throws Exception {
+
+        resolve(table, batch);
+        writer.write(batch, idempotencyKey);
+      }
+    };
+  }
+
+  /**
+   * @return the natural key to resolve, or null if the record has none or its id
+   *         is already set
+   */
+  private static String naturalKey(Map<String, Object> record, String source, String target) {
+
+    Object value = record.get(source);
+    if (value == null || record.get(target) != null) {
+      return null;
+    }
+    String key = value.toString().strip();
+    return key.isEmpty() ? null : key;
+  }
+
+  private String naturalKey(ForeignKeyVO foreignKey) {
+    return naturalKeys.getOrDefault(foreignKey.getReferences(), DEFAULT_NATURAL_KEY);
+  }
+
+  private String cacheName(ForeignKeyVO foreignKey) {
+    return foreignKey.getReferences() + "." + naturalKey(foreignKey);
+  }
+
+  /**
+   * @return the KeyLookup calls made
+   */
+  public long getLookups() {
+    return lookups.sum();
+  }
+  /**
+   * @return the natural keys resolved and cached, across all referenced tables
+   */
+  public int getCachedKeys() {
+    return cache.values().stream().mapToInt(Map::size).sum();
+  }
+  /**
+   * Forgets the cached ids, e.g. after referenced records were reloaded.
+   */
+  public void clear() {
+    cache.clear();
+  }
+}
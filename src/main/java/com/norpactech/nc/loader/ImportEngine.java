@@ -0,0 +1,424 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.norpactech.nc.config.load.Globals;
+import com.norpactech.nc.enums.EnumExportFormat;
+import com.norpactech.nc.migration.BatchWriter;
+import com.norpactech.nc.utils.TextUtils;
+/**
+ * Imports every .csv and .jsonl file in a directory through BatchWriters.
+ *
+ * Each file is split into chunks of about chunkBytes at record boundaries, and
+ * chunks of all files are parsed in parallel by MappedRecordReaders. CSV boundaries
+ * come from a quote-aware byte scan, so quoted newlines never split a record; JSONL
+ * boundaries are plain newlines. Records become params keyed by TextUtils.toCamelCase
+ * of the CSV header or JSON key, pass through the optional mapper, and are written
+ * in batches, with at most writeConcurrency batches in flight across all files.
+ *
+ * Bad records and failed batches are counted and reported per file; they do not
+ * stop the import.
+ *
+ * A resumable import keeps an ImportJournal in the directory: each written batch's
+ * byte range is journaled, a rerun skips the journaled ranges, and the journal is
+ * deleted once an import finishes with nothing failed. Every batch is written with
+ * an idempotency key derived from its file and byte range, which stays the same
+ * when the batch is replayed after a crash between the write and its journal entry.
+ */
+public class ImportEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportEngine.class);
+  private static final ObjectReader JSON_READER = new ObjectMapper().readerFor(new TypeReference<LinkedHashMap<String, Object>>() {});
+  private static final int MAX_ERRORS = 20;
+
+  private final Function<String, BatchWriter> writers;
+  private UnaryOperator<Map<String, Object>> mapper;
+  private int parseThreads = Runtime.getRuntime().availableProcessors();
+  private int writeConcurrency = 4;
+  private int batchSize = Globals.getBatchSizeInt();
+  private long chunkBytes = 16L * 1024 * 1024;
+  private boolean resumable;
+
+  /**
+   * @param writers the writer for a file's base name (e.g. "customer" for
+   *        customer.csv), or null to skip the file
+   */
+  public ImportEngine(Function<String, BatchWriter> writers) {
+    this.writers = writers;
+  }
+
+  /**
+   * Imports the files in IMPORT_DATA_DIRECTORY.
+   */
+  public List<FileResult> importAll() throws IOException, InterruptedException {
+    return importAll(Path.of(Globals.IMPORT_DATA_DIRECTORY));
+  }
+
+  /**
+   * @return one result per imported file, in file name order
+   */
+  public List<FileResult> importAll(Path directory) throws IOException, InterruptedException {
+
+    List<Path> files;
+    try (Stream<Path> list = Files.list(directory)) {
+      files = list.filter(file -> format(file) != null && Files.isRegularFile(file)).sorted().collect(Collectors.toList());
+    }
+
+    ImportJournal journal = resumable ? ImportJournal.open(directory) : null;
+    ExecutorService executor = Executors.newFixedThreadPool(parseThreads);
+    var writePermits = new Semaphore(writeConcurrency);
+    var imports = new ArrayList<FileImport>();
+    var futures = new ArrayList<Future<?>>();
+    boolean complete = true;
+    try {
+      for (Path file : files) {
+        String name = baseName(file);
+        BatchWriter writer = writers.apply(name);
+        if (writer == null) {
+          logger.info("Skipping {}: no writer for {}", file.getFileName(), name);
+          continue;
+        }
+        var fileImport = new FileImport(file, format(file), writer, writePermits, journal);
+        imports.add(fileImport);
+        for (long[] chunk : fileImport.chunks()) {
+          futures.add(executor.submit(() -> {
+            fileImport.importChunk(chunk[0], chunk[1]);
+            return null;
+          }));
+        }
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        }
+        catch (ExecutionException e) {
+          complete = false;
+          logger.error("Import chunk failed: {}", e.getCause().getMessage(), e.getCause());
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+      if (journal != null) {
+        journal.close();
+      }
+    }
+
+    var results = new ArrayList<FileResult>();
+    for (FileImport fileImport : imports) {
+      results.add(fileImport.result());
+      complete &= fileImport.failed.get() == 0;
+    }
+    if (journal != null && complete) {
+      journal.delete();
+    }
+    return results;
+  }
+
+  static EnumExportFormat format(Path file) {
+
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".csv")) {
+      return EnumExportFormat.CSV;
+    }
+    if (name.endsWith(".jsonl")) {
+      return EnumExportFormat.JSONL;
+    }
+    return null;
+  }
+
+  private static String baseName(Path file) {
+
+    String name = file.getFileName().toString();
+    return name.substring(0, name.lastIndexOf('.'));
+  }
+
+  /**
+   * The state of one file while its chunks are imported.
+   */
+  private final class FileImport {
+
+    private final Path file;
+    private final EnumExportFormat format;
+    private final BatchWriter writer;
+    private final Semaphore writePermits;
+    private final ImportJournal journal;
+    private final AtomicLong firstStart = new AtomicLong();
+    private final AtomicLong lastEnd = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private String[] header;
+    private String fingerprint;
+    private int chunkCount;
+
+    private FileImport(Path file, EnumExportFormat format, BatchWriter writer, Semaphore writePermits, ImportJournal journal) {
+
+      this.file = file;
+      this.format = format;
+      this.writer = writer;
+      this.writePermits = writePermits;
+      this.journal = journal;
+    }
+
+    /**
+     * @return [start, end) byte ranges that begin and end on record boundaries,
+     *         less any ranges the journal says were written
+     */
+    private List<long[]> chunks() throws IOException {
+
+      fingerprint = ImportJournal.fingerprint(file);
+      long from = 0;
+      if (format == EnumExportFormat.CSV) {
+        try (var reader = new MappedRecordReader(file, format)) {
+          header = new String[0];
+          if (reader.next()) {
+            header = new String[reader.size()];
+            for (int i = 0; i < header.length; i++) {
+              header[i] = TextUtils.toCamelCase(reader.getString(i).strip());
+            }
+            from = reader.getPosition();
+          }
+        }
+      }
+      List<long[]> chunks = MappedRecordReader.split(file, format, from, chunkBytes);
+      if (journal != null && journal.acknowledgedBytes(file) > 0) {
+        var remaining = new ArrayList<long[]>();
+        for (long[] chunk : chunks) {
+          remaining.addAll(journal.remaining(file, chunk[0], chunk[1]));
+        }
+        logger.info("Resuming {}: {} of {} bytes already written", file.getFileName(), journal.acknowledgedBytes(file), Files.size(file) - from);
+        chunks = remaining;
+      }
+      chunkCount = chunks.size();
+      return chunks;
+    }
+
+    private void importChunk(long from, long to) throws IOException, InterruptedException {
+
+      firstStart.compareAndSet(0, System.currentTimeMillis());
+      var batch = new ArrayList<Map<String, Object>>(batchSize);
+      long batchStart = from;
+      try (var reader = new MappedRecordReader(file, format, from, to)) {
+        while (reader.next()) {
+          Map<String, Object> params;
+          try {
+            params = format == EnumExportFormat.CSV ? readCsv(reader) : readJson(reader);
+          }
+          catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            error("record at byte " + reader.getRecordStart() + ": " + e.getMessage());
+            continue;
+          }
+          records.incrementAndGet();
+          if (mapper != null) {
+            params = mapper.apply(params);
+            if (params == null) {
+              continue;
+            }
+          }
+          batch.add(params);
+          if (batch.size() >= batchSize) {
+            flush(batch, batchStart, reader.getPosition());
+            batchStart = reader.getPosition();
+          }
+        }
+        flush(batch, batchStart, to);
+      }
+      catch (IOException e) {
+        error("chunk at byte " + from + " stopped: " + e.getMessage());
+        throw e;
+      }
+      finally {
+        lastEnd.accumulateAndGet(System.currentTimeMillis(), Math::max);
+        if (finished.incrementAndGet() == chunkCount) {
+          logger.info("Finished {}", result());
+        }
+      }
+    }
+
+    /**
+     * Writes the batch read from [start, end) and journals the range once written.
+     */
+    private void flush(List<Map<String, Object>> batch, long start, long end) throws IOException, InterruptedException {
+
+      String key = ImportJournal.idempotencyKey(file, fingerprint, start, end);
+      if (!batch.isEmpty()) {
+        writePermits.acquire();
+        try {
+          writer.write(new ArrayList<>(batch), key);
+          written.addAndGet(batch.size());
+        }
+        catch (Exception e) {
+          failed.addAndGet(batch.size());
+          error("batch of " + batch.size() + " failed: " + e.getMessage());
+          return;
+        }
+        finally {
+          writePermits.release();
+          batch.clear();
+        }
+      }
+      if (journal != null && end > start) {
+        journal.acknowledge(file, fingerprint, start, end, key);
+      }
+    }
+
+    private Map<String, Object> readCsv(MappedRecordReader reader) throws IOException {
+
+      if (reader.size() != header.length) {
+        throw new IOException("expected " + header.length + " fields, found " + reader.size());
+      }
+      var params = new LinkedHashMap<String, Object>(header.length * 2);
+      for (int i = 0; i < header.length; i++) {
+        params.put(header[i], reader.isEmpty(i) ? null : reader.getString(i));
+      }
+      return params;
+    }
+
+    private Map<String, Object> readJson(MappedRecordReader reader) throws IOException {
+
+      Map<String, Object> json = reader.readJson(JSON_READER);
+      var params = new LinkedHashMap<String, Object>(json.size() * 2);
+      for (var entry : json.entrySet()) {
+        params.put(TextUtils.toCamelCase(entry.getKey()), entry.getValue());
+      }
+      return params;
+    }
+
+    private void error(String message) {
+
+      if (errors.size() < MAX_ERRORS) {
+        errors.add(message);
+      }
+      logger.warn("{}: {}", file.getFileName(), message);
+    }
+
+    private FileResult result() {
+      long elapsed = firstStart.get() == 0 ? 0 : lastEnd.get() - firstStart.get();
+      return new FileResult(file, records.get(), written.get(), failed.get(), elapsed, List.copyOf(errors));
+    }
+  }
+
+  /**
+   * @param mapper adjusts each record's params, or returns null to skip the record
+   */
+  public void setMapper(UnaryOperator<Map<String, Object>> mapper) {
+    this.mapper = mapper;
+  }
+  public void setParseThreads(int parseThreads) {
+    this.parseThreads = Math.max(1, parseThreads);
+  }
+  /**
+   * @param writeConcurrency the most batches being written at once, across all files
+   */
+  public void setWriteConcurrency(int writeConcurrency) {
+    this.writeConcurrency = Math.max(1, writeConcurrency);
+  }
+  public void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+  }
+  /**
+   * @param resumable journal written batches in the import directory and skip them
+   *        when the import is rerun
+   */
+  public void setResumable(boolean resumable) {
+    this.resumable = resumable;
+  }
+  /**
+   * @param chunkBytes the approximate size of the ranges a file is split into
+   */
+  public void setChunkBytes(long chunkBytes) {
+    this.chunkBytes = Math.max(1, chunkBytes);
+  }
+
+  /**
+   * Counts and errors of one imported file
+   */
+  public static class FileResult {
+
+    private final Path file;
+    private final long records;
+    private final long written;
+    private final long failed;
+    private final long elapsedMillis;
+    private final List<String> errors;
+
+    public FileResult(Path file, long records, long written, long failed, long elapsedMillis, List<String> errors) {
+
+      this.file = file;
+      this.records = records;
+      this.written = written;
+      this.failed = failed;
+      this.elapsedMillis = elapsedMillis;
+      this.errors = errors;
+    }
+
+    public Path getFile() {
+      return file;
+    }
+    /**
+     * @return records parsed
+     */
+    public long getRecords() {
+      return records;
+    }
+    public long getWritten() {
+      return written;
+    }
+    /**
+     * @return records that could not be parsed or whose batch failed
+     */
+    public long getFailed() {
+      return failed;
+    }
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+    /**
+     * @return the first error messages, at most 20
+     */
+    public List<String> getErrors() {
+      return errors;
+    }
+    public double getRecordsPerSecond() {
+      return elapsedMillis == 0 ? records : records * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return file.getFileName() + ": " + records + " records, " + written + " written, " + failed + " failed in "
+          + elapsedMillis + " ms (" + Math.round(getRecordsPerSecond()) + " records/s)";
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+/**
+ * An append-only record of the byte ranges of each import file whose batches were
+ * acknowledged by the writer, so a restarted import can skip them.
+ *
+ * Each acknowledged batch appends one line - file name, file fingerprint, start
+ * and end offset, idempotency key - and forces it to disk before the next batch of
+ * that chunk is read. A torn line left by a crash is dropped on open, and the
+ * remaining lines are compacted into one line per contiguous range.
+ *
+ * The fingerprint is the file's size and modification time; ranges recorded for an
+ * older fingerprint are discarded, since their offsets no longer match the file.
+ */
+public class ImportJournal implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportJournal.class);
+  public static final String FILE_NAME = ".import-journal";
+
+  private final Path path;
+  private final Map<String, FileRanges> files = new HashMap<>();
+  private final FileChannel channel;
+
+  /**
+   * Opens (or creates) the journal of an import directory.
+   */
+  public static ImportJournal open(Path directory) throws IOException {
+    return new ImportJournal(directory.resolve(FILE_NAME));
+  }
+
+  public ImportJournal(Path path) throws IOException {
+
+    this.path = path;
+    if (Files.exists(path)) {
+      load();
+      compact();
+    }
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void load() throws IOException {
+
+    String text = Files.readString(path, StandardCharsets.UTF_8);
+    int end = text.lastIndexOf('\n') + 1;
+    if (end < text.length()) {
+      logger.warn("Dropping a torn entry at the end of {}", path);
+    }
+    for (String line : text.substring(0, end).split("\n")) {
+      String[] fields = line.split("\t");
+      if (fields.length < 4) {
+        continue;
+      }
+      ranges(fields[0], fields[1]).add(Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+    }
+  }
+
+  /**
+   * Rewrites the journal with one line per contiguous range; the file is replaced
+   * atomically so a crash leaves either the old or the compacted journal.
+   */
+  private void compact() throws IOException {
+
+    var text = new StringBuilder();
+    for (var entry : files.entrySet()) {
+      for (var range : entry.getValue().ranges.entrySet()) {
+        text.append(line(entry.getKey(), entry.getValue().fingerprint, range.getKey(), range.getValue(), "-"));
+      }
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    Files.writeString(temp, text, StandardCharsets.UTF_8);
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * @return the file's size and modification time
+   */
+  public static String fingerprint(Path file) throws IOException {
+    return Files.size(file) + "-" + Files.getLastModifiedTime(file).toMillis();
+  }
+
+  /**
+   * @return the parts of [from, to) of the file not yet acknowledged, in order
+   */
+  public synchronized List<long[]> remaining(Path file, long from, long to) throws IOException {
+
+    FileRanges acknowledged = ranges(file.getFileName().toString(), fingerprint(file));
+    var remaining = new ArrayList<long[]>();
+    long position = from;
+    Map.Entry<Long, Long> range = acknowledged.ranges.floorEntry(from);
+    if (range == null || range.getValue() <= from) {
+      range = acknowledged.ranges.higherEntry(from);
+    }
+    while (range != null && range.getKey() < to && position < to) {
+      if (range.getKey() > position) {
+        remaining.add(new long[] {position, range.getKey()});
+      }
+      position = Math.max(position, range.getValue());
+      range = acknowledged.ranges.higherEntry(range.getKey());
+    }
+    if (position < to) {
+      remaining.add(new long[] {position, to});
+    }
+    return remaining;
+  }
+
+  /**
+   * @return the bytes of the file already acknowledged
+   */
+  public synchronized long acknowledgedBytes(Path file) throws IOException {
+
+    long bytes = 0;
+    for (var range : ranges(file.getFileName().toString(), fingerprint(file)).ranges.entrySet()) {
+      bytes += range.getValue() - range.getKey();
+    }
+    return bytes;
+  }
+
+  /**
+   * A key that is the same each time the same records of the same file are
+   * batched, so a writer can recognize a batch replayed after a restart.
+   */
+  public static String idempotencyKey(Path file, String fingerprint, long start, long end) {
+
+    String name = file.getFileName() + "\t" + fingerprint + "\t" + start + "\t" + end;
+    return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  /**
+   * Durably records that the batch read from [start, end) of the file was written.
+   */
+  public synchronized void acknowledge(Path file, String fingerprint, long start, long end, String key) throws IOException {
+
+    String name = file.getFileName().toString();
+    ranges(name, fingerprint).add(start, end);
+    ByteBuffer buffer = ByteBuffer.wrap(line(name, fingerprint, start, end, key).getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  /**
+   * Closes and deletes the journal after a complete import.
+   */
+  public synchronized void delete() throws IOException {
+
+    close();
+    Files.deleteIfExists(path);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  private FileRanges ranges(String name, String fingerprint) {
+
+    FileRanges ranges = files.get(name);
+    if (ranges == null || !ranges.fingerprint.equals(fingerprint)) {
+      if (ranges != null) {
+        logger.warn("{} changed since it was journaled; importing it from the start", name);
+      }
+      ranges = new FileRanges(fingerprint);
+      files.put(name, ranges);
+    }
+    return ranges;
+  }
+
+  private static String line(String name, String fingerprint, long start, long end, String key) {
+    return name + "\t" + fingerprint + "\t" + start + "\t" + end + "\t" + key + "\n";
+  }
+
+  /**
+   * Acknowledged ranges of one file, merged, keyed by start
+   */
+  private static final class FileRanges {
+
+    private final String fingerprint;
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    private FileRanges(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    private void add(long start, long end) {
+
+      Map.Entry<Long, Long> before = ranges.floorEntry(start);
+      if (before != null && before.getValue() >= start) {
+        start = before.getKey();
+        end = Math.max(end, before.getValue());
+      }
+      Map.Entry<Long, Long> after = ranges.ceilingEntry(start);
+      while (after != null && after.getKey() <= end) {
+        end = Math.max(end, after.getValue());
+        ranges.remove(after.getKey());
+        after = ranges.ceilingEntry(start);
+      }
+      ranges.put(start, end);
+    }
+  }
+}
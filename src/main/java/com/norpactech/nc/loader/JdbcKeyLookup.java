@@ -0,0 +1,168 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.norpactech.nc.export.TableExporter;
+import com.norpactech.nc.jdbc.JdbcConnectionPool;
+import com.norpactech.nc.vo.ForeignKeyVO;
+/**
+ * Looks natural keys up with SELECT id, key FROM table WHERE key IN (...), one
+ * statement per maxParameters keys.
+ *
+ * A full chunk's statement is prepared once and reused for every full chunk, so
+ * the database sees at most two statement shapes per lookup. Keys are bound as
+ * the key column's type (integer, decimal, UUID or text, from the statement's
+ * metadata), since PostgreSQL will not compare an integer or uuid column with a
+ * varchar parameter; a key that does not convert cannot match and is skipped.
+ */
+public class JdbcKeyLookup implements KeyLookup {
+
+  private static final int TEXT = 0;
+  private static final int INTEGER = 1;
+  private static final int DECIMAL = 2;
+  private static final int UUID_KEY = 3;
+
+  private final JdbcConnectionPool pool;
+  private int maxParameters = 1000;
+
+  public JdbcKeyLookup(JdbcConnectionPool pool) {
+    this.pool = pool;
+  }
+
+  @Override
+  public Map<String, UUID> lookup(ForeignKeyVO foreignKey, String keyColumn, Set<String> keys) throws SQLException {
+
+    var ids = new HashMap<String, UUID>();
+    if (keys.isEmpty()) {
+      return ids;
+    }
+    String select = "SELECT " + TableExporter.checkName(foreignKey.getPrimaryKey()) + ", " + TableExporter.checkName(keyColumn)
+        + " FROM " + TableExporter.checkName(foreignKey.getReferences()) + " WHERE " + keyColumn + " IN (";
+    List<String> remaining = new ArrayList<>(keys);
+    try (Connection connection = pool.getConnection()) {
+      int full = remaining.size() / maxParameters * maxParameters;
+      if (full > 0) {
+        try (PreparedStatement ps = connection.prepareStatement(select + placeholders(maxParameters) + ")")) {
+          for (int from = 0; from < full; from += maxParameters) {
+            query(ps, remaining.subList(from, from + maxParameters), ids);
+          }
+        }
+      }
+      if (full < remaining.size()) {
+        try (PreparedStatement ps = connection.prepareStatement(select + placeholders(remaining.size() - full) + ")")) {
+          query(ps, remaining.subList(full, remaining.size()), ids);
+        }
+      }
+    }
+    return ids;
+  }
+
+  private static void query(PreparedStatement ps, List<String> keys, Map<String, UUID> ids) throws SQLException {
+
+    int keyType = keyType(ps);
+    // The converted keys, mapped back to the text the caller asked for
+    var originals = new HashMap<Object, String>(keys.size() * 4 / 3 + 1);
+    Object first = null;
+    for (String key : keys) {
+      Object value = convert(keyType, key);
+      if (value != null) {
+        originals.putIfAbsent(value, key);
+        first = first == null ? value : first;
+      }
+    }
+    if (first == null) {
+      return;
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      Object value = convert(keyType, keys.get(i));
+      // Every placeholder needs a value; repeating a valid key changes nothing
+      ps.setObject(i + 1, value == null ? first : value);
+    }
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        Object id = rs.getObject(1);
+        String key = originals.get(convert(keyType, rs.getString(2)));
+        if (key != null) {
+          ids.put(key, id instanceof UUID ? (UUID) id : UUID.fromString(id.toString()));
+        }
+      }
+    }
+  }
+
+  private static int keyType(PreparedStatement ps) throws SQLException {
+
+    ResultSetMetaData metaData = ps.getMetaData();
+    if (metaData == null) {
+      return TEXT;
+    }
+    switch (metaData.getColumnType(2)) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        return INTEGER;
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        return DECIMAL;
+      default:
+        return "uuid".equalsIgnoreCase(metaData.getColumnTypeName(2)) ? UUID_KEY : TEXT;
+    }
+  }
+
+  /**
+   * @return the key as the column's Java type, or null if it does not convert
+   */
+  private static Object convert(int keyType, String key) {
+
+    if (key == null) {
+      return null;
+    }
+    try {
+      switch (keyType) {
+        case INTEGER:
+          return Long.valueOf(key.strip());
+        case DECIMAL:
+          return new BigDecimal(key.strip()).stripTrailingZeros();
+        case UUID_KEY:
+          return UUID.fromString(key.strip());
+        default:
+          return key;
+      }
+    }
+    catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static String placeholders(int count) {
+
+    var text = new StringBuilder(count * 3);
+    for (int i = 0; i < count; i++) {
+      text.append(i == 0 ? "?" : ", ?");
+    }
+    return text.toString();
+  }
+
+  /**
+   * @param maxParameters the most keys bound to one statement
+   */
+  public void setMaxParameters(int maxParameters) {
+    this.maxParameters = Math.max(1, maxParameters);
+  }
+}
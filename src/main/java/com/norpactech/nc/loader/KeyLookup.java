@@ -0,0 +1,55 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.norpactech.nc.repository.ReferenceCache;
+import com.norpactech.nc.utils.TextUtils;
+import com.norpactech.nc.vo.ForeignKeyVO;
+/**
+ * Finds the ids of referenced records by natural key, many keys at a time, for a
+ * ForeignKeyResolver.
+ */
+@FunctionalInterface
+public interface KeyLookup {
+
+  /**
+   * @param foreignKey the foreign key; getReferences() is the table to search and
+   *        getPrimaryKey() its id column
+   * @param keyColumn the referenced table's natural key column
+   * @param keys the natural key values
+   * @return the id of each key found; keys not found are absent
+   */
+  Map<String, UUID> lookup(ForeignKeyVO foreignKey, String keyColumn, Set<String> keys) throws Exception;
+
+  /**
+   * Looks keys up in preloaded reference tables instead of the database. The key
+   * column of each table must be one of its cache's indexed fields.
+   *
+   * @param caches the cache of each referenced table, by table name
+   */
+  static KeyLookup of(Map<String, ? extends ReferenceCache<?>> caches) {
+
+    return (foreignKey, keyColumn, keys) -> {
+      ReferenceCache<?> cache = caches.get(foreignKey.getReferences());
+      if (cache == null) {
+        throw new IllegalArgumentException("No reference cache for " + foreignKey.getReferences());
+      }
+      String field = TextUtils.toCamelCase(keyColumn);
+      var ids = new HashMap<String, UUID>();
+      for (String key : keys) {
+        UUID id = cache.getIdBy(field, key);
+        if (id != null) {
+          ids.put(key, id);
+        }
+      }
+      return ids;
+    };
+  }
+}
@@ -0,0 +1,530 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.norpactech.nc.enums.EnumExportFormat;
+import com.norpactech.nc.utils.TextUtils;
+/**
+ * Reads CSV or JSONL records from a byte range of a file through memory-mapped
+ * windows, without a Reader or per-line Strings.
+ *
+ * next() scans bytes for the end of the record and records where each field
+ * starts and ends in the window; nothing is decoded until a field is read, and the
+ * typed getters parse numbers, booleans and UUIDs straight from the bytes. A JSONL
+ * record is a single field holding the line. Field slices are only valid until the
+ * next call to next().
+ *
+ * split() cuts a file into ranges on record boundaries so several readers can
+ * work on one file in parallel.
+ */
+public final class MappedRecordReader implements AutoCloseable {
+
+  static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final boolean csv;
+  private final long end;
+  private final int windowSize;
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+  private long recordStart;
+
+  private int count;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private boolean[] escaped = new boolean[16];
+  private byte[] scratch = new byte[256];
+
+  /**
+   * Reads a whole file.
+   */
+  public MappedRecordReader(Path file, EnumExportFormat format) throws IOException {
+    this(file, format, 0, Long.MAX_VALUE, DEFAULT_WINDOW);
+  }
+
+  /**
+   * @param start the first byte of the range, on a record boundary
+   * @param end the end of the range (exclusive), on a record boundary
+   */
+  public MappedRecordReader(Path file, EnumExportFormat format, long start, long end) throws IOException {
+    this(file, format, start, end, DEFAULT_WINDOW);
+  }
+
+  MappedRecordReader(Path file, EnumExportFormat format, long start, long end, int windowSize) throws IOException {
+
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.csv = format == EnumExportFormat.CSV;
+    this.end = Math.min(end, channel.size());
+    this.windowSize = windowSize;
+    this.position = start;
+  }
+
+  /**
+   * Advances to the next record, skipping blank lines.
+   *
+   * @return false at the end of the range
+   * @throws IOException if a quoted CSV field is not closed before the end of the range
+   */
+  public boolean next() throws IOException {
+
+    int size = windowSize;
+    while (position < end) {
+      if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+        map(position, size);
+      }
+      boolean atEnd = windowStart + window.limit() >= end;
+      int from = (int) (position - windowStart);
+      int next = csv ? scanCsv(from, atEnd) : scanLine(from, atEnd);
+      if (next < 0) {
+        // The record runs past the window: remap from its start, larger if it filled a whole window
+        size = from == 0 ? (int) Math.min(Integer.MAX_VALUE, size * 2L) : windowSize;
+        map(position, size);
+        continue;
+      }
+      recordStart = position;
+      position = windowStart + next;
+      if (!isBlankRecord()) {
+        return true;
+      }
+    }
+    count = 0;
+    return false;
+  }
+
+  private void map(long at, int size) throws IOException {
+
+    windowStart = at;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(size, end - at));
+  }
+
+  /**
+   * @return the index just past the record, or -1 if the window ends first
+   */
+  private int scanCsv(int i, boolean atEnd) throws IOException {
+
+    int limit = window.limit();
+    count = 0;
+    while (true) {
+      if (i < limit && window.get(i) == '"') {
+        int start = ++i;
+        boolean escapes = false;
+        while (true) {
+          if (i >= limit) {
+            if (!atEnd) {
+              return -1;
+            }
+            throw new IOException("Unterminated quoted field at byte " + (windowStart + start - 1));
+          }
+          if (window.get(i) == '"') {
+            if (i + 1 >= limit && !atEnd) {
+              return -1;
+            }
+            if (i + 1 < limit && window.get(i + 1) == '"') {
+              escapes = true;
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        add(start, i, escapes);
+        i++;
+        // Ignore anything between the closing quote and the delimiter, such as \r
+        while (i < limit && window.get(i) != ',' && window.get(i) != '\n') {
+          i++;
+        }
+      }
+      else {
+        int start = i;
+        while (i < limit && window.get(i) != ',' && window.get(i) != '\n') {
+          i++;
+        }
+        int fieldEnd = i;
+        if ((i >= limit || window.get(i) == '\n') && fieldEnd > start && window.get(fieldEnd - 1) == '\r') {
+          fieldEnd--;
+        }
+        add(start, fieldEnd, false);
+      }
+      if (i >= limit) {
+        return atEnd ? i : -1;
+      }
+      if (window.get(i) == '\n') {
+        return i + 1;
+      }
+      i++;
+    }
+  }
+
+  private int scanLine(int i, boolean atEnd) {
+
+    int limit = window.limit();
+    int start = i;
+    while (i < limit && window.get(i) != '\n') {
+      i++;
+    }
+    if (i >= limit && !atEnd) {
+      return -1;
+    }
+    int lineEnd = i > start && window.get(i - 1) == '\r' ? i - 1 : i;
+    count = 0;
+    add(start, lineEnd, false);
+    return i < limit ? i + 1 : i;
+  }
+
+  private void add(int start, int end, boolean escapes) {
+
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+      escaped = Arrays.copyOf(escaped, count * 2);
+    }
+    starts[count] = start;
+    ends[count] = end;
+    escaped[count] = escapes;
+    count++;
+  }
+
+  private boolean isBlankRecord() {
+
+    if (count != 1) {
+      return false;
+    }
+    for (int i = starts[0]; i < ends[0]; i++) {
+      byte b = window.get(i);
+      if (b != ' ' && b != '\t' && b != '\r') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of fields in the current record
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return the byte offset of the current record in the file
+   */
+  public long getRecordStart() {
+    return recordStart;
+  }
+
+  /**
+   * @return the byte offset just past the current record
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  public boolean isEmpty(int field) {
+    return starts[field] == ends[field];
+  }
+
+  /**
+   * @return the field as characters; ASCII fields are a view of the mapped bytes,
+   *         valid until next()
+   */
+  public CharSequence getChars(int field) {
+
+    if (escaped[field]) {
+      return getString(field);
+    }
+    for (int i = starts[field]; i < ends[field]; i++) {
+      if (window.get(i) < 0) {
+        return getString(field);
+      }
+    }
+    return new AsciiSlice(window, starts[field], ends[field] - starts[field]);
+  }
+
+  /**
+   * @return the field decoded as UTF-8, with doubled quotes of a quoted CSV field undone
+   */
+  public String getString(int field) {
+
+    int length = ends[field] - starts[field];
+    if (length == 0) {
+      return "";
+    }
+    String value = new String(bytes(field), 0, length, StandardCharsets.UTF_8);
+    return escaped[field] ? value.replace("\"\"", "\"") : value;
+  }
+
+  /**
+   * @return the integer, or null if the field is blank
+   * @throws RuntimeException if the field is not an integer, as TextUtils.toInteger
+   */
+  public Integer getInteger(int field) {
+
+    if (isBlank(field)) {
+      return null;
+    }
+    long value = parseLong(field, "integer");
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new RuntimeException("Invalid integer: " + getString(field));
+    }
+    return (int) value;
+  }
+
+  /**
+   * @return the long, or null if the field is blank
+   */
+  public Long getLong(int field) {
+    return isBlank(field) ? null : parseLong(field, "long");
+  }
+
+  private long parseLong(int field, String type) {
+
+    int i = starts[field];
+    int last = ends[field];
+    boolean negative = window.get(i) == '-';
+    if (negative || window.get(i) == '+') {
+      i++;
+    }
+    if (i == last || last - i > 18) {
+      return parseSlow(field, type);
+    }
+    long value = 0;
+    for (; i < last; i++) {
+      int digit = window.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new RuntimeException("Invalid " + type + ": " + getString(field));
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  private long parseSlow(int field, String type) {
+
+    try {
+      return Long.parseLong(getString(field));
+    }
+    catch (NumberFormatException e) {
+      throw new RuntimeException("Invalid " + type + ": " + getString(field));
+    }
+  }
+
+  /**
+   * @return true or false ignoring case, or null if the field is blank
+   * @throws RuntimeException for any other value, as TextUtils.toBoolean
+   */
+  public Boolean getBoolean(int field) {
+
+    if (isBlank(field)) {
+      return null;
+    }
+    if (matches(field, "true")) {
+      return true;
+    }
+    if (matches(field, "false")) {
+      return false;
+    }
+    throw new RuntimeException("Invalid boolean: " + getString(field));
+  }
+
+  private boolean matches(int field, String word) {
+
+    int start = starts[field];
+    if (ends[field] - start != word.length()) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      if ((window.get(start + i) | 0x20) != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the UUID, or null if the field is blank
+   * @throws RuntimeException if the field is not a UUID, as TextUtils.toUUID
+   */
+  public UUID getUUID(int field) {
+
+    if (isBlank(field)) {
+      return null;
+    }
+    int start = starts[field];
+    if (ends[field] - start != 36 || window.get(start + 8) != '-' || window.get(start + 13) != '-'
+        || window.get(start + 18) != '-' || window.get(start + 23) != '-') {
+      return TextUtils.toUUID(getString(field));
+    }
+    long msb = 0;
+    long lsb = 0;
+    int digits = 0;
+    for (int i = start; i < start + 36; i++) {
+      byte b = window.get(i);
+      if (b == '-') {
+        continue;
+      }
+      int nibble = Character.digit(b, 16);
+      if (nibble < 0) {
+        throw new RuntimeException("Invalid UUID: " + getString(field));
+      }
+      if (digits++ < 16) {
+        msb = msb << 4 | nibble;
+      }
+      else {
+        lsb = lsb << 4 | nibble;
+      }
+    }
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * @return the decimal, or null if the field is blank
+   */
+  public BigDecimal getBigDecimal(int field) {
+    return isBlank(field) ? null : new BigDecimal(getString(field));
+  }
+
+  /**
+   * Parses the current JSONL record.
+   */
+  public <T> T readJson(ObjectReader reader) throws IOException {
+    return reader.readValue(bytes(0), 0, ends[0] - starts[0]);
+  }
+
+  private boolean isBlank(int field) {
+
+    for (int i = starts[field]; i < ends[field]; i++) {
+      if (!Character.isWhitespace(window.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the field's bytes at the start of a reused array
+   */
+  private byte[] bytes(int field) {
+
+    int length = ends[field] - starts[field];
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    window.get(starts[field], scratch, 0, length);
+    return scratch;
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Splits [from, end of file) into ranges of about chunkBytes that start and end
+   * on record boundaries. CSV is scanned from `from` tracking quotes, so `from` must
+   * itself be a record boundary, e.g. just past the header.
+   *
+   * @return [start, end) pairs covering the range
+   */
+  public static List<long[]> split(Path file, EnumExportFormat format, long from, long chunkBytes) throws IOException {
+
+    var ranges = new ArrayList<long[]>();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long rangeStart = from;
+      long position = from;
+      boolean quoted = false;
+      boolean csv = format == EnumExportFormat.CSV;
+      while (position < size) {
+        long target = rangeStart + chunkBytes;
+        if (target >= size) {
+          break;
+        }
+        if (!csv) {
+          // JSON strings escape newlines, so jump straight to the split point
+          position = Math.max(position, target);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(DEFAULT_WINDOW, size - position));
+        int limit = buffer.limit();
+        int i = 0;
+        for (; i < limit; i++) {
+          byte b = buffer.get(i);
+          if (b == '"' && csv) {
+            quoted = !quoted;
+          }
+          else if (b == '\n' && !quoted && position + i + 1 - rangeStart >= chunkBytes) {
+            ranges.add(new long[] {rangeStart, position + i + 1});
+            rangeStart = position + i + 1;
+            if (!csv) {
+              break;
+            }
+          }
+        }
+        position += csv || i == limit ? limit : i + 1;
+      }
+      if (rangeStart < size) {
+        ranges.add(new long[] {rangeStart, size});
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * A CharSequence over ASCII bytes of a mapped window
+   */
+  private static final class AsciiSlice implements CharSequence {
+
+    private final MappedByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private AsciiSlice(MappedByteBuffer buffer, int offset, int length) {
+
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiSlice(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+
+      byte[] bytes = new byte[length];
+      buffer.get(offset, bytes, 0, length);
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
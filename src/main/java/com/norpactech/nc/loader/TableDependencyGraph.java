@@ -0,0 +1,228 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import com.norpactech.nc.exception.CyclicDependencyException;
+import com.norpactech.nc.vo.ForeignKeyVO;
+/**
+ * The load-order DAG of a set of tables: a table depends on every table its
+ * foreign keys reference. Self-references are ignored, since a table can load its
+ * own parent rows first, and so are references to tables outside the set, which
+ * are assumed to be loaded already.
+ */
+public class TableDependencyGraph {
+
+  private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+  private final Map<String, Set<String>> dependents = new LinkedHashMap<>();
+
+  /**
+   * @param foreignKeys the foreign keys; every table named in them is part of the graph
+   */
+  public TableDependencyGraph(Collection<ForeignKeyVO> foreignKeys) {
+    this(null, foreignKeys);
+  }
+
+  /**
+   * @param tables the tables to schedule, or null for every table named in foreignKeys
+   * @param foreignKeys the foreign keys between them
+   */
+  public TableDependencyGraph(Collection<String> tables, Collection<ForeignKeyVO> foreignKeys) {
+
+    if (tables != null) {
+      tables.forEach(this::add);
+    }
+    else {
+      for (ForeignKeyVO foreignKey : foreignKeys) {
+        add(foreignKey.getTable());
+        add(foreignKey.getReferences());
+      }
+    }
+    for (ForeignKeyVO foreignKey : foreignKeys) {
+      String table = foreignKey.getTable();
+      String references = foreignKey.getReferences();
+      if (table.equals(references) || !dependencies.containsKey(table) || !dependencies.containsKey(references)) {
+        continue;
+      }
+      dependencies.get(table).add(references);
+      dependents.get(references).add(table);
+    }
+  }
+
+  private void add(String table) {
+
+    dependencies.putIfAbsent(table, new LinkedHashSet<>());
+    dependents.putIfAbsent(table, new LinkedHashSet<>());
+  }
+
+  public Set<String> getTables() {
+    return Collections.unmodifiableSet(dependencies.keySet());
+  }
+
+  /**
+   * @return the tables that must be loaded before this one
+   */
+  public Set<String> getDependencies(String table) {
+    return Collections.unmodifiableSet(dependencies.getOrDefault(table, Set.of()));
+  }
+
+  /**
+   * @return the tables that reference this one
+   */
+  public Set<String> getDependents(String table) {
+    return Collections.unmodifiableSet(dependents.getOrDefault(table, Set.of()));
+  }
+
+  /**
+   * Groups the tables into waves: every table in a wave depends only on tables in
+   * earlier waves, so a wave can be loaded in parallel.
+   *
+   * @throws CyclicDependencyException naming one cycle if the graph has any
+   */
+  public List<List<String>> levels() throws CyclicDependencyException {
+
+    Map<String, Integer> pending = new LinkedHashMap<>();
+    List<String> wave = new ArrayList<>();
+    for (var entry : dependencies.entrySet()) {
+      pending.put(entry.getKey(), entry.getValue().size());
+      if (entry.getValue().isEmpty()) {
+        wave.add(entry.getKey());
+      }
+    }
+    List<List<String>> levels = new ArrayList<>();
+    int placed = 0;
+    while (!wave.isEmpty()) {
+      levels.add(wave);
+      placed += wave.size();
+      List<String> next = new ArrayList<>();
+      for (String table : wave) {
+        for (String dependent : dependents.get(table)) {
+          if (pending.merge(dependent, -1, Integer::sum) == 0) {
+            next.add(dependent);
+          }
+        }
+      }
+      wave = next;
+    }
+    if (placed < dependencies.size()) {
+      throw new CyclicDependencyException(findCycle(pending));
+    }
+    return levels;
+  }
+
+  /**
+   * @return the tables in an order that loads every table after its dependencies
+   */
+  public List<String> topologicalOrder() throws CyclicDependencyException {
+
+    List<String> order = new ArrayList<>();
+    levels().forEach(order::addAll);
+    return order;
+  }
+
+  /**
+   * Follows unresolved dependencies from a table left over by levels() until a
+   * table repeats; every leftover table has one, so this always ends on a cycle.
+   * The result reads in reference order: each table references the next.
+   */
+  private List<String> findCycle(Map<String, Integer> pending) {
+
+    String table = null;
+    for (var entry : pending.entrySet()) {
+      if (entry.getValue() > 0) {
+        table = entry.getKey();
+        break;
+      }
+    }
+    Map<String, Integer> seen = new LinkedHashMap<>();
+    List<String> path = new ArrayList<>();
+    while (!seen.containsKey(table)) {
+      seen.put(table, path.size());
+      path.add(table);
+      for (String dependency : dependencies.get(table)) {
+        if (pending.get(dependency) > 0) {
+          table = dependency;
+          break;
+        }
+      }
+    }
+    List<String> cycle = new ArrayList<>(path.subList(seen.get(table), path.size()));
+    cycle.add(table);
+    return cycle;
+  }
+
+  /**
+   * Finds the chain of dependent tables with the largest total cost. With
+   * unlimited parallelism a load cannot finish faster than this chain.
+   *
+   * @param cost the estimated cost of each table, e.g. its row count or last load time
+   */
+  public CriticalPath criticalPath(ToLongFunction<String> cost) throws CyclicDependencyException {
+
+    Map<String, Long> finish = new HashMap<>();
+    Map<String, String> previous = new HashMap<>();
+    String last = null;
+    for (String table : topologicalOrder()) {
+      long start = 0;
+      for (String dependency : dependencies.get(table)) {
+        if (!previous.containsKey(table) || finish.get(dependency) > start) {
+          start = finish.get(dependency);
+          previous.put(table, dependency);
+        }
+      }
+      finish.put(table, start + cost.applyAsLong(table));
+      if (last == null || finish.get(table) > finish.get(last)) {
+        last = table;
+      }
+    }
+    Deque<String> path = new ArrayDeque<>();
+    for (String table = last; table != null; table = previous.get(table)) {
+      path.addFirst(table);
+    }
+    return new CriticalPath(new ArrayList<>(path), last == null ? 0 : finish.get(last));
+  }
+
+  /**
+   * The longest cost chain through the graph
+   */
+  public static class CriticalPath {
+
+    private final List<String> tables;
+    private final long cost;
+
+    public CriticalPath(List<String> tables, long cost) {
+
+      this.tables = List.copyOf(tables);
+      this.cost = cost;
+    }
+
+    /**
+     * @return the chain, dependencies first
+     */
+    public List<String> getTables() {
+      return tables;
+    }
+    public long getCost() {
+      return cost;
+    }
+
+    @Override
+    public String toString() {
+      return String.join(" -> ", tables) + " (" + cost + ")";
+    }
+  }
+}
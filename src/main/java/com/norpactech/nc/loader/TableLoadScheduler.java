@@ -0,0 +1,183 @@
+package com.norpactech.nc.loader;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.exception.CyclicDependencyException;
+/**
+ * Runs a task per table, starting each table as soon as every table it depends
+ * on has finished, with up to concurrency tables running at once. A load then
+ * takes about as long as its critical path rather than the sum of all tables.
+ *
+ * After a failure no new tables are started; tables already running finish and
+ * the first failure is rethrown.
+ */
+public class TableLoadScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(TableLoadScheduler.class);
+
+  /**
+   * Loads or exports one table
+   */
+  @FunctionalInterface
+  public interface TableTask {
+    void run(String table) throws Exception;
+  }
+
+  private final TableDependencyGraph graph;
+  private final int concurrency;
+
+  public TableLoadScheduler(TableDependencyGraph graph, int concurrency) {
+
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be positive");
+    }
+    this.graph = graph;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * @return the elapsed time of each table and of the whole run
+   * @throws CyclicDependencyException before anything runs if the graph has a cycle
+   * @throws ExecutionException wrapping the first table failure
+   */
+  public LoadReport run(TableTask task) throws CyclicDependencyException, ExecutionException, InterruptedException {
+
+    List<String> order = graph.topologicalOrder();
+    logger.info("Loading {} table(s) with concurrency {}, longest dependency chain {}", order.size(), concurrency,
+        graph.criticalPath(table -> 1).getTables().size());
+
+    long start = System.currentTimeMillis();
+    Map<String, Integer> pending = new HashMap<>();
+    List<String> ready = new ArrayList<>();
+    for (String table : order) {
+      int count = graph.getDependencies(table).size();
+      pending.put(table, count);
+      if (count == 0) {
+        ready.add(table);
+      }
+    }
+
+    Map<String, Long> durations = new LinkedHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, order.size())));
+    CompletionService<Finished> completion = new ExecutorCompletionService<>(executor);
+    ExecutionException failure = null;
+    int running = 0;
+    try {
+      while (!ready.isEmpty() || running > 0) {
+        while (failure == null && !ready.isEmpty() && running < concurrency) {
+          String table = ready.remove(0);
+          completion.submit(() -> {
+            long begin = System.currentTimeMillis();
+            task.run(table);
+            return new Finished(table, System.currentTimeMillis() - begin);
+          });
+          running++;
+        }
+        if (running == 0) {
+          break;
+        }
+        Future<Finished> future = completion.take();
+        running--;
+        try {
+          Finished finished = future.get();
+          durations.put(finished.table, finished.millis);
+          logger.info("Loaded {} in {} ms", finished.table, finished.millis);
+          for (String dependent : graph.getDependents(finished.table)) {
+            if (pending.merge(dependent, -1, Integer::sum) == 0) {
+              ready.add(dependent);
+            }
+          }
+        }
+        catch (ExecutionException e) {
+          logger.error("Table load failed: {}", e.getCause().getMessage());
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    var report = new LoadReport(durations, System.currentTimeMillis() - start, graph.criticalPath(table -> durations.getOrDefault(table, 0L)));
+    logger.info("Loaded {}", report);
+    return report;
+  }
+
+  private static final class Finished {
+
+    private final String table;
+    private final long millis;
+
+    private Finished(String table, long millis) {
+
+      this.table = table;
+      this.millis = millis;
+    }
+  }
+
+  /**
+   * Timings of a completed run
+   */
+  public static class LoadReport {
+
+    private final Map<String, Long> durations;
+    private final long elapsedMillis;
+    private final TableDependencyGraph.CriticalPath criticalPath;
+
+    public LoadReport(Map<String, Long> durations, long elapsedMillis, TableDependencyGraph.CriticalPath criticalPath) {
+
+      this.durations = Map.copyOf(durations);
+      this.elapsedMillis = elapsedMillis;
+      this.criticalPath = criticalPath;
+    }
+
+    /**
+     * @return the elapsed milliseconds of each table
+     */
+    public Map<String, Long> getDurations() {
+      return durations;
+    }
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+    /**
+     * @return the sum of all table times, i.e. the time of a sequential load
+     */
+    public long getSequentialMillis() {
+      return durations.values().stream().mapToLong(Long::longValue).sum();
+    }
+    /**
+     * @return the longest chain by measured table times, the lower bound for this load
+     */
+    public TableDependencyGraph.CriticalPath getCriticalPath() {
+      return criticalPath;
+    }
+
+    @Override
+    public String toString() {
+      return durations.size() + " tables in " + elapsedMillis + " ms (sequential " + getSequentialMillis()
+          + " ms, critical path " + criticalPath + ")";
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.norpactech.nc.migration;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.List;
+import java.util.Map;
+/**
+ * The final stage of a MigrationPipeline. Called concurrently by the writer
+ * threads, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface BatchWriter {
+
+  /**
+   * @param batch entity params keyed by camelCase property name
+   * @throws Exception to abort the migration; the batch is not checkpointed
+   */
+  void write(List<Map<String, Object>> batch) throws Exception;
+
+  /**
+   * Writes a batch that may be a replay of one written before a restart. Writers
+   * that can pass the key to the target should, so it can drop the duplicate; the
+   * default ignores it.
+   *
+   * @param idempotencyKey the same for every replay of the same batch
+   */
+  default void write(List<Map<String, Object>> batch, String idempotencyKey) throws Exception {
+    write(batch);
+  }
+}
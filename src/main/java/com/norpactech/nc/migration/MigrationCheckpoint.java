@@ -0,0 +1,140 @@
+package com.norpactech.nc.migration;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+/**
+ * Tracks the highest key below which every row has been written, and persists it
+ * so a migration can resume after it.
+ *
+ * Rows complete out of order across writer threads, so each row carries the
+ * sequence number it was read with; the watermark only advances over an unbroken
+ * run of completed sequence numbers. A resumed run may re-send rows that were
+ * written after the watermark, so writes should be idempotent.
+ *
+ * A persisted key must be one of the KEY_TYPES that read() can parse back.
+ */
+public class MigrationCheckpoint {
+
+  /** The key classes a checkpoint file can hold */
+  public static final Set<Class<?>> KEY_TYPES = Set.of(Integer.class, Long.class, Short.class, BigDecimal.class, UUID.class,
+      Timestamp.class, String.class);
+
+  private final Path file;
+  private final Map<Long, Object> done = new HashMap<>();
+  private long next = 0;
+  private Object key;
+  private Object savedKey;
+
+  /**
+   * @param file where the key is kept, or null to track without persisting
+   */
+  public MigrationCheckpoint(Path file) throws IOException {
+
+    this.file = file;
+    this.key = file != null && Files.exists(file) ? read(file) : null;
+    this.savedKey = key;
+  }
+
+  /**
+   * @return the key to resume after, or null to start from the beginning
+   */
+  public synchronized Object getKey() {
+    return key;
+  }
+
+  /**
+   * Fails if the key could be saved but not read back on resume. Call it with
+   * the first row's key, before any row is written.
+   *
+   * @throws IllegalArgumentException if the checkpoint is persisted and the key is not one of KEY_TYPES
+   */
+  public void checkKey(Object rowKey) {
+
+    if (file != null && rowKey != null && !KEY_TYPES.contains(rowKey.getClass())) {
+      throw new IllegalArgumentException("Unsupported checkpoint key type " + rowKey.getClass().getName() + " for " + file
+          + "; order by a numeric, UUID, timestamp or text column");
+    }
+  }
+
+  /**
+   * Marks a row as written (or dropped) and advances the watermark if possible.
+   *
+   * @param sequence the row's read order, from 0
+   * @param rowKey the row's key value
+   */
+  public synchronized void complete(long sequence, Object rowKey) {
+
+    done.put(sequence, rowKey);
+    while (done.containsKey(next)) {
+      key = done.remove(next++);
+    }
+  }
+
+  /**
+   * Writes the watermark if it moved since the last save; the file is replaced
+   * atomically so a crash leaves either the old or the new key.
+   */
+  public synchronized void save() throws IOException {
+
+    Object current = key;
+    if (file == null || current == null || current.equals(savedKey)) {
+      return;
+    }
+    savedKey = current;
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.writeString(temp, current.getClass().getName() + "\n" + current, StandardCharsets.UTF_8);
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Removes the checkpoint file after a completed migration.
+   */
+  public void clear() throws IOException {
+
+    if (file != null) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static Object read(Path file) throws IOException {
+
+    String text = Files.readString(file, StandardCharsets.UTF_8);
+    int newline = text.indexOf('\n');
+    if (newline < 0) {
+      throw new IOException("Invalid checkpoint file: " + file);
+    }
+    String type = text.substring(0, newline);
+    String value = text.substring(newline + 1);
+    switch (type) {
+      case "java.lang.Integer":
+        return Integer.valueOf(value);
+      case "java.lang.Long":
+        return Long.valueOf(value);
+      case "java.lang.Short":
+        return Short.valueOf(value);
+      case "java.math.BigDecimal":
+        return new BigDecimal(value);
+      case "java.util.UUID":
+        return UUID.fromString(value);
+      case "java.sql.Timestamp":
+        return Timestamp.valueOf(value);
+      case "java.lang.String":
+        return value;
+      default:
+        throw new IOException("Unsupported checkpoint key type " + type + " in " + file);
+    }
+  }
+}
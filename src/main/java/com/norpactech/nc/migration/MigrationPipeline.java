@@ -0,0 +1,388 @@
+package com.norpactech.nc.migration;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.api.utils.PgsqlRowIterator;
+import com.norpactech.nc.api.utils.RowCursor;
+import com.norpactech.nc.api.utils.RowHeader;
+import com.norpactech.nc.api.utils.RowSnapshot;
+import com.norpactech.nc.api.utils.RowView;
+import com.norpactech.nc.config.load.Globals;
+import com.norpactech.nc.export.TableExporter;
+import com.norpactech.nc.utils.TextUtils;
+/**
+ * Streams a table from a JDBC cursor straight into a BatchWriter, with no
+ * intermediate files:
+ *
+ * <pre>
+ * reader (1 thread) -> [queue] -> mappers (N) -> [queue] -> writers (M)
+ * </pre>
+ *
+ * Mappers turn each row into params keyed by TextUtils.toCamelCase of the column
+ * label and pass them through the optional cleanser, which may return null to drop
+ * a row. Writers group params into batches of up to batchSize, flushing a partial
+ * batch when no row arrives for 50 ms. The queues are bounded,
+ * so a slow writer holds back the reader instead of filling the heap.
+ *
+ * Rows are read in key order and checkpointed by key; with a checkpoint directory
+ * set, a failed run resumes after the last key below which every row was written.
+ */
+public class MigrationPipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(MigrationPipeline.class);
+  private static final long LINGER_MILLIS = 50;
+
+  private final BatchWriter writer;
+  private UnaryOperator<Map<String, Object>> cleanser;
+  private int mapperThreads = 2;
+  private int writerThreads = 4;
+  private int queueCapacity = 1000;
+  private int batchSize = Globals.getBatchSizeInt();
+  private int fetchSize = Globals.getFetchSizeInt();
+  private Path checkpointDirectory;
+  private long progressInterval = 100_000;
+
+  public MigrationPipeline(BatchWriter writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Streams every row of a table, in keyColumn order, into the writer.
+   *
+   * @param connection the source connection; autocommit is restored afterwards
+   * @param table the source table, optionally schema-qualified
+   * @param keyColumn a unique, indexed column to order and checkpoint by
+   */
+  public MigrationResult run(Connection connection, String table, String keyColumn) throws Exception {
+
+    long start = System.currentTimeMillis();
+    var checkpoint = new MigrationCheckpoint(checkpointDirectory == null ? null : checkpointDirectory.resolve(table + ".checkpoint"));
+    Object resumeAfter = checkpoint.getKey();
+    if (resumeAfter != null) {
+      logger.info("{}: resuming after {} = {}", table, keyColumn, resumeAfter);
+    }
+
+    BlockingQueue<Row> rows = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<Row> mapped = new ArrayBlockingQueue<>(queueCapacity);
+    var failure = new AtomicReference<Throwable>();
+    var read = new AtomicLong();
+    var written = new AtomicLong();
+    var dropped = new AtomicLong();
+
+    ExecutorService mappers = Executors.newFixedThreadPool(mapperThreads);
+    ExecutorService writers = Executors.newFixedThreadPool(writerThreads);
+    try {
+      for (int i = 0; i < mapperThreads; i++) {
+        mappers.execute(() -> guard(failure, () -> map(rows, mapped, checkpoint, dropped, failure)));
+      }
+      for (int i = 0; i < writerThreads; i++) {
+        writers.execute(() -> guard(failure, () -> write(mapped, checkpoint, written, start)));
+      }
+
+      guard(failure, () -> read(connection, table, keyColumn, resumeAfter, checkpoint, rows, read, failure, start));
+      guard(failure, () -> {
+        for (int i = 0; i < mapperThreads; i++) {
+          transfer(rows, Row.END, failure);
+        }
+      });
+      if (failure.get() != null) {
+        mappers.shutdownNow();
+      }
+      mappers.shutdown();
+      await(mappers, failure);
+      guard(failure, () -> {
+        for (int i = 0; i < writerThreads; i++) {
+          transfer(mapped, Row.END, failure);
+        }
+      });
+      if (failure.get() != null) {
+        writers.shutdownNow();
+      }
+      writers.shutdown();
+      await(writers, failure);
+    }
+    finally {
+      mappers.shutdownNow();
+      writers.shutdownNow();
+      checkpoint.save();
+    }
+
+    Throwable error = failure.get();
+    if (error != null) {
+      logger.error("{}: migration failed after {} rows written, checkpoint {}: {}", table, written.get(), checkpoint.getKey(), error.getMessage());
+      if (error instanceof Exception) {
+        throw (Exception) error;
+      }
+      throw new RuntimeException(error);
+    }
+    checkpoint.clear();
+    var result = new MigrationResult(table, read.get(), written.get(), dropped.get(), System.currentTimeMillis() - start);
+    logger.info("Migrated {}", result);
+    return result;
+  }
+
+  private void read(Connection connection, String table, String key, Object after, MigrationCheckpoint checkpoint, BlockingQueue<Row> rows,
+      AtomicLong read, AtomicReference<Throwable> failure, long start) throws Exception {
+
+    TableExporter.checkName(table);
+    TableExporter.checkName(key);
+    String sql = "SELECT * FROM " + table + (after == null ? "" : " WHERE " + key + " > ?") + " ORDER BY " + key;
+    Object[] params = after == null ? new Object[0] : new Object[] { after };
+    int rowFetchSize = TableExporter.isMySql(connection) ? Integer.MIN_VALUE : fetchSize;
+
+    // The iterator switches autocommit off for the cursor and restores it on close
+    try (PgsqlRowIterator<RowSnapshot> cursor = PgsqlRowIterator.open(connection, sql, rowFetchSize, RowCursor.mapper(RowView::snapshot), params)) {
+      int keyIndex = -1;
+      long interval = Math.max(1, progressInterval);
+      while (cursor.hasNext()) {
+        RowSnapshot values = cursor.next();
+        if (keyIndex < 0) {
+          keyIndex = values.getHeader().indexOf(key);
+          if (keyIndex < 0) {
+            throw new SQLException(table + " has no column " + key);
+          }
+          checkpoint.checkKey(values.get(keyIndex));
+        }
+        long sequence = read.getAndIncrement();
+        transfer(rows, new Row(sequence, values.get(keyIndex), values), failure);
+        if ((sequence + 1) % interval == 0) {
+          long elapsed = Math.max(1, System.currentTimeMillis() - start);
+          logger.info("{}: {} rows read ({} rows/s)", table, sequence + 1, (sequence + 1) * 1000 / elapsed);
+        }
+      }
+    }
+  }
+
+  private void map(BlockingQueue<Row> rows, BlockingQueue<Row> mapped, MigrationCheckpoint checkpoint, AtomicLong dropped,
+      AtomicReference<Throwable> failure) throws Exception {
+
+    RowHeader header = null;
+    String[] names = null;
+    for (Row row = rows.take(); row != Row.END; row = rows.take()) {
+      if (row.values.getHeader() != header) {
+        header = row.values.getHeader();
+        names = new String[header.size()];
+        for (int i = 0; i < names.length; i++) {
+          names[i] = TextUtils.toCamelCase(header.getLabel(i));
+        }
+      }
+      Map<String, Object> params = new LinkedHashMap<>(names.length * 2);
+      for (int i = 0; i < names.length; i++) {
+        params.put(names[i], row.values.get(i));
+      }
+      if (cleanser != null) {
+        params = cleanser.apply(params);
+      }
+      if (params == null) {
+        dropped.incrementAndGet();
+        checkpoint.complete(row.sequence, row.key);
+        continue;
+      }
+      row.params = params;
+      row.values = null;
+      transfer(mapped, row, failure);
+    }
+  }
+
+  private void write(BlockingQueue<Row> mapped, MigrationCheckpoint checkpoint, AtomicLong written, long start) throws Exception {
+
+    var batch = new ArrayList<Row>(batchSize);
+    while (true) {
+      Row row = batch.isEmpty() ? mapped.take() : mapped.poll(LINGER_MILLIS, TimeUnit.MILLISECONDS);
+      if (row != null && row != Row.END) {
+        batch.add(row);
+        if (batch.size() < batchSize) {
+          continue;
+        }
+      }
+      if (!batch.isEmpty()) {
+        List<Map<String, Object>> params = new ArrayList<>(batch.size());
+        for (Row pending : batch) {
+          params.add(pending.params);
+        }
+        writer.write(params);
+        for (Row done : batch) {
+          checkpoint.complete(done.sequence, done.key);
+        }
+        long total = written.addAndGet(batch.size());
+        if (total / Math.max(1, progressInterval) != (total - batch.size()) / Math.max(1, progressInterval)) {
+          long elapsed = Math.max(1, System.currentTimeMillis() - start);
+          logger.info("{} rows written ({} rows/s)", total, total * 1000 / elapsed);
+          checkpoint.save();
+        }
+        batch.clear();
+      }
+      if (row == Row.END) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Hands a row to the next stage, blocking while its queue is full but giving up
+   * once any stage has failed, since the queue may then never drain.
+   */
+  private static void transfer(BlockingQueue<Row> queue, Row row, AtomicReference<Throwable> failure) throws InterruptedException {
+
+    while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+      if (failure.get() != null) {
+        throw new InterruptedException("Migration aborted");
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Stage {
+    void run() throws Exception;
+  }
+
+  /**
+   * Runs a stage, recording the first failure. Interruption after another stage
+   * failed is the shutdown signal, not a failure of its own.
+   */
+  private static void guard(AtomicReference<Throwable> failure, Stage stage) {
+
+    try {
+      stage.run();
+    }
+    catch (InterruptedException e) {
+      if (failure.get() == null) {
+        failure.compareAndSet(null, e);
+      }
+    }
+    catch (Throwable t) {
+      failure.compareAndSet(null, t);
+    }
+  }
+
+  /**
+   * Waits for a stage to drain, stopping it early if any stage fails.
+   */
+  private static void await(ExecutorService stage, AtomicReference<Throwable> failure) throws InterruptedException {
+
+    while (!stage.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+      if (failure.get() != null) {
+        stage.shutdownNow();
+      }
+    }
+  }
+
+  private static final class Row {
+
+    private static final Row END = new Row(-1, null, null);
+
+    private final long sequence;
+    private final Object key;
+    private RowSnapshot values;
+    private Map<String, Object> params;
+
+    private Row(long sequence, Object key, RowSnapshot values) {
+
+      this.sequence = sequence;
+      this.key = key;
+      this.values = values;
+    }
+  }
+
+  /**
+   * @param cleanser adjusts each row's params, or returns null to drop the row
+   */
+  public void setCleanser(UnaryOperator<Map<String, Object>> cleanser) {
+    this.cleanser = cleanser;
+  }
+  public void setMapperThreads(int mapperThreads) {
+    this.mapperThreads = Math.max(1, mapperThreads);
+  }
+  public void setWriterThreads(int writerThreads) {
+    this.writerThreads = Math.max(1, writerThreads);
+  }
+  /**
+   * @param queueCapacity rows held between stages before the upstream stage blocks
+   */
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = Math.max(1, queueCapacity);
+  }
+  public void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+  }
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+  /**
+   * @param checkpointDirectory where table.checkpoint files are kept, or null to disable resuming
+   */
+  public void setCheckpointDirectory(Path checkpointDirectory) {
+    this.checkpointDirectory = checkpointDirectory;
+  }
+  public void setProgressInterval(long progressInterval) {
+    this.progressInterval = progressInterval;
+  }
+
+  /**
+   * Counts of a completed migration
+   */
+  public static class MigrationResult {
+
+    private final String table;
+    private final long read;
+    private final long written;
+    private final long dropped;
+    private final long elapsedMillis;
+
+    public MigrationResult(String table, long read, long written, long dropped, long elapsedMillis) {
+
+      this.table = table;
+      this.read = read;
+      this.written = written;
+      this.dropped = dropped;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getTable() {
+      return table;
+    }
+    public long getRead() {
+      return read;
+    }
+    public long getWritten() {
+      return written;
+    }
+    /**
+     * @return rows the cleanser dropped
+     */
+    public long getDropped() {
+      return dropped;
+    }
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      long elapsed = Math.max(1, elapsedMillis);
+      return table + ": " + read + " read, " + written + " written, " + dropped + " dropped in " + elapsedMillis
+          + " ms (" + written * 1000 / elapsed + " rows/s)";
+    }
+  }
+}
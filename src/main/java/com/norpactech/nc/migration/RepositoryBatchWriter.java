@@ -0,0 +1,56 @@
+package com.norpactech.nc.migration;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.List;
+import java.util.Map;
+
+import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.repository.ParetoNativeRepository;
+/**
+ * Writes each row of a batch through a repository's post (or put in update mode).
+ * The API has no bulk endpoint, so throughput comes from the writer threads.
+ */
+public class RepositoryBatchWriter implements BatchWriter {
+
+  private final ParetoNativeRepository<?> repository;
+  private final boolean update;
+
+  public RepositoryBatchWriter(ParetoNativeRepository<?> repository) {
+    this(repository, false);
+  }
+
+  /**
+   * @param update put rows instead of posting them
+   */
+  public RepositoryBatchWriter(ParetoNativeRepository<?> repository, boolean update) {
+
+    this.repository = repository;
+    this.update = update;
+  }
+
+  @Override
+  public void write(List<Map<String, Object>> batch) throws Exception {
+    write(batch, null);
+  }
+
+  /**
+   * Each row is sent with the Idempotency-Key "key:index", so the API can drop the
+   * rows of a replayed batch that it already applied.
+   */
+  @Override
+  public void write(List<Map<String, Object>> batch, String idempotencyKey) throws Exception {
+
+    for (int i = 0; i < batch.size(); i++) {
+      Map<String, Object> params = batch.get(i);
+      String key = idempotencyKey == null ? null : idempotencyKey + ":" + i;
+      ApiResponse response = update ? repository.put(params, key) : repository.post(params, key);
+      if (response.getStatus() == EnumStatus.ERROR) {
+        throw new Exception("Write failed for " + params + ": " + response.getError());
+      }
+    }
+  }
+}
@@ -4,17 +4,14 @@ package com.norpactech.nc.model;
  *  
  * For license details, see the LICENSE file in this project root.
  */
-import java.lang.reflect.Field;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.norpactech.nc.api.utils.ApiResponse;
 import com.norpactech.nc.api.utils.GenericSelectResponse;
+import com.norpactech.nc.api.utils.RowView;
 import com.norpactech.nc.utils.Constant;
 import com.norpactech.nc.utils.TextUtils;
 
@@ -40,43 +37,66 @@ public class BaseModel {
     map(data);
   }
   
+  public BaseModel(RowView row) {
+
+    map(row);
+  }
+
   protected void map(GenericSelectResponse data) {
     
+    MappingPlan plan = MappingPlan.of(this.getClass());
     for (Map.Entry<String, Object> entry : data.getProperties().entrySet()) {
+      MappingPlan.Property property = plan.column(entry.getKey());
+      if (property == null) {
+        throw new RuntimeException("Error mapping property '" + entry.getKey() + "': " + TextUtils.toCamelCase(entry.getKey()));
+      }
       try {
-        String property = TextUtils.toCamelCase(entry.getKey());
-        Field field = this.getClass().getDeclaredField(property);
-        field.setAccessible(true);
-        field.set(this, entry.getValue());
+        property.set(this, entry.getValue());
       } 
-      catch (NoSuchFieldException | IllegalAccessException e) {
+      catch (RuntimeException e) {
         throw new RuntimeException("Error mapping property '" + entry.getKey() + "': " + e.getMessage(), e);
       }
     } 
   }
 
+  /**
+   * Maps a row by index through the header's cached column bindings, so no label
+   * is looked up or converted per row.
+   */
+  protected void map(RowView row) {
+
+    MappingPlan.Property[] properties = row.getHeader().bind(this.getClass());
+    for (int i = 0; i < properties.length; i++) {
+      if (properties[i] == null) {
+        String label = row.getHeader().getLabel(i);
+        throw new RuntimeException("Error mapping property '" + label + "': " + TextUtils.toCamelCase(label));
+      }
+      try {
+        properties[i].set(this, row.get(i));
+      }
+      catch (RuntimeException e) {
+        throw new RuntimeException("Error mapping property '" + row.getHeader().getLabel(i) + "': " + e.getMessage(), e);
+      }
+    }
+  }
+
   protected void map(Object data) {
     
     if (data == null) {
       return;
     }
 
-    for (Field field : this.getClass().getDeclaredFields()) {
+    MappingPlan source = MappingPlan.of(data.getClass());
+    for (MappingPlan.Property property : MappingPlan.of(this.getClass()).properties()) {
+      MappingPlan.Property dataProperty = source.property(property.getName());
+      if (dataProperty == null) {
+        continue;
+      }
       try {
-        field.setAccessible(true); // Make the field accessible
-        String propertyName = field.getName();
-
-        Field dataField = data.getClass().getDeclaredField(propertyName);
-        dataField.setAccessible(true);
-        Object value = dataField.get(data);
-        field.set(this, value);
-        
+        property.set(this, dataProperty.get(data));
       } 
-      catch (NoSuchFieldException e) {
-        // Ignore
-      } 
-      catch (IllegalAccessException e) {
-        throw new RuntimeException("Error mapping property '" + field.getName() + "': " + e.getMessage(), e);
+      catch (RuntimeException e) {
+        throw new RuntimeException("Error mapping property '" + property.getName() + "': " + e.getMessage(), e);
       }
     }
   }
@@ -91,6 +111,7 @@ public class BaseModel {
   protected static Map<String, Object> paramMatcher(Map<String, String> queryParams, Class<?> thisClazz) throws Exception {
     
     var request = new LinkedHashMap<String, Object>();
+    MappingPlan plan = MappingPlan.of(thisClazz);
 
     for (Map.Entry<String, String> entry : queryParams.entrySet()) {
       String key = entry.getKey();
@@ -99,42 +120,11 @@ public class BaseModel {
       try {
         
         String property = TextUtils.toCamelCase(key);
-        Field field = thisClazz.getDeclaredField(property);
-        field.setAccessible(true);
-        Class<?> fieldType = field.getType();
-        Object convertedValue;
-
-        if (fieldType == UUID.class) {
-          convertedValue = UUID.fromString(value);
-        } 
-        else if (fieldType == Integer.class || fieldType == int.class) {
-          convertedValue = Integer.parseInt(value);
-        } 
-        else if (fieldType == Float.class || fieldType == float.class) {
-          convertedValue = Double.parseDouble(value);
-        } 
-        else if (fieldType == Double.class || fieldType == double.class) {
-          convertedValue = Double.parseDouble(value);
-        } 
-        else if (fieldType == Boolean.class || fieldType == boolean.class) {
-          convertedValue = Boolean.parseBoolean(value);
-        } 
-        else if (fieldType == java.util.Date.class) {
-          convertedValue = parseDateOrTimestamp(value, fieldType);
-        } 
-        else if (fieldType == java.sql.Timestamp.class) {
-          convertedValue = parseDateOrTimestamp(value, fieldType);
-        } 
-        else if (fieldType == java.time.LocalDate.class) {
-          convertedValue = java.time.LocalDate.parse(value);
-        } 
-        else if (fieldType == java.time.LocalDateTime.class) {
-          convertedValue = java.time.LocalDateTime.parse(value);
-        }        
-        else {
-          convertedValue = value; // Default to String or other types
+        MappingPlan.Property field = plan.property(property);
+        if (field == null) {
+          throw new NoSuchFieldException(property);
         }
-        request.put(property, convertedValue);
+        request.put(property, field.fromString(value));
       } 
       catch (Exception e) {
         if (key.equalsIgnoreCase(Constant.LIMIT)
@@ -151,34 +141,6 @@ public class BaseModel {
     return request;
   }
   
-  private static Object parseDateOrTimestamp(String value, Class<?> fieldType) {
-    
-    String[] dateFormats = {
-        "yyyy-MM-dd",
-        "yyyy-MM-dd HH:mm:ss",
-        "yyyy-MM-dd'T'HH:mm:ss",
-        "MM/dd/yyyy",
-        "MM/dd/yyyy HH:mm:ss"
-    };
-
-    for (String format : dateFormats) {
-      try {
-        SimpleDateFormat dateFormat = new SimpleDateFormat(format);
-        if (fieldType == java.util.Date.class) {
-          return dateFormat.parse(value);
-        } 
-        else if (fieldType == java.sql.Timestamp.class) {
-          java.util.Date parsedDate = dateFormat.parse(value);
-          return new java.sql.Timestamp(parsedDate.getTime());
-        }
-      } 
-      catch (ParseException ignored) {
-        // Try the next format
-      }
-    }
-    return null;
-  }
-  
   public Map<String, Object> getProperties() {
     return properties;
   }
@@ -0,0 +1,213 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.norpactech.nc.enums.EnumCommonProperty;
+import com.norpactech.nc.utils.TextUtils;
+/**
+ * The properties of an incoming record that differ from the current entity, for
+ * UPDATE_MODE loads that should only send what changed.
+ *
+ * Values are compared through the entity's MappingPlan after normalizing the
+ * loose types of loader params with MapperSupport.toComparable. Audit properties
+ * are never compared, and the id is identity rather than data.
+ */
+public final class EntityDiff {
+
+  private static final String ID = TextUtils.toCamelCase(EnumCommonProperty.ID.getName());
+  private static final String UPDATED_AT = TextUtils.toCamelCase(EnumCommonProperty.UPDATED_AT.getName());
+  private static final Set<String> IGNORED = Set.of(
+      ID,
+      TextUtils.toCamelCase(EnumCommonProperty.CREATED_AT.getName()),
+      TextUtils.toCamelCase(EnumCommonProperty.CREATED_BY.getName()),
+      UPDATED_AT,
+      TextUtils.toCamelCase(EnumCommonProperty.UPDATED_BY.getName()));
+
+  private final Object current;
+  private final MappingPlan plan;
+  private final Map<String, Change> changes = new LinkedHashMap<>();
+
+  private EntityDiff(Object current) {
+
+    this.current = current;
+    this.plan = MappingPlan.of(current.getClass());
+  }
+
+  /**
+   * Compares the params of an incoming record with the current entity. Only the
+   * params present are compared; a param the entity has no property for, such as
+   * the natural key a ForeignKeyResolver resolved, is ignored.
+   *
+   * @param incoming params keyed by camelCase property name
+   */
+  public static EntityDiff of(Object current, Map<String, Object> incoming) {
+
+    var diff = new EntityDiff(current);
+    for (Map.Entry<String, Object> entry : incoming.entrySet()) {
+      if (IGNORED.contains(entry.getKey())) {
+        continue;
+      }
+      MappingPlan.Property property = diff.plan.property(entry.getKey());
+      if (property == null) {
+        continue;
+      }
+      Object before = property.get(current);
+      if (!same(property, before, entry.getValue())) {
+        diff.changes.put(entry.getKey(), new Change(entry.getKey(), before, entry.getValue()));
+      }
+    }
+    return diff;
+  }
+
+  /**
+   * Compares every property of two entities of the same class.
+   */
+  public static EntityDiff of(Object current, Object incoming) {
+
+    if (current.getClass() != incoming.getClass()) {
+      throw new IllegalArgumentException("Cannot diff " + current.getClass().getName() + " with " + incoming.getClass().getName());
+    }
+    var diff = new EntityDiff(current);
+    for (MappingPlan.Property property : diff.plan.properties()) {
+      if (IGNORED.contains(property.getName())) {
+        continue;
+      }
+      Object before = property.get(current);
+      Object after = property.get(incoming);
+      if (!same(property, before, after)) {
+        diff.changes.put(property.getName(), new Change(property.getName(), before, after));
+      }
+    }
+    return diff;
+  }
+
+  private static boolean same(MappingPlan.Property property, Object before, Object after) {
+
+    try {
+      return Objects.equals(MapperSupport.toComparable(property, before), MapperSupport.toComparable(property, after));
+    }
+    catch (Exception e) {
+      // An incoming value that does not convert to the property's type is a change
+      return false;
+    }
+  }
+
+  /**
+   * @return true if the incoming record matches the current entity
+   */
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * @return the changes by property name, in comparison order
+   */
+  public Map<String, Change> getChanges() {
+    return changes;
+  }
+
+  /**
+   * A full replacement: every property of the current entity, with the new value
+   * of each changed property. ParetoNativeRepository.putChanged sends this, since
+   * PUT replaces the whole record.
+   */
+  public Map<String, Object> toReplacement() {
+
+    var params = new LinkedHashMap<String, Object>();
+    for (MappingPlan.Property property : plan.properties()) {
+      Change change = changes.get(property.getName());
+      params.put(property.getName(), MapperSupport.toParam(change == null ? property.get(current) : change.getNewValue()));
+    }
+    return params;
+  }
+
+  /**
+   * A partial update, for an endpoint that merges the body into the record: the
+   * current entity's id and updatedAt (when it has them) and the new value of
+   * each changed property.
+   */
+  public Map<String, Object> toParams() {
+
+    var params = new LinkedHashMap<String, Object>();
+    for (String key : List.of(ID, UPDATED_AT)) {
+      MappingPlan.Property property = plan.property(key);
+      Object value = property == null ? null : property.get(current);
+      if (value != null) {
+        params.put(key, MapperSupport.toParam(value));
+      }
+    }
+    for (Change change : changes.values()) {
+      params.put(change.getName(), MapperSupport.toParam(change.getNewValue()));
+    }
+    return params;
+  }
+
+  /**
+   * The changes as JSON Patch (RFC 6902) operations: add where the current value
+   * is null, remove where the new value is null, replace otherwise.
+   */
+  public List<Map<String, Object>> toJsonPatch() {
+
+    var operations = new ArrayList<Map<String, Object>>(changes.size());
+    for (Change change : changes.values()) {
+      var operation = new LinkedHashMap<String, Object>();
+      if (change.getNewValue() == null) {
+        operation.put("op", "remove");
+        operation.put("path", "/" + change.getName());
+      }
+      else {
+        operation.put("op", change.getOldValue() == null ? "add" : "replace");
+        operation.put("path", "/" + change.getName());
+        operation.put("value", MapperSupport.toParam(change.getNewValue()));
+      }
+      operations.add(operation);
+    }
+    return operations;
+  }
+
+  @Override
+  public String toString() {
+    return changes.values().toString();
+  }
+
+  /**
+   * One changed property
+   */
+  public static final class Change {
+
+    private final String name;
+    private final Object oldValue;
+    private final Object newValue;
+
+    private Change(String name, Object oldValue, Object newValue) {
+
+      this.name = name;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+    }
+
+    public String getName() {
+      return name;
+    }
+    public Object getOldValue() {
+      return oldValue;
+    }
+    public Object getNewValue() {
+      return newValue;
+    }
+
+    @Override
+    public String toString() {
+      return name + ": " + oldValue + " -> " + newValue;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import com.google.gson.stream.JsonReader;
+import com.norpactech.nc.api.utils.GenericSelectResponse;
+/**
+ * Maps an entity to and from its wire and row representations without reflection.
+ * Implementations are generated for classes annotated with {@link ParetoEntity}.
+ *
+ * @param <T> the entity type
+ */
+public interface EntityMapper<T> {
+
+  Class<T> getType();
+
+  /**
+   * Reads one JSON object, matching member names to field names.
+   */
+  T fromJson(JsonReader in) throws IOException;
+
+  /**
+   * Converts a decoded Gson map, with the same rules as ApiResponse.readObject.
+   */
+  T fromMap(Map<String, Object> map) throws Exception;
+
+  /**
+   * Maps snake_case column labels to camelCase fields.
+   */
+  T fromRow(GenericSelectResponse row) throws Exception;
+
+  /**
+   * Maps the current row, matching snake_case column labels to camelCase fields.
+   */
+  T fromRow(ResultSet rs) throws SQLException;
+
+  /**
+   * Returns the non-null fields keyed by their JSON names.
+   */
+  Map<String, Object> toParams(T entity);
+}
@@ -0,0 +1,56 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.Optional;
+/**
+ * Locates generated {@link EntityMapper} implementations.
+ *
+ * The lookup happens once per class; classes without a generated mapper
+ * resolve to null and callers fall back to MappingPlan.
+ */
+public final class EntityMappers {
+
+  public static final String SUFFIX = "_ParetoMapper";
+
+  private EntityMappers() {}
+
+  private static final ClassValue<Optional<EntityMapper<?>>> MAPPERS = new ClassValue<Optional<EntityMapper<?>>>() {
+    @Override
+    protected Optional<EntityMapper<?>> computeValue(Class<?> clazz) {
+
+      if (clazz.isPrimitive() || clazz.isArray() || clazz.getClassLoader() == null) {
+        return Optional.empty();
+      }
+      try {
+        Class<?> mapperClass = Class.forName(mapperName(clazz.getName()), true, clazz.getClassLoader());
+        return Optional.of((EntityMapper<?>) mapperClass.getDeclaredConstructor().newInstance());
+      }
+      catch (ClassNotFoundException e) {
+        return Optional.empty();
+      }
+      catch (ReflectiveOperationException | ClassCastException e) {
+        throw new IllegalStateException("Unable to load generated mapper for " + clazz.getName(), e);
+      }
+    }
+  };
+
+  /**
+   * @param clazz the entity class
+   * @return the generated mapper, or null if the class is not a {@link ParetoEntity}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> EntityMapper<T> find(Class<T> clazz) {
+    return (EntityMapper<T>) MAPPERS.get(clazz).orElse(null);
+  }
+
+  /**
+   * @param binaryName the entity's binary class name, e.g. "com.acme.Outer$Inner"
+   * @return the generated mapper's class name, e.g. "com.acme.Outer_Inner_ParetoMapper"
+   */
+  public static String mapperName(String binaryName) {
+    return binaryName.replace('$', '_') + SUFFIX;
+  }
+}
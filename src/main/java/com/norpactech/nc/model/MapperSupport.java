@@ -0,0 +1,299 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.norpactech.nc.api.exception.ApiResponseException;
+import com.norpactech.nc.config.json.GsonConfig;
+import com.norpactech.nc.utils.Constant;
+import com.norpactech.nc.utils.TextUtils;
+import com.norpactech.nc.utils.TimestampParser;
+/**
+ * Value conversions shared by MappingPlan and the mappers generated for
+ * {@link ParetoEntity} classes, so both paths produce identical values.
+ */
+public final class MapperSupport {
+
+  private MapperSupport() {}
+
+  private static volatile Labels lastLabels;
+
+  public static Integer toInteger(Object value) {
+
+    if (value == null || value instanceof Integer) {
+      return (Integer) value;
+    }
+    String text = value.toString();
+    return text.contains(".") ? Integer.valueOf(text.split("\\.")[0]) : Integer.valueOf(text);
+  }
+
+  public static Long toLong(Object value) {
+
+    if (value == null || value instanceof Long) {
+      return (Long) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    return Long.valueOf(value.toString());
+  }
+
+  public static Double toDouble(Object value) {
+
+    if (value == null || value instanceof Double) {
+      return (Double) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    return Double.valueOf(value.toString());
+  }
+
+  public static Float toFloat(Object value) {
+
+    if (value == null || value instanceof Float) {
+      return (Float) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).floatValue();
+    }
+    return Float.valueOf(value.toString());
+  }
+
+  public static Boolean toBoolean(Object value) {
+
+    if (value == null || value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    return Boolean.parseBoolean(value.toString());
+  }
+
+  public static String toString(Object value) {
+    return value == null ? null : value.toString();
+  }
+
+  public static UUID toUUID(Object value) {
+
+    if (value instanceof String) {
+      return UUID.fromString((String) value);
+    }
+    return (UUID) value;
+  }
+
+  /**
+   * Reads the wall-clock time in the default zone, to the second; a zone designator is ignored.
+   */
+  public static Timestamp toTimestamp(Object value) throws Exception {
+
+    if (!(value instanceof String)) {
+      return (Timestamp) value;
+    }
+    String dateString = (String) value;
+    TimestampParser.Parsed parsed = TimestampParser.parse(dateString);
+    if (parsed == null) {
+      throw new ApiResponseException(dateString + " is an unsuppored Timestamp format");
+    }
+    return Timestamp.valueOf(parsed.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+  }
+
+  /**
+   * Values with an offset are converted to UTC.
+   */
+  public static LocalDateTime toLocalDateTime(Object value) {
+
+    if (!(value instanceof String)) {
+      return (LocalDateTime) value;
+    }
+    String dateString = (String) value;
+    if (dateString.isEmpty()) {
+      return null;
+    }
+    LocalDateTime dateTime = TimestampParser.toLocalDateTime(dateString);
+    if (dateTime == null) {
+      throw new ApiResponseException(dateString + " is an unsupported LocalDateTime format");
+    }
+    return dateTime;
+  }
+
+  /**
+   * Normalizes a value for comparison with another value of the property, so
+   * loosely typed loader params equal the entity's values: strings are first
+   * converted to the property's type, numbers compare by value (12.5 equals
+   * "12.50"), UUIDs and enums as text, and timestamps to the second, the
+   * precision the API returns.
+   *
+   * @throws Exception if a string does not convert to the property's type
+   */
+  public static Object toComparable(MappingPlan.Property property, Object value) throws Exception {
+
+    if (value == null) {
+      return null;
+    }
+    Class<?> type = property.getType();
+    if (value instanceof String && type != String.class && type != Object.class) {
+      String text = ((String) value).strip();
+      if (Number.class.isAssignableFrom(type) || (type.isPrimitive() && type != boolean.class && type != char.class)) {
+        value = new BigDecimal(text);
+      }
+      else if (type == Boolean.class || type == boolean.class) {
+        value = Boolean.valueOf(text);
+      }
+      else {
+        value = property.convert(text);
+      }
+    }
+    if (value instanceof Number) {
+      return new BigDecimal(value.toString()).stripTrailingZeros();
+    }
+    if (value instanceof Timestamp) {
+      return ((Timestamp) value).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS);
+    }
+    if (value instanceof Date) {
+      return new Timestamp(((Date) value).getTime()).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS);
+    }
+    if (value instanceof LocalDateTime) {
+      return ((LocalDateTime) value).truncatedTo(ChronoUnit.SECONDS);
+    }
+    if (value instanceof UUID || value instanceof Enum) {
+      return value.toString();
+    }
+    return value;
+  }
+
+  /**
+   * Converts a property value into the form ParetoNativeRepository.toParams
+   * produced through Gson: identifiers and temporals become strings.
+   */
+  public static Object toParam(Object value) {
+
+    if (value instanceof UUID) {
+      return value.toString();
+    }
+    if (value instanceof Timestamp) {
+      return Constant.TIMESTAMP_FORMATTER.format(((Timestamp) value).toLocalDateTime());
+    }
+    if (value instanceof LocalDateTime) {
+      return Constant.TIMESTAMP_FORMATTER.format((LocalDateTime) value);
+    }
+    if (value instanceof LocalDate) {
+      return value.toString();
+    }
+    return value;
+  }
+
+  public static String nextString(JsonReader in) throws IOException {
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  public static Integer nextInteger(JsonReader in) throws IOException {
+    return toInteger(nextString(in));
+  }
+
+  public static Long nextLong(JsonReader in) throws IOException {
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextLong();
+  }
+
+  public static Double nextDouble(JsonReader in) throws IOException {
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextDouble();
+  }
+
+  public static Float nextFloat(JsonReader in) throws IOException {
+    return toFloat(nextDouble(in));
+  }
+
+  public static Boolean nextBoolean(JsonReader in) throws IOException {
+
+    JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return token == JsonToken.BOOLEAN ? in.nextBoolean() : Boolean.parseBoolean(in.nextString());
+  }
+
+  public static UUID nextUUID(JsonReader in) throws IOException {
+    return toUUID(nextString(in));
+  }
+
+  public static Timestamp nextTimestamp(JsonReader in) throws IOException {
+
+    try {
+      return toTimestamp(nextString(in));
+    }
+    catch (IOException | RuntimeException e) {
+      throw e;
+    }
+    catch (Exception e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  public static LocalDateTime nextLocalDateTime(JsonReader in) throws IOException {
+    return toLocalDateTime(nextString(in));
+  }
+
+  /**
+   * Reads any other type with the configured Gson adapter.
+   */
+  public static <T> T next(JsonReader in, Class<T> type) throws IOException {
+    return GsonConfig.getInstance().getAdapter(type).read(in);
+  }
+
+  /**
+   * Returns the camelCase property name of every column, 0-based. The result
+   * for the most recently seen ResultSetMetaData instance is reused.
+   */
+  public static String[] camelLabels(ResultSetMetaData metaData) throws SQLException {
+
+    Labels labels = lastLabels;
+    if (labels != null && labels.metaData == metaData) {
+      return labels.names;
+    }
+    String[] names = new String[metaData.getColumnCount()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = TextUtils.toCamelCase(metaData.getColumnLabel(i + 1));
+    }
+    lastLabels = new Labels(metaData, names);
+    return names;
+  }
+
+  private static final class Labels {
+
+    private final ResultSetMetaData metaData;
+    private final String[] names;
+
+    private Labels(ResultSetMetaData metaData, String[] names) {
+      this.metaData = metaData;
+      this.names = names;
+    }
+  }
+}
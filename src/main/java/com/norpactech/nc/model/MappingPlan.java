@@ -0,0 +1,310 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.norpactech.nc.utils.TextUtils;
+import com.norpactech.nc.utils.TimestampParser;
+/**
+ * Per-class mapping plan shared by ApiResponse and BaseModel.
+ *
+ * Field lookups, accessibility checks and type converter selection are done
+ * once per class and cached in a ClassValue. Each property holds MethodHandles
+ * for reading and writing the field, so mapping a row is a map lookup and a
+ * handle invocation per column instead of getDeclaredField/setAccessible.
+ */
+public final class MappingPlan {
+
+  private static final ClassValue<MappingPlan> PLANS = new ClassValue<MappingPlan>() {
+    @Override
+    protected MappingPlan computeValue(Class<?> clazz) {
+      return new MappingPlan(clazz);
+    }
+  };
+
+  private static final Property NO_PROPERTY = new Property();
+
+  private final Class<?> type;
+  private final MethodHandle constructor;
+  private final Map<String, Property> properties;
+  private final Map<String, Property> columns = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached plan for the class, building it on first use.
+   *
+   * @param clazz the class to map to or from
+   * @return the mapping plan for clazz
+   */
+  public static MappingPlan of(Class<?> clazz) {
+    return PLANS.get(clazz);
+  }
+
+  private MappingPlan(Class<?> clazz) {
+
+    this.type = clazz;
+
+    MethodHandle ctor = null;
+    try {
+      var declared = clazz.getDeclaredConstructor();
+      declared.setAccessible(true);
+      ctor = MethodHandles.lookup().unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+    }
+    catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+      // No accessible no-arg constructor; newInstance() reports it when used
+    }
+    this.constructor = ctor;
+
+    var byName = new LinkedHashMap<String, Property>();
+    for (Field field : clazz.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+        continue;
+      }
+      try {
+        byName.put(field.getName(), new Property(field));
+      }
+      catch (IllegalAccessException | RuntimeException e) {
+        // Inaccessible fields are ignored, the same as unknown names
+      }
+    }
+    this.properties = Collections.unmodifiableMap(byName);
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Creates a new instance using the no-arg constructor.
+   */
+  public Object newInstance() throws Exception {
+
+    if (constructor == null) {
+      throw new NoSuchMethodException(type.getName() + ".<init>()");
+    }
+    try {
+      return constructor.invokeExact();
+    }
+    catch (Exception | Error e) {
+      throw e;
+    }
+    catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * @param name the declared field name
+   * @return the property, or null if the class declares no such instance field
+   */
+  public Property property(String name) {
+    return properties.get(name);
+  }
+
+  /**
+   * Resolves a snake_case column label to a property, caching the camelCase conversion.
+   *
+   * @param label the column label, e.g. "id_tenant"
+   * @return the property for "idTenant", or null if there is none
+   */
+  public Property column(String label) {
+
+    Property property = columns.get(label);
+    if (property == null) {
+      property = properties.get(TextUtils.toCamelCase(label));
+      columns.put(label, property == null ? NO_PROPERTY : property);
+    }
+    return property == NO_PROPERTY ? null : property;
+  }
+
+  public Collection<Property> properties() {
+    return properties.values();
+  }
+
+  /**
+   * Converts a value into the type expected by a property
+   */
+  @FunctionalInterface
+  public interface Converter {
+    Object convert(Object value) throws Exception;
+  }
+
+  /**
+   * A single mapped field with its accessors and converters.
+   */
+  public static final class Property {
+
+    private final String name;
+    private final Class<?> type;
+    private final Type genericType;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Converter converter;
+    private final Converter stringConverter;
+
+    private Property() {
+      this.name = null;
+      this.type = null;
+      this.genericType = null;
+      this.getter = null;
+      this.setter = null;
+      this.converter = null;
+      this.stringConverter = null;
+    }
+
+    private Property(Field field) throws IllegalAccessException {
+
+      field.setAccessible(true);
+      var lookup = MethodHandles.lookup();
+
+      this.name = field.getName();
+      this.type = field.getType();
+      this.genericType = field.getGenericType();
+      this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+      this.setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+      this.converter = responseConverter(type);
+      this.stringConverter = paramConverter(type);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Class<?> getType() {
+      return type;
+    }
+
+    public Type getGenericType() {
+      return genericType;
+    }
+
+    public Object get(Object target) {
+
+      try {
+        return getter.invokeExact(target);
+      }
+      catch (RuntimeException | Error e) {
+        throw e;
+      }
+      catch (Throwable t) {
+        throw new RuntimeException("Error reading property '" + name + "': " + t.getMessage(), t);
+      }
+    }
+
+    /**
+     * Sets the value as-is. Null is skipped for primitive fields.
+     */
+    public void set(Object target, Object value) {
+
+      if (value == null && type.isPrimitive()) {
+        return;
+      }
+      try {
+        setter.invokeExact(target, value);
+      }
+      catch (ClassCastException e) {
+        throw new IllegalArgumentException("Can not set " + type.getName() + " field " + name + " to " + value.getClass().getName(), e);
+      }
+      catch (RuntimeException | Error e) {
+        throw e;
+      }
+      catch (Throwable t) {
+        throw new RuntimeException("Error writing property '" + name + "': " + t.getMessage(), t);
+      }
+    }
+
+    /**
+     * Converts a value decoded from an API response (Gson maps) and sets it.
+     */
+    public void assign(Object target, Object value) throws Exception {
+      set(target, value == null ? null : converter.convert(value));
+    }
+
+    /**
+     * Converts a value decoded from an API response (Gson maps) as assign does.
+     */
+    public Object convert(Object value) throws Exception {
+      return value == null ? null : converter.convert(value);
+    }
+
+    /**
+     * Converts a query parameter string into this property's type.
+     */
+    public Object fromString(String value) throws Exception {
+      return stringConverter.convert(value);
+    }
+  }
+
+  private static Converter responseConverter(Class<?> type) {
+
+    if (type == Integer.class) {
+      return MapperSupport::toInteger;
+    }
+    if (type == UUID.class) {
+      return MapperSupport::toUUID;
+    }
+    if (type == Timestamp.class) {
+      return MapperSupport::toTimestamp;
+    }
+    if (type == LocalDateTime.class) {
+      return MapperSupport::toLocalDateTime;
+    }
+    return value -> value;
+  }
+
+  private static Converter paramConverter(Class<?> type) {
+
+    if (type == UUID.class) {
+      return value -> UUID.fromString((String) value);
+    }
+    if (type == Integer.class || type == int.class) {
+      return value -> Integer.parseInt((String) value);
+    }
+    if (type == Float.class || type == float.class || type == Double.class || type == double.class) {
+      return value -> Double.parseDouble((String) value);
+    }
+    if (type == Boolean.class || type == boolean.class) {
+      return value -> Boolean.parseBoolean((String) value);
+    }
+    if (type == Date.class || type == Timestamp.class) {
+      return value -> parseDateOrTimestamp((String) value, type);
+    }
+    if (type == java.time.LocalDate.class) {
+      return value -> java.time.LocalDate.parse((String) value);
+    }
+    if (type == LocalDateTime.class) {
+      return value -> LocalDateTime.parse((String) value);
+    }
+    return value -> value;
+  }
+
+  /**
+   * The legacy pattern list began with "yyyy-MM-dd" and the first prefix match won,
+   * so any time of day was dropped: the value is midnight in the default zone.
+   */
+  private static Object parseDateOrTimestamp(String value, Class<?> fieldType) {
+
+    TimestampParser.Parsed parsed = TimestampParser.parse(value);
+    if (parsed == null) {
+      return null;
+    }
+    Timestamp midnight = Timestamp.valueOf(parsed.toLocalDate().atStartOfDay());
+    return fieldType == Date.class ? new Date(midnight.getTime()) : midnight;
+  }
+}
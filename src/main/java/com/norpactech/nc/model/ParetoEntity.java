@@ -0,0 +1,27 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+/**
+ * Opts an entity class into compile-time mapper generation.
+ *
+ * ParetoEntityProcessor generates a reflection-free {@link EntityMapper} named
+ * {@code <Entity>_ParetoMapper} in the same package. ApiResponse.readObject and
+ * ParetoNativeRepository.toParams use it automatically when present.
+ *
+ * The class needs a non-private no-arg constructor. Private fields are accessed
+ * through JavaBean getters and setters (e.g. generated by Lombok @Data); see
+ * ParetoEntityProcessor for the annotationProcessorPaths a build may need.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ParetoEntity {
+}
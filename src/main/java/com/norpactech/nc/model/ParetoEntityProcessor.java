@@ -0,0 +1,436 @@
+package com.norpactech.nc.model;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+/**
+ * Generates an {@link EntityMapper} for every class annotated with {@link ParetoEntity}.
+ *
+ * Registered through META-INF/services, so consumers get it by putting this
+ * library on the compile classpath. A build that sets annotationProcessorPaths
+ * (as this project's pom does for Lombok) disables that discovery and must list
+ * this library there explicitly, after Lombok so the generated accessors are
+ * visible:
+ *
+ * <pre>
+ * &lt;annotationProcessorPaths&gt;
+ *   &lt;path&gt;org.projectlombok:lombok&lt;/path&gt;
+ *   &lt;path&gt;com.norpactech.commons:norpac-commons-java&lt;/path&gt;
+ * &lt;/annotationProcessorPaths&gt;
+ * </pre>
+ *
+ * A private field without a setter, or a non-transient one without a getter, is
+ * reported as an error on the field and no mapper is generated for the class.
+ */
+@SupportedAnnotationTypes("com.norpactech.nc.model.ParetoEntity")
+public class ParetoEntityProcessor extends AbstractProcessor {
+
+  private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+  private enum Kind {
+    STRING("String", "nextString", "toString"),
+    INTEGER("Integer", "nextInteger", "toInteger"),
+    LONG("Long", "nextLong", "toLong"),
+    DOUBLE("Double", "nextDouble", "toDouble"),
+    FLOAT("Float", "nextFloat", "toFloat"),
+    BOOLEAN("Boolean", "nextBoolean", "toBoolean"),
+    UUID("java.util.UUID", "nextUUID", "toUUID"),
+    TIMESTAMP("java.sql.Timestamp", "nextTimestamp", "toTimestamp"),
+    LOCAL_DATE_TIME("java.time.LocalDateTime", "nextLocalDateTime", "toLocalDateTime"),
+    OTHER(null, null, null);
+
+    private final String boxed;
+    private final String reader;
+    private final String converter;
+
+    private Kind(String boxed, String reader, String converter) {
+      this.boxed = boxed;
+      this.reader = reader;
+      this.converter = converter;
+    }
+  }
+
+  private static final class Prop {
+    String name;
+    String jsonName;
+    String type;
+    Kind kind;
+    boolean primitive;
+    boolean direct;
+    boolean isTransient;
+    String getter;
+    String setter;
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(ParetoEntity.class)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@ParetoEntity applies to classes only");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      if (!hasNoArgConstructor(type)) {
+        error(type, "@ParetoEntity class needs a non-private no-arg constructor");
+        continue;
+      }
+      try {
+        generate(type);
+      }
+      catch (IOException e) {
+        error(type, "Unable to generate mapper: " + e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  private boolean hasNoArgConstructor(TypeElement type) {
+
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+      return false;
+    }
+    if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+      return false;
+    }
+    for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (ctor.getParameters().isEmpty() && !ctor.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void generate(TypeElement type) throws IOException {
+
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String mapperName = EntityMappers.mapperName(binaryName);
+    String simpleName = mapperName.substring(mapperName.lastIndexOf('.') + 1);
+    String entity = type.getQualifiedName().toString();
+    List<Prop> props = properties(type);
+    if (props == null) {
+      return;
+    }
+
+    var sb = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      sb.append("package ").append(packageName).append(";\n\n");
+    }
+    sb.append("import java.util.LinkedHashMap;\n");
+    sb.append("import java.util.Map;\n");
+    sb.append("import java.util.concurrent.ConcurrentHashMap;\n\n");
+    sb.append("import com.google.gson.stream.JsonReader;\n");
+    sb.append("import com.google.gson.stream.JsonToken;\n");
+    sb.append("import com.norpactech.nc.api.utils.GenericSelectResponse;\n");
+    sb.append("import com.norpactech.nc.model.EntityMapper;\n");
+    sb.append("import com.norpactech.nc.model.MapperSupport;\n");
+    sb.append("import com.norpactech.nc.utils.TextUtils;\n\n");
+    sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+    sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+    sb.append("public final class ").append(simpleName).append(" implements EntityMapper<").append(entity).append("> {\n\n");
+    sb.append("  private final Map<String, String> labels = new ConcurrentHashMap<>();\n\n");
+
+    sb.append("  @Override\n");
+    sb.append("  public Class<").append(entity).append("> getType() {\n");
+    sb.append("    return ").append(entity).append(".class;\n");
+    sb.append("  }\n\n");
+
+    // fromJson
+    sb.append("  @Override\n");
+    sb.append("  public ").append(entity).append(" fromJson(JsonReader in) throws java.io.IOException {\n\n");
+    sb.append("    if (in.peek() == JsonToken.NULL) {\n");
+    sb.append("      in.nextNull();\n");
+    sb.append("      return null;\n");
+    sb.append("    }\n");
+    sb.append("    var entity = new ").append(entity).append("();\n");
+    sb.append("    in.beginObject();\n");
+    sb.append("    while (in.hasNext()) {\n");
+    sb.append("      switch (in.nextName()) {\n");
+    for (Prop p : props) {
+      String read = p.kind == Kind.OTHER
+          ? "MapperSupport.next(in, " + p.type + ".class)"
+          : "MapperSupport." + p.kind.reader + "(in)";
+      appendCase(sb, p, read, true);
+    }
+    sb.append("        default:\n");
+    sb.append("          in.skipValue();\n");
+    sb.append("      }\n");
+    sb.append("    }\n");
+    sb.append("    in.endObject();\n");
+    sb.append("    return entity;\n");
+    sb.append("  }\n\n");
+
+    // fromMap
+    sb.append("  @Override\n");
+    sb.append("  public ").append(entity).append(" fromMap(Map<String, Object> map) throws Exception {\n\n");
+    sb.append("    if (map == null) {\n");
+    sb.append("      return null;\n");
+    sb.append("    }\n");
+    sb.append("    var entity = new ").append(entity).append("();\n");
+    sb.append("    for (Map.Entry<String, Object> entry : map.entrySet()) {\n");
+    sb.append("      Object value = entry.getValue();\n");
+    sb.append("      switch (entry.getKey()) {\n");
+    for (Prop p : props) {
+      appendCase(sb, p, convert(p, "value"), true);
+    }
+    sb.append("        default:\n");
+    sb.append("      }\n");
+    sb.append("    }\n");
+    sb.append("    return entity;\n");
+    sb.append("  }\n\n");
+
+    // fromRow(GenericSelectResponse)
+    sb.append("  @Override\n");
+    sb.append("  public ").append(entity).append(" fromRow(GenericSelectResponse row) throws Exception {\n\n");
+    sb.append("    if (row == null) {\n");
+    sb.append("      return null;\n");
+    sb.append("    }\n");
+    sb.append("    var entity = new ").append(entity).append("();\n");
+    sb.append("    for (Map.Entry<String, Object> entry : row.getProperties().entrySet()) {\n");
+    sb.append("      Object value = entry.getValue();\n");
+    sb.append("      switch (labels.computeIfAbsent(entry.getKey(), TextUtils::toCamelCase)) {\n");
+    for (Prop p : props) {
+      appendCase(sb, p, convert(p, "value"), false);
+    }
+    sb.append("        default:\n");
+    sb.append("      }\n");
+    sb.append("    }\n");
+    sb.append("    return entity;\n");
+    sb.append("  }\n\n");
+
+    // fromRow(ResultSet)
+    sb.append("  @Override\n");
+    sb.append("  public ").append(entity).append(" fromRow(java.sql.ResultSet rs) throws java.sql.SQLException {\n\n");
+    sb.append("    var entity = new ").append(entity).append("();\n");
+    sb.append("    String[] names = MapperSupport.camelLabels(rs.getMetaData());\n");
+    sb.append("    try {\n");
+    sb.append("      for (int i = 0; i < names.length; i++) {\n");
+    sb.append("        switch (names[i]) {\n");
+    for (Prop p : props) {
+      sb.append("          case \"").append(p.name).append("\":\n");
+      sb.append("            ").append(assign(p, convert(p, "rs.getObject(i + 1)"))).append("\n");
+      sb.append("            break;\n");
+    }
+    sb.append("          default:\n");
+    sb.append("        }\n");
+    sb.append("      }\n");
+    sb.append("    }\n");
+    sb.append("    catch (java.sql.SQLException | RuntimeException e) {\n");
+    sb.append("      throw e;\n");
+    sb.append("    }\n");
+    sb.append("    catch (Exception e) {\n");
+    sb.append("      throw new java.sql.SQLException(e.getMessage(), e);\n");
+    sb.append("    }\n");
+    sb.append("    return entity;\n");
+    sb.append("  }\n\n");
+
+    // toParams
+    sb.append("  @Override\n");
+    sb.append("  public Map<String, Object> toParams(").append(entity).append(" entity) {\n\n");
+    sb.append("    var params = new LinkedHashMap<String, Object>();\n");
+    sb.append("    Object value;\n");
+    for (Prop p : props) {
+      if (p.isTransient) {
+        continue;
+      }
+      sb.append("    value = ").append(read(p)).append(";\n");
+      sb.append("    if (value != null) {\n");
+      sb.append("      params.put(\"").append(p.jsonName).append("\", MapperSupport.toParam(value));\n");
+      sb.append("    }\n");
+    }
+    sb.append("    return params;\n");
+    sb.append("  }\n");
+    sb.append("}\n");
+
+    try (Writer writer = processingEnv.getFiler().createSourceFile(mapperName, type).openWriter()) {
+      writer.write(sb.toString());
+    }
+  }
+
+  /**
+   * @param json also match the @SerializedName, which is what Gson writes and
+   *        toParams sends; the field name still matches, as in MappingPlan
+   */
+  private void appendCase(StringBuilder sb, Prop p, String expression, boolean json) {
+
+    if (json && !p.jsonName.equals(p.name)) {
+      sb.append("        case \"").append(p.jsonName).append("\":\n");
+    }
+    sb.append("        case \"").append(p.name).append("\":\n");
+    sb.append("          ").append(assign(p, expression)).append("\n");
+    sb.append("          break;\n");
+  }
+
+  private String convert(Prop p, String value) {
+
+    if (p.kind == Kind.OTHER) {
+      return "(" + p.type + ") " + value;
+    }
+    return "MapperSupport." + p.kind.converter + "(" + value + ")";
+  }
+
+  private String assign(Prop p, String expression) {
+
+    String target = p.direct ? "entity." + p.name + " = %s;" : "entity." + p.setter + "(%s);";
+    if (!p.primitive) {
+      return String.format(target, expression);
+    }
+    String boxed = p.kind == Kind.OTHER ? p.type : p.kind.boxed;
+    return "{ " + boxed + " v = " + expression + "; if (v != null) { " + String.format(target, "v") + " } }";
+  }
+
+  private String read(Prop p) {
+    return p.direct ? "entity." + p.name : "entity." + p.getter + "()";
+  }
+
+  /**
+   * @return the mapped fields, or null after reporting a private field that
+   *         cannot be accessed
+   */
+  private List<Prop> properties(TypeElement type) {
+
+    var getters = new ArrayList<String>();
+    var setters = new ArrayList<String>();
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+      if (method.getParameters().isEmpty()) {
+        getters.add(method.getSimpleName().toString());
+      }
+      else if (method.getParameters().size() == 1) {
+        setters.add(method.getSimpleName().toString());
+      }
+    }
+    boolean valid = true;
+
+    var props = new ArrayList<Prop>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      Set<Modifier> modifiers = field.getModifiers();
+      if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+        continue;
+      }
+      var p = new Prop();
+      TypeMirror mirror = field.asType();
+      p.name = field.getSimpleName().toString();
+      p.jsonName = serializedName(field);
+      p.primitive = mirror.getKind().isPrimitive();
+      p.kind = kind(mirror);
+      p.type = p.primitive
+          ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) mirror).getQualifiedName().toString()
+          : processingEnv.getTypeUtils().erasure(mirror).toString();
+      p.isTransient = modifiers.contains(Modifier.TRANSIENT);
+      p.direct = !modifiers.contains(Modifier.PRIVATE);
+
+      String capitalized = Character.toUpperCase(p.name.charAt(0)) + p.name.substring(1);
+      p.setter = "set" + capitalized;
+      p.getter = mirror.getKind() == TypeKind.BOOLEAN && !getters.contains("get" + capitalized)
+          ? "is" + capitalized
+          : "get" + capitalized;
+      if (!p.direct && !setters.contains(p.setter)) {
+        error(field, "@ParetoEntity private field '" + p.name + "' needs a setter " + p.setter + "(" + p.type + ")");
+        valid = false;
+      }
+      if (!p.direct && !p.isTransient && !getters.contains(p.getter)) {
+        error(field, "@ParetoEntity private field '" + p.name + "' needs a getter " + p.getter + "()");
+        valid = false;
+      }
+      props.add(p);
+    }
+    return valid ? props : null;
+  }
+
+  private Kind kind(TypeMirror mirror) {
+
+    switch (mirror.getKind()) {
+      case INT:
+        return Kind.INTEGER;
+      case LONG:
+        return Kind.LONG;
+      case DOUBLE:
+        return Kind.DOUBLE;
+      case FLOAT:
+        return Kind.FLOAT;
+      case BOOLEAN:
+        return Kind.BOOLEAN;
+      case DECLARED:
+        break;
+      default:
+        return Kind.OTHER;
+    }
+    String name = processingEnv.getTypeUtils().erasure(mirror).toString();
+    switch (name) {
+      case "java.lang.String":
+        return Kind.STRING;
+      case "java.lang.Integer":
+        return Kind.INTEGER;
+      case "java.lang.Long":
+        return Kind.LONG;
+      case "java.lang.Double":
+        return Kind.DOUBLE;
+      case "java.lang.Float":
+        return Kind.FLOAT;
+      case "java.lang.Boolean":
+        return Kind.BOOLEAN;
+      case "java.util.UUID":
+        return Kind.UUID;
+      case "java.sql.Timestamp":
+        return Kind.TIMESTAMP;
+      case "java.time.LocalDateTime":
+        return Kind.LOCAL_DATE_TIME;
+      default:
+        return Kind.OTHER;
+    }
+  }
+
+  private String serializedName(VariableElement field) {
+
+    for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+      if (annotation.getAnnotationType().toString().equals(SERIALIZED_NAME)) {
+        for (var entry : annotation.getElementValues().entrySet()) {
+          if (entry.getKey().getSimpleName().contentEquals("value")) {
+            AnnotationValue value = entry.getValue();
+            return value.getValue().toString();
+          }
+        }
+      }
+    }
+    return field.getSimpleName().toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -0,0 +1,190 @@
+package com.norpactech.nc.repository;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.model.MapperSupport;
+import com.norpactech.nc.model.MappingPlan;
+import com.norpactech.nc.utils.BloomFilter;
+/**
+ * Answers "does a record with this natural key exist?" for a loader, calling the
+ * API only when the answer may be yes.
+ *
+ * load() pages through the entity once and puts each record's natural key into a
+ * BloomFilter. exists() then returns false straight from the filter for keys it
+ * has never seen, which is most keys in a load of new data; only possible
+ * positives are checked with findOne. Records the loader inserts should be added
+ * so later duplicates in the same load are caught.
+ *
+ * Keys are the natural key values normalized as EntityDiff compares them
+ * (MapperSupport.toComparable) in their API form, joined with \u0001.
+ */
+public class ExistenceIndex<T> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExistenceIndex.class);
+  private static final char SEPARATOR = '\u0001';
+
+  private final ParetoNativeRepository<T> repository;
+  private final Class<T> entityType;
+  private final String[] naturalKeyFields;
+  private final MappingPlan.Property[] properties;
+  private final BloomFilter filter;
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+
+  /**
+   * @param filter sized for the records of the entity plus those the load adds
+   * @param naturalKeyFields camelCase property names that identify a record
+   */
+  public ExistenceIndex(ParetoNativeRepository<T> repository, Class<T> entityType, BloomFilter filter, String... naturalKeyFields) {
+
+    if (naturalKeyFields.length == 0) {
+      throw new IllegalArgumentException("No natural key fields");
+    }
+    MappingPlan plan = MappingPlan.of(entityType);
+    this.properties = new MappingPlan.Property[naturalKeyFields.length];
+    for (int i = 0; i < properties.length; i++) {
+      properties[i] = plan.property(naturalKeyFields[i]);
+      if (properties[i] == null) {
+        throw new IllegalArgumentException(entityType.getSimpleName() + " has no property '" + naturalKeyFields[i] + "'");
+      }
+    }
+    this.repository = repository;
+    this.entityType = entityType;
+    this.filter = filter;
+    this.naturalKeyFields = naturalKeyFields;
+  }
+
+  /**
+   * Builds an index with an on- or off-heap filter and loads it.
+   */
+  public static <T> ExistenceIndex<T> build(ParetoNativeRepository<T> repository, Class<T> entityType, long expectedKeys,
+      double falsePositiveRate, boolean offHeap, String... naturalKeyFields) throws Exception {
+
+    var index = new ExistenceIndex<>(repository, entityType, new BloomFilter(expectedKeys, falsePositiveRate, offHeap), naturalKeyFields);
+    index.load();
+    return index;
+  }
+
+  /**
+   * Pages through the entity with findAll, ordered by id, adding each record's key.
+   *
+   * @return the number of records read
+   */
+  public long load() throws Exception {
+
+    long start = System.currentTimeMillis();
+    var values = new Object[properties.length];
+    long records = repository.findAll(entityType, "id", page -> {
+      for (T record : page) {
+        for (int i = 0; i < properties.length; i++) {
+          values[i] = MapperSupport.toComparable(properties[i], properties[i].get(record));
+        }
+        filter.put(key(values));
+      }
+    });
+    logger.info("Loaded {} {} keys into {} in {} ms", records, entityType.getSimpleName(), filter, System.currentTimeMillis() - start);
+    return records;
+  }
+
+  /**
+   * @return false if no record has the key; true if one may
+   */
+  public boolean mightExist(Map<String, Object> params) throws Exception {
+    return filter.mightContain(key(params));
+  }
+
+  /**
+   * @return whether a record with the params' natural key exists, calling
+   *         findOne only when the filter cannot rule it out
+   */
+  public boolean exists(Map<String, Object> params) throws Exception {
+
+    if (!mightExist(params)) {
+      skipped.increment();
+      return false;
+    }
+    lookups.increment();
+    var query = new HashMap<String, Object>();
+    for (String field : naturalKeyFields) {
+      query.put(field, MapperSupport.toParam(params.get(field)));
+    }
+    if (repository.findOne(entityType, query) != null) {
+      return true;
+    }
+    falsePositives.increment();
+    return false;
+  }
+
+  /**
+   * Adds the key of a record the loader inserted.
+   */
+  public void add(Map<String, Object> params) throws Exception {
+    filter.put(key(params));
+  }
+
+  /**
+   * Loader params are loosely typed, so they are normalized like the entity's
+   * values: "1.50" must give the same key as the entity's 1.5.
+   */
+  private String key(Map<String, Object> params) throws Exception {
+
+    var values = new Object[naturalKeyFields.length];
+    for (int i = 0; i < values.length; i++) {
+      Object value = params.get(naturalKeyFields[i]);
+      if (value == null) {
+        throw new IllegalArgumentException("Natural key field '" + naturalKeyFields[i] + "' is missing from " + params);
+      }
+      values[i] = MapperSupport.toComparable(properties[i], value);
+    }
+    return key(values);
+  }
+
+  /**
+   * @param values normalized by MapperSupport.toComparable
+   */
+  private static String key(Object[] values) {
+
+    var key = new StringBuilder();
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        key.append(SEPARATOR);
+      }
+      Object value = values[i];
+      key.append(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : MapperSupport.toParam(value));
+    }
+    return key.toString();
+  }
+
+  public BloomFilter getFilter() {
+    return filter;
+  }
+  /**
+   * @return exists() calls answered by the filter alone
+   */
+  public long getSkippedLookups() {
+    return skipped.sum();
+  }
+  /**
+   * @return exists() calls that went to the API
+   */
+  public long getLookups() {
+    return lookups.sum();
+  }
+  /**
+   * @return lookups that found no record
+   */
+  public long getFalsePositives() {
+    return falsePositives.sum();
+  }
+}
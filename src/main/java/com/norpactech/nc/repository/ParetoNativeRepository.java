@@ -4,19 +4,34 @@ package com.norpactech.nc.repository;
  *  
  * For license details, see the LICENSE file in this project root.
  */
+import java.lang.reflect.Type;
 import java.net.URL;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import com.norpactech.nc.api.utils.ApiGetRequest;
 import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.api.utils.ApiSuccessMeta;
+import com.norpactech.nc.api.utils.TypedApiResponse;
 import com.norpactech.nc.config.json.GsonConfig;
 import com.norpactech.nc.config.load.ConfiguredAPI;
 import com.norpactech.nc.config.load.Globals;
 import com.norpactech.nc.config.tenant.TenantContext;
+import com.norpactech.nc.enums.EnumApiCodes;
+import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.exception.HttpStatusException;
+import com.norpactech.nc.model.EntityDiff;
+import com.norpactech.nc.model.EntityMapper;
+import com.norpactech.nc.model.EntityMappers;
+import com.norpactech.nc.model.MapperSupport;
+import com.norpactech.nc.utils.Constant;
 import com.norpactech.nc.utils.TextUtils;
 
 import okhttp3.MediaType;
@@ -26,8 +41,20 @@ import okhttp3.RequestBody;
 public abstract class ParetoNativeRepository<T> {
 
   private static final Gson gson = GsonConfig.getInstance();
+  private static final OkHttpClient client = new OkHttpClient();
+  // null until the first upsert shows whether the endpoint exists
+  private volatile Boolean upsertSupported;
+  private int pageSize = Globals.getApiPageSizeInt();
   protected abstract String getRelativeURL();
 
+  /**
+   * Receives one page of findAll
+   */
+  @FunctionalInterface
+  public interface PageHandler<T> {
+    void accept(List<T> page) throws Exception;
+  }
+
   public T findOne(Class<T> entityType, Map<String, Object> queryParams) throws Exception {
     
     var toStringMap = new HashMap<String, String>();
@@ -38,15 +65,12 @@ public abstract class ParetoNativeRepository<T> {
       }
     }
     var request = new ApiGetRequest(entityType, getRelativeURL(), toStringMap);
-    var response = get(request);
+    TypedApiResponse<T> response = get(request, TypeToken.getParameterized(TypedApiResponse.class, entityType).getType());
 
     if (response.getError() != null) {
       throw new Exception(response.getError().toString());
     }
-    if (response.getData() == null) {
-      return null;
-    }
-    return response.readObject(entityType);
+    return response.getData();
   }
   
   public List<T> find(Class<T> entityType, Map<String, Object> queryParams) throws Exception {
@@ -61,7 +85,8 @@ public abstract class ParetoNativeRepository<T> {
     ApiGetRequest request = new ApiGetRequest(entityType, getRelativeURL(), toStringMap);
     request.setUri(getRelativeURL() + "/find");
     
-    ApiResponse response = get(request);
+    Type listType = TypeToken.getParameterized(List.class, entityType).getType();
+    TypedApiResponse<List<T>> response = get(request, TypeToken.getParameterized(TypedApiResponse.class, listType).getType());
 
     if (response.getError() != null) {
       throw new Exception(response.getError().toString());
@@ -69,7 +94,7 @@ public abstract class ParetoNativeRepository<T> {
     if (response.getData() == null) {
       return new ArrayList<>();
     }
-    return response.readList(entityType);
+    return response.getData();
   }
   
   public T post(Class<T> entityType, Map<String, Object> params) throws Exception {
@@ -80,13 +105,75 @@ public abstract class ParetoNativeRepository<T> {
   
   public ApiResponse get(ApiGetRequest apiGetRequest) throws Exception {
 
+    try (okhttp3.Response response = client.newCall(buildGet(apiGetRequest)).execute()) {
+      int responseCode = response.code();
+      if (responseCode > 299) {
+        throw new HttpStatusException("GET", responseCode, response.message());
+      }
+      return gson.fromJson(response.body().string(), ApiResponse.class);
+    }
+  } 
+  
+  /**
+   * GET decoded in one pass into a typed response, e.g. {@code TypedApiResponse<List<Tenant>>}
+   * 
+   * @param apiGetRequest the request
+   * @param responseType the parameterized TypedApiResponse type
+   * @return the decoded response
+   * @throws Exception on transport errors or HTTP status &gt; 299
+   */
+  public <R> TypedApiResponse<R> get(ApiGetRequest apiGetRequest, Type responseType) throws Exception {
+
+    try (okhttp3.Response response = client.newCall(buildGet(apiGetRequest)).execute()) {
+      int responseCode = response.code();
+      if (responseCode > 299) {
+        throw new HttpStatusException("GET", responseCode, response.message());
+      }
+      return gson.fromJson(response.body().charStream(), responseType);
+    }
+  } 
+  
+  /**
+   * Pages through every record, pageSize records at a time ordered by sortColumn,
+   * handing each page to the handler before the next is requested.
+   *
+   * @param sortColumn a unique column, so no record moves between pages
+   * @return the number of records read
+   */
+  public long findAll(Class<T> entityType, String sortColumn, PageHandler<T> handler) throws Exception {
+
+    int limit = pageSize;
+    long records = 0;
+    for (int offset = 0; ; offset += limit) {
+      var query = new HashMap<String, Object>();
+      query.put(Constant.LIMIT, limit);
+      query.put(Constant.OFFSET, offset);
+      query.put(Constant.SORT_COLUMN, sortColumn);
+      List<T> page = find(entityType, query);
+      handler.accept(page);
+      records += page.size();
+      if (page.size() < limit) {
+        return records;
+      }
+    }
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+  /**
+   * @param pageSize the records findAll requests per page; API_PAGE_SIZE by default
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = Math.max(1, pageSize);
+  }
+
+  private okhttp3.Request buildGet(ApiGetRequest apiGetRequest) throws Exception {
+
     String version = Globals.PARETO_API_VERSION == null ? "" : "/" + Globals.PARETO_API_VERSION;
     String queryString = TextUtils.toQueryString(apiGetRequest.getParams());
     URL url = new URL(Globals.PARETO_API_URL + version + apiGetRequest.getUri() + queryString.toString());
 
-    okhttp3.Response response = null;
-    OkHttpClient client = new OkHttpClient().newBuilder().build();
-
     okhttp3.Request.Builder requestBuilder = new okhttp3.Request.Builder()
         .url(url)
         .get()
@@ -95,22 +182,22 @@ public abstract class ParetoNativeRepository<T> {
         .addHeader("Authorization", "Bearer " + ConfiguredAPI.jwt)
         .addHeader("X-Tenant-ID", TenantContext.getId().toString());
     
-    okhttp3.Request request = requestBuilder.build();
-    response = client.newCall(request).execute();       
-
-    int responseCode = response.code();
-    if (responseCode > 299) {
-      throw new Exception("GET Request Failed: " + responseCode + " " + response.message());
-    }
-    return gson.fromJson(response.body().string(), ApiResponse.class);
-  } 
+    return requestBuilder.build();
+  }
   
   public ApiResponse post(Map<String, Object> apiPostRequest) throws Exception {
+    return post(apiPostRequest, null);
+  }
+
+  /**
+   * @param idempotencyKey sent as the Idempotency-Key header when not null, so a
+   *        retried request is applied once
+   */
+  public ApiResponse post(Map<String, Object> apiPostRequest, String idempotencyKey) throws Exception {
 
     String version = Globals.PARETO_API_VERSION == null ? "" : "/" + Globals.PARETO_API_VERSION;
     URL url = new URL(Globals.PARETO_API_URL + version + getRelativeURL());
 
-    OkHttpClient client = new OkHttpClient().newBuilder().build();
     String jsonBody = gson.toJson(apiPostRequest);
     RequestBody requestBody = RequestBody.create(jsonBody, MediaType.get("application/json"));
 
@@ -121,23 +208,33 @@ public abstract class ParetoNativeRepository<T> {
         .addHeader("Content-Type", "application/json")
         .addHeader("Authorization", "Bearer " + ConfiguredAPI.jwt)
         .addHeader("X-Tenant-ID", TenantContext.getId().toString());
+    if (idempotencyKey != null) {
+      requestBuilder.addHeader("Idempotency-Key", idempotencyKey);
+    }
 
     okhttp3.Request request = requestBuilder.build();
-    okhttp3.Response response = client.newCall(request).execute();
-
-    int responseCode = response.code();
-    if (responseCode > 299) {
-        throw new Exception("POST Request Failed: " + responseCode + " " +  response.message());
+    try (okhttp3.Response response = client.newCall(request).execute()) {
+      int responseCode = response.code();
+      if (responseCode > 299) {
+        throw new HttpStatusException("POST", responseCode, response.message());
+      }
+      return ApiResponse.deferred(response.body().string());
     }
-    return gson.fromJson(response.body().string(), ApiResponse.class);
   }
   
   public ApiResponse put(Map<String, Object> apiPutRequest) throws Exception {
+    return put(apiPutRequest, null);
+  }
+
+  /**
+   * @param idempotencyKey sent as the Idempotency-Key header when not null, so a
+   *        retried request is applied once
+   */
+  public ApiResponse put(Map<String, Object> apiPutRequest, String idempotencyKey) throws Exception {
 
     String version = Globals.PARETO_API_VERSION == null ? "" : "/" + Globals.PARETO_API_VERSION;
     URL url = new URL(Globals.PARETO_API_URL + version + getRelativeURL());
 
-    OkHttpClient client = new OkHttpClient().newBuilder().build();
     String jsonBody = gson.toJson(apiPutRequest);
     RequestBody requestBody = RequestBody.create(jsonBody, MediaType.get("application/json"));
 
@@ -148,23 +245,52 @@ public abstract class ParetoNativeRepository<T> {
         .addHeader("Content-Type", "application/json")
         .addHeader("Authorization", "Bearer " + ConfiguredAPI.jwt)
         .addHeader("X-Tenant-ID", TenantContext.getId().toString());
+    if (idempotencyKey != null) {
+      requestBuilder.addHeader("Idempotency-Key", idempotencyKey);
+    }
 
     okhttp3.Request request = requestBuilder.build();
-    okhttp3.Response response = client.newCall(request).execute();
-
-    int responseCode = response.code();
-    if (responseCode > 299) {
-      throw new Exception("POST Request Failed: " + responseCode + " " + response.message());
+    try (okhttp3.Response response = client.newCall(request).execute()) {
+      int responseCode = response.code();
+      if (responseCode > 299) {
+        throw new HttpStatusException("PUT", responseCode, response.message());
+      }
+      return ApiResponse.deferred(response.body().string());
     }
-    return gson.fromJson(response.body().string(), ApiResponse.class);
   }
   
+  /**
+   * Puts an incoming record only if its params differ from the current entity;
+   * for UPDATE_MODE loads. PUT replaces the whole record, so the body is the
+   * current entity with the changed params applied (EntityDiff.toReplacement),
+   * not the changes alone.
+   *
+   * @param current the entity as the API has it
+   * @param incoming params keyed by camelCase property name
+   * @return the response, or null if nothing changed and no request was sent
+   */
+  public ApiResponse putChanged(T current, Map<String, Object> incoming) throws Exception {
+
+    EntityDiff diff = EntityDiff.of(current, incoming);
+    if (diff.isEmpty()) {
+      return null;
+    }
+    return put(diff.toReplacement());
+  }
+
   public ApiResponse delete(Map<String, Object> apiDeleteRequest) throws Exception {
+    return delete(apiDeleteRequest, null);
+  }
+
+  /**
+   * @param idempotencyKey sent as the Idempotency-Key header when not null, so a
+   *        retried request is applied once
+   */
+  public ApiResponse delete(Map<String, Object> apiDeleteRequest, String idempotencyKey) throws Exception {
 
     String version = Globals.PARETO_API_VERSION == null ? "" : "/" + Globals.PARETO_API_VERSION;
     URL url = new URL(Globals.PARETO_API_URL + version + getRelativeURL());
 
-    OkHttpClient client = new OkHttpClient().newBuilder().build();
     String jsonBody = gson.toJson(apiDeleteRequest);
     RequestBody requestBody = RequestBody.create(jsonBody, MediaType.get("application/json"));
 
@@ -175,19 +301,209 @@ public abstract class ParetoNativeRepository<T> {
         .addHeader("Content-Type", "application/json")
         .addHeader("Authorization", "Bearer " + ConfiguredAPI.jwt)
         .addHeader("X-Tenant-ID", TenantContext.getId().toString());
+    if (idempotencyKey != null) {
+      requestBuilder.addHeader("Idempotency-Key", idempotencyKey);
+    }
 
     okhttp3.Request request = requestBuilder.build();
-    okhttp3.Response response = client.newCall(request).execute();
-
-    int responseCode = response.code();
-    if (responseCode > 299) {
-      throw new Exception("POST Request Failed: " + responseCode + " " + response.message());
+    try (okhttp3.Response response = client.newCall(request).execute()) {
+      int responseCode = response.code();
+      if (responseCode > 299) {
+        throw new HttpStatusException("DELETE", responseCode, response.message());
+      }
+      return ApiResponse.deferred(response.body().string());
     }
-    return gson.fromJson(response.body().string(), ApiResponse.class);
   }
   
+  /**
+   * Inserts or updates the record whose natural key fields match params, in one
+   * request to the entity's /upsert endpoint.
+   *
+   * The key field names go in the "key" query parameter. The API answers 201 (or
+   * meta apiCode CREATED) for an insert and 200 for an update, with the row as
+   * data. If the endpoint does not exist (404, 405 or 501), this repository falls
+   * back from then on to a GET by the key followed by put or post; a post that
+   * loses a race to a concurrent insert is retried as a put.
+   *
+   * @param naturalKeyFields camelCase property names that identify the record
+   */
+  public UpsertResult upsert(Map<String, Object> params, String... naturalKeyFields) throws Exception {
+
+    Map<String, String> key = naturalKey(params, naturalKeyFields);
+    if (!Boolean.FALSE.equals(upsertSupported)) {
+      ApiResponse response = postUpsert(params, String.join(",", naturalKeyFields));
+      if (response != null) {
+        upsertSupported = true;
+        if (response.getStatus() == EnumStatus.ERROR) {
+          throw new Exception("Upsert failed: " + response.getError());
+        }
+        return new UpsertResult(isCreated(response), response.getId(), response);
+      }
+      upsertSupported = false;
+    }
+    return upsertInTwoSteps(params, key);
+  }
+
+  public UpsertResult upsert(T entity, String... naturalKeyFields) throws Exception {
+    return upsert(toParams(entity), naturalKeyFields);
+  }
+
+  /**
+   * Upserts records in batches of BATCH_SIZE, one request per batch: the /upsert
+   * endpoint takes a JSON array and answers with data holding an {"id", "created"}
+   * object per record, in order. Without the endpoint each record is upserted in
+   * two steps, as upsert does.
+   *
+   * @return one result per record, in order
+   */
+  public List<UpsertResult> upsertAll(List<Map<String, Object>> records, String... naturalKeyFields) throws Exception {
+
+    var results = new ArrayList<UpsertResult>(records.size());
+    int batchSize = Globals.getBatchSizeInt();
+    for (int from = 0; from < records.size(); from += batchSize) {
+      List<Map<String, Object>> batch = records.subList(from, Math.min(records.size(), from + batchSize));
+      var keys = new ArrayList<Map<String, String>>(batch.size());
+      for (Map<String, Object> params : batch) {
+        keys.add(naturalKey(params, naturalKeyFields));
+      }
+      ApiResponse response = Boolean.FALSE.equals(upsertSupported) ? null : postUpsert(batch, String.join(",", naturalKeyFields));
+      if (response == null) {
+        upsertSupported = false;
+        for (int i = 0; i < batch.size(); i++) {
+          results.add(upsertInTwoSteps(batch.get(i), keys.get(i)));
+        }
+        continue;
+      }
+      upsertSupported = true;
+      if (response.getStatus() == EnumStatus.ERROR) {
+        throw new Exception("Upsert failed: " + response.getError());
+      }
+      List<?> rows = response.getData() instanceof List ? (List<?>) response.getData() : List.of();
+      if (rows.size() != batch.size()) {
+        throw new Exception("Upsert returned " + rows.size() + " results for " + batch.size() + " records");
+      }
+      for (Object row : rows) {
+        Map<?, ?> result = (Map<?, ?>) row;
+        Object id = result.get("id");
+        results.add(new UpsertResult(Boolean.TRUE.equals(result.get("created")), id == null ? null : UUID.fromString(id.toString()), response));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * POSTs a record, or an array of records, to the upsert endpoint.
+   *
+   * @return the response, or null if the endpoint does not exist
+   */
+  protected ApiResponse postUpsert(Object body, String naturalKey) throws Exception {
+
+    String version = Globals.PARETO_API_VERSION == null ? "" : "/" + Globals.PARETO_API_VERSION;
+    URL url = new URL(Globals.PARETO_API_URL + version + getRelativeURL() + "/upsert?key=" + naturalKey);
+
+    String jsonBody = gson.toJson(body);
+    RequestBody requestBody = RequestBody.create(jsonBody, MediaType.get("application/json"));
+
+    okhttp3.Request.Builder requestBuilder = new okhttp3.Request.Builder()
+        .url(url)
+        .post(requestBody)
+        .addHeader("Accept", "application/json")
+        .addHeader("Content-Type", "application/json")
+        .addHeader("Authorization", "Bearer " + ConfiguredAPI.jwt)
+        .addHeader("X-Tenant-ID", TenantContext.getId().toString());
+
+    try (okhttp3.Response response = client.newCall(requestBuilder.build()).execute()) {
+      int responseCode = response.code();
+      if (responseCode == 404 || responseCode == 405 || responseCode == 501) {
+        return null;
+      }
+      if (responseCode > 299) {
+        throw new HttpStatusException("POST", responseCode, response.message());
+      }
+      ApiResponse apiResponse = ApiResponse.deferred(response.body().string());
+      if (responseCode == 201) {
+        if (apiResponse.getMeta() == null) {
+          apiResponse.setMeta(new ApiSuccessMeta(EnumApiCodes.CREATED));
+        }
+        apiResponse.getMeta().setApiCode(EnumApiCodes.CREATED);
+      }
+      return apiResponse;
+    }
+  }
+
+  private static boolean isCreated(ApiResponse response) {
+    return response.getMeta() != null && response.getMeta().getApiCode() == EnumApiCodes.CREATED;
+  }
+
+  private static Map<String, String> naturalKey(Map<String, Object> params, String... naturalKeyFields) {
+
+    if (naturalKeyFields.length == 0) {
+      throw new IllegalArgumentException("No natural key fields");
+    }
+    var key = new LinkedHashMap<String, String>();
+    for (String field : naturalKeyFields) {
+      Object value = params.get(field);
+      if (value == null) {
+        throw new IllegalArgumentException("Natural key field '" + field + "' is missing from " + params);
+      }
+      key.put(field, MapperSupport.toParam(value).toString());
+    }
+    return key;
+  }
+
+  /**
+   * The fallback upsert: GET by natural key, then put the existing row or post a new one.
+   */
+  private UpsertResult upsertInTwoSteps(Map<String, Object> params, Map<String, String> key) throws Exception {
+
+    ApiResponse existing = findByKey(key);
+    if (existing == null) {
+      Exception failure;
+      try {
+        ApiResponse response = post(params);
+        if (response.getStatus() != EnumStatus.ERROR) {
+          return new UpsertResult(true, response.getId(), response);
+        }
+        failure = new Exception("POST failed: " + response.getError());
+      }
+      catch (Exception e) {
+        failure = e;
+      }
+      // A concurrent insert may have won the race; update the row it created
+      existing = findByKey(key);
+      if (existing == null) {
+        throw failure;
+      }
+    }
+    var update = new LinkedHashMap<String, Object>(params);
+    update.put("id", existing.getId().toString());
+    Timestamp updatedAt = existing.getUpdatedAt();
+    if (updatedAt != null) {
+      update.put("updatedAt", MapperSupport.toParam(updatedAt));
+    }
+    ApiResponse response = put(update);
+    if (response.getStatus() == EnumStatus.ERROR) {
+      throw new Exception("PUT failed: " + response.getError());
+    }
+    return new UpsertResult(false, existing.getId(), response);
+  }
+
+  private ApiResponse findByKey(Map<String, String> key) throws Exception {
+
+    ApiResponse response = get(new ApiGetRequest(null, getRelativeURL(), key));
+    if (response.getError() != null) {
+      throw new Exception(response.getError().toString());
+    }
+    return response.getData() == null ? null : response;
+  }
+
   public Map<String, Object> toParams(Object request) throws IllegalAccessException {
     
+    @SuppressWarnings("unchecked")
+    EntityMapper<Object> mapper = (EntityMapper<Object>) EntityMappers.find(request.getClass());
+    if (mapper != null) {
+      return mapper.toParams(request);
+    }
     // Use Gson to serialize the object, then deserialize back to Map
     // This ensures all custom serializers (like Timestamp -> ISO 8601) are applied
     String json = gson.toJson(request);
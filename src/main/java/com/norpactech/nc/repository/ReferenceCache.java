@@ -0,0 +1,252 @@
+package com.norpactech.nc.repository;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.norpactech.nc.exception.RefTableNotFoundException;
+import com.norpactech.nc.model.MapperSupport;
+import com.norpactech.nc.model.MappingPlan;
+/**
+ * A preloaded copy of a reference table for loaders that resolve many ids
+ * against it.
+ *
+ * refresh() pages through the whole table and builds an immutable snapshot: an
+ * open-addressing table keyed by the two longs of each record's id, and one
+ * String-keyed index per secondary field. Lookups read the current snapshot
+ * without locking, and get(long, long) needs no UUID at all. A refresh builds a
+ * new snapshot beside the old one and swaps it in, so readers never see a
+ * partly loaded table.
+ */
+public class ReferenceCache<T> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReferenceCache.class);
+  private static final String ID = "id";
+
+  private final ParetoNativeRepository<T> repository;
+  private final Class<T> entityType;
+  private final MappingPlan.Property id;
+  private final String[] indexedFields;
+  private final MappingPlan.Property[] indexed;
+  private volatile Snapshot<T> snapshot;
+
+  /**
+   * @param indexedFields camelCase property names to index, e.g. a natural key
+   */
+  public ReferenceCache(ParetoNativeRepository<T> repository, Class<T> entityType, String... indexedFields) {
+
+    MappingPlan plan = MappingPlan.of(entityType);
+    this.id = plan.property(ID);
+    if (id == null || id.getType() != UUID.class) {
+      throw new IllegalArgumentException(entityType.getSimpleName() + " has no UUID id");
+    }
+    this.indexed = new MappingPlan.Property[indexedFields.length];
+    for (int i = 0; i < indexed.length; i++) {
+      indexed[i] = plan.property(indexedFields[i]);
+      if (indexed[i] == null) {
+        throw new IllegalArgumentException(entityType.getSimpleName() + " has no property '" + indexedFields[i] + "'");
+      }
+    }
+    this.repository = repository;
+    this.entityType = entityType;
+    this.indexedFields = indexedFields;
+    this.snapshot = new Snapshot<>(new ArrayList<>(), id, indexedFields, indexed);
+  }
+
+  /**
+   * Reloads the table with findAll, ordered by id, and swaps the new snapshot in.
+   * On failure the previous snapshot stays current.
+   *
+   * @return the number of records cached
+   */
+  public int refresh() throws Exception {
+
+    long start = System.currentTimeMillis();
+    var records = new ArrayList<T>();
+    repository.findAll(entityType, ID, records::addAll);
+    var loaded = new Snapshot<>(records, id, indexedFields, indexed);
+    snapshot = loaded;
+    logger.info("Cached {} {} records ({} bytes) in {} ms", loaded.size, entityType.getSimpleName(), loaded.footprint(), System.currentTimeMillis() - start);
+    return loaded.size;
+  }
+
+  /**
+   * @return the record with the id, or null
+   */
+  public T get(UUID id) {
+    return id == null ? null : snapshot.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+  }
+
+  /**
+   * @return the record whose id has these halves, or null
+   */
+  public T get(long mostSignificantBits, long leastSignificantBits) {
+    return snapshot.get(mostSignificantBits, leastSignificantBits);
+  }
+
+  /**
+   * @return the record with the id
+   * @throws RefTableNotFoundException if the table has no such record
+   */
+  public T require(UUID id) throws RefTableNotFoundException {
+
+    T record = get(id);
+    if (record == null) {
+      throw new RefTableNotFoundException(id);
+    }
+    return record;
+  }
+
+  /**
+   * @param field one of the indexed fields
+   * @param value the field's value in its param form (UUIDs and timestamps as strings)
+   * @return the record with the value, or null; the last loaded wins if several have it
+   */
+  public T getBy(String field, Object value) {
+
+    Map<String, T> index = snapshot.indexes.get(field);
+    if (index == null) {
+      throw new IllegalArgumentException("'" + field + "' is not indexed");
+    }
+    return value == null ? null : index.get(String.valueOf(MapperSupport.toParam(value)));
+  }
+
+  /**
+   * @return the id of the record getBy returns, or null
+   */
+  public UUID getIdBy(String field, Object value) {
+
+    T record = getBy(field, value);
+    return record == null ? null : (UUID) id.get(record);
+  }
+
+  public int size() {
+    return snapshot.size;
+  }
+
+  /**
+   * @return the approximate heap bytes of the current snapshot's table and
+   *         indexes, not counting the records themselves
+   */
+  public long getFootprintBytes() {
+    return snapshot.footprint();
+  }
+
+  /**
+   * @return records, id table capacity and longest probe, and bytes
+   */
+  public String getFootprintReport() {
+
+    Snapshot<T> current = snapshot;
+    return entityType.getSimpleName() + ": " + current.size + " records, " + current.values.length + " slots (longest probe "
+        + current.longestProbe + "), " + current.indexes.size() + " indexes, ~" + current.footprint() + " bytes";
+  }
+
+  @Override
+  public String toString() {
+    return "ReferenceCache[" + getFootprintReport() + "]";
+  }
+
+  /**
+   * An immutable table. The id halves and records are held in parallel arrays at
+   * most half full, probed linearly from a hash of the id.
+   */
+  private static final class Snapshot<T> {
+
+    private static final int ARRAY_HEADER = 16;
+    // A HashMap.Node and its share of the table, with compressed references
+    private static final int INDEX_ENTRY = 40;
+
+    private final long[] msb;
+    private final long[] lsb;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+    private final int longestProbe;
+    private final Map<String, Map<String, T>> indexes = new HashMap<>();
+
+    private Snapshot(List<T> records, MappingPlan.Property id, String[] indexedFields, MappingPlan.Property[] indexed) {
+
+      int capacity = Integer.highestOneBit(Math.max(2, records.size()) * 2 - 1) << 1;
+      this.msb = new long[capacity];
+      this.lsb = new long[capacity];
+      this.values = new Object[capacity];
+      this.mask = capacity - 1;
+      for (int i = 0; i < indexedFields.length; i++) {
+        indexes.put(indexedFields[i], new HashMap<>(records.size() * 4 / 3 + 1));
+      }
+      int count = 0;
+      int longest = 0;
+      for (T record : records) {
+        UUID key = (UUID) id.get(record);
+        if (key == null) {
+          continue;
+        }
+        long high = key.getMostSignificantBits();
+        long low = key.getLeastSignificantBits();
+        int slot = slot(high, low);
+        int probe = 1;
+        while (values[slot] != null && (msb[slot] != high || lsb[slot] != low)) {
+          slot = (slot + 1) & mask;
+          probe++;
+        }
+        if (values[slot] == null) {
+          count++;
+        }
+        msb[slot] = high;
+        lsb[slot] = low;
+        values[slot] = record;
+        longest = Math.max(longest, probe);
+        for (int i = 0; i < indexed.length; i++) {
+          Object value = indexed[i].get(record);
+          if (value != null) {
+            indexes.get(indexedFields[i]).put(String.valueOf(MapperSupport.toParam(value)), record);
+          }
+        }
+      }
+      this.size = count;
+      this.longestProbe = longest;
+    }
+
+    private int slot(long high, long low) {
+
+      long hash = high ^ low;
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      return (int) hash & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(long high, long low) {
+
+      int slot = slot(high, low);
+      Object value;
+      while ((value = values[slot]) != null) {
+        if (msb[slot] == high && lsb[slot] == low) {
+          return (T) value;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return null;
+    }
+
+    private long footprint() {
+
+      long bytes = 3L * ARRAY_HEADER + values.length * (2L * Long.BYTES + Integer.BYTES);
+      for (Map<String, T> index : indexes.values()) {
+        bytes += ARRAY_HEADER + (long) index.size() * INDEX_ENTRY;
+      }
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,719 @@
+package com.norpactech.nc.repository;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.reflect.TypeToken;
+import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.config.json.GsonConfig;
+import com.norpactech.nc.config.tenant.TenantContext;
+import com.norpactech.nc.enums.EnumMutation;
+import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.enums.EnumSyncPolicy;
+import com.norpactech.nc.exception.HttpStatusException;
+/**
+ * A durable local queue of repository writes, so callers get an acknowledgement
+ * from local disk and writes survive an API outage or a restart.
+ *
+ * Writes are appended to memory-mapped segment files as length- and CRC-framed
+ * records and forced to disk per the EnumSyncPolicy. Once started, a drainer
+ * thread replays them through the registered repositories in windows of batchSize
+ * records: the records of each entity are sent in append order by one sender, and
+ * different entities are sent in parallel. A failed send leaves that entity's
+ * remaining records for the next window, after an exponential backoff; close()
+ * cuts the backoff short. A write the API rejects, with an ERROR response or a
+ * 4xx status other than 408 and 429, is passed to the dead letter handler and not
+ * retried.
+ *
+ * The sequence below which everything was sent is kept in a state file; segments
+ * entirely below it are deleted. Records sent after it are re-sent after a restart,
+ * so each is sent with the Idempotency-Key "outbox id:sequence".
+ */
+public class RepositoryOutbox implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(RepositoryOutbox.class);
+  private static final Gson PARAMS_GSON = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.BIG_DECIMAL).create();
+  private static final String SEGMENT_PREFIX = "outbox-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String STATE_FILE = "outbox.state";
+  // record length and CRC32 of the payload
+  private static final int HEADER_BYTES = 8;
+  private static final long SYNC_INTERVAL_MILLIS = 50;
+
+  private final Path directory;
+  private final EnumSyncPolicy syncPolicy;
+  private final int segmentBytes;
+  private final String id;
+  private final Map<String, ParetoNativeRepository<?>> repositories = new ConcurrentHashMap<>();
+  private final List<Segment> segments = new CopyOnWriteArrayList<>();
+  private final LongAdder deadLetters = new LongAdder();
+
+  private long nextSequence;
+  private volatile long drained;
+  // where the first record after drained is; drainer thread only
+  private Segment drainSegment;
+  private int drainOffset;
+  private final Set<Long> done = new HashSet<>();
+
+  private Consumer<Entry> deadLetterHandler;
+  private int batchSize = 100;
+  private int drainThreads = 4;
+  private long retryMillis = 100;
+  private long maxRetryMillis = 30_000;
+
+  private Thread drainer;
+  private ExecutorService senders;
+  private ScheduledExecutorService syncer;
+  private volatile boolean closed;
+
+  public RepositoryOutbox(Path directory, EnumSyncPolicy syncPolicy) throws IOException {
+    this(directory, syncPolicy, 64 * 1024 * 1024);
+  }
+
+  /**
+   * Opens the outbox in a directory, recovering records left by an earlier run.
+   *
+   * @param segmentBytes the size of each segment file; a larger record gets a
+   *        segment of its own
+   */
+  public RepositoryOutbox(Path directory, EnumSyncPolicy syncPolicy, int segmentBytes) throws IOException {
+
+    this.directory = directory;
+    this.syncPolicy = syncPolicy;
+    this.segmentBytes = segmentBytes;
+    Files.createDirectories(directory);
+
+    Path state = directory.resolve(STATE_FILE);
+    if (Files.exists(state)) {
+      String[] lines = Files.readString(state, StandardCharsets.UTF_8).split("\n");
+      this.id = lines[0];
+      this.drained = Long.parseLong(lines[1]);
+    }
+    else {
+      this.id = UUID.randomUUID().toString();
+      this.drained = -1;
+    }
+
+    List<Path> files;
+    try (Stream<Path> list = Files.list(directory)) {
+      files = list.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+          && file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().collect(Collectors.toList());
+    }
+    long last = drained;
+    for (Path file : files) {
+      Segment segment = Segment.open(file, file.equals(files.get(files.size() - 1)));
+      segments.add(segment);
+      last = Math.max(last, segment.lastSequence);
+    }
+    this.nextSequence = last + 1;
+    if (segments.isEmpty()) {
+      segments.add(Segment.create(directory, nextSequence, segmentBytes));
+    }
+    this.drainSegment = segments.get(0);
+    this.drainOffset = 0;
+    advance();
+    if (syncPolicy == EnumSyncPolicy.INTERVAL) {
+      syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-sync");
+        thread.setDaemon(true);
+        return thread;
+      });
+      syncer.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    logger.info("Outbox {} opened with {} pending writes", directory, getPendingCount());
+  }
+
+  /**
+   * @param entity the name the writes of a repository are appended under
+   */
+  public void register(String entity, ParetoNativeRepository<?> repository) {
+    repositories.put(entity, repository);
+  }
+
+  public long post(String entity, Map<String, Object> params) throws IOException {
+    return append(entity, EnumMutation.POST, params);
+  }
+
+  public long put(String entity, Map<String, Object> params) throws IOException {
+    return append(entity, EnumMutation.PUT, params);
+  }
+
+  public long delete(String entity, Map<String, Object> params) throws IOException {
+    return append(entity, EnumMutation.DELETE, params);
+  }
+
+  /**
+   * Appends a write, replayed later under the caller's TenantContext.
+   *
+   * @return the write's sequence number
+   */
+  public long append(String entity, EnumMutation mutation, Map<String, Object> params) throws IOException {
+
+    byte[] entityBytes = entity.getBytes(StandardCharsets.UTF_8);
+    String tenant = TenantContext.getId();
+    byte[] tenantBytes = tenant == null ? new byte[0] : tenant.getBytes(StandardCharsets.UTF_8);
+    byte[] json = GsonConfig.getInstance().toJson(params).getBytes(StandardCharsets.UTF_8);
+    int length = 8 + 1 + 2 + entityBytes.length + 2 + tenantBytes.length + json.length;
+
+    ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+    record.position(HEADER_BYTES);
+    record.putLong(0);
+    record.put(mutation.getCode());
+    record.putShort((short) entityBytes.length).put(entityBytes);
+    record.putShort((short) (tenant == null ? -1 : tenantBytes.length)).put(tenantBytes);
+    record.put(json);
+
+    Segment segment;
+    int offset;
+    long sequence;
+    synchronized (this) {
+      if (closed) {
+        throw new IOException("Outbox " + directory + " is closed");
+      }
+      segment = segments.get(segments.size() - 1);
+      if (segment.limit + record.capacity() > segment.buffer.capacity()) {
+        segment = roll(record.capacity());
+      }
+      sequence = nextSequence++;
+      record.putLong(HEADER_BYTES, sequence);
+      var crc = new CRC32();
+      crc.update(record.array(), HEADER_BYTES, length);
+      record.putInt(0, length);
+      record.putInt(4, (int) crc.getValue());
+      offset = segment.limit;
+      segment.buffer.put(offset, record.array());
+      segment.limit = offset + record.capacity();
+      notifyAll();
+    }
+    if (syncPolicy == EnumSyncPolicy.ALWAYS) {
+      segment.buffer.force(offset, record.capacity());
+    }
+    return sequence;
+  }
+
+  private Segment roll(int recordBytes) throws IOException {
+
+    Segment full = segments.get(segments.size() - 1);
+    if (syncPolicy != EnumSyncPolicy.NONE) {
+      full.sync();
+    }
+    Segment segment = Segment.create(directory, nextSequence, Math.max(segmentBytes, recordBytes));
+    segments.add(segment);
+    return segment;
+  }
+
+  /**
+   * Forces appended records to disk.
+   */
+  public void sync() {
+
+    for (Segment segment : segments) {
+      segment.sync();
+    }
+  }
+
+  /**
+   * Starts the drainer; until then writes are only appended.
+   */
+  public synchronized void start() {
+
+    if (drainer != null) {
+      return;
+    }
+    senders = Executors.newFixedThreadPool(drainThreads, runnable -> {
+      Thread thread = new Thread(runnable, "outbox-sender");
+      thread.setDaemon(true);
+      return thread;
+    });
+    drainer = new Thread(this::drain, "outbox-drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  private void drain() {
+
+    long backoff = retryMillis;
+    while (!closed) {
+      try {
+        synchronized (this) {
+          while (!closed && getPendingCount() == 0) {
+            wait();
+          }
+        }
+        if (closed) {
+          return;
+        }
+        boolean failed = send(window());
+        advance();
+        if (failed) {
+          pause(backoff);
+          backoff = Math.min(backoff * 2, maxRetryMillis);
+        }
+        else {
+          backoff = retryMillis;
+        }
+      }
+      catch (InterruptedException e) {
+        return;
+      }
+      catch (IOException | RuntimeException e) {
+        logger.error("Outbox {} drain failed: {}", directory, e.getMessage(), e);
+        try {
+          pause(backoff);
+        }
+        catch (InterruptedException interrupted) {
+          return;
+        }
+        backoff = Math.min(backoff * 2, maxRetryMillis);
+      }
+    }
+  }
+
+  /**
+   * Waits out a retry backoff; close() wakes the drainer early.
+   */
+  private synchronized void pause(long millis) throws InterruptedException {
+
+    if (!closed) {
+      wait(millis);
+    }
+  }
+
+  /**
+   * @return up to batchSize unsent records, from the drain position
+   */
+  private List<Entry> window() {
+
+    var window = new ArrayList<Entry>(batchSize);
+    Segment segment = drainSegment;
+    int offset = drainOffset;
+    int index = segments.indexOf(segment);
+    while (window.size() < batchSize) {
+      if (offset >= segment.limit) {
+        if (++index >= segments.size()) {
+          break;
+        }
+        segment = segments.get(index);
+        offset = 0;
+        continue;
+      }
+      Entry entry = segment.read(offset);
+      offset += entry.size;
+      if (!done.contains(entry.sequence)) {
+        window.add(entry);
+      }
+    }
+    return window;
+  }
+
+  /**
+   * Sends a window, each entity's records in order on one sender.
+   *
+   * @return true if a send failed and should be retried
+   */
+  private boolean send(List<Entry> window) throws InterruptedException {
+
+    var entities = new LinkedHashMap<String, List<Entry>>();
+    for (Entry entry : window) {
+      entities.computeIfAbsent(entry.entity, key -> new ArrayList<>()).add(entry);
+    }
+    var futures = new ArrayList<Future<List<Long>>>();
+    for (List<Entry> entries : entities.values()) {
+      futures.add(senders.submit(() -> sendInOrder(entries)));
+    }
+    boolean failed = false;
+    for (Future<List<Long>> future : futures) {
+      try {
+        List<Long> sent = future.get();
+        synchronized (this) {
+          done.addAll(sent);
+        }
+      }
+      catch (ExecutionException e) {
+        logger.error("Outbox {} sender failed: {}", directory, e.getCause().getMessage(), e.getCause());
+      }
+    }
+    for (List<Entry> entries : entities.values()) {
+      failed |= !done.contains(entries.get(entries.size() - 1).sequence);
+    }
+    return failed;
+  }
+
+  /**
+   * @return the sequences sent (or dead-lettered), stopping at the first failure
+   */
+  private List<Long> sendInOrder(List<Entry> entries) {
+
+    var sent = new ArrayList<Long>(entries.size());
+    for (Entry entry : entries) {
+      ParetoNativeRepository<?> repository = repositories.get(entry.entity);
+      if (repository == null) {
+        logger.warn("Outbox {}: no repository registered for {}", directory, entry.entity);
+        break;
+      }
+      String key = id + ":" + entry.sequence;
+      if (entry.tenant == null) {
+        TenantContext.clear();
+      }
+      else {
+        TenantContext.setId(entry.tenant);
+      }
+      try {
+        ApiResponse response;
+        switch (entry.mutation) {
+          case PUT:
+            response = repository.put(entry.params, key);
+            break;
+          case DELETE:
+            response = repository.delete(entry.params, key);
+            break;
+          default:
+            response = repository.post(entry.params, key);
+        }
+        if (response != null && response.getStatus() == EnumStatus.ERROR) {
+          deadLetter(entry, response.getError());
+        }
+        sent.add(entry.sequence);
+      }
+      catch (HttpStatusException e) {
+        if (e.isRetryable()) {
+          logger.warn("Outbox {}: {} {} #{} failed, will retry: {}", directory, entry.mutation.getName(), entry.entity, entry.sequence, e.getMessage());
+          break;
+        }
+        deadLetter(entry, e.getMessage());
+        sent.add(entry.sequence);
+      }
+      catch (Exception e) {
+        logger.warn("Outbox {}: {} {} #{} failed, will retry: {}", directory, entry.mutation.getName(), entry.entity, entry.sequence, e.getMessage());
+        break;
+      }
+      finally {
+        TenantContext.clear();
+      }
+    }
+    return sent;
+  }
+
+  private void deadLetter(Entry entry, Object reason) {
+
+    deadLetters.increment();
+    logger.error("Outbox {}: {} {} #{} rejected: {}", directory, entry.mutation.getName(), entry.entity, entry.sequence, reason);
+    if (deadLetterHandler != null) {
+      deadLetterHandler.accept(entry);
+    }
+  }
+
+  /**
+   * Moves the drain position past sent records, saves the new watermark and
+   * deletes the segments it has passed.
+   */
+  private void advance() throws IOException {
+
+    long watermark;
+    synchronized (this) {
+      watermark = moveDrainPosition();
+      if (watermark == drained) {
+        return;
+      }
+      drained = watermark;
+    }
+    Path state = directory.resolve(STATE_FILE);
+    Path temp = directory.resolve(STATE_FILE + ".tmp");
+    Files.writeString(temp, id + "\n" + watermark, StandardCharsets.UTF_8);
+    Files.move(temp, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    while (segments.get(0) != drainSegment) {
+      Segment segment = segments.remove(0);
+      segment.delete();
+      logger.debug("Outbox {}: deleted drained segment {}", directory, segment.path.getFileName());
+    }
+  }
+
+  /**
+   * @return the sequence below which every record was sent
+   */
+  private long moveDrainPosition() {
+
+    long watermark = drained;
+    while (true) {
+      if (drainOffset >= drainSegment.limit) {
+        int index = segments.indexOf(drainSegment);
+        if (index + 1 >= segments.size()) {
+          break;
+        }
+        drainSegment = segments.get(index + 1);
+        drainOffset = 0;
+        continue;
+      }
+      long sequence = drainSegment.sequence(drainOffset);
+      if (sequence > watermark && !done.remove(sequence)) {
+        break;
+      }
+      watermark = Math.max(watermark, sequence);
+      drainOffset += drainSegment.recordBytes(drainOffset);
+    }
+    return watermark;
+  }
+
+  /**
+   * @return writes appended but not yet sent
+   */
+  public synchronized long getPendingCount() {
+    return nextSequence - 1 - drained - done.size();
+  }
+
+  /**
+   * @return writes the API rejected since the outbox was opened
+   */
+  public long getDeadLetterCount() {
+    return deadLetters.sum();
+  }
+
+  /**
+   * Stops the drainer after its current window, forces the log to disk and closes
+   * the segments; unsent writes are sent after the outbox is reopened.
+   */
+  @Override
+  public void close() throws IOException {
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    try {
+      if (drainer != null) {
+        drainer.join();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      if (senders != null) {
+        senders.shutdownNow();
+      }
+      if (syncer != null) {
+        syncer.shutdownNow();
+      }
+    }
+    sync();
+    for (Segment segment : segments) {
+      segment.channel.close();
+    }
+  }
+
+  /**
+   * @param deadLetterHandler receives writes the API rejected
+   */
+  public void setDeadLetterHandler(Consumer<Entry> deadLetterHandler) {
+    this.deadLetterHandler = deadLetterHandler;
+  }
+  /**
+   * @param batchSize the most records the drainer sends per window
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = Math.max(1, batchSize);
+  }
+  /**
+   * @param drainThreads the most entities sent in parallel
+   */
+  public void setDrainThreads(int drainThreads) {
+    this.drainThreads = Math.max(1, drainThreads);
+  }
+  /**
+   * @param retryMillis the first backoff after a failed send, doubled up to maxRetryMillis
+   */
+  public void setRetryMillis(long retryMillis, long maxRetryMillis) {
+
+    this.retryMillis = Math.max(1, retryMillis);
+    this.maxRetryMillis = Math.max(this.retryMillis, maxRetryMillis);
+  }
+
+  /**
+   * One appended write
+   */
+  public static class Entry {
+
+    private final long sequence;
+    private final EnumMutation mutation;
+    private final String entity;
+    private final String tenant;
+    private final Map<String, Object> params;
+    private final int size;
+
+    private Entry(long sequence, EnumMutation mutation, String entity, String tenant, Map<String, Object> params, int size) {
+
+      this.sequence = sequence;
+      this.mutation = mutation;
+      this.entity = entity;
+      this.tenant = tenant;
+      this.params = params;
+      this.size = size;
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+    public EnumMutation getMutation() {
+      return mutation;
+    }
+    public String getEntity() {
+      return entity;
+    }
+    public String getTenant() {
+      return tenant;
+    }
+    public Map<String, Object> getParams() {
+      return params;
+    }
+  }
+
+  /**
+   * A segment file, mapped whole. Records are written below capacity and published
+   * by advancing limit.
+   */
+  private static final class Segment {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int limit;
+    private int synced;
+    private long lastSequence = -1;
+
+    private Segment(Path path, FileChannel channel, int size) throws IOException {
+
+      this.path = path;
+      this.channel = channel;
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static Segment create(Path directory, long firstSequence, int size) throws IOException {
+
+      Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+      var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      return new Segment(path, channel, size);
+    }
+
+    /**
+     * Maps an existing segment and finds the end of its valid records. A torn
+     * record at the end of the last segment is zeroed so it cannot be mistaken
+     * for data once records are appended after it.
+     */
+    private static Segment open(Path path, boolean last) throws IOException {
+
+      var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      var segment = new Segment(path, channel, (int) channel.size());
+      MappedByteBuffer buffer = segment.buffer;
+      int offset = 0;
+      var crc = new CRC32();
+      while (offset + HEADER_BYTES <= buffer.capacity()) {
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_BYTES + length > buffer.capacity()) {
+          break;
+        }
+        crc.reset();
+        crc.update(buffer.slice(offset + HEADER_BYTES, length));
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+          break;
+        }
+        segment.lastSequence = buffer.getLong(offset + HEADER_BYTES);
+        offset += HEADER_BYTES + length;
+      }
+      segment.limit = offset;
+      segment.synced = offset;
+      if (offset + 4 <= buffer.capacity() && buffer.getInt(offset) != 0) {
+        logger.warn("Outbox segment {}: discarding a torn record at byte {}", path.getFileName(), offset);
+        if (last) {
+          buffer.put(offset, new byte[buffer.capacity() - offset]);
+          buffer.force();
+        }
+      }
+      return segment;
+    }
+
+    private long sequence(int offset) {
+      return buffer.getLong(offset + HEADER_BYTES);
+    }
+
+    private int recordBytes(int offset) {
+      return HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    private Entry read(int offset) {
+
+      int length = buffer.getInt(offset);
+      ByteBuffer record = buffer.slice(offset + HEADER_BYTES, length);
+      long sequence = record.getLong();
+      EnumMutation mutation = EnumMutation.fromCode(record.get());
+      String entity = string(record, record.getShort());
+      short tenantLength = record.getShort();
+      String tenant = tenantLength < 0 ? null : string(record, tenantLength);
+      String json = string(record, record.remaining());
+      Map<String, Object> params = PARAMS_GSON.fromJson(json, new TypeToken<LinkedHashMap<String, Object>>() {}.getType());
+      return new Entry(sequence, mutation, entity, tenant, params, HEADER_BYTES + length);
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private synchronized void sync() {
+
+      int end = limit;
+      if (end > synced) {
+        buffer.force(synced, end - synced);
+        synced = end;
+      }
+    }
+
+    private void delete() throws IOException {
+
+      channel.close();
+      Files.deleteIfExists(path);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.norpactech.nc.repository;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.util.UUID;
+
+import com.norpactech.nc.api.utils.ApiResponse;
+/**
+ * The outcome of one upserted record
+ */
+public class UpsertResult {
+
+  private final boolean created;
+  private final UUID id;
+  private final ApiResponse response;
+
+  public UpsertResult(boolean created, UUID id, ApiResponse response) {
+
+    this.created = created;
+    this.id = id;
+    this.response = response;
+  }
+
+  /**
+   * @return true if the record was inserted, false if an existing one was updated
+   */
+  public boolean isCreated() {
+    return created;
+  }
+  public UUID getId() {
+    return id;
+  }
+  /**
+   * @return the API response; for upsertAll, the response of the whole batch
+   */
+  public ApiResponse getResponse() {
+    return response;
+  }
+
+  @Override
+  public String toString() {
+    return (created ? "created " : "updated ") + id;
+  }
+}
@@ -0,0 +1,196 @@
+package com.norpactech.nc.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+/**
+ * A Bloom filter over string keys: mightContain never misses a key that was put,
+ * and wrongly reports an absent key at about the configured false positive rate
+ * while no more than the expected number of keys were put.
+ *
+ * Each key is hashed once with 128-bit MurmurHash3 and the two halves are
+ * combined into the k bit positions (Kirsch-Mitzenmacher double hashing). The bits
+ * live in a long[] on the heap or in a direct buffer off the heap, which keeps a
+ * large filter out of the collector's way.
+ *
+ * put is synchronized; mightContain is not, so a key put concurrently by another
+ * thread may not be seen yet.
+ */
+public final class BloomFilter {
+
+  private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+  private final long bits;
+  private final int hashes;
+  private final LongBuffer words;
+  private final boolean offHeap;
+  private long count;
+
+  /**
+   * @param expectedKeys the number of keys the false positive rate is sized for
+   * @param falsePositiveRate the target rate, between 0 and 1 exclusive
+   * @param offHeap keep the bits in a direct buffer instead of on the heap
+   */
+  public BloomFilter(long expectedKeys, double falsePositiveRate, boolean offHeap) {
+
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid false positive rate: " + falsePositiveRate);
+    }
+    long keys = Math.max(1, expectedKeys);
+    long optimal = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    if (optimal > MAX_BITS) {
+      throw new IllegalArgumentException("Bloom filter for " + expectedKeys + " keys at " + falsePositiveRate + " needs more than " + MAX_BITS + " bits");
+    }
+    int wordCount = (int) Math.max(1, (optimal + Long.SIZE - 1) / Long.SIZE);
+    this.bits = (long) wordCount * Long.SIZE;
+    this.hashes = Math.max(1, (int) Math.round((double) bits / keys * Math.log(2)));
+    this.offHeap = offHeap;
+    if (offHeap) {
+      if ((long) wordCount * Long.BYTES > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Off-heap Bloom filter larger than 2 GB");
+      }
+      this.words = ByteBuffer.allocateDirect(wordCount * Long.BYTES).asLongBuffer();
+    }
+    else {
+      this.words = LongBuffer.wrap(new long[wordCount]);
+    }
+  }
+
+  /**
+   * @return true if the filter changed, i.e. the key was definitely not present
+   */
+  public synchronized boolean put(CharSequence key) {
+
+    long[] hash = hash(key);
+    boolean changed = false;
+    long combined = hash[0];
+    for (int i = 0; i < hashes; i++) {
+      long bit = (combined & Long.MAX_VALUE) % bits;
+      int index = (int) (bit >>> 6);
+      long word = words.get(index);
+      long mask = 1L << bit;
+      if ((word & mask) == 0) {
+        words.put(index, word | mask);
+        changed = true;
+      }
+      combined += hash[1];
+    }
+    if (changed) {
+      count++;
+    }
+    return changed;
+  }
+
+  /**
+   * @return false if the key was never put; true if it may have been
+   */
+  public boolean mightContain(CharSequence key) {
+
+    long[] hash = hash(key);
+    long combined = hash[0];
+    for (int i = 0; i < hashes; i++) {
+      long bit = (combined & Long.MAX_VALUE) % bits;
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+      combined += hash[1];
+    }
+    return true;
+  }
+
+  public long getBitSize() {
+    return bits;
+  }
+  public int getHashCount() {
+    return hashes;
+  }
+  public boolean isOffHeap() {
+    return offHeap;
+  }
+  /**
+   * @return the number of puts that changed the filter, about the distinct keys put
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+  /**
+   * @return the false positive rate expected at the current count
+   */
+  public synchronized double getExpectedFalsePositiveRate() {
+    return Math.pow(1 - Math.exp(-hashes * (double) count / bits), hashes);
+  }
+
+  @Override
+  public String toString() {
+    return "BloomFilter[" + bits + " bits, " + hashes + " hashes, " + getCount() + " keys, "
+        + (offHeap ? "off-heap" : "on-heap") + "]";
+  }
+
+  /**
+   * MurmurHash3 x64 128 of the key's UTF-8 bytes, seed 0
+   */
+  static long[] hash(CharSequence key) {
+
+    byte[] data = key.toString().getBytes(StandardCharsets.UTF_8);
+    final long c1 = 0x87c37b91114253d5L;
+    final long c2 = 0x4cf5ad432745937fL;
+    long h1 = 0;
+    long h2 = 0;
+    int blocks = data.length / 16;
+    for (int i = 0; i < blocks; i++) {
+      long k1 = littleEndian(data, i * 16);
+      long k2 = littleEndian(data, i * 16 + 8);
+      h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+      h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+      h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+      h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+    }
+    long k1 = 0;
+    long k2 = 0;
+    int tail = blocks * 16;
+    for (int i = data.length - tail - 1; i >= 8; i--) {
+      k2 = k2 << 8 | (data[tail + i] & 0xff);
+    }
+    for (int i = Math.min(7, data.length - tail - 1); i >= 0; i--) {
+      k1 = k1 << 8 | (data[tail + i] & 0xff);
+    }
+    if (data.length - tail > 8) {
+      h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+    }
+    if (data.length - tail > 0) {
+      h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+    }
+    h1 ^= data.length;
+    h2 ^= data.length;
+    h1 += h2;
+    h2 += h1;
+    h1 = mix(h1);
+    h2 = mix(h2);
+    h1 += h2;
+    h2 += h1;
+    return new long[] {h1, h2};
+  }
+
+  private static long littleEndian(byte[] data, int offset) {
+
+    long value = 0;
+    for (int i = 7; i >= 0; i--) {
+      value = value << 8 | (data[offset + i] & 0xff);
+    }
+    return value;
+  }
+
+  private static long mix(long k) {
+
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
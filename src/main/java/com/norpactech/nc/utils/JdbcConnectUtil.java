@@ -1,6 +1,7 @@
 package com.norpactech.nc.utils;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 
 /**
  * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved. 
@@ -10,6 +11,9 @@ import java.sql.DriverManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.norpactech.nc.jdbc.JdbcConnectionPool;
+import com.norpactech.nc.jdbc.JdbcPoolConfig;
+
 public class JdbcConnectUtil {
 
   private static final Logger logger = LoggerFactory.getLogger(JdbcConnectUtil.class);
@@ -34,12 +38,26 @@ public class JdbcConnectUtil {
     logger.info("Source Database Connected");
   }  
   
+  /**
+   * Creates a connection pool for the source database from the EXPORT_DB_* settings,
+   * for callers that need more than the single shared connection.
+   */
+  public static JdbcConnectionPool createPool() throws SQLException {
+    return new JdbcConnectionPool(JdbcPoolConfig.fromGlobals());
+  }
+
   public static void disconnect() {
     
+    if (connection == null) {
+      return;
+    }
     try {
       connection.close();
     }
-    catch (Exception e) { }
+    catch (Exception e) {
+      logger.warn("Error closing the source database connection: {}", e.getMessage());
+    }
+    connection = null;
     logger.info("Source Database Disconnected");
   }    
   
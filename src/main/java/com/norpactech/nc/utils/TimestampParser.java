@@ -0,0 +1,482 @@
+package com.norpactech.nc.utils;
+/**
+ * © 2025 Northern Pacific Technologies, LLC. All Rights Reserved.
+ *
+ * For license details, see the LICENSE file in this project root.
+ */
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+/**
+ * Thread-safe timestamp parser shared by the Gson and Jackson codecs.
+ *
+ * The format is recognized from the length and separator positions and the
+ * digits are parsed by hand, so an unrecognized value costs no exception:
+ * parse() returns null and the caller reports the error. Supported shapes:
+ * <ul>
+ *   <li>ISO 8601: yyyy-MM-dd, optionally followed by 'T' or ' ', HH:mm[:ss[.fraction]]
+ *       and an offset of Z, ±HH, ±HHmm or ±HH:mm</li>
+ *   <li>US: M/d/yyyy [H:mm:ss]</li>
+ *   <li>Text month: MMM d, yyyy[, h:mm:ss a], including the narrow no-break space
+ *       that newer JDKs put before AM/PM</li>
+ * </ul>
+ *
+ * @author Northern Pacific Technologies, LLC
+ * @since 1.0.0
+ */
+public final class TimestampParser {
+
+  private static final String[] MONTHS = {
+      "january", "february", "march", "april", "may", "june",
+      "july", "august", "september", "october", "november", "december"
+  };
+
+  private static final int[] SCALE = {
+      1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+  };
+
+  private TimestampParser() {}
+
+  /**
+   * The fields of a parsed timestamp
+   */
+  public static final class Parsed {
+
+    private final int year;
+    private final int month;
+    private final int day;
+    private final int hour;
+    private final int minute;
+    private final int second;
+    private final int nano;
+    private final boolean time;
+    private final char separator;
+    private final boolean offset;
+    private final boolean zulu;
+    private final int offsetSeconds;
+
+    private Parsed(int year, int month, int day, int hour, int minute, int second, int nano,
+        boolean time, char separator, boolean offset, boolean zulu, int offsetSeconds) {
+
+      this.year = year;
+      this.month = month;
+      this.day = day;
+      this.hour = hour;
+      this.minute = minute;
+      this.second = second;
+      this.nano = nano;
+      this.time = time;
+      this.separator = separator;
+      this.offset = offset;
+      this.zulu = zulu;
+      this.offsetSeconds = offsetSeconds;
+    }
+
+    /**
+     * @return true unless the value was a date only
+     */
+    public boolean hasTime() {
+      return time;
+    }
+
+    /**
+     * @return the character between date and time: 'T', ' ', or 0 for non-ISO shapes
+     */
+    public char getSeparator() {
+      return separator;
+    }
+
+    public boolean hasOffset() {
+      return offset;
+    }
+
+    /**
+     * @return true if the offset was written as 'Z'
+     */
+    public boolean isZulu() {
+      return zulu;
+    }
+
+    public int getNano() {
+      return nano;
+    }
+
+    public LocalDate toLocalDate() {
+      return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * @return the wall-clock value as written, ignoring any offset
+     */
+    public LocalDateTime toLocalDateTime() {
+      return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /**
+     * @return the value converted to UTC if it has an offset, otherwise as written
+     */
+    public LocalDateTime toUtcLocalDateTime() {
+
+      LocalDateTime local = toLocalDateTime();
+      return offsetSeconds == 0 ? local : local.minusSeconds(offsetSeconds);
+    }
+
+    /**
+     * @param zone the zone for values written without an offset
+     */
+    public Instant toInstant(ZoneId zone) {
+
+      if (offset) {
+        return toLocalDateTime().toInstant(ZoneOffset.ofTotalSeconds(offsetSeconds));
+      }
+      return toLocalDateTime().atZone(zone).toInstant();
+    }
+  }
+
+  /**
+   * @param text the value to parse, may be null
+   * @return the parsed fields, or null if the value is not a supported timestamp
+   */
+  public static Parsed parse(CharSequence text) {
+
+    if (text == null) {
+      return null;
+    }
+    int start = 0;
+    int end = text.length();
+    while (start < end && isSpace(text.charAt(start))) {
+      start++;
+    }
+    while (end > start && isSpace(text.charAt(end - 1))) {
+      end--;
+    }
+    if (end - start < 8) {
+      return null;
+    }
+    char first = text.charAt(start);
+    if (isDigit(first)) {
+      return text.charAt(start + 4) == '-' ? parseIso(text, start, end) : parseUs(text, start, end);
+    }
+    if (Character.isLetter(first)) {
+      return parseMonthName(text, start, end);
+    }
+    return null;
+  }
+
+  /**
+   * @return the instant, or null if the value is not a supported timestamp
+   */
+  public static Instant toInstant(CharSequence text, ZoneId zone) {
+
+    Parsed parsed = parse(text);
+    return parsed == null ? null : parsed.toInstant(zone);
+  }
+
+  /**
+   * @return the timestamp, or null if the value is not a supported timestamp
+   */
+  public static Timestamp toTimestamp(CharSequence text, ZoneId zone) {
+
+    Instant instant = toInstant(text, zone);
+    return instant == null ? null : Timestamp.from(instant);
+  }
+
+  /**
+   * @return the value in UTC (or as written, without an offset), or null if unsupported
+   */
+  public static LocalDateTime toLocalDateTime(CharSequence text) {
+
+    Parsed parsed = parse(text);
+    return parsed == null ? null : parsed.toUtcLocalDateTime();
+  }
+
+  private static Parsed parseIso(CharSequence s, int start, int end) {
+
+    if (s.charAt(start + 7) != '-') {
+      return null;
+    }
+    int year = digits(s, start, 4, end);
+    int month = digits(s, start + 5, 2, end);
+    int day = digits(s, start + 8, 2, end);
+    if (year < 0 || month < 0 || day < 0) {
+      return null;
+    }
+    int i = start + 10;
+    if (i == end) {
+      return valid(year, month, day, 0, 0, 0) ? new Parsed(year, month, day, 0, 0, 0, 0, false, (char) 0, false, false, 0) : null;
+    }
+
+    char separator = s.charAt(i);
+    if (separator != 'T' && separator != ' ') {
+      return null;
+    }
+    int hour = digits(s, i + 1, 2, end);
+    int minute = i + 3 < end && s.charAt(i + 3) == ':' ? digits(s, i + 4, 2, end) : -1;
+    if (hour < 0 || minute < 0) {
+      return null;
+    }
+    i += 6;
+
+    int second = 0;
+    if (i < end && s.charAt(i) == ':') {
+      second = digits(s, i + 1, 2, end);
+      if (second < 0) {
+        return null;
+      }
+      i += 3;
+    }
+
+    int nano = 0;
+    if (i < end && (s.charAt(i) == '.' || s.charAt(i) == ',')) {
+      int count = 0;
+      for (i = i + 1; i < end && isDigit(s.charAt(i)); i++) {
+        if (count < 9) {
+          nano = nano * 10 + (s.charAt(i) - '0');
+          count++;
+        }
+      }
+      if (count == 0) {
+        return null;
+      }
+      nano *= SCALE[9 - count];
+    }
+
+    boolean offset = false;
+    boolean zulu = false;
+    int offsetSeconds = 0;
+    if (i < end) {
+      char c = s.charAt(i);
+      if (c == 'Z' || c == 'z') {
+        offset = true;
+        zulu = c == 'Z';
+        i++;
+      }
+      else if (c == '+' || c == '-') {
+        int hours = digits(s, i + 1, 2, end);
+        if (hours < 0 || hours > 18) {
+          return null;
+        }
+        i += 3;
+        int minutes = 0;
+        if (i < end && s.charAt(i) == ':') {
+          minutes = digits(s, i + 1, 2, end);
+          i += 3;
+        }
+        else if (i < end) {
+          minutes = digits(s, i, 2, end);
+          i += 2;
+        }
+        if (minutes < 0 || minutes > 59) {
+          return null;
+        }
+        offset = true;
+        offsetSeconds = (c == '-' ? -1 : 1) * (hours * 3600 + minutes * 60);
+      }
+    }
+    if (i != end || !valid(year, month, day, hour, minute, second)) {
+      return null;
+    }
+    return new Parsed(year, month, day, hour, minute, second, nano, true, separator, offset, zulu, offsetSeconds);
+  }
+
+  private static Parsed parseUs(CharSequence s, int start, int end) {
+
+    int i = start;
+    int month = 0;
+    int n = 0;
+    for (; i < end && isDigit(s.charAt(i)) && n < 2; i++, n++) {
+      month = month * 10 + (s.charAt(i) - '0');
+    }
+    if (n == 0 || i >= end || s.charAt(i) != '/') {
+      return null;
+    }
+    int day = 0;
+    n = 0;
+    for (i = i + 1; i < end && isDigit(s.charAt(i)) && n < 2; i++, n++) {
+      day = day * 10 + (s.charAt(i) - '0');
+    }
+    if (n == 0 || i >= end || s.charAt(i) != '/') {
+      return null;
+    }
+    int year = digits(s, i + 1, 4, end);
+    if (year < 0) {
+      return null;
+    }
+    i += 5;
+    if (i == end) {
+      return valid(year, month, day, 0, 0, 0) ? new Parsed(year, month, day, 0, 0, 0, 0, false, (char) 0, false, false, 0) : null;
+    }
+
+    int spaces = i;
+    while (i < end && isSpace(s.charAt(i))) {
+      i++;
+    }
+    if (i == spaces) {
+      return null;
+    }
+    int[] clock = clock(s, i, end);
+    if (clock == null || clock[3] != end || !valid(year, month, day, clock[0], clock[1], clock[2])) {
+      return null;
+    }
+    return new Parsed(year, month, day, clock[0], clock[1], clock[2], 0, true, (char) 0, false, false, 0);
+  }
+
+  private static Parsed parseMonthName(CharSequence s, int start, int end) {
+
+    int i = start;
+    while (i < end && Character.isLetter(s.charAt(i))) {
+      i++;
+    }
+    int month = month(s, start, i);
+    if (month < 0) {
+      return null;
+    }
+    i = skipSpaces(s, i, end);
+
+    int day = 0;
+    int n = 0;
+    for (; i < end && isDigit(s.charAt(i)) && n < 2; i++, n++) {
+      day = day * 10 + (s.charAt(i) - '0');
+    }
+    if (n == 0 || i >= end || s.charAt(i) != ',') {
+      return null;
+    }
+    i = skipSpaces(s, i + 1, end);
+    int year = digits(s, i, 4, end);
+    if (year < 0) {
+      return null;
+    }
+    i += 4;
+    if (i == end) {
+      return valid(year, month, day, 0, 0, 0) ? new Parsed(year, month, day, 0, 0, 0, 0, false, (char) 0, false, false, 0) : null;
+    }
+    if (s.charAt(i) != ',') {
+      return null;
+    }
+    i = skipSpaces(s, i + 1, end);
+
+    int[] clock = clock(s, i, end);
+    if (clock == null) {
+      return null;
+    }
+    i = skipSpaces(s, clock[3], end);
+    if (i + 2 != end || Character.toUpperCase(s.charAt(i + 1)) != 'M') {
+      return null;
+    }
+    char meridiem = Character.toUpperCase(s.charAt(i));
+    int hour = clock[0];
+    if (hour < 1 || hour > 12 || (meridiem != 'A' && meridiem != 'P')) {
+      return null;
+    }
+    hour = hour % 12 + (meridiem == 'P' ? 12 : 0);
+    if (!valid(year, month, day, hour, clock[1], clock[2])) {
+      return null;
+    }
+    return new Parsed(year, month, day, hour, clock[1], clock[2], 0, true, (char) 0, false, false, 0);
+  }
+
+  /**
+   * Parses H:mm:ss starting at i
+   *
+   * @return {hour, minute, second, end offset}, or null
+   */
+  private static int[] clock(CharSequence s, int i, int end) {
+
+    int hour = 0;
+    int n = 0;
+    for (; i < end && isDigit(s.charAt(i)) && n < 2; i++, n++) {
+      hour = hour * 10 + (s.charAt(i) - '0');
+    }
+    if (n == 0 || i >= end || s.charAt(i) != ':') {
+      return null;
+    }
+    int minute = digits(s, i + 1, 2, end);
+    int second = i + 3 < end && s.charAt(i + 3) == ':' ? digits(s, i + 4, 2, end) : -1;
+    if (minute < 0 || second < 0) {
+      return null;
+    }
+    return new int[] {hour, minute, second, i + 6};
+  }
+
+  private static int month(CharSequence s, int start, int end) {
+
+    int length = end - start;
+    if (length < 3) {
+      return -1;
+    }
+    for (int m = 0; m < MONTHS.length; m++) {
+      String name = MONTHS[m];
+      if (length != 3 && length != name.length()) {
+        continue;
+      }
+      boolean match = true;
+      for (int k = 0; k < length && match; k++) {
+        match = Character.toLowerCase(s.charAt(start + k)) == name.charAt(k);
+      }
+      if (match) {
+        return m + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean valid(int year, int month, int day, int hour, int minute, int second) {
+
+    if (month < 1 || month > 12 || day < 1 || hour > 23 || minute > 59 || second > 59) {
+      return false;
+    }
+    int days;
+    switch (month) {
+      case 2:
+        days = (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        break;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        days = 30;
+        break;
+      default:
+        days = 31;
+    }
+    return day <= days;
+  }
+
+  /**
+   * @return the value of count digits at pos, or -1 if any is missing or not a digit
+   */
+  private static int digits(CharSequence s, int pos, int count, int end) {
+
+    if (pos < 0 || pos + count > end) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = pos; i < pos + count; i++) {
+      char c = s.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static int skipSpaces(CharSequence s, int i, int end) {
+
+    while (i < end && isSpace(s.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u202F' || c == '\u2007';
+  }
+}
@@ -0,0 +1,80 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonParseException;
+import com.norpactech.nc.enums.EnumApiCodes;
+import com.norpactech.nc.enums.EnumStatus;
+
+public class JsonScannerTest {
+
+  private static String value(String json, Map<String, int[]> members, String name) {
+
+    int[] range = members.get(name);
+    return json.substring(range[0], range[1]);
+  }
+
+  @Test
+  @DisplayName("Finds member values across escapes, nesting and whitespace")
+  void members() {
+
+    String json = " { \"plain\" : 12.5e3 , \"text\":\"say \\\"hi\\\" \\\\ } ]\",\"na\\u006De\":true,"
+        + "\"nested\":{\"a\":[1,{\"b\":\"}\"}],\"c\":null},\"list\":[[],{},\"]\"] ,\"none\":null}\n";
+    Map<String, int[]> members = JsonScanner.members(json);
+
+    assertEquals(List.of("plain", "text", "name", "nested", "list", "none"), List.copyOf(members.keySet()));
+    assertEquals("12.5e3", value(json, members, "plain"));
+    assertEquals("\"say \\\"hi\\\" \\\\ } ]\"", value(json, members, "text"));
+    assertEquals("true", value(json, members, "name"));
+    assertEquals("{\"a\":[1,{\"b\":\"}\"}],\"c\":null}", value(json, members, "nested"));
+    assertEquals("[[],{},\"]\"]", value(json, members, "list"));
+    assertEquals("null", value(json, members, "none"));
+    assertTrue(JsonScanner.members("{ }").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Rejects truncated and malformed documents")
+  void malformed() {
+
+    for (String json : new String[] {"", "[1]", "{\"a\"", "{\"a\":", "{\"a\":1", "{\"a\":\"abc", "{\"a\":[1,{\"b\":2}",
+        "{\"a\":1,}", "{\"a\" 1}", "{\"a\":,}"}) {
+      assertThrows(JsonParseException.class, () -> JsonScanner.members(json), json);
+    }
+  }
+
+  @Test
+  @DisplayName("deferred reads the envelope and decodes data only when asked")
+  void deferred() throws Exception {
+
+    String json = "{\"meta\":{\"apiCode\":\"CREATED\",\"count\":1},\"extra\":{\"ignored\":[1,2]},\"status\":\"OK\","
+        + "\"data\":{\"id\":\"6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90\",\"updated_at\":\"2025-03-01T10:00:00\","
+        + "\"name\":\"A \\\"quoted\\\" name\",\"tags\":[\"x\"]},\"error\":null}";
+    ApiResponse response = ApiResponse.deferred(json);
+
+    assertEquals(EnumStatus.OK, response.getStatus());
+    assertEquals(EnumApiCodes.CREATED, response.getMeta().getApiCode());
+    assertNull(response.getError());
+    // Properties are scanned from the raw data without decoding all of it
+    assertEquals(UUID.fromString("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90"), response.getId());
+    assertEquals("A \"quoted\" name", response.getProperty("name"));
+    assertNull(response.getProperty("missing"));
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) response.getData();
+    assertEquals(List.of("x"), data.get("tags"));
+    assertEquals(response.getUpdatedAt(), ApiResponse.deferred(json).getUpdatedAt());
+
+    ApiResponse empty = ApiResponse.deferred("{\"status\":\"ERROR\",\"data\":null,\"error\":{\"message\":\"no\"}}");
+    assertEquals(EnumStatus.ERROR, empty.getStatus());
+    assertNull(empty.getData());
+    assertNull(empty.getId());
+    assertThrows(JsonParseException.class, () -> ApiResponse.deferred("{\"status\":\"OK\",\"data\":{\"id\":"));
+  }
+}
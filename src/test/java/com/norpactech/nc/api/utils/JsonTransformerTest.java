@@ -0,0 +1,79 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JsonTransformerTest {
+
+  @Test
+  @DisplayName("transform camelCases keys at every depth")
+  void transform_keys() throws IOException {
+    assertEquals("{\"idTenant\":1,\"childRows\":[{\"rowName\":\"a_b\",\"isActive\":true}],\"meta\":{\"createdBy\":null}}",
+        JsonTransformer.transform("{\"id_tenant\": 1, \"child_rows\": [{\"row_name\": \"a_b\", \"is_active\": true}], \"meta\": {\"created_by\": null}}"));
+  }
+
+  @Test
+  @DisplayName("transform normalizes ISO timestamps to milliseconds with Z")
+  void transform_timestamps() throws IOException {
+    assertEquals("[\"2025-01-02T03:04:05.000Z\",\"2025-01-02T03:04:05.100Z\",\"2025-01-02T03:04:05.123Z\"]",
+        JsonTransformer.transform("[\"2025-01-02T03:04:05\", \"2025-01-02T03:04:05.1\", \"2025-01-02T03:04:05.123456\"]"));
+    assertEquals("{\"at\":\"2025-01-02T03:04:05.123Z\"}", JsonTransformer.transform("{\"at\": \"2025-01-02T03:04:05.123Z\"}"));
+  }
+
+  @Test
+  @DisplayName("normalizeTimestamp leaves other strings alone")
+  void normalizeTimestamp_other() {
+    assertNull(JsonTransformer.normalizeTimestamp("2025-01-02 03:04:05"));
+    assertNull(JsonTransformer.normalizeTimestamp("2025-13-02T03:04:05"));
+    assertNull(JsonTransformer.normalizeTimestamp("2025-01-02T03:04:05."));
+    assertNull(JsonTransformer.normalizeTimestamp("2025-01-02T03:04:05+02:00"));
+    assertNull(JsonTransformer.normalizeTimestamp("hello"));
+  }
+
+  @Test
+  @DisplayName("transform preserves numbers")
+  void transform_numbers() throws IOException {
+    assertEquals("{\"a\":12345678901234,\"b\":1.25,\"c\":-0.5}", JsonTransformer.transform("{\"a\": 12345678901234, \"b\": 1.25, \"c\": -0.5}"));
+  }
+
+  @Test
+  @DisplayName("transform leaves the caller's writer and stream open")
+  void transform_leavesStreamsOpen() throws IOException {
+
+    var text = new StringWriter();
+    Writer writer = new FilterWriter(text) {
+      @Override
+      public void close() {
+        fail("writer closed");
+      }
+    };
+    JsonTransformer.transform(new StringReader("{\"id_tenant\": 1}"), writer);
+    writer.write('\n');
+    JsonTransformer.transform(new StringReader("{\"id_tenant\": 2}"), writer);
+    writer.flush();
+    assertEquals("{\"idTenant\":1}\n{\"idTenant\":2}", text.toString());
+
+    var bytes = new ByteArrayOutputStream();
+    OutputStream stream = new FilterOutputStream(bytes) {
+      @Override
+      public void close() {
+        fail("stream closed");
+      }
+    };
+    JsonTransformer.transform(new StringReader("[\"2025-01-02T03:04:05\"]"), stream);
+    stream.write('\n');
+    assertEquals("[\"2025-01-02T03:04:05.000Z\"]\n", bytes.toString(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,148 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.api.exception.ApiResponseException;
+
+public class PgRecordTokenizerTest {
+
+  private static final String ALPHABET = "abcXYZ019 -_:.{}[]()\",\\\t";
+
+  @Test
+  @DisplayName("tokenize reads quoted, escaped and NULL fields")
+  void tokenize_fields() throws IOException {
+    PgRecordTokenizer record = PgRecordTokenizer.tokenize("(OK,\"{\"\"id\"\": \"\"a\\\\b\"\"}\",,\"\",\"say \"\"hi\"\", (now)\")");
+    assertEquals(5, record.size());
+    assertEquals("OK", record.get(0));
+    assertEquals("{\"id\": \"a\\b\"}", record.get(1));
+    assertEquals("{\"id\": \"a\\b\"}", read(record.reader(1)));
+    assertTrue(record.isNull(2));
+    assertNull(record.get(2));
+    assertFalse(record.isNull(3));
+    assertEquals("", record.get(3));
+    assertEquals("say \"hi\", (now)", record.get(4));
+    assertTrue(record.isNull(5));
+    assertEquals("", record.getOrEmpty(5));
+  }
+
+  @Test
+  @DisplayName("tokenize rejects an unterminated quoted field")
+  void tokenize_unterminated() {
+    assertThrows(ApiResponseException.class, () -> PgRecordTokenizer.tokenize("(OK,\"abc)"));
+  }
+
+  @Test
+  @DisplayName("tokenize round-trips randomly generated records")
+  void tokenize_fuzz() throws IOException {
+    Random random = new Random(31);
+    for (int n = 0; n < 5_000; n++) {
+      List<String> fields = randomFields(random, ALPHABET);
+      PgRecordTokenizer record = PgRecordTokenizer.tokenize(encode(fields));
+      assertEquals(fields.size(), record.size());
+      for (int i = 0; i < fields.size(); i++) {
+        assertEquals(fields.get(i), record.get(i));
+        assertEquals(fields.get(i) == null ? "" : fields.get(i), read(record.reader(i)));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("tokenize matches the legacy parser when no field needs escaping")
+  void tokenize_matchesLegacy() {
+    Random random = new Random(47);
+    for (int n = 0; n < 5_000; n++) {
+      List<String> fields = randomFields(random, "abcXYZ019 -_:.{}[](),");
+      String input = encode(fields);
+      List<String> legacy = ParseUtils.parse(input);
+      PgRecordTokenizer record = PgRecordTokenizer.tokenize(input);
+      for (int i = 0; i < legacy.size(); i++) {
+        assertEquals(ParseUtils.stripQuotes(legacy.get(i)), record.getOrEmpty(i), input);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("groomJson camelCases keys and normalizes ISO timestamps")
+  void groomJson() {
+    PgRecordTokenizer record = PgRecordTokenizer.tokenize("(OK,\"{\"\"id_tenant\"\": \"\"x\"\", \"\"created_at\"\": \"\"2025-01-02T03:04:05.5\"\"}\")");
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) ParseUtils.groomJson(record.reader(1));
+    assertEquals("x", data.get("idTenant"));
+    assertEquals("2025-01-02T03:04:05.500Z", data.get("createdAt"));
+    assertEquals(data, ParseUtils.parseJson(input(record, 1)));
+  }
+
+  private static String input(PgRecordTokenizer record, int index) {
+    return "\"" + record.get(index).replace("\"", "\"\"") + "\"";
+  }
+
+  private static List<String> randomFields(Random random, String alphabet) {
+    List<String> fields = new ArrayList<>();
+    int count = 1 + random.nextInt(8);
+    for (int i = 0; i < count; i++) {
+      if (random.nextInt(6) == 0) {
+        fields.add(null);
+        continue;
+      }
+      StringBuilder field = new StringBuilder();
+      int length = random.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        field.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      fields.add(field.toString());
+    }
+    return fields;
+  }
+
+  /**
+   * Encodes fields the way PostgreSQL's record_out does
+   */
+  private static String encode(List<String> fields) {
+    StringBuilder out = new StringBuilder("(");
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      String field = fields.get(i);
+      if (field == null) {
+        continue;
+      }
+      boolean quote = field.isEmpty();
+      for (char c : field.toCharArray()) {
+        quote |= c == '"' || c == '\\' || c == '(' || c == ')' || c == ',' || Character.isWhitespace(c);
+      }
+      if (!quote) {
+        out.append(field);
+        continue;
+      }
+      out.append('"');
+      for (char c : field.toCharArray()) {
+        if (c == '"' || c == '\\') {
+          out.append(c);
+        }
+        out.append(c);
+      }
+      out.append('"');
+    }
+    return out.append(')').toString();
+  }
+
+  private static String read(Reader reader) throws IOException {
+    StringBuilder out = new StringBuilder();
+    char[] buffer = new char[3];
+    for (int n; (n = reader.read(buffer, 0, buffer.length)) != -1;) {
+      out.append(buffer, 0, n);
+    }
+    return out.toString();
+  }
+}
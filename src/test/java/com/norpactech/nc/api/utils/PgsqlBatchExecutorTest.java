@@ -0,0 +1,157 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.enums.EnumStatus;
+
+public class PgsqlBatchExecutorTest {
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void open() throws SQLException {
+
+    connection = DriverManager.getConnection("jdbc:h2:mem:batch_executor;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE batch_rows (name VARCHAR(50))");
+      statement.execute("CREATE ALIAS insert_row FOR '" + PgsqlBatchExecutorTest.class.getName() + ".insertRow'");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @BeforeEach
+  void reset() throws SQLException {
+
+    connection.setAutoCommit(true);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DELETE FROM batch_rows");
+    }
+  }
+
+  /**
+   * The stored function under test: inserts the name and returns an OK status
+   * row, except "bad" (an ERROR status row, nothing inserted), "raise" (raises
+   * after inserting) and "null" (returns no status row after inserting).
+   */
+  public static String insertRow(Connection conn, String name) throws SQLException {
+
+    if ("bad".equals(name)) {
+      return "(ERROR,,,P0001,\"bad name\",,)";
+    }
+    try (var ps = conn.prepareStatement("INSERT INTO batch_rows (name) VALUES (?)")) {
+      ps.setString(1, name);
+      ps.executeUpdate();
+    }
+    if ("raise".equals(name)) {
+      throw new SQLException("raised for " + name, "P0002");
+    }
+    return "null".equals(name) ? null : "(OK,\"{\"\"name\"\": \"\"" + name + "\"\"}\",,,,,)";
+  }
+
+  private static List<String> names() throws SQLException {
+
+    try (Statement statement = connection.createStatement();
+         ResultSet rs = statement.executeQuery("SELECT name FROM batch_rows ORDER BY name")) {
+      var names = new ArrayList<String>();
+      while (rs.next()) {
+        names.add(rs.getString(1));
+      }
+      return names;
+    }
+  }
+
+  private static List<PgsqlExecResponse> execute(String... names) throws SQLException {
+
+    var rows = new ArrayList<Object[]>();
+    for (String name : names) {
+      rows.add(new Object[] { name });
+    }
+    return new PgsqlBatchExecutor("insert_row", "varchar").execute(connection, rows);
+  }
+
+  @Test
+  @DisplayName("execute keeps each row's OK or ERROR status from one statement")
+  void execute_mixedChunk() throws SQLException {
+
+    List<PgsqlExecResponse> responses = execute("a", "bad", "b");
+    assertEquals(3, responses.size());
+    assertEquals(EnumStatus.OK.getName(), responses.get(0).getStatus());
+    assertEquals("{\"name\":\"a\"}", responses.get(0).getDataJson());
+    assertEquals(EnumStatus.ERROR.getName(), responses.get(1).getStatus());
+    assertEquals("P0001", responses.get(1).getErrorCode());
+    assertEquals("bad name", responses.get(1).getMessage());
+    assertEquals(EnumStatus.OK.getName(), responses.get(2).getStatus());
+    assertEquals("{\"name\":\"b\"}", responses.get(2).getDataJson());
+    assertEquals(List.of("a", "b"), names());
+  }
+
+  @Test
+  @DisplayName("execute retries a failed chunk per row, rolling back only the failed rows")
+  void execute_perRowFallback() throws SQLException {
+
+    connection.setAutoCommit(false);
+    List<PgsqlExecResponse> responses = execute("a", "raise", "b", "null", "c");
+    assertEquals(5, responses.size());
+    assertEquals(EnumStatus.OK.getName(), responses.get(0).getStatus());
+    assertEquals(EnumStatus.ERROR.getName(), responses.get(1).getStatus());
+    assertTrue(responses.get(1).getMessage().contains("raised for raise"), responses.get(1).getMessage());
+    assertEquals(EnumStatus.OK.getName(), responses.get(2).getStatus());
+    assertEquals(EnumStatus.ERROR.getName(), responses.get(3).getStatus());
+    assertTrue(responses.get(3).getMessage().contains("insufficient fields"), responses.get(3).getMessage());
+    assertEquals(EnumStatus.OK.getName(), responses.get(4).getStatus());
+    assertFalse(connection.getAutoCommit());
+    assertEquals(List.of("a", "b", "c"), names());
+    connection.commit();
+    assertEquals(List.of("a", "b", "c"), names());
+  }
+
+  @Test
+  @DisplayName("execute falls back per row when a status row cannot be read")
+  void execute_unreadableResponse() throws SQLException {
+
+    connection.setAutoCommit(false);
+    List<PgsqlExecResponse> responses = execute("a", "null");
+    assertEquals(EnumStatus.OK.getName(), responses.get(0).getStatus());
+    assertEquals(EnumStatus.ERROR.getName(), responses.get(1).getStatus());
+    assertEquals(List.of("a"), names());
+    connection.rollback();
+    assertEquals(List.of(), names());
+  }
+
+  @Test
+  @DisplayName("batchSql joins VALUES rows to the function by ordinal")
+  void batchSql() {
+    var executor = new PgsqlBatchExecutor("app.insert_user", "uuid", null);
+    assertEquals("SELECT app.insert_user(v.a1, v.a2) AS response, v.batch_ord"
+        + " FROM (VALUES (?::int, ?::uuid, ?), (?::int, ?::uuid, ?)) AS v(batch_ord, a1, a2) ORDER BY v.batch_ord",
+        executor.batchSql(2));
+    assertEquals("SELECT app.insert_user(?::uuid, ?) AS response", executor.singleSql());
+  }
+
+  @Test
+  @DisplayName("constructor rejects names that are not identifiers")
+  void constructor_validates() {
+    assertThrows(IllegalArgumentException.class, () -> new PgsqlBatchExecutor("fn(); drop table x", 1));
+    assertThrows(IllegalArgumentException.class, () -> new PgsqlBatchExecutor("fn", "text; --"));
+    assertThrows(IllegalArgumentException.class, () -> new PgsqlBatchExecutor("fn", "int), (select 1"));
+    new PgsqlBatchExecutor("fn", "numeric(10,2)", "text[]", "timestamp with time zone");
+  }
+}
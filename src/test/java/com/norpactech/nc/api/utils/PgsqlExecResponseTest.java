@@ -0,0 +1,112 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+
+public class PgsqlExecResponseTest {
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void open() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:exec_response;DB_CLOSE_DELAY=-1", "sa", "");
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  /**
+   * Reads the single row of a typed-column response
+   */
+  private static PgsqlExecResponse response(String status, String data, String errors, String errorCode, String message)
+      throws SQLException {
+
+    String sql = "SELECT CAST(? AS VARCHAR) AS status, CAST(? AS VARCHAR) AS data, CAST(? AS VARCHAR) AS errors,"
+        + " CAST(? AS VARCHAR) AS error_code, CAST(? AS VARCHAR) AS message, CAST(NULL AS VARCHAR) AS hint,"
+        + " CAST('' AS VARCHAR) AS detail";
+    try (var ps = connection.prepareStatement(sql)) {
+      ps.setString(1, status);
+      ps.setString(2, data);
+      ps.setString(3, errors);
+      ps.setString(4, errorCode);
+      ps.setString(5, message);
+      try (ResultSet rs = ps.executeQuery()) {
+        assertTrue(rs.next());
+        return new PgsqlExecResponse(rs);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Typed columns: OK keeps the data JSON as returned")
+  void columns_okWithData() throws SQLException {
+
+    PgsqlExecResponse response = response("OK", "{\"a\": 1, \"b\": [\"x\"]}", null, null, null);
+    assertEquals("OK", response.getStatus());
+    assertEquals("{\"a\": 1, \"b\": [\"x\"]}", response.getDataJson());
+    assertEquals(1, ((Number) ((Map<?, ?>) response.getData()).get("a")).intValue());
+    assertNull(response.getErrors());
+    assertEquals("", response.getErrorCode());
+    assertEquals("", response.getHint());
+  }
+
+  @Test
+  @DisplayName("Typed columns: OK with null data is an empty object")
+  void columns_okWithNullData() throws SQLException {
+
+    PgsqlExecResponse response = response("ok", null, null, null, null);
+    assertEquals("{}", response.getData());
+    assertNull(response.getDataJson());
+    assertNull(response.getErrors());
+  }
+
+  @Test
+  @DisplayName("Typed columns: ERROR parses the errors JSON, or builds one from the fields")
+  void columns_error() throws SQLException {
+
+    PgsqlExecResponse response = response("ERROR", "{\"ignored\": true}",
+        "[{\"field\": \"email\", \"message\": \"is taken\"}]", "23505", "duplicate key");
+    assertEquals("ERROR", response.getStatus());
+    assertNull(response.getData());
+    JsonArray errors = (JsonArray) response.getErrors();
+    assertEquals(1, errors.size());
+    assertEquals("email", errors.get(0).getAsJsonObject().get("field").getAsString());
+    assertEquals("23505", response.getErrorCode());
+
+    PgsqlExecResponse single = response("ERROR", null, "{\"message\": \"one\"}", null, null);
+    assertEquals("one", ((JsonArray) single.getErrors()).get(0).getAsJsonObject().get("message").getAsString());
+
+    PgsqlExecResponse built = response("ERROR", null, null, "23505", "duplicate key");
+    var error = ((JsonArray) built.getErrors()).get(0).getAsJsonObject();
+    assertEquals("constraint", error.get("type").getAsString());
+    assertEquals("duplicate key", error.get("message").getAsString());
+  }
+
+  @Test
+  @DisplayName("A single composite column is still read as a record")
+  void composite() throws SQLException {
+
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT '(OK,\"{\"\"a\"\": 1}\",,,,,)' AS response")) {
+      assertTrue(rs.next());
+      PgsqlExecResponse response = new PgsqlExecResponse(rs);
+      assertEquals("OK", response.getStatus());
+      assertEquals(1, ((Number) ((Map<?, ?>) response.getData()).get("a")).intValue());
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.norpactech.nc.api.exception.ApiResponseException;
+
+public class PgsqlRowIteratorTest {
+
+  private static final String SQL = "SELECT id, name FROM item WHERE id >= ? ORDER BY id";
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void open() throws SQLException {
+
+    connection = DriverManager.getConnection("jdbc:h2:mem:row_iterator;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50))");
+      statement.execute("INSERT INTO item VALUES (1, 'a'), (2, 'b'), (3, 'c'), (4, 'd')");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @BeforeEach
+  void reset() throws SQLException {
+    connection.setAutoCommit(true);
+  }
+
+  private static PgsqlRowIterator<String> names(Connection conn) throws SQLException {
+    return PgsqlRowIterator.open(conn, SQL, 2, rs -> rs.getInt(1) + ":" + rs.getString(2), 1);
+  }
+
+  /**
+   * Wraps the connection so its result sets fail to close, and records the
+   * statements it prepares.
+   */
+  private static Connection failingClose(List<PreparedStatement> prepared) {
+
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+      Object result = invoke(method, connection, args);
+      if (!"prepareStatement".equals(method.getName())) {
+        return result;
+      }
+      var statement = (PreparedStatement) result;
+      prepared.add(statement);
+      return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, (sp, sm, sa) -> {
+        Object sr = invoke(sm, statement, sa);
+        if (!"executeQuery".equals(sm.getName())) {
+          return sr;
+        }
+        var rs = (ResultSet) sr;
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { ResultSet.class }, (rp, rm, ra) -> {
+          if ("close".equals(rm.getName())) {
+            rs.close();
+            throw new SQLException("close failed");
+          }
+          return invoke(rm, rs, ra);
+        });
+      });
+    });
+  }
+
+  private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+
+    try {
+      return method.invoke(target, args);
+    }
+    catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Test
+  @DisplayName("Iterating to the end returns every row, closes the iterator and restores autocommit")
+  void iterate_all() throws SQLException {
+
+    var rows = new ArrayList<String>();
+    PgsqlRowIterator<String> iterator = names(connection);
+    assertFalse(connection.getAutoCommit());
+    while (iterator.hasNext()) {
+      rows.add(iterator.next());
+    }
+    assertEquals(List.of("1:a", "2:b", "3:c", "4:d"), rows);
+    assertEquals(4, iterator.getRowCount());
+    assertTrue(connection.getAutoCommit());
+    assertFalse(iterator.hasNext());
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  @DisplayName("Closing early restores autocommit; a connection already in a transaction is left in it")
+  void close_early() throws SQLException {
+
+    try (PgsqlRowIterator<String> iterator = names(connection)) {
+      assertEquals("1:a", iterator.next());
+    }
+    assertTrue(connection.getAutoCommit());
+
+    connection.setAutoCommit(false);
+    try (PgsqlRowIterator<String> iterator = names(connection)) {
+      assertEquals("1:a", iterator.next());
+    }
+    assertFalse(connection.getAutoCommit());
+    connection.rollback();
+  }
+
+  @Test
+  @DisplayName("writeJsonArray writes the remaining rows")
+  void writeJsonArray() throws Exception {
+
+    var out = new StringWriter();
+    try (PgsqlRowIterator<String> iterator = PgsqlRowIterator.open(connection, SQL, 2, rs -> "{\"id\":" + rs.getInt(1) + "}", 3)) {
+      assertEquals(2, iterator.writeJsonArray(out));
+    }
+    assertEquals("[{\"id\":3},{\"id\":4}]", out.toString());
+    assertTrue(connection.getAutoCommit());
+  }
+
+  @Test
+  @DisplayName("writeJsonArray keeps the errors of an ERROR response")
+  void writeJsonArray_errorResponse() throws Exception {
+
+    String sql = "SELECT CAST(? AS VARCHAR) AS status, CAST(NULL AS VARCHAR) AS data, CAST(? AS VARCHAR) AS errors,"
+        + " CAST('23505' AS VARCHAR) AS error_code, CAST('duplicate key' AS VARCHAR) AS message,"
+        + " CAST(NULL AS VARCHAR) AS hint, CAST(NULL AS VARCHAR) AS detail";
+    var out = new StringWriter();
+    try (var iterator = PgsqlRowIterator.responses(connection, sql, "ERROR", "[{\"field\":\"email\"}]")) {
+      assertEquals(1, iterator.writeJsonArray(out));
+    }
+    JsonArray array = JsonParser.parseString(out.toString()).getAsJsonArray();
+    assertEquals(1, array.size());
+    JsonObject error = array.get(0).getAsJsonObject();
+    assertEquals("ERROR", error.get("status").getAsString());
+    assertEquals("email", error.getAsJsonArray("errors").get(0).getAsJsonObject().get("field").getAsString());
+    assertEquals("23505", error.get("errorCode").getAsString());
+    assertEquals("duplicate key", error.get("message").getAsString());
+  }
+
+  @Test
+  @DisplayName("close closes the statement and restores autocommit when the result set fails to close")
+  void close_resultSetFails() throws SQLException {
+
+    var prepared = new ArrayList<PreparedStatement>();
+    PgsqlRowIterator<String> iterator = names(failingClose(prepared));
+    assertEquals("1:a", iterator.next());
+    iterator.close();
+    assertEquals(1, prepared.size());
+    assertTrue(prepared.get(0).isClosed());
+    assertTrue(connection.getAutoCommit());
+  }
+
+  @Test
+  @DisplayName("A mapper that throws closes the iterator")
+  void next_mapperThrows() throws SQLException {
+
+    PgsqlRowIterator<String> iterator = PgsqlRowIterator.open(connection, SQL, 2, rs -> {
+      throw new ApiResponseException("bad row");
+    }, 1);
+    assertThrows(ApiResponseException.class, iterator::next);
+    assertFalse(iterator.hasNext());
+    assertTrue(connection.getAutoCommit());
+  }
+}
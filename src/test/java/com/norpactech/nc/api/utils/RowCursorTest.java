@@ -0,0 +1,110 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.model.BaseModel;
+
+public class RowCursorTest {
+
+  private static Connection connection;
+
+  public static class Item extends BaseModel {
+
+    private Integer id;
+    private String itemName;
+    private BigDecimal amount;
+
+    public Item(RowView row) {
+      super(row);
+    }
+  }
+
+  @BeforeAll
+  static void createTable() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:rowcursor;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE item (id INT PRIMARY KEY, item_name VARCHAR(50), amount DECIMAL(10,2))");
+      statement.execute("INSERT INTO item VALUES (1, 'item 1', 1.5), (2, 'item 2', 3), (3, 'item 3', 4.5), (4, 'item 4', 6), (5, 'item 5', 7.5)");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("the cursor reuses one view and snapshots keep their values")
+  void next_snapshot() throws Exception {
+    List<RowSnapshot> kept = new ArrayList<>();
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery("SELECT id, item_name FROM item ORDER BY id")) {
+      var cursor = new RowCursor(rs);
+      while (cursor.next()) {
+        kept.add(cursor.snapshot());
+      }
+      assertEquals(5, cursor.get(0));
+    }
+    assertEquals(5, kept.size());
+    assertEquals(1, kept.get(0).get("ID"));
+    assertEquals(0, kept.get(0).getHeader().indexOf("Id"));
+    assertEquals(1, kept.get(0).get("id"));
+    assertEquals("item 1", kept.get(0).get("item_name"));
+    assertSame(kept.get(0).getHeader(), kept.get(4).getHeader());
+    assertEquals(Map.of("id", 2, "item_name", "item 2"), kept.get(1).toMap());
+    assertThrows(IllegalArgumentException.class, () -> kept.get(0).get("missing"));
+  }
+
+  @Test
+  @DisplayName("BaseModel maps a row view through the header bindings")
+  void baseModel_map() throws Exception {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery("SELECT * FROM item WHERE id = 2")) {
+      var cursor = new RowCursor(rs);
+      assertTrue(cursor.next());
+      var item = new Item(cursor);
+      assertEquals(2, item.id);
+      assertEquals("item 2", item.itemName);
+      assertEquals(new BigDecimal("3.00"), item.amount);
+      assertEquals(new GenericSelectResponse(cursor).getProperties(), Map.of("id", 2, "item_name", "item 2", "amount", new BigDecimal("3.00")));
+    }
+  }
+
+  @Test
+  @DisplayName("BaseModel rejects a column with no matching property")
+  void baseModel_unknownColumn() throws Exception {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery("SELECT id, 1 AS extra_column FROM item")) {
+      var cursor = new RowCursor(rs);
+      assertTrue(cursor.next());
+      var e = assertThrows(RuntimeException.class, () -> new Item(cursor));
+      assertEquals("Error mapping property 'extra_column': extraColumn", e.getMessage());
+    }
+  }
+
+  @Test
+  @DisplayName("mapper feeds PgsqlRowIterator rows through one cursor")
+  void mapper() throws Exception {
+    List<Integer> ids = new ArrayList<>();
+    try (PreparedStatement ps = connection.prepareStatement("SELECT * FROM item ORDER BY id"); ResultSet rs = ps.executeQuery()) {
+      PgsqlRowIterator.RowMapper<Item> mapper = RowCursor.mapper(Item::new);
+      while (rs.next()) {
+        ids.add(mapper.map(rs).id);
+      }
+    }
+    assertEquals(List.of(1, 2, 3, 4, 5), ids);
+  }
+}
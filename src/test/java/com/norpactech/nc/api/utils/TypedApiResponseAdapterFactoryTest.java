@@ -0,0 +1,143 @@
+package com.norpactech.nc.api.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Type;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.norpactech.nc.config.json.GsonConfig;
+import com.norpactech.nc.enums.EnumApiCodes;
+import com.norpactech.nc.enums.EnumStatus;
+import com.norpactech.nc.model.MappingPlan;
+
+public class TypedApiResponseAdapterFactoryTest {
+
+  private static final Gson GSON = GsonConfig.getInstance();
+
+  @SuppressWarnings("unused")
+  private static class Customer {
+    private UUID id;
+    private String name;
+    private Integer visits;
+    private Boolean active;
+    private Timestamp createdAt;
+    private LocalDateTime lastSeen;
+    private List<String> tags;
+  }
+
+  private static final String CUSTOMER = "{\"id\":\"6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90\",\"name\":\"Acme \\\"East\\\"\","
+      + "\"visits\":3,\"active\":true,\"createdAt\":\"2025-03-01T10:00:00.000Z\",\"lastSeen\":\"2025-02-28T08:30:15\","
+      + "\"tags\":[\"a\",\"b\"],\"unknown\":{\"nested\":[1,2,{\"x\":null}]}}";
+  private static final String RESPONSE = "{\"status\":\"OK\",\"data\":" + CUSTOMER
+      + ",\"error\":null,\"meta\":{\"apiCode\":\"OK\",\"count\":1}}";
+  private static final String LIST_RESPONSE = "{\"status\":\"OK\",\"data\":[" + CUSTOMER + "," + CUSTOMER.replace("Acme", "Beta")
+      + "],\"meta\":{\"apiCode\":\"OK\",\"count\":2}}";
+
+  private static Type responseOf(Type data) {
+    return TypeToken.getParameterized(TypedApiResponse.class, data).getType();
+  }
+
+  /**
+   * Decodes data the way responses were decoded before the typed adapters: a
+   * plain Gson map, then ApiResponse.readObject
+   */
+  private static Customer legacy(Object data) throws Exception {
+    return new ApiResponse().readObject(data, Customer.class);
+  }
+
+  private static void assertSameCustomer(Customer expected, Customer actual) {
+
+    for (MappingPlan.Property property : MappingPlan.of(Customer.class).properties()) {
+      assertEquals(property.get(expected), property.get(actual), property.getName());
+    }
+  }
+
+  @Test
+  @DisplayName("A single entity decodes as the legacy Gson map path decoded it")
+  @SuppressWarnings("unchecked")
+  void read_single() throws Exception {
+
+    TypedApiResponse<Customer> response = GSON.fromJson(RESPONSE, responseOf(Customer.class));
+    Map<String, Object> legacy = new Gson().fromJson(RESPONSE, Map.class);
+
+    assertEquals(EnumStatus.OK, response.getStatus());
+    assertEquals(EnumApiCodes.OK, response.getMeta().getApiCode());
+    assertEquals(1L, response.getMeta().getCount());
+    assertNull(response.getError());
+    assertSameCustomer(legacy(legacy.get("data")), response.getData());
+    assertEquals("Acme \"East\"", response.getData().name);
+    assertEquals(UUID.fromString("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90"), response.getId());
+  }
+
+  @Test
+  @DisplayName("A list decodes element by element as the legacy path decoded it")
+  @SuppressWarnings("unchecked")
+  void read_list() throws Exception {
+
+    Type listType = TypeToken.getParameterized(List.class, Customer.class).getType();
+    TypedApiResponse<List<Customer>> response = GSON.fromJson(LIST_RESPONSE, responseOf(listType));
+    List<Object> legacy = (List<Object>) new Gson().fromJson(LIST_RESPONSE, Map.class).get("data");
+
+    assertEquals(2, response.getData().size());
+    for (int i = 0; i < legacy.size(); i++) {
+      assertSameCustomer(legacy(legacy.get(i)), response.getData().get(i));
+    }
+    assertEquals("Beta \"East\"", response.getData().get(1).name);
+
+    // A single object where a list is expected is a list of one
+    TypedApiResponse<List<Customer>> one = GSON.fromJson(RESPONSE, responseOf(listType));
+    assertEquals(1, one.getData().size());
+
+    TypedApiResponse<List<Customer>> none = GSON.fromJson("{\"status\":\"OK\",\"data\":null}", responseOf(listType));
+    assertTrue(none.getDataList().isEmpty());
+  }
+
+  @Test
+  @DisplayName("An array where one entity is expected is rejected")
+  void read_arrayForSingle() {
+    assertThrows(JsonParseException.class, () -> GSON.fromJson(LIST_RESPONSE, responseOf(Customer.class)));
+  }
+
+  @Test
+  @DisplayName("Errors decode with the legacy structure")
+  @SuppressWarnings("unchecked")
+  void read_error() {
+
+    String json = "{\"status\":\"ERROR\",\"data\":null,\"error\":{\"message\":\"duplicate\",\"code\":23505},"
+        + "\"meta\":{\"apiCode\":\"BAD_REQUEST\",\"message\":\"duplicate\"}}";
+    TypedApiResponse<Customer> response = GSON.fromJson(json, responseOf(Customer.class));
+    Map<String, Object> legacy = new Gson().fromJson(json, Map.class);
+
+    assertEquals(EnumStatus.ERROR, response.getStatus());
+    assertNull(response.getData());
+    assertEquals(legacy.get("error"), response.getError());
+    assertEquals("duplicate", response.getMeta().getMessage());
+  }
+
+  @Test
+  @DisplayName("What the adapters write reads back to the same response")
+  void roundTrip() throws Exception {
+
+    TypedApiResponse<Customer> response = GSON.fromJson(RESPONSE, responseOf(Customer.class));
+    String json = GSON.toJson(response, responseOf(Customer.class));
+    TypedApiResponse<Customer> again = GSON.fromJson(json, responseOf(Customer.class));
+
+    assertEquals(response.getStatus(), again.getStatus());
+    assertEquals(response.getMeta().getApiCode(), again.getMeta().getApiCode());
+    assertSameCustomer(response.getData(), again.getData());
+
+    var adapter = new EntityTypeAdapter<>(GSON, Customer.class);
+    assertSameCustomer(response.getData(), adapter.fromJson(adapter.toJson(response.getData())));
+    assertNull(adapter.fromJson("null"));
+  }
+}
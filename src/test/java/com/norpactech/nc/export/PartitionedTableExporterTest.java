@@ -0,0 +1,137 @@
+package com.norpactech.nc.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.norpactech.nc.enums.EnumExportFormat;
+import com.norpactech.nc.jdbc.JdbcConnectionPool;
+import com.norpactech.nc.jdbc.JdbcPoolConfig;
+
+public class PartitionedTableExporterTest {
+
+  private static final String URL = "jdbc:h2:mem:partitioned;DB_CLOSE_DELAY=-1";
+
+  private static Connection connection;
+  private static JdbcConnectionPool pool;
+
+  @BeforeAll
+  static void createTable() throws SQLException {
+    connection = DriverManager.getConnection(URL, "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE event (id BIGINT PRIMARY KEY, code VARCHAR(20), note VARCHAR(50))");
+      statement.execute("INSERT INTO event SELECT x * 3, CASE WHEN MOD(x, 50) = 0 THEN NULL ELSE 'c' || LPAD(x, 5, '0') END,"
+          + " 'note ' || x FROM SYSTEM_RANGE(1, 2000)");
+    }
+    var config = new JdbcPoolConfig(URL, null, "sa", "");
+    config.setMaxSize(4);
+    pool = new JdbcConnectionPool(config);
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    pool.close();
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("export splits a numeric key into ranges that cover every row once")
+  void export_numericKey(@TempDir Path directory) throws Exception {
+    var progress = new ConcurrentHashMap<Integer, Long>();
+    var exporter = new PartitionedTableExporter(pool, new ExportOptions(directory, EnumExportFormat.CSV), 4, 2);
+    exporter.setProgressListener(progress::put);
+    var result = exporter.export("event", "id");
+
+    assertEquals(2000, result.getRows());
+    assertEquals(4, result.getPartitions().size());
+    assertEquals(directory.resolve("event.part-0001.csv"), result.getFiles().get(0));
+    assertEquals(4, progress.size());
+    assertEquals(2000, progress.values().stream().mapToLong(Long::longValue).sum());
+
+    Set<String> ids = new HashSet<>();
+    for (Path file : result.getFiles()) {
+      List<String> lines = Files.readAllLines(file);
+      assertEquals("ID,CODE,NOTE", lines.get(0));
+      for (String line : lines.subList(1, lines.size())) {
+        assertTrue(ids.add(line.substring(0, line.indexOf(','))), line);
+      }
+    }
+    assertEquals(2000, ids.size());
+  }
+
+  @Test
+  @DisplayName("export splits a text key by quantiles and keeps NULL keys")
+  void export_textKeyMerged(@TempDir Path directory) throws Exception {
+    var exporter = new PartitionedTableExporter(pool, new ExportOptions(directory, EnumExportFormat.JSONL), 5, 3);
+    exporter.setMerge(true);
+    var result = exporter.export("event", "code");
+
+    assertEquals(2000, result.getRows());
+    assertEquals(5, result.getPartitions().size());
+    assertEquals(List.of(directory.resolve("event.jsonl")), result.getFiles());
+    List<String> lines = Files.readAllLines(result.getFiles().get(0));
+    assertEquals(2000, lines.size());
+    assertEquals(2000, lines.stream().collect(Collectors.toSet()).size());
+    assertEquals(40, lines.stream().filter(line -> line.contains("\"CODE\":null")).count());
+    try (var files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  @DisplayName("merge drops repeated CSV headers from gzipped parts")
+  void export_csvGzipMerged(@TempDir Path directory) throws Exception {
+    var options = new ExportOptions(directory, EnumExportFormat.CSV);
+    options.setGzip(true);
+    var exporter = new PartitionedTableExporter(pool, options, 3, 3);
+    exporter.setMerge(true);
+    var result = exporter.export("event", "id");
+
+    assertEquals(List.of(directory.resolve("event.csv.gz")), result.getFiles());
+    List<String> lines = gunzip(result.getFiles().get(0));
+    assertEquals(2001, lines.size());
+    assertEquals("ID,CODE,NOTE", lines.get(0));
+    assertEquals(1, lines.stream().filter(line -> line.startsWith("ID,")).count());
+    assertEquals("3,c00001,note 1", lines.get(1));
+  }
+
+  @Test
+  @DisplayName("boundaries collapse when there are fewer keys than partitions")
+  void boundaries_small() throws Exception {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE tiny (id INT PRIMARY KEY)");
+      statement.execute("CREATE TABLE empty (id INT PRIMARY KEY)");
+      statement.execute("INSERT INTO tiny VALUES (1), (2)");
+    }
+    var exporter = new PartitionedTableExporter(pool, new ExportOptions(), 8, 2);
+    assertEquals(List.of(1L, 2L), exporter.boundaries(connection, "tiny", "id"));
+    assertEquals(List.of(), exporter.boundaries(connection, "empty", "id"));
+  }
+
+  private static List<String> gunzip(Path file) throws IOException {
+    try (var reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.norpactech.nc.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.norpactech.nc.config.load.Globals;
+import com.norpactech.nc.enums.EnumExportFormat;
+
+public class TableExporterTest {
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void createTable() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50), amount DECIMAL(10,2), created_at TIMESTAMP, active BOOLEAN)");
+      statement.execute("INSERT INTO item SELECT x, CASE WHEN MOD(x, 10) = 0 THEN NULL ELSE 'item \"' || x || '\", ok' END,"
+          + " x * 1.5, TIMESTAMP '2025-01-02 03:04:05' + x * INTERVAL '1' SECOND, MOD(x, 2) = 0 FROM SYSTEM_RANGE(1, 1000)");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("exportTable writes one JSON object per row")
+  void exportTable_jsonl(@TempDir Path directory) throws Exception {
+    var exporter = new TableExporter(new ExportOptions(directory, EnumExportFormat.JSONL));
+    ExportResult result = exporter.exportTable(connection, "item");
+
+    assertEquals(1000, result.getRows());
+    assertEquals(List.of(directory.resolve("item.jsonl")), result.getFiles());
+    List<String> lines = Files.readAllLines(result.getFiles().get(0));
+    assertEquals(1000, lines.size());
+    assertEquals("{\"ID\":1,\"NAME\":\"item \\\"1\\\", ok\",\"AMOUNT\":1.50,\"CREATED_AT\":\"2025-01-02T03:04:06.000Z\",\"ACTIVE\":false}", lines.get(0));
+    assertEquals("{\"ID\":10,\"NAME\":null,\"AMOUNT\":15.00,\"CREATED_AT\":\"2025-01-02T03:04:15.000Z\",\"ACTIVE\":true}", lines.get(9));
+    assertTrue(connection.getAutoCommit());
+  }
+
+  @Test
+  @DisplayName("export rotates gzipped CSV parts by size with a header in each")
+  void export_csvRotated(@TempDir Path directory) throws Exception {
+    var options = new ExportOptions(directory, EnumExportFormat.CSV);
+    options.setMaxFileBytes(8 * 1024);
+    options.setGzip(true);
+    ExportResult result = new TableExporter(options).exportTable(connection, "item");
+
+    assertTrue(result.getFiles().size() > 1);
+    assertEquals(directory.resolve("item-00001.csv.gz"), result.getFiles().get(0));
+    List<String> rows = new ArrayList<>();
+    for (Path file : result.getFiles()) {
+      List<String> lines = gunzip(file);
+      assertEquals("ID,NAME,AMOUNT,CREATED_AT,ACTIVE", lines.get(0));
+      rows.addAll(lines.subList(1, lines.size()));
+    }
+    assertEquals(1000, rows.size());
+    assertEquals("1,\"item \"\"1\"\", ok\",1.50,2025-01-02T03:04:06.000Z,FALSE", rows.get(0));
+    assertEquals("10,,15.00,2025-01-02T03:04:15.000Z,TRUE", rows.get(9));
+  }
+
+  @Test
+  @DisplayName("a CSV export of zero rows still writes the header")
+  void export_csvEmpty(@TempDir Path directory) throws Exception {
+    ExportResult result = new TableExporter(new ExportOptions(directory, EnumExportFormat.CSV))
+        .export(connection, "SELECT id, name FROM item WHERE id < 0", "none", null);
+
+    assertEquals(0, result.getRows());
+    assertEquals(List.of(directory.resolve("none.csv")), result.getFiles());
+    assertEquals(List.of("ID,NAME"), Files.readAllLines(result.getFiles().get(0)));
+  }
+
+  @Test
+  @DisplayName("fromGlobals defaults to the working directory; no directory fails clearly")
+  void exportOptions_directory() throws SQLException {
+    if (Globals.EXPORT_DATA_DIRECTORY == null || Globals.EXPORT_DATA_DIRECTORY.isBlank()) {
+      assertEquals(Paths.get("").toAbsolutePath(), ExportOptions.fromGlobals().getDirectory());
+    }
+    var exporter = new TableExporter(new ExportOptions(null, EnumExportFormat.CSV));
+    assertThrows(IllegalArgumentException.class, () -> exporter.exportTable(connection, "item"));
+    assertTrue(connection.getAutoCommit());
+  }
+
+  @Test
+  @DisplayName("exportTable rejects names that are not identifiers")
+  void exportTable_validatesName(@TempDir Path directory) {
+    var exporter = new TableExporter(new ExportOptions(directory, EnumExportFormat.JSONL));
+    assertThrows(IllegalArgumentException.class, () -> exporter.exportTable(connection, "item; DROP TABLE item"));
+  }
+
+  private static List<String> gunzip(Path file) throws IOException {
+    try (var reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+      return reader.lines().toList();
+    }
+  }
+}
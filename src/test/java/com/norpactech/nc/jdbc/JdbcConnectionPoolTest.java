@@ -0,0 +1,149 @@
+package com.norpactech.nc.jdbc;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JdbcConnectionPoolTest {
+
+  private static JdbcPoolConfig config(String database) {
+    var config = new JdbcPoolConfig("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "org.h2.Driver", "sa", "");
+    config.setMinSize(1);
+    config.setMaxSize(2);
+    config.setAcquireTimeout(200);
+    config.setHousekeepingInterval(60_000);
+    return config;
+  }
+
+  @Test
+  @DisplayName("closed connections are returned and reused")
+  void getConnection_reuses() throws SQLException {
+    try (var pool = new JdbcConnectionPool(config("reuse"))) {
+      Connection first = pool.getConnection();
+      String physical = first.unwrap(Connection.class).toString();
+      assertEquals(1, pool.getMetrics().getActive());
+      first.close();
+      assertTrue(first.isClosed());
+      assertThrows(SQLException.class, first::createStatement);
+
+      try (Connection second = pool.getConnection()) {
+        assertEquals(physical, second.unwrap(Connection.class).toString());
+      }
+      assertEquals(0, pool.getMetrics().getActive());
+      assertEquals(1, pool.getMetrics().getTotal());
+      assertEquals(2, pool.getMetrics().getAcquireCount());
+    }
+  }
+
+  @Test
+  @DisplayName("getConnection times out at max size and wakes a waiter on return")
+  void getConnection_bounded() throws Exception {
+    try (var pool = new JdbcConnectionPool(config("bounded"))) {
+      Connection a = pool.getConnection();
+      Connection b = pool.getConnection();
+      assertThrows(SQLTimeoutException.class, pool::getConnection);
+
+      CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+        try {
+          return pool.getConnection();
+        }
+        catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      a.close();
+      Connection c = waiter.get(1, TimeUnit.SECONDS);
+      assertEquals(2, pool.getMetrics().getActive());
+      b.close();
+      c.close();
+      assertEquals(2, pool.getMetrics().getIdle());
+    }
+  }
+
+  @Test
+  @DisplayName("return rolls back open transactions and restores autocommit")
+  void close_resetsState() throws SQLException {
+    try (var pool = new JdbcConnectionPool(config("reset"))) {
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE t (id INT)");
+      }
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        connection.setAutoCommit(false);
+        statement.execute("INSERT INTO t VALUES (1)");
+      }
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        assertTrue(connection.getAutoCommit());
+        var rs = statement.executeQuery("SELECT COUNT(*) FROM t");
+        rs.next();
+        assertEquals(0, rs.getInt(1));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("broken idle connections are replaced on borrow")
+  void getConnection_validates() throws SQLException {
+    try (var pool = new JdbcConnectionPool(config("validate"))) {
+      Connection connection = pool.getConnection();
+      Connection physical = connection.unwrap(Connection.class);
+      connection.close();
+      physical.close();
+      try (Connection replacement = pool.getConnection()) {
+        assertFalse(replacement.isClosed());
+        assertNotSame(physical, replacement.unwrap(Connection.class));
+      }
+      assertEquals(1, pool.getMetrics().getTotal());
+    }
+  }
+
+  @Test
+  @DisplayName("housekeeping evicts idle connections down to min size")
+  void housekeep_evictsIdle() throws Exception {
+    JdbcPoolConfig config = config("evict");
+    config.setIdleTimeout(1);
+    try (var pool = new JdbcConnectionPool(config)) {
+      Connection a = pool.getConnection();
+      Connection b = pool.getConnection();
+      a.close();
+      b.close();
+      assertEquals(2, pool.getMetrics().getIdle());
+      Thread.sleep(10);
+      pool.housekeep();
+      assertEquals(1, pool.getMetrics().getTotal());
+    }
+  }
+
+  @Test
+  @DisplayName("returning a connection restores its read-only flag, isolation level and schema")
+  void close_restoresState() throws SQLException {
+    try (var pool = new JdbcConnectionPool(config("restore"))) {
+      Connection physical;
+      int isolation;
+      String schema;
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        physical = connection.unwrap(Connection.class);
+        isolation = connection.getTransactionIsolation();
+        schema = connection.getSchema();
+        statement.execute("CREATE SCHEMA other");
+        connection.setReadOnly(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setSchema("OTHER");
+        assertEquals("OTHER", connection.getSchema());
+      }
+      try (Connection connection = pool.getConnection()) {
+        assertSame(physical, connection.unwrap(Connection.class));
+        assertFalse(connection.isReadOnly());
+        assertEquals(isolation, connection.getTransactionIsolation());
+        assertEquals(schema, connection.getSchema());
+      }
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.norpactech.nc.loader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.jdbc.JdbcConnectionPool;
+import com.norpactech.nc.jdbc.JdbcPoolConfig;
+import com.norpactech.nc.vo.ForeignKeyVO;
+
+public class ForeignKeyResolverTest {
+
+  private static final List<ForeignKeyVO> FOREIGN_KEYS = List.of(
+      new ForeignKeyVO("order_line", "id_customer", "customer", "id"),
+      new ForeignKeyVO("order_line", "id_product", "product", "id"),
+      new ForeignKeyVO("order_line", "created_by", "user", "id"));
+
+  private static Map<String, Object> line(String customer, String product) {
+
+    var line = new LinkedHashMap<String, Object>();
+    line.put("customer", customer);
+    line.put("product", product);
+    return line;
+  }
+
+  @Test
+  @DisplayName("resolve runs one chunked IN query per referenced table")
+  void resolve_jdbc() throws Exception {
+
+    var config = new JdbcPoolConfig("jdbc:h2:mem:fk_resolver;DB_CLOSE_DELAY=-1", "org.h2.Driver", "sa", "");
+    config.setMinSize(1);
+    config.setMaxSize(1);
+    try (var pool = new JdbcConnectionPool(config)) {
+      var customers = new HashMap<String, UUID>();
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE customer (id UUID PRIMARY KEY, name VARCHAR(50))");
+        statement.execute("CREATE TABLE product (id UUID PRIMARY KEY, code VARCHAR(50))");
+        for (int i = 0; i < 5; i++) {
+          UUID id = UUID.randomUUID();
+          customers.put("Customer " + i, id);
+          statement.execute("INSERT INTO customer VALUES ('" + id + "', 'Customer " + i + "')");
+        }
+        statement.execute("INSERT INTO product VALUES ('6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90', 'P-1')");
+      }
+
+      var jdbc = new JdbcKeyLookup(pool);
+      jdbc.setMaxParameters(2);
+      var queried = new ArrayList<String>();
+      var resolver = new ForeignKeyResolver((foreignKey, keyColumn, keys) -> {
+        queried.add(foreignKey.getReferences() + "." + keyColumn + " " + keys.size());
+        return jdbc.lookup(foreignKey, keyColumn, keys);
+      }, FOREIGN_KEYS);
+      resolver.setNaturalKey("product", "code");
+
+      var batch = new ArrayList<Map<String, Object>>();
+      for (int i = 0; i < 10; i++) {
+        batch.add(line("Customer " + i % 5, "P-1"));
+      }
+      batch.add(line("Nobody", " "));
+      assertEquals(1, resolver.resolve("order_line", batch));
+      assertEquals(List.of("customer.name 6", "product.code 1"), queried);
+      for (int i = 0; i < 10; i++) {
+        assertEquals(customers.get("Customer " + i % 5).toString(), batch.get(i).get("idCustomer"));
+        assertEquals("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90", batch.get(i).get("idProduct"));
+        assertEquals(Set.of("idCustomer", "idProduct"), batch.get(i).keySet());
+      }
+      assertNull(batch.get(10).get("idCustomer"));
+      assertNull(batch.get(10).get("idProduct"));
+      assertEquals("Nobody", batch.get(10).get("customer"));
+      assertEquals(6, resolver.getCachedKeys());
+
+      // Cached keys are not looked up again; the missing one is
+      assertEquals(1, resolver.resolve("order_line", List.of(line("Customer 1", "P-1"), line("Nobody", "P-1"))));
+      assertEquals(List.of("customer.name 6", "product.code 1", "customer.name 1"), queried);
+      assertEquals(3, resolver.getLookups());
+    }
+  }
+
+  @Test
+  @DisplayName("lookup binds keys as the key column's type")
+  void lookup_typedKeys() throws Exception {
+
+    var config = new JdbcPoolConfig("jdbc:h2:mem:fk_typed_keys;DB_CLOSE_DELAY=-1", "org.h2.Driver", "sa", "");
+    config.setMinSize(1);
+    config.setMaxSize(1);
+    try (var pool = new JdbcConnectionPool(config)) {
+      UUID seven = UUID.randomUUID();
+      UUID eight = UUID.randomUUID();
+      UUID external = UUID.fromString("0b7d1a8e-2f44-4b61-8c3d-5e6f7a8b9c0d");
+      try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE region (id UUID PRIMARY KEY, region_no INT, rate DECIMAL(5,2), external_id UUID)");
+        statement.execute("INSERT INTO region VALUES ('" + seven + "', 7, 1.50, '" + external + "'), ('" + eight + "', 8, 2.00, NULL)");
+      }
+      var lookup = new JdbcKeyLookup(pool);
+      var region = new ForeignKeyVO("site", "id_region", "region", "id");
+
+      assertEquals(Map.of("7", seven, "08", eight), lookup.lookup(region, "region_no", Set.of("7", "08", "x", "9")));
+      assertEquals(Map.of("1.5", seven), lookup.lookup(region, "rate", Set.of("1.5")));
+      assertEquals(Map.of(external.toString().toUpperCase(), seven),
+          lookup.lookup(region, "external_id", Set.of(external.toString().toUpperCase(), "not-a-uuid")));
+      assertEquals(Map.of(), lookup.lookup(region, "region_no", Set.of("x")));
+    }
+  }
+
+  @Test
+  @DisplayName("writer resolves before writing and keeps ids already set")
+  void writer() throws Exception {
+
+    UUID acme = UUID.randomUUID();
+    var resolver = new ForeignKeyResolver((foreignKey, keyColumn, keys) -> {
+      assertEquals(Set.of("Acme"), keys);
+      return Map.of("Acme", acme);
+    }, FOREIGN_KEYS);
+
+    var written = new ArrayList<Map<String, Object>>();
+    var preset = line("Other", null);
+    preset.put("idCustomer", "kept");
+    resolver.writer("order_line", written::addAll).write(new ArrayList<>(List.of(line("Acme", null), preset)), "key");
+
+    assertEquals(acme.toString(), written.get(0).get("idCustomer"));
+    assertEquals("kept", written.get(1).get("idCustomer"));
+    assertEquals(0, resolver.resolve("customer", written));
+  }
+}
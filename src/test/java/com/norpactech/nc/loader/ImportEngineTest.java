@@ -0,0 +1,140 @@
+package com.norpactech.nc.loader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.norpactech.nc.migration.BatchWriter;
+
+public class ImportEngineTest {
+
+  @Test
+  @DisplayName("importAll splits CSV and JSONL into chunks and writes every record once")
+  void importAll(@TempDir Path directory) throws Exception {
+    var csv = new StringBuilder("id,first_name,note\r\n");
+    var jsonl = new StringBuilder();
+    for (int i = 1; i <= 3000; i++) {
+      csv.append(i).append(",name ").append(i).append(i % 7 == 0 ? ",\"multi\nline, \"\"quoted\"\"\"" : ",").append("\r\n");
+      jsonl.append("{\"id\":").append(i).append(",\"first_name\":\"n\\u00e9 ").append(i).append("\"}\n");
+    }
+    Files.writeString(directory.resolve("customer.csv"), csv, StandardCharsets.UTF_8);
+    Files.writeString(directory.resolve("contact.jsonl"), jsonl, StandardCharsets.UTF_8);
+    Files.writeString(directory.resolve("readme.txt"), "ignored");
+    Files.writeString(directory.resolve("unmapped.csv"), "id\n1\n");
+
+    Map<String, Map<Object, Map<String, Object>>> received = new ConcurrentHashMap<>();
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var engine = new ImportEngine(name -> name.equals("unmapped") ? null : batch -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      var rows = received.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+      batch.forEach(params -> assertNull(rows.put(params.get("id"), params)));
+      Thread.sleep(1);
+      inFlight.decrementAndGet();
+    });
+    engine.setChunkBytes(4096);
+    engine.setBatchSize(25);
+    engine.setWriteConcurrency(2);
+    engine.setParseThreads(4);
+    List<ImportEngine.FileResult> results = engine.importAll(directory);
+
+    assertEquals(2, results.size());
+    assertEquals(directory.resolve("contact.jsonl"), results.get(0).getFile());
+    for (var result : results) {
+      assertEquals(3000, result.getRecords(), result.toString());
+      assertEquals(3000, result.getWritten());
+      assertEquals(0, result.getFailed());
+    }
+    assertEquals(3000, received.get("customer").size());
+    assertEquals("multi\nline, \"quoted\"", received.get("customer").get("14").get("note"));
+    assertNull(received.get("customer").get("15").get("note"));
+    assertEquals("name 15", received.get("customer").get("15").get("firstName"));
+    assertEquals("né 9", received.get("contact").get(9).get("firstName"));
+    assertTrue(maxInFlight.get() <= 2);
+  }
+
+  @Test
+  @DisplayName("bad records and failed batches are reported per file")
+  void importAll_errors(@TempDir Path directory) throws Exception {
+    Files.writeString(directory.resolve("item.jsonl"), "{\"id\":1}\nnot json\n{\"id\":2}\n{\"id\":3}\n");
+    BatchWriter writer = batch -> {
+      if (batch.stream().anyMatch(params -> params.get("id").equals(3))) {
+        throw new IllegalStateException("rejected");
+      }
+    };
+    var engine = new ImportEngine(name -> writer);
+    engine.setBatchSize(1);
+    engine.setMapper(params -> params.get("id").equals(2) ? null : params);
+    var result = engine.importAll(directory).get(0);
+
+    assertEquals(3, result.getRecords());
+    assertEquals(1, result.getWritten());
+    assertEquals(2, result.getFailed());
+    assertEquals(2, result.getErrors().size());
+    assertTrue(result.getErrors().get(1).contains("rejected"), result.getErrors().toString());
+  }
+
+  @Test
+  @DisplayName("a resumable rerun re-sends only unwritten batches, with the same idempotency keys")
+  void importAll_resume(@TempDir Path directory) throws Exception {
+    var csv = new StringBuilder("id,name\n");
+    for (int i = 1; i <= 1000; i++) {
+      csv.append(i).append(",name ").append(i).append("\n");
+    }
+    Files.writeString(directory.resolve("customer.csv"), csv);
+
+    Map<String, Integer> rejected = new ConcurrentHashMap<>();
+    var engine = new ImportEngine(name -> new BatchWriter() {
+      @Override
+      public void write(List<Map<String, Object>> batch) {
+        throw new UnsupportedOperationException();
+      }
+      @Override
+      public void write(List<Map<String, Object>> batch, String key) {
+        if (batch.stream().anyMatch(params -> Integer.parseInt((String) params.get("id")) % 97 == 0)) {
+          rejected.put(key, batch.size());
+          throw new IllegalStateException("rejected");
+        }
+      }
+    });
+    engine.setResumable(true);
+    engine.setChunkBytes(2048);
+    engine.setBatchSize(10);
+    var first = engine.importAll(directory).get(0);
+    int rejectedRows = rejected.values().stream().mapToInt(Integer::intValue).sum();
+    assertEquals(1000, first.getRecords());
+    assertEquals(rejectedRows, first.getFailed());
+    assertEquals(10, rejected.size());
+    assertTrue(Files.exists(directory.resolve(ImportJournal.FILE_NAME)));
+
+    Map<String, Integer> replayed = new ConcurrentHashMap<>();
+    engine = new ImportEngine(name -> new BatchWriter() {
+      @Override
+      public void write(List<Map<String, Object>> batch) {
+        throw new UnsupportedOperationException();
+      }
+      @Override
+      public void write(List<Map<String, Object>> batch, String key) {
+        assertNull(replayed.put(key, batch.size()));
+      }
+    });
+    engine.setResumable(true);
+    engine.setChunkBytes(2048);
+    engine.setBatchSize(10);
+    var second = engine.importAll(directory).get(0);
+    assertEquals(rejectedRows, second.getRecords());
+    assertEquals(rejectedRows, second.getWritten());
+    assertEquals(rejected, replayed);
+    assertFalse(Files.exists(directory.resolve(ImportJournal.FILE_NAME)));
+  }
+}
@@ -0,0 +1,67 @@
+package com.norpactech.nc.loader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ImportJournalTest {
+
+  @Test
+  @DisplayName("acknowledged ranges survive a reopen, a torn entry is dropped and the rest compacted")
+  void reopen(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("item.csv");
+    Files.writeString(file, "x".repeat(100));
+    String fingerprint = ImportJournal.fingerprint(file);
+
+    try (var journal = ImportJournal.open(directory)) {
+      journal.acknowledge(file, fingerprint, 10, 20, "a");
+      journal.acknowledge(file, fingerprint, 20, 30, "b");
+      journal.acknowledge(file, fingerprint, 50, 60, "c");
+    }
+    Path path = directory.resolve(ImportJournal.FILE_NAME);
+    Files.writeString(path, "item.csv\t" + fingerprint + "\t60", StandardOpenOption.APPEND);
+
+    try (var journal = ImportJournal.open(directory)) {
+      assertEquals(2, Files.readAllLines(path, StandardCharsets.UTF_8).size());
+      assertEquals(30, journal.acknowledgedBytes(file));
+      assertRanges(List.of(new long[] {0, 10}, new long[] {30, 50}, new long[] {60, 100}), journal.remaining(file, 0, 100));
+      assertRanges(List.of(new long[] {30, 40}), journal.remaining(file, 15, 40));
+      assertRanges(List.of(), journal.remaining(file, 52, 58));
+    }
+  }
+
+  @Test
+  @DisplayName("ranges of a file that changed since they were journaled are discarded")
+  void changedFile(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("item.csv");
+    Files.writeString(file, "x".repeat(100));
+    try (var journal = ImportJournal.open(directory)) {
+      journal.acknowledge(file, ImportJournal.fingerprint(file), 0, 50, "a");
+    }
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+    try (var journal = ImportJournal.open(directory)) {
+      assertEquals(0, journal.acknowledgedBytes(file));
+      assertRanges(List.of(new long[] {0, 100}), journal.remaining(file, 0, 100));
+    }
+    assertNotEquals(ImportJournal.idempotencyKey(file, "1-1", 0, 50), ImportJournal.idempotencyKey(file, "1-1", 0, 51));
+    assertEquals(ImportJournal.idempotencyKey(file, "1-1", 0, 50), ImportJournal.idempotencyKey(file, "1-1", 0, 50));
+  }
+
+  private static void assertRanges(List<long[]> expected, List<long[]> actual) {
+
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i), actual.get(i));
+    }
+  }
+}
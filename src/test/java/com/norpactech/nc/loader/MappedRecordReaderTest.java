@@ -0,0 +1,117 @@
+package com.norpactech.nc.loader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.norpactech.nc.enums.EnumExportFormat;
+
+public class MappedRecordReaderTest {
+
+  @Test
+  @DisplayName("typed getters parse fields straight from the mapped bytes")
+  void typedGetters(@TempDir Path directory) throws Exception {
+    UUID id = UUID.randomUUID();
+    Path file = directory.resolve("item.csv");
+    Files.writeString(file, id + ",-42,9000000000,TRUE,12.50,\"a \"\"b\"\", c\",é,\r\n\n"
+        + "x,1x,,maybe,,\"open", StandardCharsets.UTF_8);
+
+    try (var reader = new MappedRecordReader(file, EnumExportFormat.CSV)) {
+      assertTrue(reader.next());
+      assertEquals(8, reader.size());
+      assertEquals(id, reader.getUUID(0));
+      assertEquals(-42, reader.getInteger(1));
+      assertEquals(9000000000L, reader.getLong(2));
+      assertThrows(RuntimeException.class, () -> reader.getInteger(2));
+      assertTrue(reader.getBoolean(3));
+      assertEquals(new BigDecimal("12.50"), reader.getBigDecimal(4));
+      assertEquals("a \"b\", c", reader.getString(5));
+      assertEquals("a \"b\", c", reader.getChars(5).toString());
+      assertEquals("é", reader.getChars(6).toString());
+      assertTrue(reader.isEmpty(7));
+      assertNull(reader.getInteger(7));
+
+      assertTrue(reader.next());
+      RuntimeException e = assertThrows(RuntimeException.class, () -> reader.getUUID(0));
+      assertEquals("Invalid UUID: x", e.getMessage());
+      e = assertThrows(RuntimeException.class, () -> reader.getInteger(1));
+      assertEquals("Invalid integer: 1x", e.getMessage());
+      e = assertThrows(RuntimeException.class, () -> reader.getBoolean(3));
+      assertEquals("Invalid boolean: maybe", e.getMessage());
+      fail("unterminated quote not reported");
+    }
+    catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Unterminated quoted field"), e.getMessage());
+    }
+  }
+
+  @Test
+  @DisplayName("records spanning small windows are remapped and split ranges cover every record once")
+  void windowsAndSplit(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("customer.csv");
+    var csv = new StringBuilder("id,note\n");
+    var expected = new ArrayList<String>();
+    for (int i = 0; i < 500; i++) {
+      String note = i % 50 == 0 ? "long " + "x".repeat(300) + "\nwith, \"\"quotes\"\"" : "note " + i;
+      csv.append(i).append(",\"").append(note).append("\"\n");
+      expected.add(i + "|" + note.replace("\"\"", "\""));
+    }
+    Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+    long headerEnd = "id,note\n".length();
+    List<long[]> ranges = MappedRecordReader.split(file, EnumExportFormat.CSV, headerEnd, 1000);
+    assertTrue(ranges.size() > 5);
+    assertEquals(headerEnd, ranges.get(0)[0]);
+    assertEquals(Files.size(file), ranges.get(ranges.size() - 1)[1]);
+
+    var actual = new ArrayList<String>();
+    for (long[] range : ranges) {
+      try (var reader = new MappedRecordReader(file, EnumExportFormat.CSV, range[0], range[1], 64)) {
+        while (reader.next()) {
+          assertEquals(2, reader.size());
+          actual.add(reader.getInteger(0) + "|" + reader.getString(1));
+        }
+      }
+    }
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  @DisplayName("JSONL ranges split on newlines and records parse from the mapped bytes")
+  void jsonl(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("contact.jsonl");
+    var jsonl = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      jsonl.append("{\"id\":").append(i).append(",\"name\":\"n\\u00e9\\n").append(i).append("\"}\r\n");
+    }
+    jsonl.append("\n");
+    Files.writeString(file, jsonl, StandardCharsets.UTF_8);
+
+    var json = new ObjectMapper().readerFor(Map.class);
+    int next = 0;
+    for (long[] range : MappedRecordReader.split(file, EnumExportFormat.JSONL, 0, 700)) {
+      try (var reader = new MappedRecordReader(file, EnumExportFormat.JSONL, range[0], range[1], 32)) {
+        while (reader.next()) {
+          Map<String, Object> record = reader.readJson(json);
+          assertEquals(next, record.get("id"));
+          assertEquals("né\n" + next, record.get("name"));
+          next++;
+        }
+      }
+    }
+    assertEquals(200, next);
+  }
+}
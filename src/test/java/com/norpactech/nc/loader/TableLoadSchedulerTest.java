@@ -0,0 +1,112 @@
+package com.norpactech.nc.loader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.exception.CyclicDependencyException;
+import com.norpactech.nc.vo.ForeignKeyVO;
+
+public class TableLoadSchedulerTest {
+
+  private static final List<ForeignKeyVO> FOREIGN_KEYS = List.of(
+      new ForeignKeyVO("orders", "customer_id", "customer", "id"),
+      new ForeignKeyVO("order_line", "order_id", "orders", "id"),
+      new ForeignKeyVO("order_line", "product_id", "product", "id"),
+      new ForeignKeyVO("product", "category_id", "category", "id"),
+      new ForeignKeyVO("category", "parent_id", "category", "id"),
+      new ForeignKeyVO("customer", "tenant_id", "tenant", "id"));
+
+  @Test
+  @DisplayName("levels group tables after their dependencies and ignore self-references")
+  void levels() throws Exception {
+    var graph = new TableDependencyGraph(FOREIGN_KEYS);
+
+    assertEquals(List.of(List.of("category", "tenant"), List.of("product", "customer"), List.of("orders"), List.of("order_line")), graph.levels());
+    assertEquals(List.of("orders", "product"), List.copyOf(graph.getDependencies("order_line")));
+    assertTrue(graph.getDependencies("category").isEmpty());
+  }
+
+  @Test
+  @DisplayName("tables outside the given set are treated as already loaded")
+  void levels_subset() throws Exception {
+    var graph = new TableDependencyGraph(List.of("order_line", "orders"), FOREIGN_KEYS);
+    assertEquals(List.of(List.of("orders"), List.of("order_line")), graph.levels());
+  }
+
+  @Test
+  @DisplayName("a cycle is reported with the tables on it")
+  void levels_cycle() {
+    var foreignKeys = new ArrayList<>(FOREIGN_KEYS);
+    foreignKeys.add(new ForeignKeyVO("tenant", "owner_id", "orders", "id"));
+    var graph = new TableDependencyGraph(foreignKeys);
+
+    var e = assertThrows(CyclicDependencyException.class, graph::levels);
+    assertEquals(List.of("orders", "customer", "tenant", "orders"), e.getCycle());
+    assertEquals("Foreign key cycle: orders -> customer -> tenant -> orders", e.getMessage());
+  }
+
+  @Test
+  @DisplayName("criticalPath follows the most expensive chain")
+  void criticalPath() throws Exception {
+    var graph = new TableDependencyGraph(FOREIGN_KEYS);
+    Map<String, Long> cost = Map.of("tenant", 1L, "customer", 5L, "orders", 10L, "category", 1L, "product", 30L, "order_line", 50L);
+
+    var path = graph.criticalPath(cost::get);
+    assertEquals(List.of("category", "product", "order_line"), path.getTables());
+    assertEquals(81, path.getCost());
+  }
+
+  @Test
+  @DisplayName("run starts tables in parallel once their dependencies finish")
+  void run() throws Exception {
+    var graph = new TableDependencyGraph(FOREIGN_KEYS);
+    Map<String, Long> finishedAt = new ConcurrentHashMap<>();
+    Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    var report = new TableLoadScheduler(graph, 4).run(table -> {
+      startedAt.put(table, System.nanoTime());
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      running.decrementAndGet();
+      finishedAt.put(table, System.nanoTime());
+    });
+
+    assertEquals(6, report.getDurations().size());
+    assertTrue(maxRunning.get() > 1);
+    for (String table : graph.getTables()) {
+      for (String dependency : graph.getDependencies(table)) {
+        assertTrue(finishedAt.get(dependency) <= startedAt.get(table), table + " started before " + dependency);
+      }
+    }
+    assertTrue(report.getElapsedMillis() < report.getSequentialMillis());
+    assertEquals("order_line", report.getCriticalPath().getTables().get(report.getCriticalPath().getTables().size() - 1));
+  }
+
+  @Test
+  @DisplayName("run stops starting tables after a failure and rethrows it")
+  void run_failure() {
+    var graph = new TableDependencyGraph(FOREIGN_KEYS);
+    var started = ConcurrentHashMap.<String>newKeySet();
+
+    var e = assertThrows(ExecutionException.class, () -> new TableLoadScheduler(graph, 1).run(table -> {
+      started.add(table);
+      if (table.equals("customer")) {
+        throw new IllegalStateException("customer failed");
+      }
+    }));
+    assertEquals("customer failed", e.getCause().getMessage());
+    assertFalse(started.contains("orders"));
+    assertFalse(started.contains("order_line"));
+  }
+}
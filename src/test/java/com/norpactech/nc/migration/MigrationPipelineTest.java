@@ -0,0 +1,164 @@
+package com.norpactech.nc.migration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MigrationPipelineTest {
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void createTable() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE customer (id INT PRIMARY KEY, first_name VARCHAR(50), is_active BOOLEAN)");
+      statement.execute("INSERT INTO customer SELECT \"X\", 'name ' || \"X\", MOD(\"X\", 10) <> 0 FROM SYSTEM_RANGE(1, 5000)");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("run streams every row as camelCase params in batches")
+  void run() throws Exception {
+    Map<Integer, Map<String, Object>> received = new ConcurrentHashMap<>();
+    var largest = new AtomicInteger();
+    var pipeline = new MigrationPipeline(batch -> {
+      largest.accumulateAndGet(batch.size(), Math::max);
+      batch.forEach(params -> assertNull(received.put((Integer) params.get("id"), params)));
+    });
+    pipeline.setBatchSize(50);
+    pipeline.setQueueCapacity(16);
+    var result = pipeline.run(connection, "customer", "id");
+
+    assertEquals(5000, result.getRead());
+    assertEquals(5000, result.getWritten());
+    assertEquals(5000, received.size());
+    assertEquals(Map.of("id", 7, "firstName", "name 7", "isActive", true), received.get(7));
+    assertTrue(largest.get() <= 50);
+    assertTrue(connection.getAutoCommit());
+  }
+
+  @Test
+  @DisplayName("the cleanser can rewrite and drop rows")
+  void run_cleanser() throws Exception {
+    Set<Object> names = ConcurrentHashMap.newKeySet();
+    var pipeline = new MigrationPipeline(batch -> batch.forEach(params -> names.add(params.get("firstName"))));
+    pipeline.setCleanser(params -> {
+      if (!(Boolean) params.get("isActive")) {
+        return null;
+      }
+      params.put("firstName", params.get("firstName").toString().toUpperCase());
+      return params;
+    });
+    var result = pipeline.run(connection, "customer", "id");
+
+    assertEquals(500, result.getDropped());
+    assertEquals(4500, result.getWritten());
+    assertTrue(names.contains("NAME 1"));
+    assertFalse(names.contains("NAME 10"));
+  }
+
+  @Test
+  @DisplayName("a failed run resumes after its checkpoint without losing rows")
+  void run_resume(@TempDir Path directory) throws Exception {
+    Set<Object> written = ConcurrentHashMap.newKeySet();
+    var calls = new AtomicInteger();
+    var failing = new MigrationPipeline(batch -> {
+      if (calls.incrementAndGet() == 30) {
+        throw new IllegalStateException("API unavailable");
+      }
+      batch.forEach(params -> written.add(params.get("id")));
+    });
+    failing.setBatchSize(20);
+    failing.setCheckpointDirectory(directory);
+    var e = assertThrows(IllegalStateException.class, () -> failing.run(connection, "customer", "id"));
+    assertEquals("API unavailable", e.getMessage());
+
+    Path file = directory.resolve("customer.checkpoint");
+    List<String> checkpoint = Files.readAllLines(file);
+    assertEquals("java.lang.Integer", checkpoint.get(0));
+    int resumeAfter = Integer.parseInt(checkpoint.get(1));
+    assertTrue(resumeAfter > 0 && resumeAfter < 5000);
+    for (int id = 1; id <= resumeAfter; id++) {
+      assertTrue(written.contains(id), "missing " + id);
+    }
+
+    var resumed = new MigrationPipeline(batch -> batch.forEach(params -> {
+      assertTrue((Integer) params.get("id") > resumeAfter);
+      written.add(params.get("id"));
+    }));
+    resumed.setCheckpointDirectory(directory);
+    var result = resumed.run(connection, "customer", "id");
+
+    assertEquals(5000 - resumeAfter, result.getRead());
+    assertEquals(5000, written.size());
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  @DisplayName("a key type the checkpoint cannot read back fails before any row is written")
+  void run_unsupportedKey(@TempDir Path directory) throws Exception {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE IF NOT EXISTS holiday (holiday_date DATE PRIMARY KEY, name VARCHAR(50))");
+      statement.execute("MERGE INTO holiday VALUES (DATE '2025-01-01', 'new year'), (DATE '2025-12-25', 'christmas')");
+    }
+    var calls = new AtomicInteger();
+    var pipeline = new MigrationPipeline(batch -> calls.incrementAndGet());
+    pipeline.setCheckpointDirectory(directory);
+    var e = assertThrows(IllegalArgumentException.class, () -> pipeline.run(connection, "holiday", "holiday_date"));
+    assertTrue(e.getMessage().startsWith("Unsupported checkpoint key type java.sql.Date"), e.getMessage());
+    assertEquals(0, calls.get());
+    assertFalse(Files.exists(directory.resolve("holiday.checkpoint")));
+    assertTrue(connection.getAutoCommit());
+
+    pipeline.setCheckpointDirectory(null);
+    assertEquals(2, pipeline.run(connection, "holiday", "holiday_date").getWritten());
+  }
+
+  @Test
+  @DisplayName("a slow writer holds back the mappers through the bounded queue")
+  void run_backpressure() throws Exception {
+    var mapped = new AtomicInteger();
+    var written = new AtomicInteger();
+    var largestGap = new AtomicInteger();
+    var pipeline = new MigrationPipeline(batch -> {
+      largestGap.accumulateAndGet(mapped.get() - written.get(), Math::max);
+      Thread.sleep(1);
+      written.addAndGet(batch.size());
+    });
+    pipeline.setCleanser(params -> {
+      mapped.incrementAndGet();
+      return params;
+    });
+    pipeline.setQueueCapacity(10);
+    pipeline.setBatchSize(10);
+    pipeline.setWriterThreads(1);
+    pipeline.setMapperThreads(1);
+    var result = pipeline.run(connection, "customer", "id");
+
+    assertEquals(5000, result.getWritten());
+    // At most a full queue, the batch being written and the row in the mapper
+    assertTrue(largestGap.get() <= 21, "gap " + largestGap.get());
+  }
+}
@@ -0,0 +1,147 @@
+package com.norpactech.nc.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.repository.ParetoNativeRepository;
+
+public class EntityDiffTest {
+
+  @SuppressWarnings("unused")
+  private static class Customer {
+    private UUID id;
+    private Timestamp updatedAt;
+    private String updatedBy;
+    private String name;
+    private BigDecimal balance;
+    private Integer visits;
+    private Boolean isActive;
+    private Timestamp lastSeen;
+    private UUID idTenant;
+  }
+
+  private static Customer customer() {
+
+    var customer = new Customer();
+    customer.id = UUID.fromString("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90");
+    customer.updatedAt = Timestamp.valueOf("2025-03-01 10:00:00.123");
+    customer.updatedBy = "loader";
+    customer.name = "Acme";
+    customer.balance = new BigDecimal("12.50");
+    customer.visits = 3;
+    customer.isActive = true;
+    customer.lastSeen = Timestamp.valueOf("2025-02-28 08:30:15.400");
+    customer.idTenant = UUID.fromString("0b7d1a8e-2f44-4b61-8c3d-5e6f7a8b9c0d");
+    return customer;
+  }
+
+  private static Map<String, Object> unchanged() {
+
+    var params = new LinkedHashMap<String, Object>();
+    params.put("id", "6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90");
+    params.put("updatedBy", "someone else");
+    params.put("name", "Acme");
+    params.put("balance", 12.5);
+    params.put("visits", "3");
+    params.put("isActive", "true");
+    params.put("lastSeen", "2025-02-28T08:30:15");
+    params.put("idTenant", "0b7d1a8e-2f44-4b61-8c3d-5e6f7a8b9c0d");
+    return params;
+  }
+
+  @Test
+  @DisplayName("loosely typed params equal to the entity produce no diff")
+  void unchangedRecord() {
+    EntityDiff diff = EntityDiff.of(customer(), unchanged());
+    assertTrue(diff.isEmpty(), diff.toString());
+  }
+
+  @Test
+  @DisplayName("changed params become a partial update with the id and updatedAt, or JSON Patch")
+  void changedRecord() {
+    var params = unchanged();
+    params.put("balance", "13");
+    params.put("lastSeen", null);
+    params.put("visits", "three");
+    params.put("isActive", "false");
+
+    EntityDiff diff = EntityDiff.of(customer(), params);
+    assertEquals(List.of("balance", "visits", "isActive", "lastSeen"), new ArrayList<>(diff.getChanges().keySet()));
+
+    Map<String, Object> update = diff.toParams();
+    assertEquals(List.of("id", "updatedAt", "balance", "visits", "isActive", "lastSeen"), new ArrayList<>(update.keySet()));
+    assertEquals("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90", update.get("id"));
+    assertEquals("13", update.get("balance"));
+
+    List<Map<String, Object>> patch = diff.toJsonPatch();
+    assertEquals(Map.of("op", "replace", "path", "/balance", "value", "13"), patch.get(0));
+    assertEquals(Map.of("op", "replace", "path", "/isActive", "value", "false"), patch.get(2));
+    assertEquals(Map.of("op", "remove", "path", "/lastSeen"), patch.get(3));
+  }
+
+  @Test
+  @DisplayName("params the entity has no property for are not changes")
+  void unknownParams() {
+    var params = unchanged();
+    params.put("customerType", "retail");
+    params.put("nickname", null);
+    assertTrue(EntityDiff.of(customer(), params).isEmpty());
+  }
+
+  @Test
+  @DisplayName("entities are compared property by property")
+  void entities() {
+    var incoming = customer();
+    incoming.updatedAt = new Timestamp(0);
+    incoming.lastSeen = Timestamp.valueOf("2025-02-28 08:30:15.999");
+    assertTrue(EntityDiff.of(customer(), incoming).isEmpty());
+
+    incoming.name = "Acme Corp";
+    incoming.isActive = null;
+    EntityDiff diff = EntityDiff.of(customer(), incoming);
+    assertEquals(List.of("name", "isActive"), new ArrayList<>(diff.getChanges().keySet()));
+    assertEquals(true, diff.getChanges().get("isActive").getOldValue());
+  }
+
+  @Test
+  @DisplayName("putChanged skips unchanged records and puts the current entity with the changes applied")
+  void putChanged() throws Exception {
+    var puts = new ArrayList<Map<String, Object>>();
+    var repository = new ParetoNativeRepository<Customer>() {
+      @Override
+      protected String getRelativeURL() {
+        return "/customer";
+      }
+      @Override
+      public ApiResponse put(Map<String, Object> params, String idempotencyKey) {
+        puts.add(params);
+        return new ApiResponse();
+      }
+    };
+    assertNull(repository.putChanged(customer(), unchanged()));
+    var params = unchanged();
+    params.put("name", "Acme Corp");
+    assertNotNull(repository.putChanged(customer(), params));
+
+    assertEquals(1, puts.size());
+    Map<String, Object> body = puts.get(0);
+    assertEquals(List.of("id", "updatedAt", "updatedBy", "name", "balance", "visits", "isActive", "lastSeen", "idTenant"),
+        new ArrayList<>(body.keySet()));
+    assertEquals("Acme Corp", body.get("name"));
+    assertEquals("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90", body.get("id"));
+    assertEquals(new BigDecimal("12.50"), body.get("balance"));
+    assertEquals(3, body.get("visits"));
+    assertEquals("loader", body.get("updatedBy"));
+  }
+}
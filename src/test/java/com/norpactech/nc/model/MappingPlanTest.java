@@ -0,0 +1,99 @@
+package com.norpactech.nc.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MappingPlanTest {
+
+  @SuppressWarnings("unused")
+  private static class Row {
+    private static final String IGNORED = "static";
+    private UUID idTenant;
+    private int count;
+    private Integer total;
+    private Timestamp createdAt;
+    private Date effective;
+  }
+
+  @SuppressWarnings("unused")
+  private static class NoDefaultConstructor {
+    private final String name;
+
+    private NoDefaultConstructor(String name) {
+      this.name = name;
+    }
+  }
+
+  @Test
+  @DisplayName("Instance fields become properties; statics are skipped")
+  void properties() throws Exception {
+
+    MappingPlan plan = MappingPlan.of(Row.class);
+    assertSame(plan, MappingPlan.of(Row.class));
+    assertNull(plan.property("IGNORED"));
+    assertEquals(5, plan.properties().size());
+    assertEquals(UUID.class, plan.property("idTenant").getType());
+    assertTrue(plan.newInstance() instanceof Row);
+  }
+
+  @Test
+  @DisplayName("newInstance reports a class without a no-arg constructor")
+  void newInstance_noConstructor() {
+
+    MappingPlan plan = MappingPlan.of(NoDefaultConstructor.class);
+    var e = assertThrows(NoSuchMethodException.class, plan::newInstance);
+    assertEquals(NoDefaultConstructor.class.getName() + ".<init>()", e.getMessage());
+    assertNotNull(plan.property("name"));
+  }
+
+  @Test
+  @DisplayName("set skips null for primitives and explains a wrong value type")
+  void set() {
+
+    MappingPlan plan = MappingPlan.of(Row.class);
+    var row = new Row();
+    row.count = 7;
+    plan.property("count").set(row, null);
+    assertEquals(7, row.count);
+    plan.property("total").set(row, null);
+    assertNull(row.total);
+
+    var e = assertThrows(IllegalArgumentException.class, () -> plan.property("total").set(row, "12"));
+    assertEquals("Can not set java.lang.Integer field total to java.lang.String", e.getMessage());
+    assertTrue(e.getCause() instanceof ClassCastException);
+  }
+
+  @Test
+  @DisplayName("column resolves snake_case labels and caches labels with no property")
+  void column() {
+
+    MappingPlan plan = MappingPlan.of(Row.class);
+    assertSame(plan.property("idTenant"), plan.column("id_tenant"));
+    assertSame(plan.property("idTenant"), plan.column("id_tenant"));
+    assertNull(plan.column("no_such_column"));
+    // The second lookup is answered by the cached NO_PROPERTY marker
+    assertNull(plan.column("no_such_column"));
+    assertSame(plan.property("createdAt"), plan.column("created_at"));
+  }
+
+  @Test
+  @DisplayName("fromString keeps the legacy midnight value for Date and Timestamp")
+  void fromString_midnight() throws Exception {
+
+    MappingPlan plan = MappingPlan.of(Row.class);
+    Timestamp midnight = Timestamp.valueOf("2025-03-01 00:00:00");
+    assertEquals(midnight, plan.property("createdAt").fromString("2025-03-01T10:15:30"));
+    assertEquals(midnight, plan.property("createdAt").fromString("2025-03-01"));
+    Object date = plan.property("effective").fromString("2025-03-01 23:59:59");
+    assertEquals(Date.class, date.getClass());
+    assertEquals(midnight.getTime(), ((Date) date).getTime());
+    assertNull(plan.property("createdAt").fromString("not a date"));
+    assertEquals(42, plan.property("count").fromString("42"));
+  }
+}
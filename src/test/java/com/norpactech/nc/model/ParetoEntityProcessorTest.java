@@ -0,0 +1,141 @@
+package com.norpactech.nc.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.stream.JsonReader;
+
+public class ParetoEntityProcessorTest {
+
+  @TempDir
+  Path dir;
+
+  private static final String ENTITY = String.join("\n",
+      "package sample;",
+      "import com.google.gson.annotations.SerializedName;",
+      "import com.norpactech.nc.model.ParetoEntity;",
+      "@ParetoEntity",
+      "public class Account {",
+      "  java.util.UUID id;",
+      "  int visits;",
+      "  @SerializedName(\"display_name\")",
+      "  String displayName;",
+      "  private String code;",
+      "  private boolean active;",
+      "  public String getCode() { return code; }",
+      "  public void setCode(String code) { this.code = code; }",
+      "  public boolean isActive() { return active; }",
+      "  public void setActive(boolean active) { this.active = active; }",
+      "}");
+
+  /**
+   * Compiles the sources with the processor and returns the error diagnostics
+   */
+  private List<String> compile(String name, String source) throws IOException {
+
+    Path file = dir.resolve("src/sample/" + name + ".java");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, source);
+    Files.createDirectories(dir.resolve("out"));
+
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    var diagnostics = new DiagnosticCollector<JavaFileObject>();
+    try (var files = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+      var options = List.of(
+          "-classpath", System.getProperty("java.class.path"),
+          "-processor", ParetoEntityProcessor.class.getName(),
+          "-d", dir.resolve("out").toString(),
+          "-s", dir.resolve("out").toString());
+      compiler.getTask(null, files, diagnostics, options, null, files.getJavaFileObjects(file.toFile())).call();
+    }
+    var errors = new ArrayList<String>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.getMessage(Locale.ROOT));
+      }
+    }
+    return errors;
+  }
+
+  @Test
+  @DisplayName("Generates a mapper for direct fields, setters and @SerializedName")
+  @SuppressWarnings("unchecked")
+  void generate() throws Exception {
+
+    assertEquals(List.of(), compile("Account", ENTITY));
+    assertTrue(Files.exists(dir.resolve("out/sample/Account_ParetoMapper.java")));
+
+    try (var loader = new URLClassLoader(new java.net.URL[] {dir.resolve("out").toUri().toURL()}, getClass().getClassLoader())) {
+      Class<Object> type = (Class<Object>) loader.loadClass("sample.Account");
+      EntityMapper<Object> mapper = EntityMappers.find(type);
+      assertNotNull(mapper);
+
+      String json = "{\"id\":\"6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90\",\"visits\":3,\"display_name\":\"Acme\","
+          + "\"code\":\"A-1\",\"active\":true,\"unknown\":[1,{\"x\":2}]}";
+      Object account = mapper.fromJson(new JsonReader(new StringReader(json)));
+      Map<String, Object> params = mapper.toParams(account);
+      assertEquals("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90", params.get("id"));
+      assertEquals(3, params.get("visits"));
+      assertEquals("Acme", params.get("display_name"));
+      assertEquals("A-1", params.get("code"));
+      assertEquals(true, params.get("active"));
+      assertFalse(params.containsKey("displayName"));
+
+      // The field name is still accepted, as MappingPlan accepts it
+      Object fromMap = mapper.fromMap(Map.of("displayName", "Other", "visits", 4.0));
+      assertEquals("Other", mapper.toParams(fromMap).get("display_name"));
+      assertEquals(4, mapper.toParams(fromMap).get("visits"));
+      assertEquals(UUID.fromString("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90"), MappingPlan.of(type).property("id").get(account));
+    }
+  }
+
+  @Test
+  @DisplayName("Reports a private field without a setter instead of generating broken code")
+  void missingSetter() throws Exception {
+
+    String source = String.join("\n",
+        "package sample;",
+        "@com.norpactech.nc.model.ParetoEntity",
+        "public class Broken {",
+        "  private String code;",
+        "  public String getCode() { return code; }",
+        "}");
+    List<String> errors = compile("Broken", source);
+    assertEquals(List.of("@ParetoEntity private field 'code' needs a setter setCode(java.lang.String)"), errors);
+    assertFalse(Files.exists(dir.resolve("out/sample/Broken_ParetoMapper.java")));
+  }
+
+  @Test
+  @DisplayName("Reports a class without a no-arg constructor")
+  void missingConstructor() throws Exception {
+
+    String source = String.join("\n",
+        "package sample;",
+        "@com.norpactech.nc.model.ParetoEntity",
+        "public class NoDefault {",
+        "  String code;",
+        "  public NoDefault(String code) { this.code = code; }",
+        "}");
+    assertEquals(List.of("@ParetoEntity class needs a non-private no-arg constructor"), compile("NoDefault", source));
+    assertFalse(Files.exists(dir.resolve("out/sample/NoDefault_ParetoMapper.java")));
+  }
+}
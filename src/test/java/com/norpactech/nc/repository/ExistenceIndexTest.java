@@ -0,0 +1,98 @@
+package com.norpactech.nc.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.utils.Constant;
+
+public class ExistenceIndexTest {
+
+  @SuppressWarnings("unused")
+  private static class Product {
+    private String sku;
+    private BigDecimal size;
+  }
+
+  /**
+   * Serves 2,500 products in pages and counts findOne calls
+   */
+  private static class FakeRepository extends PagingRepository<Product> {
+
+    private int findOneCalls;
+
+    private FakeRepository() {
+
+      super(new ArrayList<>());
+      for (int i = 0; i < 2_500; i++) {
+        var product = new Product();
+        product.sku = "SKU-" + i;
+        product.size = new BigDecimal("1.50");
+        records.add(product);
+      }
+    }
+
+    @Override
+    public Product findOne(Class<Product> entityType, Map<String, Object> queryParams) {
+
+      findOneCalls++;
+      for (Product product : records) {
+        if (product.sku.equals(queryParams.get("sku"))) {
+          return product;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static Map<String, Object> params(String sku, Object size) {
+
+    var params = new HashMap<String, Object>();
+    params.put("sku", sku);
+    params.put("size", size);
+    return params;
+  }
+
+  @Test
+  @DisplayName("exists loads every page once and only looks up possible positives")
+  void exists() throws Exception {
+
+    var repository = new FakeRepository();
+    var index = ExistenceIndex.build(repository, Product.class, 10_000, 0.01, true, "sku", "size");
+
+    assertEquals(3, repository.queries.size());
+    assertEquals(2_000, repository.queries.get(2).get(Constant.OFFSET));
+    assertEquals("id", repository.queries.get(0).get(Constant.SORT_COLUMN));
+
+    assertTrue(index.exists(params("SKU-42", 1.5)));
+    assertTrue(index.exists(params("SKU-2499", "1.500")));
+    for (int i = 0; i < 1_000; i++) {
+      if (index.exists(params("NEW-" + i, 1.5))) {
+        fail("NEW-" + i + " does not exist");
+      }
+    }
+    int lookups = repository.findOneCalls;
+    assertEquals(index.getLookups(), lookups);
+    assertEquals(1_002 - lookups, index.getSkippedLookups());
+    assertEquals(lookups - 2, index.getFalsePositives());
+    assertTrue(lookups < 30, "lookups: " + lookups);
+
+    index.add(params("NEW-1", 1.5));
+    assertTrue(index.mightExist(params("NEW-1", "1.50")));
+  }
+
+  @Test
+  @DisplayName("exists rejects params without the natural key; the constructor rejects unknown key fields")
+  void missingKey() throws Exception {
+
+    var index = ExistenceIndex.build(new FakeRepository(), Product.class, 10_000, 0.01, false, "sku");
+    assertThrows(IllegalArgumentException.class, () -> index.exists(Map.of("size", 1)));
+    assertThrows(IllegalArgumentException.class, () -> new ExistenceIndex<>(new FakeRepository(), Product.class, index.getFilter(), "code"));
+  }
+}
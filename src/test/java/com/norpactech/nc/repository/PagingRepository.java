@@ -0,0 +1,35 @@
+package com.norpactech.nc.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.norpactech.nc.utils.Constant;
+
+/**
+ * Serves a list of records in the LIMIT/OFFSET pages findAll requests, and
+ * records each query
+ */
+class PagingRepository<T> extends ParetoNativeRepository<T> {
+
+  List<T> records;
+  final List<Map<String, Object>> queries = new ArrayList<>();
+
+  PagingRepository(List<T> records) {
+    this.records = records;
+  }
+
+  @Override
+  protected String getRelativeURL() {
+    return "/test";
+  }
+
+  @Override
+  public List<T> find(Class<T> entityType, Map<String, Object> queryParams) {
+
+    queries.add(queryParams);
+    int offset = (Integer) queryParams.get(Constant.OFFSET);
+    int limit = (Integer) queryParams.get(Constant.LIMIT);
+    return records.subList(Math.min(offset, records.size()), Math.min(offset + limit, records.size()));
+  }
+}
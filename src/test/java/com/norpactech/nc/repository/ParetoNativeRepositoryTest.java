@@ -0,0 +1,149 @@
+package com.norpactech.nc.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.api.utils.ApiGetRequest;
+import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.utils.Constant;
+
+public class ParetoNativeRepositoryTest {
+
+  private static final UUID ID = UUID.fromString("6f1c2b1e-9a52-4c8e-9b1a-3e2f5d7c8a90");
+
+  /**
+   * Answers requests from memory and records them
+   */
+  private static class FakeRepository extends ParetoNativeRepository<Object> {
+
+    private final boolean upsertEndpoint;
+    private final List<String> calls = new ArrayList<>();
+    private final Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+    private boolean postLosesRace;
+
+    private FakeRepository(boolean upsertEndpoint) {
+      this.upsertEndpoint = upsertEndpoint;
+    }
+
+    @Override
+    protected String getRelativeURL() {
+      return "/customer";
+    }
+
+    @Override
+    protected ApiResponse postUpsert(Object body, String naturalKey) {
+
+      calls.add("upsert " + naturalKey);
+      if (!upsertEndpoint) {
+        return null;
+      }
+      if (body instanceof List) {
+        return ApiResponse.deferred("{\"status\":\"OK\",\"data\":[{\"id\":\"" + ID + "\",\"created\":true},"
+            + "{\"id\":\"" + ID + "\",\"created\":false}],\"meta\":{\"apiCode\":\"OK\"}}");
+      }
+      String code = ((Map<?, ?>) body).get("code").equals("new") ? "CREATED" : "OK";
+      return ApiResponse.deferred("{\"status\":\"OK\",\"data\":{\"id\":\"" + ID + "\"},\"meta\":{\"apiCode\":\"" + code + "\"}}");
+    }
+
+    @Override
+    public ApiResponse get(ApiGetRequest request) {
+
+      calls.add("get " + request.getParams());
+      Map<String, Object> row = rows.get(request.getParams().get("code"));
+      return new ApiResponse(row);
+    }
+
+    @Override
+    public ApiResponse post(Map<String, Object> params, String idempotencyKey) throws Exception {
+
+      calls.add("post " + params.get("code"));
+      if (postLosesRace) {
+        rows.put((String) params.get("code"), Map.of("id", ID.toString(), "updated_at", "2025-03-01T10:00:00"));
+        throw new Exception("POST Request Failed: 409 Conflict");
+      }
+      return new ApiResponse(Map.of("id", ID.toString()));
+    }
+
+    @Override
+    public ApiResponse put(Map<String, Object> params, String idempotencyKey) {
+
+      calls.add("put " + params);
+      return new ApiResponse(Map.of("id", params.get("id")));
+    }
+  }
+
+  private static Map<String, Object> record(String code) {
+
+    var params = new LinkedHashMap<String, Object>();
+    params.put("code", code);
+    params.put("name", "Name " + code);
+    return params;
+  }
+
+  @Test
+  @DisplayName("upsert reports created or updated from the upsert endpoint in one call")
+  void upsert() throws Exception {
+    var repository = new FakeRepository(true);
+
+    UpsertResult created = repository.upsert(record("new"), "code");
+    UpsertResult updated = repository.upsert(record("old"), "code");
+    List<UpsertResult> all = repository.upsertAll(List.of(record("a"), record("b")), "code");
+
+    assertTrue(created.isCreated());
+    assertEquals(ID, created.getId());
+    assertFalse(updated.isCreated());
+    assertEquals(List.of(true, false), List.of(all.get(0).isCreated(), all.get(1).isCreated()));
+    assertEquals(List.of("upsert code", "upsert code", "upsert code"), repository.calls);
+  }
+
+  @Test
+  @DisplayName("without the upsert endpoint, upsert finds by natural key and then posts or puts")
+  void upsertFallback() throws Exception {
+    var repository = new FakeRepository(false);
+    repository.rows.put("old", Map.of("id", ID.toString(), "updated_at", "2025-03-01T10:00:00"));
+
+    assertTrue(repository.upsert(record("new"), "code").isCreated());
+    UpsertResult updated = repository.upsert(record("old"), "code");
+    assertFalse(updated.isCreated());
+    assertEquals(ID, updated.getId());
+
+    repository.postLosesRace = true;
+    assertFalse(repository.upsertAll(List.of(record("raced")), "code").get(0).isCreated());
+
+    assertEquals(List.of(
+        "upsert code", "get {code=new}", "post new",
+        "get {code=old}", "put {code=old, name=Name old, id=" + ID + ", updatedAt=2025-03-01T10:00:00.000Z}",
+        "get {code=raced}", "post raced", "get {code=raced}",
+        "put {code=raced, name=Name raced, id=" + ID + ", updatedAt=2025-03-01T10:00:00.000Z}"), repository.calls);
+    assertThrows(IllegalArgumentException.class, () -> repository.upsert(record("x"), "missing"));
+  }
+
+  @Test
+  @DisplayName("findAll pages by LIMIT/OFFSET with its own page size until a short page")
+  void findAll() throws Exception {
+
+    var records = new ArrayList<Integer>();
+    for (int i = 0; i < 10; i++) {
+      records.add(i);
+    }
+    var repository = new PagingRepository<>(records);
+    repository.setPageSize(4);
+    var pages = new ArrayList<List<Integer>>();
+    assertEquals(10, repository.findAll(Integer.class, "id", pages::add));
+    assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7), List.of(8, 9)), pages);
+    assertEquals(Map.of(Constant.LIMIT, 4, Constant.OFFSET, 8, Constant.SORT_COLUMN, "id"), repository.queries.get(2));
+
+    repository.setPageSize(5);
+    repository.queries.clear();
+    assertEquals(10, repository.findAll(Integer.class, "id", page -> {}));
+    assertEquals(3, repository.queries.size());
+  }
+}
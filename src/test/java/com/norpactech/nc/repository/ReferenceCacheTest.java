@@ -0,0 +1,80 @@
+package com.norpactech.nc.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.norpactech.nc.exception.RefTableNotFoundException;
+
+public class ReferenceCacheTest {
+
+  @SuppressWarnings("unused")
+  private static class Country {
+    private UUID id;
+    private String code;
+    private String name;
+  }
+
+  private static List<Country> countries(int count) {
+
+    var countries = new ArrayList<Country>();
+    for (int i = 0; i < count; i++) {
+      var country = new Country();
+      country.id = UUID.nameUUIDFromBytes(("country-" + i).getBytes());
+      country.code = "C" + i;
+      country.name = "Country " + i;
+      countries.add(country);
+    }
+    return countries;
+  }
+
+  @Test
+  @DisplayName("refresh preloads the table; get and getBy find records by id and by index")
+  void lookups() throws Exception {
+
+    var repository = new PagingRepository<>(countries(2_500));
+    var cache = new ReferenceCache<>(repository, Country.class, "code");
+    assertNull(cache.get(UUID.randomUUID()));
+
+    assertEquals(2_500, cache.refresh());
+    assertEquals(3, repository.queries.size());
+    assertEquals(2_500, cache.size());
+    for (Country country : repository.records) {
+      assertSame(country, cache.get(country.id));
+      assertSame(country, cache.get(country.id.getMostSignificantBits(), country.id.getLeastSignificantBits()));
+      assertSame(country, cache.getBy("code", country.code));
+    }
+    assertNull(cache.get(UUID.randomUUID()));
+    assertNull(cache.getBy("code", "XX"));
+    assertThrows(IllegalArgumentException.class, () -> cache.getBy("name", "Country 1"));
+
+    UUID missing = UUID.randomUUID();
+    var e = assertThrows(RefTableNotFoundException.class, () -> cache.require(missing));
+    assertTrue(e.getMessage().contains(missing.toString()));
+
+    // 8,192 slots of two longs and a reference, plus 2,500 index entries
+    assertEquals(3 * 16 + 8_192 * 20 + 16 + 2_500 * 40, cache.getFootprintBytes());
+    assertTrue(cache.getFootprintReport().startsWith("Country: 2500 records, 8192 slots"));
+  }
+
+  @Test
+  @DisplayName("refresh swaps in a new snapshot")
+  void refresh() throws Exception {
+
+    var repository = new PagingRepository<>(countries(10));
+    var cache = new ReferenceCache<>(repository, Country.class, "code");
+    cache.refresh();
+    Country old = repository.records.get(0);
+
+    repository.records = countries(20).subList(10, 20);
+    assertEquals(10, cache.refresh());
+    assertNull(cache.get(old.id));
+    assertNull(cache.getBy("code", "C0"));
+    assertEquals("Country 15", cache.getBy("code", "C15").name);
+  }
+}
@@ -0,0 +1,206 @@
+package com.norpactech.nc.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.norpactech.nc.api.utils.ApiResponse;
+import com.norpactech.nc.config.tenant.TenantContext;
+import com.norpactech.nc.enums.EnumSyncPolicy;
+import com.norpactech.nc.exception.HttpStatusException;
+
+public class RepositoryOutboxTest {
+
+  /**
+   * Records writes instead of calling the API. The first calls fail with an HTTP
+   * status, as ParetoNativeRepository does; a write named "reject" gets an ERROR
+   * response and one named "invalid" a 400.
+   */
+  private static final class RecordingRepository extends ParetoNativeRepository<Object> {
+
+    private final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failures;
+    private final int failureStatus;
+
+    private RecordingRepository(int failures) {
+      this(failures, 503);
+    }
+
+    /**
+     * @param failures the number of calls that fail with failureStatus
+     */
+    private RecordingRepository(int failures, int failureStatus) {
+
+      this.failures = new AtomicInteger(failures);
+      this.failureStatus = failureStatus;
+    }
+
+    @Override
+    protected String getRelativeURL() {
+      return "/test";
+    }
+
+    @Override
+    public ApiResponse post(Map<String, Object> params, String key) throws Exception {
+      return record("POST", params, key);
+    }
+
+    @Override
+    public ApiResponse put(Map<String, Object> params, String key) throws Exception {
+      return record("PUT", params, key);
+    }
+
+    @Override
+    public ApiResponse delete(Map<String, Object> params, String key) throws Exception {
+      return record("DELETE", params, key);
+    }
+
+    private ApiResponse record(String method, Map<String, Object> params, String key) throws Exception {
+
+      calls.incrementAndGet();
+      if (failures.getAndDecrement() > 0) {
+        throw new HttpStatusException(method, failureStatus, "Failure " + failureStatus);
+      }
+      if ("reject".equals(params.get("name"))) {
+        return new ApiResponse(new Exception("invalid name"));
+      }
+      if ("invalid".equals(params.get("name"))) {
+        throw new HttpStatusException(method, 400, "Bad Request");
+      }
+      writes.add(method + " " + params.get("id") + " " + TenantContext.getId() + " " + key.substring(key.indexOf(':') + 1));
+      return new ApiResponse();
+    }
+  }
+
+  @Test
+  @DisplayName("writes survive a reopen and drain in order per entity, with retries, across segments")
+  void drain(@TempDir Path directory) throws Exception {
+    try (var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.ALWAYS, 512)) {
+      TenantContext.setId("tenant-a");
+      for (int i = 0; i < 30; i++) {
+        outbox.post(i % 2 == 0 ? "customer" : "order", Map.of("id", i, "amount", new BigDecimal("12.50")));
+      }
+      TenantContext.clear();
+      outbox.delete("customer", Map.of("id", 0));
+      assertEquals(31, outbox.getPendingCount());
+    }
+    assertTrue(segments(directory) > 1);
+
+    var customers = new RecordingRepository(3);
+    var orders = new RecordingRepository(0);
+    try (var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.INTERVAL, 512)) {
+      assertEquals(31, outbox.getPendingCount());
+      outbox.register("customer", customers);
+      outbox.register("order", orders);
+      outbox.setBatchSize(8);
+      outbox.setRetryMillis(1, 5);
+      outbox.start();
+      outbox.put("order", Map.of("id", 31));
+      waitFor(() -> outbox.getPendingCount() == 0);
+    }
+
+    var expectedCustomers = new ArrayList<String>();
+    var expectedOrders = new ArrayList<String>();
+    for (int i = 0; i < 30; i++) {
+      (i % 2 == 0 ? expectedCustomers : expectedOrders).add("POST " + i + " tenant-a " + i);
+    }
+    expectedCustomers.add("DELETE 0 null 30");
+    expectedOrders.add("PUT 31 null 31");
+    assertEquals(expectedCustomers, customers.writes);
+    assertEquals(expectedOrders, orders.writes);
+    assertEquals(1, segments(directory));
+
+    try (var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.NONE, 512)) {
+      assertEquals(0, outbox.getPendingCount());
+      assertEquals(32, outbox.post("customer", Map.of("id", 32)));
+    }
+  }
+
+  @Test
+  @DisplayName("writes the API rejects, by ERROR response or a 4xx status, go to the dead letter handler and are not retried")
+  void deadLetter(@TempDir Path directory) throws Exception {
+    var rejected = new ArrayList<Object>();
+    var repository = new RecordingRepository(0);
+    try (var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.NONE)) {
+      outbox.register("customer", repository);
+      outbox.setDeadLetterHandler(entry -> rejected.add(entry.getParams().get("id")));
+      outbox.post("customer", Map.of("id", 1, "name", "reject"));
+      outbox.post("customer", Map.of("id", 2, "name", "ok"));
+      outbox.put("customer", Map.of("id", 3, "name", "invalid"));
+      outbox.post("customer", Map.of("id", 4, "name", "ok"));
+      outbox.start();
+      waitFor(() -> outbox.getPendingCount() == 0);
+      assertEquals(2, outbox.getDeadLetterCount());
+    }
+    assertEquals(List.of(new BigDecimal(1), new BigDecimal(3)), rejected);
+    assertEquals(List.of("POST 2 null 1", "POST 4 null 3"), repository.writes);
+    assertEquals(4, repository.calls.get());
+  }
+
+  @Test
+  @DisplayName("408 and 429 statuses are retried, not dead-lettered")
+  void retryableStatus(@TempDir Path directory) throws Exception {
+    var throttled = new RecordingRepository(2, 429);
+    var timedOut = new RecordingRepository(2, 408);
+    try (var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.NONE)) {
+      outbox.register("customer", throttled);
+      outbox.register("order", timedOut);
+      outbox.setRetryMillis(1, 5);
+      outbox.post("customer", Map.of("id", 1));
+      outbox.post("order", Map.of("id", 2));
+      outbox.start();
+      waitFor(() -> outbox.getPendingCount() == 0);
+      assertEquals(0, outbox.getDeadLetterCount());
+    }
+    assertEquals(List.of("POST 1 null 0"), throttled.writes);
+    assertEquals(List.of("POST 2 null 1"), timedOut.writes);
+  }
+
+  @Test
+  @DisplayName("close() does not wait out the retry backoff")
+  void close_duringBackoff(@TempDir Path directory) throws Exception {
+    var repository = new RecordingRepository(Integer.MAX_VALUE);
+    var outbox = new RepositoryOutbox(directory, EnumSyncPolicy.NONE);
+    outbox.register("customer", repository);
+    outbox.setRetryMillis(30_000, 30_000);
+    outbox.post("customer", Map.of("id", 1));
+    outbox.start();
+    waitFor(() -> repository.calls.get() > 0);
+    long start = System.currentTimeMillis();
+    outbox.close();
+    assertTrue(System.currentTimeMillis() - start < 5_000, "close waited for the backoff");
+    assertEquals(1, repository.calls.get());
+    assertEquals(1, outbox.getPendingCount());
+  }
+
+  private static long segments(Path directory) throws IOException {
+
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".seg")).count();
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "timed out");
+      Thread.sleep(5);
+    }
+  }
+}
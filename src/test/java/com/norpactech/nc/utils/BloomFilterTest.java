@@ -0,0 +1,49 @@
+package com.norpactech.nc.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+  @Test
+  @DisplayName("Hash matches the MurmurHash3 x64 128 reference")
+  void hash_reference() {
+
+    long[] hash = BloomFilter.hash("The quick brown fox jumps over the lazy dog");
+    assertEquals(0xe34bbc7bbc071b6cL, hash[0]);
+    assertEquals(0x7a433ca9c49a9347L, hash[1]);
+  }
+
+  @Test
+  @DisplayName("Never misses a key that was put and stays near the target false positive rate")
+  void mightContain() {
+
+    for (boolean offHeap : new boolean[] {false, true}) {
+      var filter = new BloomFilter(100_000, 0.01, offHeap);
+      assertEquals(offHeap, filter.isOffHeap());
+      for (int i = 0; i < 100_000; i++) {
+        filter.put("customer-" + i);
+      }
+      for (int i = 0; i < 100_000; i++) {
+        assertTrue(filter.mightContain("customer-" + i));
+      }
+      int falsePositives = 0;
+      for (int i = 100_000; i < 200_000; i++) {
+        if (filter.mightContain("customer-" + i)) {
+          falsePositives++;
+        }
+      }
+      assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+      assertEquals(7, filter.getHashCount());
+      assertTrue(filter.getCount() > 99_000);
+    }
+  }
+
+  @Test
+  @DisplayName("Rejects an impossible false positive rate")
+  void invalidRate() {
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0, false));
+  }
+}
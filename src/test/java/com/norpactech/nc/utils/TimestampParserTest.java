@@ -0,0 +1,226 @@
+package com.norpactech.nc.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.norpactech.nc.api.utils.TimestampTypeAdapter;
+import com.norpactech.nc.config.json.MultiDateFormatDeserializer;
+import com.norpactech.nc.model.MapperSupport;
+
+public class TimestampParserTest {
+
+  private static final String[] CORPUS = {
+      "2025-01-01T12:30:45.123Z",
+      "2025-01-01T12:30:45Z",
+      "2024-02-29T23:59:59.999999Z",
+      "2025-07-04T08:05:09.1Z",
+      "2025-03-09T10:30:00.000Z",
+      "2025-11-02T09:15:00.000Z",
+      "2025-01-01T12:30:45",
+      "2025-01-01 12:30:45",
+      "2025-01-01T12:30:45.123",
+      "2025-06-30 00:00:00.5",
+      "2025-01-01T12:30:45+02:00",
+      "2025-01-01T12:30:45.250-05:00",
+      "2025-01-01T12:30:45.123+0200",
+      "Jan 01, 2025, 12:30:45 PM",
+      "Dec 31, 2024, 1:05:00 AM",
+      "Jul 04, 2025, 12:00:00 AM",
+      "Mar 15, 2025, 11:59:59 PM",
+      "01/15/2025 08:00:00",
+  };
+
+  private static TimeZone zone;
+  private static Locale locale;
+
+  @BeforeAll
+  static void useZoneWithOffset() {
+    zone = TimeZone.getDefault();
+    locale = Locale.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+    Locale.setDefault(Locale.US);
+  }
+
+  @AfterAll
+  static void restoreZone() {
+    TimeZone.setDefault(zone);
+    Locale.setDefault(locale);
+  }
+
+  @Test
+  @DisplayName("parse reads ISO 8601 fields, fraction and offset")
+  void parse_iso() {
+    TimestampParser.Parsed parsed = TimestampParser.parse("2025-01-02T03:04:05.123456789+05:30");
+    assertEquals(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456789), parsed.toLocalDateTime());
+    assertEquals(LocalDateTime.of(2025, 1, 1, 21, 34, 5, 123456789), parsed.toUtcLocalDateTime());
+    assertTrue(parsed.hasOffset());
+    assertFalse(parsed.isZulu());
+    assertEquals('T', parsed.getSeparator());
+
+    assertEquals(120_000_000, TimestampParser.parse("2025-01-02 03:04:05.12").getNano());
+    assertEquals(Instant.parse("2025-01-02T05:04:00Z"), TimestampParser.toInstant("2025-01-02T03:04-0200", ZoneOffset.UTC));
+    assertFalse(TimestampParser.parse("2025-01-02").hasTime());
+  }
+
+  @Test
+  @DisplayName("parse reads US and text month formats")
+  void parse_other() {
+    assertEquals(LocalDateTime.of(2025, 1, 5, 0, 0), TimestampParser.toLocalDateTime("1/5/2025"));
+    assertEquals(LocalDateTime.of(2025, 12, 31, 23, 59, 59), TimestampParser.toLocalDateTime("12/31/2025 23:59:59"));
+    assertEquals(LocalDateTime.of(2025, 1, 1, 0, 30, 45), TimestampParser.toLocalDateTime("Jan 1, 2025, 12:30:45 AM"));
+    assertEquals(LocalDateTime.of(2025, 9, 1, 13, 0, 0), TimestampParser.toLocalDateTime("September 01, 2025, 1:00:00 PM"));
+  }
+
+  @Test
+  @DisplayName("parse rejects malformed values without throwing")
+  void parse_invalid() {
+    assertNull(TimestampParser.parse(null));
+    assertNull(TimestampParser.parse(""));
+    assertNull(TimestampParser.parse("not a date"));
+    assertNull(TimestampParser.parse("2025-02-29"));
+    assertNull(TimestampParser.parse("2025-01-01T24:00:00"));
+    assertNull(TimestampParser.parse("2025-01-01T12:30:45.Z"));
+    assertNull(TimestampParser.parse("2025-01-01T12:30:45+25:00"));
+    assertNull(TimestampParser.parse("2025-01-01T12:30:45Zjunk"));
+    assertNull(TimestampParser.parse("13/01/2025"));
+    assertNull(TimestampParser.parse("Foo 01, 2025, 1:00:00 PM"));
+    assertNull(TimestampParser.parse("Jan 01, 2025, 13:00:00 PM"));
+  }
+
+  @Test
+  @DisplayName("TimestampTypeAdapter matches the legacy parser on the corpus")
+  void typeAdapter_matchesLegacy() throws Exception {
+    var adapter = new TimestampTypeAdapter();
+    for (String value : CORPUS) {
+      Timestamp expected = legacyTypeAdapter(value);
+      if (expected != null) {
+        JsonReader reader = new JsonReader(new StringReader("\"" + value + "\""));
+        assertEquals(expected, adapter.read(reader), value);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("MultiDateFormatDeserializer matches the legacy parser on the corpus")
+  void deserializer_matchesLegacy() throws Exception {
+    var deserializer = new MultiDateFormatDeserializer();
+    var factory = new JsonFactory();
+    for (String value : CORPUS) {
+      Timestamp expected = legacyDeserializer(value);
+      if (expected != null) {
+        JsonParser parser = factory.createParser("\"" + value + "\"");
+        parser.nextToken();
+        assertEquals(expected, deserializer.deserialize(parser, null), value);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("MapperSupport conversions match the legacy parsers on the corpus")
+  void mapperSupport_matchesLegacy() throws Exception {
+    for (String value : CORPUS) {
+      Timestamp expected = legacyToTimestamp(value);
+      if (expected != null) {
+        assertEquals(expected, MapperSupport.toTimestamp(value), value);
+      }
+      LocalDateTime expectedDateTime = legacyToLocalDateTime(value);
+      if (expectedDateTime != null) {
+        assertEquals(expectedDateTime, MapperSupport.toLocalDateTime(value), value);
+      }
+    }
+  }
+
+  private static Timestamp legacyTypeAdapter(String dateString) {
+    if (dateString.endsWith("Z")) {
+      try {
+        Timestamp timestamp = Timestamp.from(Instant.parse(dateString).truncatedTo(ChronoUnit.SECONDS));
+        timestamp = new Timestamp(timestamp.getTime() - TimeZone.getDefault().getOffset(timestamp.getTime()));
+        timestamp.setNanos(0);
+        return timestamp;
+      }
+      catch (Exception e) {
+        // Fall through to other formats
+      }
+    }
+    for (String format : new String[] {"MMM dd, yyyy, h:mm:ss a", "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd HH:mm:ss"}) {
+      try {
+        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Timestamp timestamp = new Timestamp(sdf.parse(dateString).getTime());
+        timestamp.setNanos(0);
+        return timestamp;
+      }
+      catch (ParseException e) {
+        // Try next format
+      }
+    }
+    return null;
+  }
+
+  private static Timestamp legacyDeserializer(String dateStr) {
+    try {
+      return Timestamp.from(Instant.parse(dateStr));
+    }
+    catch (Exception e) {
+      // Try the SimpleDateFormat patterns
+    }
+    String[] formats = {
+        "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", "yyyy-MM-dd'T'HH:mm:ss'Z'", "MMM dd, yyyy, h:mm:ss a",
+        "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yyyy-MM-dd HH:mm:ss", "MM/dd/yyyy HH:mm:ss"
+    };
+    for (String format : formats) {
+      try {
+        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        sdf.setLenient(false);
+        return new Timestamp(sdf.parse(dateStr).getTime());
+      }
+      catch (ParseException e) {
+        // Try the next format
+      }
+    }
+    return null;
+  }
+
+  private static Timestamp legacyToTimestamp(String dateString) {
+    String format = dateString.contains("AM") || dateString.contains("PM") ? "MMM dd, yyyy, h:mm:ss a"
+        : dateString.contains("T") ? "yyyy-MM-dd'T'HH:mm:ss" : "yyyy-MM-dd HH:mm:ss";
+    try {
+      return new Timestamp(new SimpleDateFormat(format).parse(dateString).getTime());
+    }
+    catch (ParseException e) {
+      return null;
+    }
+  }
+
+  private static LocalDateTime legacyToLocalDateTime(String dateString) {
+    try {
+      return LocalDateTime.parse(dateString, Constant.TIMESTAMP_FORMATTER);
+    }
+    catch (Exception ex1) {
+      try {
+        return LocalDateTime.ofInstant(Instant.parse(dateString), ZoneOffset.UTC);
+      }
+      catch (Exception ex2) {
+        return null;
+      }
+    }
+  }
+}